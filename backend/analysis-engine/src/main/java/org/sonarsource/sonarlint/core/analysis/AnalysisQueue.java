@@ -23,11 +23,13 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.sonarsource.sonarlint.core.analysis.command.AnalyzeCommand;
@@ -46,6 +48,10 @@ public class AnalysisQueue {
   private final Duration analysisExpirationDelay = getAnalysisExpirationDelay();
 
   private final PriorityQueue<QueuedCommand> queue = new PriorityQueue<>(new CommandComparator());
+  // bookkeeping of the commands handed out to workers and not finished yet
+  private final Set<String> moduleKeysBeingAnalyzed = new HashSet<>();
+  private int executingCommandsCount;
+  private boolean barrierExecuting;
 
   public synchronized void post(Command command) {
     queue.add(new QueuedCommand(command));
@@ -63,19 +69,49 @@ public class AnalysisQueue {
     return pendingTasks.stream().map(QueuedCommand::getCommand).toList();
   }
 
+  /**
+   * Blocks until a command can be executed. Every command returned by this method must be followed by a call to
+   * {@link #commandFinished(Command)} once executed, so that the following commands of the same module, or the pending barriers, can be released.
+   * <ul>
+   *   <li>analyses of a given module are never executed concurrently, and are picked in order</li>
+   *   <li>other commands (module registration, unregistration, file events) act as barriers: they are executed alone, once all
+   *   running commands finished, and no new command starts before they complete</li>
+   * </ul>
+   */
   public synchronized Command takeNextCommand() throws InterruptedException {
     while (true) {
-      var firstReadyCommand = pollNextReadyCommand();
+      var firstReadyCommand = barrierExecuting ? Optional.<QueuedCommand>empty() : pollNextReadyCommand();
       if (firstReadyCommand.isPresent()) {
         var queuedCommand = firstReadyCommand.get();
         LOG.debug("Picked command from the queue: {}, {} remaining", queuedCommand.command, queue.size());
-        return tidyUp(queuedCommand);
+        var nextCommand = tidyUp(queuedCommand);
+        markExecuting(nextCommand);
+        return nextCommand;
       }
-      // wait for a new command to come in
+      // wait for a new command to come in, or for a running command to finish
       wait();
     }
   }
 
+  public synchronized void commandFinished(Command command) {
+    executingCommandsCount--;
+    if (command instanceof AnalyzeCommand analyzeCommand) {
+      moduleKeysBeingAnalyzed.remove(analyzeCommand.getModuleKey());
+    } else {
+      barrierExecuting = false;
+    }
+    notifyAll();
+  }
+
+  private void markExecuting(Command command) {
+    executingCommandsCount++;
+    if (command instanceof AnalyzeCommand analyzeCommand) {
+      moduleKeysBeingAnalyzed.add(analyzeCommand.getModuleKey());
+    } else {
+      barrierExecuting = true;
+    }
+  }
+
   public synchronized void clearAllButAnalyses() {
     removeAll(queuedCommand -> !(queuedCommand.command instanceof AnalyzeCommand));
   }
@@ -88,13 +124,23 @@ public class AnalysisQueue {
       if (candidateCommand.command.shouldCancelQueue()) {
         candidateCommand.command.cancel();
         LOG.debug("Not picking next command {}, is canceled", candidateCommand.command);
-      } else {
-        if (candidateCommand.command.isReady()) {
-          queue.addAll(commandsToKeep);
-          return Optional.of(candidateCommand);
+      } else if (!(candidateCommand.command instanceof AnalyzeCommand)) {
+        if (executingCommandsCount > 0) {
+          // barriers have precedence over analyses: wait for running commands to finish without starting new ones
+          commandsToKeep.add(candidateCommand);
+          break;
         }
+        queue.addAll(commandsToKeep);
+        return Optional.of(candidateCommand);
+      } else if (!candidateCommand.command.isReady()) {
         LOG.debug("Not picking next command {}, is not ready", candidateCommand.command);
         commandsToKeep.add(candidateCommand);
+      } else if (moduleKeysBeingAnalyzed.contains(((AnalyzeCommand) candidateCommand.command).getModuleKey())) {
+        // keep per-module ordering, the analysis will be picked once the running one finishes
+        commandsToKeep.add(candidateCommand);
+      } else {
+        queue.addAll(commandsToKeep);
+        return Optional.of(candidateCommand);
       }
     }
     queue.addAll(commandsToKeep);
@@ -19,7 +19,11 @@
  */
 package org.sonarsource.sonarlint.core.analysis;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 import org.sonarsource.sonarlint.core.analysis.api.AnalysisSchedulerConfiguration;
 import org.sonarsource.sonarlint.core.analysis.command.Command;
@@ -30,21 +34,26 @@ import org.sonarsource.sonarlint.core.plugin.commons.LoadedPlugins;
 
 public class AnalysisScheduler {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final String THREAD_NAME = "sonarlint-analysis-scheduler";
   private static final Runnable CANCELING_TERMINATION = () -> {
   };
 
   private final AtomicReference<GlobalAnalysisContainer> globalAnalysisContainer = new AtomicReference<>();
   private final AnalysisQueue analysisQueue = new AnalysisQueue();
-  private final Thread analysisThread = new Thread(this::executeQueuedCommands, "sonarlint-analysis-scheduler");
+  private final List<Thread> analysisThreads;
   private final LogOutput logOutput;
   private final AtomicReference<Runnable> termination = new AtomicReference<>();
-  private final AtomicReference<Command> executingCommand = new AtomicReference<>();
+  private final Set<Command> executingCommands = ConcurrentHashMap.newKeySet();
 
   public AnalysisScheduler(AnalysisSchedulerConfiguration analysisGlobalConfig, LoadedPlugins loadedPlugins, @Nullable LogOutput logOutput) {
     this.logOutput = logOutput;
-    // if the container cannot be started, the thread won't be started
+    var workersCount = analysisGlobalConfig.getAnalysisWorkersCount();
+    this.analysisThreads = IntStream.range(0, workersCount)
+      .mapToObj(i -> new Thread(this::executeQueuedCommands, workersCount == 1 ? THREAD_NAME : (THREAD_NAME + "-" + (i + 1))))
+      .toList();
+    // if the container cannot be started, the threads won't be started
     startContainer(analysisGlobalConfig, loadedPlugins);
-    analysisThread.start();
+    analysisThreads.forEach(Thread::start);
   }
 
   public void reset(AnalysisSchedulerConfiguration analysisGlobalConfig, LoadedPlugins loadedPlugins) {
@@ -66,60 +75,69 @@ public class AnalysisScheduler {
   private void executeQueuedCommands() {
     while (termination.get() == null) {
       SonarLintLogger.get().setTarget(logOutput);
+      Command command = null;
       try {
-        var command = analysisQueue.takeNextCommand();
-        executingCommand.set(command);
+        command = analysisQueue.takeNextCommand();
+        executingCommands.add(command);
         if (termination.get() == CANCELING_TERMINATION) {
           break;
         }
-        executingCommand.get().execute(globalAnalysisContainer.get().getModuleRegistry());
-        executingCommand.set(null);
+        command.execute(globalAnalysisContainer.get().getModuleRegistry());
       } catch (InterruptedException e) {
         if (termination.get() != CANCELING_TERMINATION) {
           LOG.error("Analysis engine interrupted", e);
         }
       } catch (Exception e) {
         LOG.debug("Analysis command failed", e);
+      } finally {
+        if (command != null) {
+          executingCommands.remove(command);
+          analysisQueue.commandFinished(command);
+        }
       }
     }
     termination.get().run();
   }
 
   public void post(Command command) {
-    LOG.debug("Post: " + Thread.currentThread().getName() + " " + Thread.currentThread().getId());
-    LOG.debug("Posting command from Scheduler: " + command);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Post: {} {}", Thread.currentThread().getName(), Thread.currentThread().getId());
+      LOG.debug("Posting command from Scheduler: {}", command);
+    }
     if (termination.get() != null) {
       LOG.error("Analysis engine stopping, ignoring command");
       command.cancel();
       return;
     }
-    if (!analysisThread.isAlive()) {
+    if (!isAlive()) {
       LOG.error("Analysis engine not started, ignoring command");
       command.cancel();
       return;
     }
-    var currentCommand = executingCommand.get();
-    if (currentCommand != null && command.shouldCancelPost(currentCommand)) {
-      LOG.debug("Cancelling queuing of command");
-      currentCommand.cancel();
-    }
-    LOG.debug("Posting command from Scheduler to queue: " + command);
+    executingCommands.forEach(currentCommand -> {
+      if (command.shouldCancelPost(currentCommand)) {
+        LOG.debug("Cancelling queuing of command");
+        currentCommand.cancel();
+      }
+    });
+    LOG.debug("Posting command from Scheduler to queue: {}", command);
     analysisQueue.post(command);
   }
 
+  private boolean isAlive() {
+    return analysisThreads.stream().anyMatch(Thread::isAlive);
+  }
+
   public void stop() {
-    if (!analysisThread.isAlive()) {
+    if (!isAlive()) {
       return;
     }
     if (!termination.compareAndSet(null, CANCELING_TERMINATION)) {
       // already terminating
       return;
     }
-    var command = executingCommand.getAndSet(null);
-    if (command != null) {
-      command.cancel();
-    }
-    analysisThread.interrupt();
+    executingCommands.forEach(Command::cancel);
+    analysisThreads.forEach(Thread::interrupt);
     analysisQueue.removeAll().forEach(Command::cancel);
     globalAnalysisContainer.get().stopComponents();
   }
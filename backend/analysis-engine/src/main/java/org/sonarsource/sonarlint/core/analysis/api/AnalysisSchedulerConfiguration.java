@@ -39,6 +39,7 @@ public class AnalysisSchedulerConfiguration {
   private final Path nodeJsPath;
   private final long clientPid;
   private final Supplier<List<ClientModuleInfo>> modulesProvider;
+  private final int analysisWorkersCount;
 
   private AnalysisSchedulerConfiguration(Builder builder) {
     this.workDir = builder.workDir;
@@ -46,6 +47,7 @@ public class AnalysisSchedulerConfiguration {
     this.nodeJsPath = builder.nodeJsPath;
     this.clientPid = builder.clientPid;
     this.modulesProvider = builder.modulesProvider;
+    this.analysisWorkersCount = builder.analysisWorkersCount;
   }
 
   public static Builder builder() {
@@ -64,6 +66,10 @@ public class AnalysisSchedulerConfiguration {
     return modulesProvider;
   }
 
+  public int getAnalysisWorkersCount() {
+    return analysisWorkersCount;
+  }
+
   public Map<String, String> getEffectiveSettings() {
     Map<String, String> props = new HashMap<>(extraProperties);
     if (nodeJsPath != null) {
@@ -78,6 +84,7 @@ public class AnalysisSchedulerConfiguration {
     private Path nodeJsPath;
     private long clientPid;
     private Supplier<List<ClientModuleInfo>> modulesProvider = List::of;
+    private int analysisWorkersCount = 1;
 
     private Builder() {
 
@@ -117,6 +124,18 @@ public class AnalysisSchedulerConfiguration {
       return this;
     }
 
+    /**
+     * Number of threads executing commands. Analyses of different modules can run concurrently, analyses of the same module are
+     * always executed sequentially. Defaults to 1.
+     */
+    public Builder setAnalysisWorkersCount(int analysisWorkersCount) {
+      if (analysisWorkersCount < 1) {
+        throw new IllegalArgumentException("The number of analysis workers should be at least 1, got " + analysisWorkersCount);
+      }
+      this.analysisWorkersCount = analysisWorkersCount;
+      return this;
+    }
+
     public AnalysisSchedulerConfiguration build() {
       return new AnalysisSchedulerConfiguration(this);
     }
@@ -89,4 +89,14 @@ public interface ClientInputFile {
   default boolean isDirty() {
     return false;
   }
+
+  /**
+   * Identifies the current version of the content without reading it, e.g. from the size and last modification time of the file on disk. It must
+   * change whenever the content changes. Metadata computed from the content are reused across analyses as long as the version is the same.
+   * If null, the content is read again on each analysis.
+   */
+  @CheckForNull
+  default String contentVersion() {
+    return null;
+  }
 }
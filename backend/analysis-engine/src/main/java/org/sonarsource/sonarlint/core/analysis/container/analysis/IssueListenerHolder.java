@@ -24,7 +24,8 @@ import org.sonarsource.sonarlint.core.analysis.api.Issue;
 
 /**
  * We need a dedicated class for dependency injection
- *
+ * <p>
+ * Issues are handed over one at a time, even when sensors are executed in parallel, so that listeners do not have to be thread-safe.
  */
 public class IssueListenerHolder {
   private final Consumer<Issue> wrapped;
@@ -33,7 +34,7 @@ public class IssueListenerHolder {
     this.wrapped = issueListener;
   }
 
-  public void handle(Issue issue) {
+  public synchronized void handle(Issue issue) {
     wrapped.accept(issue);
   }
 }
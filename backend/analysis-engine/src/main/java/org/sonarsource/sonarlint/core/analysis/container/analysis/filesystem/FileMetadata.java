@@ -19,15 +19,17 @@
  */
 package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
@@ -43,6 +45,9 @@ public class FileMetadata {
 
   private static final char LINE_FEED = '\n';
   private static final char CARRIAGE_RETURN = '\r';
+  private static final int BUFFER_SIZE = 8192;
+  private static final int INITIAL_LINE_OFFSETS_CAPACITY = 64;
+  private static final Set<Charset> ASCII_COMPATIBLE_CHARSETS = Set.of(StandardCharsets.UTF_8, StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1);
 
   public abstract static class CharHandler {
 
@@ -59,138 +64,169 @@ public class FileMetadata {
     }
   }
 
-  private static class LineCounter extends CharHandler {
-    private int lines = 1;
-    boolean alreadyLoggedInvalidCharacter = false;
+  /**
+   * Counts lines, records line offsets and forwards characters to an optional extra handler, in a single pass.
+   */
+  private static final class MetadataScanner {
     private final URI fileUri;
     private final Charset encoding;
+    @Nullable
+    private final CharHandler otherHandler;
+    private boolean alreadyLoggedInvalidCharacter = false;
+    private boolean afterCR = false;
+    private int lines = 1;
+    private int currentOriginalOffset = 0;
+    private int[] originalLineOffsets = new int[INITIAL_LINE_OFFSETS_CAPACITY];
+    private int originalLineOffsetsCount = 1;
 
-    LineCounter(URI fileUri, Charset encoding) {
+    private MetadataScanner(URI fileUri, Charset encoding, @Nullable CharHandler otherHandler) {
       this.fileUri = fileUri;
       this.encoding = encoding;
+      this.otherHandler = otherHandler;
     }
 
-    @Override
-    protected void handleAll(char c) {
-      if (!alreadyLoggedInvalidCharacter && c == '\ufffd') {
-        LOG.warn("Invalid character encountered in file '{}' at line {} for encoding {}. Please fix file content or configure the encoding.",
-          fileUri,
-          lines, encoding);
-        alreadyLoggedInvalidCharacter = true;
+    private void scan(byte[] asciiBytes, int offset, int length) {
+      for (var i = offset; i < offset + length; i++) {
+        accept((char) asciiBytes[i]);
       }
     }
 
-    @Override
-    protected void newLine() {
-      lines++;
-    }
-
-    public int lines() {
-      return lines;
+    private void scan(CharBuffer chars) {
+      var array = chars.array();
+      var start = chars.arrayOffset() + chars.position();
+      var end = chars.arrayOffset() + chars.limit();
+      for (var i = start; i < end; i++) {
+        accept(array[i]);
+      }
     }
 
-  }
-
-  private static class LineOffsetCounter extends CharHandler {
-    private int currentOriginalOffset = 0;
-    private final List<Integer> originalLineOffsets = new ArrayList<>();
-    private int lastValidOffset = 0;
-
-    public LineOffsetCounter() {
-      originalLineOffsets.add(0);
+    private void accept(char c) {
+      if (afterCR) {
+        if (c == CARRIAGE_RETURN) {
+          newLine();
+          handleAll(c);
+        } else if (c == LINE_FEED) {
+          handleAll(c);
+          newLine();
+        } else {
+          newLine();
+          handleIgnoreEoL(c);
+          handleAll(c);
+        }
+        afterCR = c == CARRIAGE_RETURN;
+      } else if (c == LINE_FEED) {
+        handleAll(c);
+        newLine();
+      } else if (c == CARRIAGE_RETURN) {
+        afterCR = true;
+        handleAll(c);
+      } else {
+        handleIgnoreEoL(c);
+        handleAll(c);
+      }
     }
 
-    @Override
-    protected void handleAll(char c) {
+    private void handleAll(char c) {
+      if (!alreadyLoggedInvalidCharacter && c == '\ufffd') {
+        LOG.warn("Invalid character encountered in file '{}' at line {} for encoding {}. Please fix file content or configure the encoding.",
+          fileUri,
+          lines, encoding);
+        alreadyLoggedInvalidCharacter = true;
+      }
       currentOriginalOffset++;
+      if (otherHandler != null) {
+        otherHandler.handleAll(c);
+      }
     }
 
-    @Override
-    protected void newLine() {
-      originalLineOffsets.add(currentOriginalOffset);
-    }
-
-    @Override
-    protected void eof() {
-      lastValidOffset = currentOriginalOffset;
+    private void handleIgnoreEoL(char c) {
+      if (otherHandler != null) {
+        otherHandler.handleIgnoreEoL(c);
+      }
     }
 
-    public List<Integer> getOriginalLineOffsets() {
-      return originalLineOffsets;
+    private void newLine() {
+      lines++;
+      if (originalLineOffsetsCount == originalLineOffsets.length) {
+        originalLineOffsets = Arrays.copyOf(originalLineOffsets, originalLineOffsets.length * 2);
+      }
+      originalLineOffsets[originalLineOffsetsCount++] = currentOriginalOffset;
+      if (otherHandler != null) {
+        otherHandler.newLine();
+      }
     }
 
-    public int getLastValidOffset() {
-      return lastValidOffset;
+    private Metadata eof() {
+      if (afterCR) {
+        newLine();
+      }
+      if (otherHandler != null) {
+        otherHandler.eof();
+      }
+      return new Metadata(lines, Arrays.copyOf(originalLineOffsets, originalLineOffsetsCount), currentOriginalOffset);
     }
-
   }
 
   /**
    * Compute hash of an inputStream ignoring line ends differences.
-   * Maximum performance is needed.
+   * Maximum performance is needed: the stream is read by chunks, and chunks made only of ASCII characters are not decoded when the encoding
+   * is a superset of ASCII.
    */
   public Metadata readMetadata(InputStream stream, Charset encoding, URI fileUri, @Nullable CharHandler otherHandler) {
-    var lineCounter = new LineCounter(fileUri, encoding);
-    var lineOffsetCounter = new LineOffsetCounter();
-    try (Reader reader = new BufferedReader(new InputStreamReader(stream, encoding))) {
-      CharHandler[] handlers;
-      if (otherHandler != null) {
-        handlers = new CharHandler[] {lineCounter, lineOffsetCounter, otherHandler};
-      } else {
-        handlers = new CharHandler[] {lineCounter, lineOffsetCounter};
-      }
-      read(reader, handlers);
+    var scanner = new MetadataScanner(fileUri, encoding, otherHandler);
+    try (stream) {
+      read(stream, encoding, scanner);
     } catch (IOException e) {
       throw new IllegalStateException(String.format("Fail to read file '%s' with encoding '%s'", fileUri, encoding), e);
     }
-    return new Metadata(lineCounter.lines(), lineOffsetCounter.getOriginalLineOffsets().stream().mapToInt(i -> i).toArray(), lineOffsetCounter.getLastValidOffset());
+    return scanner.eof();
   }
 
-  private static void read(Reader reader, CharHandler... handlers) throws IOException {
-    char c;
-    var i = reader.read();
-    var afterCR = false;
-    while (i != -1) {
-      c = (char) i;
-      if (afterCR) {
-        for (CharHandler handler : handlers) {
-          if (c == CARRIAGE_RETURN) {
-            handler.newLine();
-            handler.handleAll(c);
-          } else if (c == LINE_FEED) {
-            handler.handleAll(c);
-            handler.newLine();
-          } else {
-            handler.newLine();
-            handler.handleIgnoreEoL(c);
-            handler.handleAll(c);
-          }
-        }
-        afterCR = c == CARRIAGE_RETURN;
-      } else if (c == LINE_FEED) {
-        for (CharHandler handler : handlers) {
-          handler.handleAll(c);
-          handler.newLine();
-        }
-      } else if (c == CARRIAGE_RETURN) {
-        afterCR = true;
-        for (CharHandler handler : handlers) {
-          handler.handleAll(c);
-        }
+  private static void read(InputStream stream, Charset encoding, MetadataScanner scanner) throws IOException {
+    // same replacement policy as InputStreamReader
+    var decoder = encoding.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    var asciiCompatible = ASCII_COMPATIBLE_CHARSETS.contains(encoding);
+    var bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    var chars = CharBuffer.allocate(BUFFER_SIZE);
+    var endOfInput = false;
+    while (!endOfInput) {
+      var read = stream.read(bytes.array(), bytes.position(), bytes.remaining());
+      if (read == -1) {
+        endOfInput = true;
       } else {
-        for (CharHandler handler : handlers) {
-          handler.handleIgnoreEoL(c);
-          handler.handleAll(c);
-        }
+        bytes.position(bytes.position() + read);
       }
-      i = reader.read();
-    }
-    for (CharHandler handler : handlers) {
-      if (afterCR) {
-        handler.newLine();
+      bytes.flip();
+      if (asciiCompatible && !endOfInput && isAscii(bytes.array(), bytes.limit())) {
+        // no pending partial character can remain in the buffer, as it would not be ASCII
+        // the decoder is bypassed, it must still see the end of input to be flushed
+        scanner.scan(bytes.array(), 0, bytes.limit());
+        bytes.clear();
+        continue;
+      }
+      CoderResult result;
+      do {
+        result = decoder.decode(bytes, chars, endOfInput);
+        chars.flip();
+        scanner.scan(chars);
+        chars.clear();
+      } while (result.isOverflow());
+      bytes.compact();
+    }
+    decoder.flush(chars);
+    chars.flip();
+    scanner.scan(chars);
+  }
+
+  private static boolean isAscii(byte[] bytes, int length) {
+    for (var i = 0; i < length; i++) {
+      if (bytes[i] < 0) {
+        return false;
       }
-      handler.eof();
     }
+    return true;
   }
 
   public static class Metadata {
@@ -0,0 +1,75 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata.Metadata;
+
+/**
+ * Keeps the metadata of the most recently analyzed files, so that re-analyzing an unchanged file does not require to read it again.
+ * Files are identified by their URI and the content version provided by the client. Lives in the module container, so that it is shared across
+ * analyses of the same module.
+ */
+public class FileMetadataCache {
+  static final int MAX_ENTRIES = 1_000;
+
+  private final Map<Key, Metadata> metadataByFileVersion = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Metadata> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  public Metadata getOrCompute(URI fileUri, String contentVersion, Charset charset, Supplier<Metadata> metadataComputer) {
+    var key = new Key(fileUri, contentVersion, charset);
+    synchronized (metadataByFileVersion) {
+      var cachedMetadata = metadataByFileVersion.get(key);
+      if (cachedMetadata != null) {
+        hitCount.incrementAndGet();
+        return cachedMetadata;
+      }
+    }
+    missCount.incrementAndGet();
+    // computed outside the lock, the same file might be computed twice by concurrent callers, which is harmless
+    var metadata = metadataComputer.get();
+    synchronized (metadataByFileVersion) {
+      metadataByFileVersion.put(key, metadata);
+    }
+    return metadata;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private record Key(URI fileUri, String contentVersion, Charset charset) {
+  }
+}
@@ -22,8 +22,11 @@ package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile.Type;
 import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata.CharHandler;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata.Metadata;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.scanner.IssueExclusionsLoader;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
@@ -32,24 +35,28 @@ public class InputFileBuilder {
   private final LanguageDetection langDetection;
   private final FileMetadata fileMetadata;
   private final IssueExclusionsLoader exclusionsScanner;
+  private final FileMetadataCache fileMetadataCache;
 
-  public InputFileBuilder(LanguageDetection langDetection, FileMetadata fileMetadata, IssueExclusionsLoader exclusionsScanner) {
+  public InputFileBuilder(LanguageDetection langDetection, FileMetadata fileMetadata, IssueExclusionsLoader exclusionsScanner, FileMetadataCache fileMetadataCache) {
     this.langDetection = langDetection;
     this.fileMetadata = fileMetadata;
     this.exclusionsScanner = exclusionsScanner;
+    this.fileMetadataCache = fileMetadataCache;
   }
 
   SonarLintInputFile create(ClientInputFile inputFile) {
     var defaultInputFile = new SonarLintInputFile(inputFile, f -> {
-      LOG.debug("Initializing metadata of file {}", f.uri());
-      var charset = f.charset();
-      InputStream stream;
-      try {
-        stream = f.inputStream();
-      } catch (IOException e) {
-        throw new IllegalStateException("Failed to open a stream on file: " + f.uri(), e);
+      var charHandler = exclusionsScanner.createCharHandlerFor(f);
+      if (charHandler != null) {
+        // the exclusions scanner updates the input file while reading it, it has to see the content
+        return readMetadata(f, charHandler);
       }
-      return fileMetadata.readMetadata(stream, charset != null ? charset : Charset.defaultCharset(), f.uri(), exclusionsScanner.createCharHandlerFor(f));
+      // the version is known without reading the content, which is only read once on a cache miss
+      var contentVersion = inputFile.contentVersion();
+      if (contentVersion == null) {
+        return readMetadata(f, null);
+      }
+      return fileMetadataCache.getOrCompute(f.uri(), contentVersion, f.charset(), () -> readMetadata(f, null));
     });
     defaultInputFile.setType(inputFile.isTest() ? Type.TEST : Type.MAIN);
     var fileLanguage = inputFile.language();
@@ -63,4 +70,16 @@ public class InputFileBuilder {
     return defaultInputFile;
   }
 
+  private Metadata readMetadata(SonarLintInputFile f, @Nullable CharHandler charHandler) {
+    LOG.debug("Initializing metadata of file {}", f.uri());
+    var charset = f.charset();
+    InputStream stream;
+    try {
+      stream = f.inputStream();
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open a stream on file: " + f.uri(), e);
+    }
+    return fileMetadata.readMetadata(stream, charset != null ? charset : Charset.defaultCharset(), f.uri(), charHandler);
+  }
+
 }
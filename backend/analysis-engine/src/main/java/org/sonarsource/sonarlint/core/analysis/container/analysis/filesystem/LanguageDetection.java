@@ -21,10 +21,9 @@ package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
 
 import java.net.URI;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import javax.annotation.CheckForNull;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
@@ -45,6 +44,10 @@ public class LanguageDetection {
    * Lower-case extension -> languages
    */
   private final Map<SonarLanguage, String[]> extensionsByLanguage = new LinkedHashMap<>();
+  /**
+   * Trie of the lower-case suffixes (including the leading dot), read from the last character to the first one
+   */
+  private final SuffixNode reversedSuffixes = new SuffixNode();
 
   public LanguageDetection(Configuration config) {
     for (SonarLanguage language : SonarLanguage.values()) {
@@ -53,6 +56,7 @@ public class LanguageDetection {
       for (var i = 0; i < extensions.length; i++) {
         var suffix = extensions[i];
         extensions[i] = sanitizeExtension(suffix);
+        reversedSuffixes.add("." + extensions[i], language);
       }
       extensionsByLanguage.put(language, extensions);
     }
@@ -64,18 +68,27 @@ public class LanguageDetection {
   }
 
   private SonarLanguage detectLanguage(String fileName, URI fileUri) {
+    // keep the 2 matching languages coming first in the declaration order, to report ambiguities consistently
     SonarLanguage detectedLanguage = null;
-    for (Entry<SonarLanguage, String[]> languagePatterns : extensionsByLanguage.entrySet()) {
-      if (isCandidateForLanguage(fileName, languagePatterns.getValue())) {
-        if (detectedLanguage == null) {
-          detectedLanguage = languagePatterns.getKey();
-        } else {
-          // Language was already forced by another pattern
-          throw MessageException.of(MessageFormat.format("Language of file \"{0}\" can not be decided as the file extension matches both {1} and {2}",
-            fileUri, getDetails(detectedLanguage), getDetails(languagePatterns.getKey())));
+    SonarLanguage otherDetectedLanguage = null;
+    var node = reversedSuffixes;
+    for (var i = fileName.length() - 1; i >= 0 && node != null; i--) {
+      node = node.child(Character.toLowerCase(fileName.charAt(i)));
+      if (node != null) {
+        for (var language : node.languages) {
+          if (detectedLanguage == null || language.ordinal() < detectedLanguage.ordinal()) {
+            otherDetectedLanguage = detectedLanguage;
+            detectedLanguage = language;
+          } else if (language != detectedLanguage && (otherDetectedLanguage == null || language.ordinal() < otherDetectedLanguage.ordinal())) {
+            otherDetectedLanguage = language;
+          }
         }
       }
     }
+    if (otherDetectedLanguage != null) {
+      throw MessageException.of(MessageFormat.format("Language of file \"{0}\" can not be decided as the file extension matches both {1} and {2}",
+        fileUri, getDetails(detectedLanguage), getDetails(otherDetectedLanguage)));
+    }
     if (detectedLanguage != null) {
       LOG.debug("Language of file \"{}\" is detected to be \"{}\"", fileUri, detectedLanguage);
       return detectedLanguage;
@@ -83,15 +96,6 @@ public class LanguageDetection {
     return null;
   }
 
-  private static boolean isCandidateForLanguage(String fileName, String[] extensions) {
-    for (String extension : extensions) {
-      if (fileName.toLowerCase(Locale.ENGLISH).endsWith("." + extension)) {
-        return true;
-      }
-    }
-    return false;
-  }
-
   private String getDetails(SonarLanguage detectedLanguage) {
     return detectedLanguage + ": " + String.join(",", extensionsByLanguage.get(detectedLanguage));
   }
@@ -100,4 +104,46 @@ public class LanguageDetection {
     return StringUtils.lowerCase(Strings.CS.removeStart(suffix, "."));
   }
 
+  private static class SuffixNode {
+    private static final SonarLanguage[] NO_LANGUAGES = new SonarLanguage[0];
+
+    private char[] keys = new char[0];
+    private SuffixNode[] children = new SuffixNode[0];
+    private SonarLanguage[] languages = NO_LANGUAGES;
+
+    private void add(String suffix, SonarLanguage language) {
+      var node = this;
+      for (var i = suffix.length() - 1; i >= 0; i--) {
+        node = node.getOrCreateChild(suffix.charAt(i));
+      }
+      if (!Arrays.asList(node.languages).contains(language)) {
+        node.languages = Arrays.copyOf(node.languages, node.languages.length + 1);
+        node.languages[node.languages.length - 1] = language;
+      }
+    }
+
+    @CheckForNull
+    private SuffixNode child(char key) {
+      for (var i = 0; i < keys.length; i++) {
+        if (keys[i] == key) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    private SuffixNode getOrCreateChild(char key) {
+      var existingChild = child(key);
+      if (existingChild != null) {
+        return existingChild;
+      }
+      var newChild = new SuffixNode();
+      keys = Arrays.copyOf(keys, keys.length + 1);
+      keys[keys.length - 1] = key;
+      children = Arrays.copyOf(children, children.length + 1);
+      children[children.length - 1] = newChild;
+      return newChild;
+    }
+  }
+
 }
@@ -28,8 +28,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -48,11 +48,12 @@ public class SonarLintInputFile implements InputFile {
   private final String relativePath;
   private SonarLanguage language;
   private Type type;
-  private Metadata metadata;
+  private volatile Metadata metadata;
   private final Function<SonarLintInputFile, Metadata> metadataGenerator;
   private boolean ignoreAllIssues;
-  private final Set<Integer> noSonarLines = new HashSet<>();
+  private final Set<Integer> noSonarLines = ConcurrentHashMap.newKeySet();
   private Collection<int[]> ignoreIssuesOnlineRanges;
+  private volatile String md5Hash;
 
   public SonarLintInputFile(ClientInputFile clientInputFile, Function<SonarLintInputFile, Metadata> metadataGenerator) {
     this.clientInputFile = clientInputFile;
@@ -60,9 +61,16 @@ public class SonarLintInputFile implements InputFile {
     this.relativePath = PathUtils.sanitize(clientInputFile.relativePath());
   }
 
+  /**
+   * Sensors executed in parallel can access the same file, the metadata is computed only once.
+   */
   public void checkMetadata() {
     if (metadata == null) {
-      this.metadata = metadataGenerator.apply(this);
+      synchronized (this) {
+        if (metadata == null) {
+          this.metadata = metadataGenerator.apply(this);
+        }
+      }
     }
   }
 
@@ -164,11 +172,16 @@ public class SonarLintInputFile implements InputFile {
 
   @Override
   public String md5Hash() {
-    try {
-      return DigestUtils.md5Hex(contents());
-    } catch (IOException e) {
-      throw new IllegalStateException("Unable to compute md5Hash for " + uri(), e);
+    var hash = md5Hash;
+    if (hash == null) {
+      try {
+        hash = DigestUtils.md5Hex(contents());
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to compute md5Hash for " + uri(), e);
+      }
+      md5Hash = hash;
     }
+    return hash;
   }
 
   @Override
@@ -23,9 +23,18 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.DependedUpon;
 import org.sonar.api.batch.DependsUpon;
@@ -35,30 +44,40 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.scanner.sensor.ProjectSensor;
 import org.sonar.api.utils.AnnotationUtils;
 import org.sonar.api.utils.dag.DirectAcyclicGraph;
+import org.sonar.api.utils.dag.Node;
 import org.sonarsource.sonarlint.core.analysis.sonarapi.DefaultSensorContext;
 import org.sonarsource.sonarlint.core.analysis.sonarapi.DefaultSensorDescriptor;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.commons.monitoring.Trace;
+import org.sonarsource.sonarlint.plugin.api.sensor.ExclusiveSensor;
 
 import static org.sonarsource.sonarlint.core.commons.monitoring.Trace.startChild;
 
 /**
  * Execute Sensors.
+ * <p>
+ * By default, sensors are executed one after the other. When the {@value #SENSORS_PARALLELISM_PROPERTY} system property is set to a value
+ * greater than 1, sensors that do not depend on each other (through {@link DependsUpon}, {@link DependedUpon} or {@link Phase}) are executed
+ * concurrently on that many threads. Sensors annotated with {@link ExclusiveSensor} are never executed concurrently with other sensors.
  */
 public class SensorsExecutor {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  public static final String SENSORS_PARALLELISM_PROPERTY = "sonarlint.internal.analysis.sensors.parallelism";
 
   private final SensorOptimizer sensorOptimizer;
   private final List<ProjectSensor> sensors;
   private final DefaultSensorContext context;
   @Nullable
   private final Trace trace;
+  private final SensorsThreadPool threadPool;
 
-  public SensorsExecutor(DefaultSensorContext context, SensorOptimizer sensorOptimizer, Optional<Trace> trace, Optional<List<ProjectSensor>> sensors) {
+  public SensorsExecutor(DefaultSensorContext context, SensorOptimizer sensorOptimizer, SensorsThreadPool threadPool, Optional<Trace> trace,
+    Optional<List<ProjectSensor>> sensors) {
     this.context = context;
     this.sensors = sensors.orElse(List.of());
     this.sensorOptimizer = sensorOptimizer;
+    this.threadPool = threadPool;
     this.trace = trace.orElse(null);
   }
 
@@ -82,17 +101,106 @@ public class SensorsExecutor {
   }
 
   private void executeSensors(List<ProjectSensor> sensors) {
+    if (threadPool.getParallelism() > 1 && sensors.size() > 1) {
+      executeSensorsInParallel(sensors);
+      return;
+    }
     for (var sensor : sort(sensors)) {
-      if (context.isCancelled()) {
-        LOG.debug("Analysis is canceled");
+      if (!executeSensorIfNeeded(sensor)) {
         return;
       }
-      var descriptor = new DefaultSensorDescriptor();
-      sensor.describe(descriptor);
-      if (sensorOptimizer.shouldExecute(descriptor)) {
-        executeSensor(context, sensor, descriptor, trace);
+    }
+  }
+
+  private void executeSensorsInParallel(List<ProjectSensor> sensors) {
+    var nodesBySensor = new IdentityHashMap<ProjectSensor, Node>();
+    var sortedSensors = sort(sensors, nodesBySensor);
+    var logTarget = LOG.getTargetForCopy();
+    var executorService = threadPool.getExecutorService();
+    // set when the analysis is canceled or a sensor fails, so that the sensors not started yet are skipped, as in the sequential mode
+    var stopped = new AtomicBoolean();
+    var futuresBySensor = new IdentityHashMap<ProjectSensor, CompletableFuture<Void>>();
+    var exclusiveSensors = new ArrayList<ProjectSensor>();
+    for (var sensor : sortedSensors) {
+      var isExclusive = AnnotationUtils.getAnnotation(sensor, ExclusiveSensor.class) != null;
+      Collection<ProjectSensor> predecessors = isExclusive ? List.copyOf(futuresBySensor.keySet()) : getPredecessorSensors(nodesBySensor.get(sensor), nodesBySensor);
+      var predecessorFutures = Stream.concat(predecessors.stream(), exclusiveSensors.stream())
+        .map(futuresBySensor::get)
+        .toArray(CompletableFuture[]::new);
+      var future = CompletableFuture.allOf(predecessorFutures).thenRunAsync(() -> {
+        if (stopped.get()) {
+          return;
+        }
+        SonarLintLogger.get().setTarget(logTarget);
+        try {
+          if (!executeSensorIfNeeded(sensor)) {
+            stopped.set(true);
+          }
+        } catch (RuntimeException | Error e) {
+          stopped.set(true);
+          throw e;
+        } finally {
+          SonarLintLogger.get().setTarget(null);
+        }
+      }, executorService);
+      if (isExclusive) {
+        exclusiveSensors.add(sensor);
+      }
+      futuresBySensor.put(sensor, future);
+    }
+    var allSensorsFuture = CompletableFuture.allOf(futuresBySensor.values().toArray(CompletableFuture[]::new));
+    try {
+      allSensorsFuture.get();
+    } catch (InterruptedException e) {
+      stopped.set(true);
+      // sensors are not interruptible, wait for the running ones so that none outlives the analysis
+      allSensorsFuture.handle((result, error) -> null).join();
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      var cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException("Error executing sensors", cause);
+    }
+  }
+
+  /**
+   * Returns the sensors the given node transitively depends on, without going through other sensors: these ones already wait for their own
+   * predecessors.
+   */
+  private static Set<ProjectSensor> getPredecessorSensors(Node sensorNode, Map<ProjectSensor, Node> nodesBySensor) {
+    var predecessors = Collections.newSetFromMap(new IdentityHashMap<ProjectSensor, Boolean>());
+    var visitedNodes = new HashSet<Node>();
+    var nodesToVisit = new ArrayList<>(sensorNode.getDependencies());
+    while (!nodesToVisit.isEmpty()) {
+      var node = nodesToVisit.remove(nodesToVisit.size() - 1);
+      if (!visitedNodes.add(node)) {
+        continue;
+      }
+      if (node.getObject() instanceof ProjectSensor sensor && nodesBySensor.containsKey(sensor)) {
+        predecessors.add(sensor);
+      } else {
+        nodesToVisit.addAll(node.getDependencies());
       }
     }
+    return predecessors;
+  }
+
+  private boolean executeSensorIfNeeded(ProjectSensor sensor) {
+    if (context.isCancelled()) {
+      LOG.debug("Analysis is canceled");
+      return false;
+    }
+    var descriptor = new DefaultSensorDescriptor();
+    sensor.describe(descriptor);
+    if (sensorOptimizer.shouldExecute(descriptor)) {
+      executeSensor(context, sensor, descriptor, trace);
+    }
+    return true;
   }
 
   private static void executeSensor(SensorContext context, ProjectSensor sensor, DefaultSensorDescriptor descriptor, @Nullable Trace trace) {
@@ -121,10 +229,14 @@ public class SensorsExecutor {
   }
 
   private static <T> Collection<T> sort(Collection<T> extensions) {
+    return sort(extensions, new IdentityHashMap<>());
+  }
+
+  private static <T> List<T> sort(Collection<T> extensions, Map<T, Node> nodesByExtension) {
     var dag = new DirectAcyclicGraph();
 
     for (T extension : extensions) {
-      dag.add(extension);
+      nodesByExtension.put(extension, dag.add(extension));
       for (Object dependency : getDependencies(extension)) {
         dag.add(extension, dependency);
       }
@@ -135,7 +247,7 @@ public class SensorsExecutor {
     }
     List<?> sortedList = dag.sort();
 
-    return (Collection<T>) sortedList.stream()
+    return (List<T>) sortedList.stream()
       .filter(extensions::contains)
       .toList();
   }
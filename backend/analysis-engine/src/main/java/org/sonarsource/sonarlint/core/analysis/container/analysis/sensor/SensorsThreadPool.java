@@ -0,0 +1,95 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.sensor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.sonar.api.Startable;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
+
+import static org.sonarsource.sonarlint.core.analysis.container.analysis.sensor.SensorsExecutor.SENSORS_PARALLELISM_PROPERTY;
+
+/**
+ * Threads used to execute sensors in parallel, see {@link SensorsExecutor}. Shared by all the analyses of the engine, the pool is only
+ * created the first time sensors are executed in parallel.
+ */
+public class SensorsThreadPool implements Startable {
+
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+
+  private final int parallelism;
+  private ExecutorService executorService;
+  private boolean stopped;
+
+  public SensorsThreadPool() {
+    this.parallelism = getParallelismFromSystemProperty();
+  }
+
+  private static int getParallelismFromSystemProperty() {
+    var parallelismFromSystemProperty = System.getProperty(SENSORS_PARALLELISM_PROPERTY);
+    if (parallelismFromSystemProperty == null) {
+      return 1;
+    }
+    try {
+      return Math.max(1, Integer.parseInt(parallelismFromSystemProperty));
+    } catch (NumberFormatException e) {
+      LOG.debug("Invalid value for '{}': {}, executing sensors sequentially", SENSORS_PARALLELISM_PROPERTY, parallelismFromSystemProperty);
+      return 1;
+    }
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  synchronized ExecutorService getExecutorService() {
+    if (stopped) {
+      throw new IllegalStateException("Sensors thread pool is stopped");
+    }
+    if (executorService == null) {
+      executorService = FailSafeExecutors.newFixedThreadPool("sonarlint-sensors-executor", parallelism);
+    }
+    return executorService;
+  }
+
+  @Override
+  public void start() {
+    // the pool is created lazily
+  }
+
+  @Override
+  public synchronized void stop() {
+    stopped = true;
+    if (executorService == null) {
+      return;
+    }
+    executorService.shutdown();
+    try {
+      if (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
+        LOG.warn("Unable to stop sensors thread pool in a timely manner");
+        executorService.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executorService.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
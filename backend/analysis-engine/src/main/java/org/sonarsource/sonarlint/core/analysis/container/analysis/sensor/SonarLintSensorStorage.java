@@ -152,7 +152,10 @@ public class SonarLintSensorStorage implements SensorStorage {
   @Override
   public void store(AnalysisError analysisError) {
     var clientInputFile = ((SonarLintInputFile) analysisError.inputFile()).getClientInputFile();
-    analysisResult.addFailedAnalysisFile(clientInputFile);
+    // sensors can be executed in parallel
+    synchronized (analysisResult) {
+      analysisResult.addFailedAnalysisFile(clientInputFile);
+    }
   }
 
   @Override
@@ -24,6 +24,7 @@ import org.sonar.api.SonarQubeVersion;
 import org.sonar.api.utils.System2;
 import org.sonar.api.utils.UriReader;
 import org.sonarsource.sonarlint.core.analysis.api.AnalysisSchedulerConfiguration;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.sensor.SensorsThreadPool;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.plugin.commons.ApiVersions;
 import org.sonarsource.sonarlint.core.plugin.commons.LoadedPlugins;
@@ -58,6 +59,7 @@ public class GlobalAnalysisContainer extends SpringComponentContainer {
       new SonarLintRuntimeImpl(sonarPluginApiVersion, sonarlintPluginApiVersion, analysisGlobalConfig.getClientPid()),
 
       new GlobalTempFolderProvider(),
+      SensorsThreadPool.class,
       UriReader.class,
       Clock.systemDefaultZone(),
       System2.INSTANCE);
@@ -28,6 +28,7 @@ import org.sonarsource.sonarlint.core.analysis.container.ContainerLifespan;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.AnalysisContainer;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.IssueListenerHolder;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadataCache;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.LanguageDetection;
 import org.sonarsource.sonarlint.core.analysis.container.global.AnalysisExtensionInstaller;
 import org.sonarsource.sonarlint.core.analysis.sonarapi.ActiveRuleAdapter;
@@ -54,6 +55,7 @@ public class ModuleContainer extends SpringComponentContainer {
       SonarLintModuleFileSystem.class,
       ModuleInputFileBuilder.class,
       FileMetadata.class,
+      FileMetadataCache.class,
       LanguageDetection.class,
 
       ModuleFileEventNotifier.class);
@@ -75,7 +77,14 @@ public class ModuleContainer extends SpringComponentContainer {
     if (trace != null) {
       analysisContainer.add(trace);
     }
+    var metadataCache = getComponentByType(FileMetadataCache.class);
+    var metadataCacheHitsBefore = metadataCache.getHitCount();
+    var metadataCacheMissesBefore = metadataCache.getMissCount();
     analysisContainer.execute(trace);
+    if (trace != null) {
+      trace.setData("metadataCacheHits", metadataCache.getHitCount() - metadataCacheHitsBefore);
+      trace.setData("metadataCacheMisses", metadataCache.getMissCount() - metadataCacheMissesBefore);
+    }
     return defaultAnalysisResult;
   }
 }
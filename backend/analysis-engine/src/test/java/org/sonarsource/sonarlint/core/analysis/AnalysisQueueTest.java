@@ -22,11 +22,15 @@ package org.sonarsource.sonarlint.core.analysis;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.sonarsource.sonarlint.core.analysis.api.TriggerType;
 import org.sonarsource.sonarlint.core.analysis.command.AnalyzeCommand;
+import org.sonarsource.sonarlint.core.analysis.command.Command;
 import org.sonarsource.sonarlint.core.analysis.command.RegisterModuleCommand;
+import org.sonarsource.sonarlint.core.analysis.command.UnregisterModuleCommand;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
 import org.sonarsource.sonarlint.core.commons.progress.SonarLintCancelMonitor;
 import org.sonarsource.sonarlint.core.commons.progress.TaskManager;
@@ -68,4 +72,78 @@ class AnalysisQueueTest {
     assertThat(nextCommand).isEqualTo(command);
   }
 
+  @Test
+  void it_should_hand_out_analyses_of_different_modules_concurrently() throws InterruptedException {
+    var analysisQueue = new AnalysisQueue();
+    var taskManager = mock(TaskManager.class);
+    var command1 = new AnalyzeCommand("1", UUID.randomUUID(), TriggerType.FORCED, null, null, null, new SonarLintCancelMonitor(), taskManager, null, () -> true, Set.of(), Map.of());
+    var command2 = new AnalyzeCommand("2", UUID.randomUUID(), TriggerType.FORCED, null, null, null, new SonarLintCancelMonitor(), taskManager, null, () -> true, Set.of(), Map.of());
+    analysisQueue.post(command1);
+    analysisQueue.post(command2);
+
+    var firstCommand = analysisQueue.takeNextCommand();
+    var secondCommand = analysisQueue.takeNextCommand();
+
+    assertThat(firstCommand).isEqualTo(command1);
+    assertThat(secondCommand).isEqualTo(command2);
+  }
+
+  @Test
+  void it_should_not_hand_out_an_analysis_of_a_module_being_analyzed() throws InterruptedException {
+    var analysisQueue = new AnalysisQueue();
+    var taskManager = mock(TaskManager.class);
+    var command1 = new AnalyzeCommand("1", UUID.randomUUID(), TriggerType.FORCED, null, null, null, new SonarLintCancelMonitor(), taskManager, null, () -> true, Set.of(), Map.of());
+    var command2 = new AnalyzeCommand("1", UUID.randomUUID(), TriggerType.FORCED, null, null, null, new SonarLintCancelMonitor(), taskManager, null, () -> true, Set.of(), Map.of());
+    analysisQueue.post(command1);
+    analysisQueue.post(command2);
+    var firstCommand = analysisQueue.takeNextCommand();
+
+    var nextCommand = takeNextCommandAsync(analysisQueue);
+
+    assertThat(nextCommand).isNotCompleted();
+    analysisQueue.commandFinished(firstCommand);
+    assertThat(nextCommand).succeedsWithin(1, TimeUnit.SECONDS).isEqualTo(command2);
+  }
+
+  @Test
+  void it_should_wait_for_running_analyses_before_handing_out_a_barrier_command() throws InterruptedException {
+    var analysisQueue = new AnalysisQueue();
+    var taskManager = mock(TaskManager.class);
+    var analyzeCommand = new AnalyzeCommand("1", UUID.randomUUID(), TriggerType.FORCED, null, null, null, new SonarLintCancelMonitor(), taskManager, null, () -> true, Set.of(),
+      Map.of());
+    var otherAnalyzeCommand = new AnalyzeCommand("2", UUID.randomUUID(), TriggerType.FORCED, null, null, null, new SonarLintCancelMonitor(), taskManager, null, () -> true,
+      Set.of(), Map.of());
+    analysisQueue.post(analyzeCommand);
+    var runningCommand = analysisQueue.takeNextCommand();
+    analysisQueue.post(otherAnalyzeCommand);
+    var unregisterModuleCommand = new UnregisterModuleCommand("3");
+    analysisQueue.post(unregisterModuleCommand);
+
+    var nextCommand = takeNextCommandAsync(analysisQueue);
+
+    assertThat(nextCommand).isNotCompleted();
+    analysisQueue.commandFinished(runningCommand);
+    assertThat(nextCommand).succeedsWithin(1, TimeUnit.SECONDS).isEqualTo(unregisterModuleCommand);
+    var commandAfterBarrier = takeNextCommandAsync(analysisQueue);
+    assertThat(commandAfterBarrier).isNotCompleted();
+    analysisQueue.commandFinished(unregisterModuleCommand);
+    assertThat(commandAfterBarrier).succeedsWithin(1, TimeUnit.SECONDS).isEqualTo(otherAnalyzeCommand);
+  }
+
+  private static CompletableFuture<Command> takeNextCommandAsync(AnalysisQueue analysisQueue) throws InterruptedException {
+    var future = new CompletableFuture<Command>();
+    var thread = new Thread(() -> {
+      try {
+        future.complete(analysisQueue.takeNextCommand());
+      } catch (InterruptedException e) {
+        future.completeExceptionally(e);
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+    // give some time to the thread to reach the queue
+    Thread.sleep(100);
+    return future;
+  }
+
 }
@@ -48,6 +48,7 @@ class AnalysisSchedulerConfigurationTests {
     assertThat(config.getWorkDir()).isNull();
     assertThat(config.getEffectiveSettings()).isEmpty();
     assertThat(config.getClientPid()).isZero();
+    assertThat(config.getAnalysisWorkersCount()).isEqualTo(1);
   }
 
   @Test
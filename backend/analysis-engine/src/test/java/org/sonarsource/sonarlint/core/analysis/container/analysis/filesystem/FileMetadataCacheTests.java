@@ -0,0 +1,65 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMetadataCacheTests {
+
+  private static final URI FILE_URI = URI.create("file:///file.js");
+  private final FileMetadataCache cache = new FileMetadataCache();
+
+  @Test
+  void should_compute_metadata_once_per_file_version_and_charset() {
+    var metadata = new FileMetadata.Metadata(1, new int[] {0}, 3);
+    var otherMetadata = new FileMetadata.Metadata(2, new int[] {0, 2}, 3);
+
+    var first = cache.getOrCompute(FILE_URI, "v1", StandardCharsets.UTF_8, () -> metadata);
+    var second = cache.getOrCompute(FILE_URI, "v1", StandardCharsets.UTF_8, () -> otherMetadata);
+    var otherCharset = cache.getOrCompute(FILE_URI, "v1", StandardCharsets.ISO_8859_1, () -> otherMetadata);
+    var otherVersion = cache.getOrCompute(FILE_URI, "v2", StandardCharsets.UTF_8, () -> otherMetadata);
+    var otherFile = cache.getOrCompute(URI.create("file:///other.js"), "v1", StandardCharsets.UTF_8, () -> otherMetadata);
+
+    assertThat(first).isSameAs(metadata);
+    assertThat(second).isSameAs(metadata);
+    assertThat(otherCharset).isSameAs(otherMetadata);
+    assertThat(otherVersion).isSameAs(otherMetadata);
+    assertThat(otherFile).isSameAs(otherMetadata);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(4);
+  }
+
+  @Test
+  void should_evict_least_recently_used_entries() {
+    var metadata = new FileMetadata.Metadata(1, new int[] {0}, 3);
+    cache.getOrCompute(FILE_URI, "first", StandardCharsets.UTF_8, () -> metadata);
+    for (var i = 0; i < FileMetadataCache.MAX_ENTRIES; i++) {
+      cache.getOrCompute(FILE_URI, "v" + i, StandardCharsets.UTF_8, () -> metadata);
+    }
+
+    cache.getOrCompute(FILE_URI, "first", StandardCharsets.UTF_8, () -> metadata);
+
+    assertThat(cache.getMissCount()).isEqualTo(FileMetadataCache.MAX_ENTRIES + 2L);
+  }
+}
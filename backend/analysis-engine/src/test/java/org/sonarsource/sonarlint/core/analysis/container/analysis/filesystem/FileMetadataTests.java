@@ -0,0 +1,139 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonarsource.sonarlint.core.commons.log.LogOutput;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMetadataTests {
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final URI FILE_URI = URI.create("file:///foo.txt");
+
+  @Test
+  void should_read_empty_file() {
+    var metadata = readMetadata("", StandardCharsets.UTF_8);
+
+    assertThat(metadata.lines()).isEqualTo(1);
+    assertThat(metadata.originalLineOffsets()).containsExactly(0);
+    assertThat(metadata.lastValidOffset()).isZero();
+  }
+
+  @Test
+  void should_handle_all_kinds_of_line_endings() {
+    assertMetadata("foo\nbar", 2, new int[] {0, 4}, 7);
+    assertMetadata("foo\r\nbar", 2, new int[] {0, 5}, 8);
+    assertMetadata("foo\rbar", 2, new int[] {0, 4}, 7);
+    assertMetadata("foo\n", 2, new int[] {0, 4}, 4);
+    assertMetadata("foo\r", 2, new int[] {0, 4}, 4);
+    assertMetadata("foo\r\r\nbar\n\n", 5, new int[] {0, 4, 6, 10, 11}, 11);
+    assertMetadata("\r\r\r", 4, new int[] {0, 1, 2, 3}, 3);
+  }
+
+  @Test
+  void should_count_utf16_code_units_for_non_ascii_content() {
+    assertMetadata("é\n😀\nabc", 3, new int[] {0, 2, 5}, 8);
+  }
+
+  @Test
+  void should_handle_content_larger_than_the_read_buffer() {
+    var line = "a".repeat(99) + "\n";
+    var content = line.repeat(1000) + "é".repeat(10_000);
+
+    var metadata = readMetadata(content, StandardCharsets.UTF_8);
+
+    assertThat(metadata.lines()).isEqualTo(1001);
+    assertThat(metadata.originalLineOffsets()).hasSize(1001);
+    assertThat(metadata.originalLineOffsets()[1000]).isEqualTo(100_000);
+    assertThat(metadata.lastValidOffset()).isEqualTo(110_000);
+  }
+
+  @Test
+  void should_decode_non_ascii_compatible_charsets() {
+    var metadata = readMetadata("foo\nbär", StandardCharsets.UTF_16);
+
+    assertThat(metadata.lines()).isEqualTo(2);
+    assertThat(metadata.originalLineOffsets()).containsExactly(0, 4);
+    assertThat(metadata.lastValidOffset()).isEqualTo(7);
+  }
+
+  @Test
+  void should_log_invalid_characters_once() {
+    var bytes = new byte[] {'a', '\n', (byte) 0xFF, '\n', (byte) 0xFE};
+
+    var metadata = new FileMetadata().readMetadata(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8, FILE_URI, null);
+
+    assertThat(metadata.lines()).isEqualTo(3);
+    assertThat(metadata.lastValidOffset()).isEqualTo(5);
+    assertThat(logTester.logs(LogOutput.Level.WARN))
+      .containsExactly("Invalid character encountered in file '" + FILE_URI + "' at line 2 for encoding UTF-8. Please fix file content or configure the encoding.");
+  }
+
+  @Test
+  void should_notify_other_handler() {
+    var events = new StringBuilder();
+    var handler = new FileMetadata.CharHandler() {
+      @Override
+      protected void handleAll(char c) {
+        events.append(c == '\r' ? "\\r" : c == '\n' ? "\\n" : String.valueOf(c));
+      }
+
+      @Override
+      protected void handleIgnoreEoL(char c) {
+        events.append('+');
+      }
+
+      @Override
+      protected void newLine() {
+        events.append('|');
+      }
+
+      @Override
+      protected void eof() {
+        events.append('$');
+      }
+    };
+
+    new FileMetadata().readMetadata(new ByteArrayInputStream("a\r\nb\rc\n".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, FILE_URI, handler);
+
+    assertThat(events).hasToString("+a\\r\\n|+b\\r|+c\\n|$");
+  }
+
+  private static void assertMetadata(String content, int expectedLines, int[] expectedOffsets, int expectedLastValidOffset) {
+    var metadata = readMetadata(content, StandardCharsets.UTF_8);
+
+    assertThat(metadata.lines()).isEqualTo(expectedLines);
+    assertThat(metadata.originalLineOffsets()).containsExactly(expectedOffsets);
+    assertThat(metadata.lastValidOffset()).isEqualTo(expectedLastValidOffset);
+  }
+
+  private static FileMetadata.Metadata readMetadata(String content, Charset charset) {
+    return new FileMetadata().readMetadata(new ByteArrayInputStream(content.getBytes(charset)), charset, FILE_URI, null);
+  }
+}
@@ -39,6 +39,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -50,6 +53,7 @@ class InputFileBuilderTests {
   private final LanguageDetection langDetection = mock(LanguageDetection.class);
   private final IssueExclusionsLoader issueExclusionsLoader = mock(IssueExclusionsLoader.class);
   private final FileMetadata metadata = new FileMetadata();
+  private final FileMetadataCache metadataCache = new FileMetadataCache();
 
   @TempDir
   private Path tempDir;
@@ -62,7 +66,7 @@ class InputFileBuilderTests {
     Files.write(path, "test".getBytes(StandardCharsets.ISO_8859_1));
     ClientInputFile file = new OnDiskTestClientInputFile(path, "file", true, StandardCharsets.ISO_8859_1);
 
-    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader);
+    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader, metadataCache);
     var inputFile = builder.create(file);
 
     assertThat(inputFile.type()).isEqualTo(InputFile.Type.TEST);
@@ -81,7 +85,7 @@ class InputFileBuilderTests {
     Files.write(path, "test".getBytes(StandardCharsets.ISO_8859_1));
     ClientInputFile file = new OnDiskTestClientInputFile(path, "file", true, StandardCharsets.ISO_8859_1, SonarLanguage.CPP);
 
-    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader);
+    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader, metadataCache);
     var inputFile = builder.create(file);
 
     assertThat(inputFile.language()).isEqualTo("cpp");
@@ -93,11 +97,59 @@ class InputFileBuilderTests {
     when(langDetection.language(any(InputFile.class))).thenReturn(SonarLanguage.JAVA);
     ClientInputFile file = new OnDiskTestClientInputFile(Paths.get("INVALID"), "INVALID", true, StandardCharsets.ISO_8859_1);
 
-    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader);
+    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader, metadataCache);
     var slFile = builder.create(file);
 
     // Call any method that will trigger metadata initialization
     var thrown = assertThrows(IllegalStateException.class, () -> slFile.selectLine(1));
     assertThat(thrown).hasMessageStartingWith("Failed to open a stream on file");
   }
+
+  @Test
+  void testCreate_reuses_cached_metadata_while_file_version_is_unchanged() throws IOException {
+    var path = tempDir.resolve("file");
+    Files.write(path, "line1\nline2".getBytes(StandardCharsets.UTF_8));
+    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader, metadataCache);
+
+    var file = spy(new OnDiskTestClientInputFile(path, "file", false, StandardCharsets.UTF_8));
+    assertThat(builder.create(file).lines()).isEqualTo(2);
+    assertThat(builder.create(file).lines()).isEqualTo(2);
+    Files.write(path, "line1\nline2\nline3".getBytes(StandardCharsets.UTF_8));
+    assertThat(builder.create(file).lines()).isEqualTo(3);
+
+    assertThat(metadataCache.getMissCount()).isEqualTo(2);
+    assertThat(metadataCache.getHitCount()).isEqualTo(1);
+    // the content is read once per miss, and not at all on a hit
+    verify(file, times(2)).inputStream();
+    verify(file, never()).contents();
+  }
+
+  @Test
+  void testCreate_does_not_use_cache_when_file_version_is_unknown() throws IOException {
+    var path = tempDir.resolve("file");
+    Files.write(path, "line1\nline2".getBytes(StandardCharsets.UTF_8));
+    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader, metadataCache);
+    var file = spy(new OnDiskTestClientInputFile(path, "file", false, StandardCharsets.UTF_8));
+    when(file.contentVersion()).thenReturn(null);
+
+    assertThat(builder.create(file).lines()).isEqualTo(2);
+
+    assertThat(metadataCache.getMissCount()).isZero();
+    assertThat(metadataCache.getHitCount()).isZero();
+  }
+
+  @Test
+  void testCreate_does_not_use_cache_when_exclusions_scanner_is_set() throws IOException {
+    when(issueExclusionsLoader.createCharHandlerFor(any())).thenReturn(new FileMetadata.CharHandler() {
+    });
+    var path = tempDir.resolve("file");
+    Files.write(path, "line1\nline2".getBytes(StandardCharsets.UTF_8));
+    var builder = new InputFileBuilder(langDetection, metadata, issueExclusionsLoader, metadataCache);
+
+    var inputFile = builder.create(new OnDiskTestClientInputFile(path, "file", false, StandardCharsets.UTF_8));
+
+    assertThat(inputFile.lines()).isEqualTo(2);
+    assertThat(metadataCache.getMissCount()).isZero();
+    assertThat(metadataCache.getHitCount()).isZero();
+  }
 }
@@ -141,6 +141,31 @@ class LanguageDetectionTests {
       .contains("XML: xhtml");
   }
 
+  @Test
+  void search_by_multi_dot_suffix() {
+    var settings = new MapSettings(Map.of(SonarLanguage.XML.getFileSuffixesPropKey(), ".Xml.TPL,xml"));
+    var detection = new LanguageDetection(settings.asConfig());
+
+    assertThat(detection.language(newInputFile("template.xml.tpl"))).isEqualTo(SonarLanguage.XML);
+    assertThat(detection.language(newInputFile("template.XML.tpl"))).isEqualTo(SonarLanguage.XML);
+    assertThat(detection.language(newInputFile("template.tpl"))).isNull();
+    assertThat(detection.language(newInputFile("xml.tpl"))).isNull();
+  }
+
+  @Test
+  void fail_if_file_matches_suffixes_of_different_lengths_from_different_languages() {
+    var settings = new MapSettings(Map.of(SonarLanguage.XML.getFileSuffixesPropKey(), "tpl",
+      SonarLanguage.HTML.getFileSuffixesPropKey(), "html.tpl"));
+    var detection = new LanguageDetection(settings.asConfig());
+    var inputFile = newInputFile("abc.html.tpl");
+
+    var e = assertThrows(MessageException.class, () -> detection.language(inputFile));
+    assertThat(e.getMessage())
+      .contains("abc.html.tpl\" can not be decided as the file extension matches both ")
+      .contains("HTML: html.tpl")
+      .contains("XML: tpl");
+  }
+
   private InputFile newInputFile(String path) {
     return new TestInputFileBuilder(path).setBaseDir(basedir).build();
   }
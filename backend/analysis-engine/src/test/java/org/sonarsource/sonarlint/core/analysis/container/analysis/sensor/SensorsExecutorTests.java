@@ -19,11 +19,18 @@
  */
 package org.sonarsource.sonarlint.core.analysis.container.analysis.sensor;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonar.api.batch.DependedUpon;
+import org.sonar.api.batch.DependsUpon;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
@@ -33,8 +40,10 @@ import org.sonarsource.sonarlint.core.commons.log.LogOutput;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.commons.progress.ProgressIndicator;
+import org.sonarsource.sonarlint.plugin.api.sensor.ExclusiveSensor;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -61,6 +70,21 @@ class SensorsExecutorTests {
     }
   }
 
+  private SensorsThreadPool threadPool;
+
+  @AfterEach
+  void clearParallelism() {
+    System.clearProperty(SensorsExecutor.SENSORS_PARALLELISM_PROPERTY);
+    if (threadPool != null) {
+      threadPool.stop();
+    }
+  }
+
+  private SensorsExecutor newSensorsExecutor(DefaultSensorContext context, SensorOptimizer sensorOptimizer, Optional<List<ProjectSensor>> sensors) {
+    threadPool = new SensorsThreadPool();
+    return new SensorsExecutor(context, sensorOptimizer, threadPool, Optional.empty(), sensors);
+  }
+
   @Test
   void testDescribe() {
     Object withToString = new Object() {
@@ -81,7 +105,7 @@ class SensorsExecutorTests {
   void testThrowingSensorShouldBeLogged() {
     var sensorOptimizer = mock(SensorOptimizer.class);
     when(sensorOptimizer.shouldExecute(any())).thenReturn(true);
-    var executor = new SensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.empty(), Optional.of(List.of(new ThrowingSensor())));
+    var executor = newSensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.of(List.of(new ThrowingSensor())));
 
     executor.execute();
 
@@ -97,13 +121,101 @@ class SensorsExecutorTests {
     var globalSensor = new GlobalSensor();
     var oldGlobalSensor = new OldGlobalSensor();
 
-    var executor = new SensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.empty(), Optional.of(List.of(globalSensor, regularSensor, oldGlobalSensor)));
+    var executor = newSensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.of(List.of(globalSensor, regularSensor, oldGlobalSensor)));
 
     executor.execute();
 
     assertThat(logTester.logs(LogOutput.Level.INFO)).containsExactly("Executing 'Regular sensor'", "Executing 'Global sensor'", "Executing 'Old Global sensor'");
   }
 
+  @Test
+  void shouldExecuteIndependentSensorsConcurrentlyWhenParallelismIsEnabled() {
+    System.setProperty(SensorsExecutor.SENSORS_PARALLELISM_PROPERTY, "4");
+    var sensorOptimizer = mock(SensorOptimizer.class);
+    when(sensorOptimizer.shouldExecute(any())).thenReturn(true);
+    var executedSensors = Collections.synchronizedList(new ArrayList<String>());
+    var bothStarted = new CountDownLatch(2);
+    var javaSensor = new AwaitingSensor("java", bothStarted, executedSensors);
+    var xmlSensor = new AwaitingSensor("xml", bothStarted, executedSensors);
+    var dependentSensor = new DependentSensor(executedSensors);
+
+    var executor = newSensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.of(List.of(dependentSensor, javaSensor, xmlSensor)));
+    executor.execute();
+
+    assertThat(executedSensors).containsExactlyInAnyOrder("java", "xml", "dependent");
+    assertThat(executedSensors.get(2)).isEqualTo("dependent");
+    assertThat(javaSensor.awaitedOtherSensor).isTrue();
+    assertThat(xmlSensor.awaitedOtherSensor).isTrue();
+  }
+
+  @Test
+  void shouldExecuteExclusiveSensorsAlone() {
+    System.setProperty(SensorsExecutor.SENSORS_PARALLELISM_PROPERTY, "4");
+    var sensorOptimizer = mock(SensorOptimizer.class);
+    when(sensorOptimizer.shouldExecute(any())).thenReturn(true);
+    var executedSensors = Collections.synchronizedList(new ArrayList<String>());
+    var bothStarted = new CountDownLatch(2);
+    var javaSensor = new AwaitingSensor("java", bothStarted, executedSensors);
+    var exclusiveSensor = new MyExclusiveSensor(bothStarted, executedSensors);
+
+    var executor = newSensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.of(List.of(javaSensor, exclusiveSensor)));
+    executor.execute();
+
+    assertThat(executedSensors).containsExactlyInAnyOrder("java", "exclusive");
+    assertThat(javaSensor.awaitedOtherSensor).isFalse();
+  }
+
+  @Test
+  void shouldPropagateFailuresAndSkipDependentSensorsWhenParallelismIsEnabled() {
+    System.setProperty(SensorsExecutor.SENSORS_PARALLELISM_PROPERTY, "4");
+    var sensorOptimizer = mock(SensorOptimizer.class);
+    when(sensorOptimizer.shouldExecute(any())).thenReturn(true);
+    var executedSensors = Collections.synchronizedList(new ArrayList<String>());
+    var dependentSensor = new DependentSensor(executedSensors);
+
+    var executor = newSensorsExecutor(DEFAULT_SENSOR_CONTEXT, sensorOptimizer, Optional.of(List.of(dependentSensor, new FailingToDescribeSensor(), new RegularSensor())));
+
+    assertThatThrownBy(executor::execute).isInstanceOf(IllegalStateException.class).hasMessage("Unable to describe sensor");
+    assertThat(executedSensors).isEmpty();
+  }
+
+  @Test
+  void shouldNotExecuteSensorsWhenAnalysisIsCanceledAndParallelismIsEnabled() {
+    System.setProperty(SensorsExecutor.SENSORS_PARALLELISM_PROPERTY, "4");
+    var sensorOptimizer = mock(SensorOptimizer.class);
+    when(sensorOptimizer.shouldExecute(any())).thenReturn(true);
+    var canceledContext = new DefaultSensorContext(null, null, null, null, null, null, null, new ProgressIndicator() {
+      @Override
+      public void notifyProgress(@Nullable String message, @Nullable Integer percentage) {
+        // no-op
+      }
+
+      @Override
+      public boolean isCanceled() {
+        return true;
+      }
+    });
+
+    var executor = newSensorsExecutor(canceledContext, sensorOptimizer, Optional.of(List.of(new RegularSensor(), new GlobalSensor(), new OldGlobalSensor())));
+    executor.execute();
+
+    assertThat(logTester.logs(LogOutput.Level.INFO)).isEmpty();
+    assertThat(logTester.logs(LogOutput.Level.DEBUG)).contains("Analysis is canceled");
+  }
+
+  @DependedUpon("java-results")
+  private static class FailingToDescribeSensor implements Sensor {
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+      throw new IllegalStateException("Unable to describe sensor");
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+      // never executed
+    }
+  }
+
   private static class ThrowingSensor implements Sensor {
     @Override
     public void describe(SensorDescriptor descriptor) {
@@ -153,5 +265,74 @@ class SensorsExecutorTests {
     }
   }
 
+  @DependedUpon("java-results")
+  private static class AwaitingSensor implements Sensor {
+    private final String name;
+    private final CountDownLatch started;
+    private final List<String> executedSensors;
+    private boolean awaitedOtherSensor;
+
+    private AwaitingSensor(String name, CountDownLatch started, List<String> executedSensors) {
+      this.name = name;
+      this.started = started;
+      this.executedSensors = executedSensors;
+    }
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+      descriptor.name(name);
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+      started.countDown();
+      try {
+        awaitedOtherSensor = started.await(200, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      executedSensors.add(name);
+    }
+  }
+
+  @DependsUpon("java-results")
+  private static class DependentSensor implements Sensor {
+    private final List<String> executedSensors;
 
+    private DependentSensor(List<String> executedSensors) {
+      this.executedSensors = executedSensors;
+    }
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+      descriptor.name("dependent");
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+      executedSensors.add("dependent");
+    }
+  }
+
+  @ExclusiveSensor
+  private static class MyExclusiveSensor implements Sensor {
+    private final CountDownLatch started;
+    private final List<String> executedSensors;
+
+    private MyExclusiveSensor(CountDownLatch started, List<String> executedSensors) {
+      this.started = started;
+      this.executedSensors = executedSensors;
+    }
+
+    @Override
+    public void describe(SensorDescriptor descriptor) {
+      descriptor.name("exclusive");
+    }
+
+    @Override
+    public void execute(SensorContext context) {
+      started.countDown();
+      executedSensors.add("exclusive");
+    }
+  }
 }
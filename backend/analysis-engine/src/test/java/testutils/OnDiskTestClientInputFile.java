@@ -92,4 +92,13 @@ public class OnDiskTestClientInputFile implements ClientInputFile {
   public URI uri() {
     return path.toUri();
   }
+
+  @Override
+  public String contentVersion() {
+    try {
+      return Files.size(path) + ":" + Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return null;
+    }
+  }
 }
@@ -19,31 +19,184 @@
  */
 package org.sonarsource.sonarlint.core.commons;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.eclipse.jgit.ignore.FastIgnoreRule;
 import org.eclipse.jgit.ignore.IgnoreNode;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
+import static org.eclipse.jgit.lib.Constants.GITIGNORE_FILENAME;
+
+/**
+ * Ignore rules of a Git working tree, organized as a trie of directories. The rules of the root directory are known upfront, and the
+ * .gitignore file of a nested directory is only read the first time a file below this directory is checked. Rules of a single directory can be
+ * reloaded with {@link #onGitIgnoreChanged(Path)}, without re-reading the rest of the tree.
+ */
 public class SonarLintGitIgnore {
-  private final IgnoreNode ignoreNode;
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+
+  @Nullable
+  private final Path workTree;
+  private final String baseDirPrefix;
+  private final Node root;
 
   public SonarLintGitIgnore(IgnoreNode ignoreNode) {
-    this.ignoreNode = ignoreNode;
+    this.workTree = null;
+    this.baseDirPrefix = "";
+    this.root = new Node(null, ignoreNode);
+  }
+
+  /**
+   * @param rootRulesLoader loads the rules applying to the whole working tree, e.g. the ones from .git/info/exclude and from the root .gitignore
+   * @param baseDir the directory file paths given to {@link #isIgnored(Path)} are relative to
+   */
+  public SonarLintGitIgnore(Path workTree, Path baseDir, IgnoreRulesLoader rootRulesLoader) {
+    this.workTree = workTree.toAbsolutePath().normalize();
+    var absoluteBaseDir = baseDir.toAbsolutePath().normalize();
+    this.baseDirPrefix = absoluteBaseDir.startsWith(this.workTree) ? toUnixPath(this.workTree.relativize(absoluteBaseDir)) : "";
+    this.root = new Node(this.workTree, rootRulesLoader);
+  }
+
+  @CheckForNull
+  public Path getWorkTree() {
+    return workTree;
   }
 
   public boolean isIgnored(Path clientRelativeFilePath) {
-    var normalizedUnixPath = clientRelativeFilePath.toString().replace("\\", "/");
-    var rules = ignoreNode.getRules();
+    var relativePath = toUnixPath(clientRelativeFilePath);
+    var path = baseDirPrefix.isEmpty() || relativePath.isEmpty() ? (baseDirPrefix + relativePath) : (baseDirPrefix + "/" + relativePath);
+    var nodes = new ArrayList<Node>();
+    var segmentStarts = new ArrayList<Integer>();
+    var node = root;
+    var segmentStart = 0;
+    nodes.add(node);
+    segmentStarts.add(segmentStart);
+    int slashIndex;
+    while (node.directory != null && (slashIndex = path.indexOf('/', segmentStart)) != -1) {
+      node = node.child(path.substring(segmentStart, slashIndex));
+      segmentStart = slashIndex + 1;
+      nodes.add(node);
+      segmentStarts.add(segmentStart);
+    }
+    // Rules of the deepest .gitignore file have higher priority, and are matched against the path relative to their directory
+    for (var i = nodes.size() - 1; i > -1; i--) {
+      var result = checkIgnored(nodes.get(i).rules(), path.substring(segmentStarts.get(i)));
+      if (result != null) {
+        return result;
+      }
+    }
+    return false;
+  }
+
+  public boolean isFileIgnored(Path clientFileRelativePath) {
+    return isIgnored(clientFileRelativePath);
+  }
+
+  /**
+   * Forget the rules read from the given .gitignore file, they will be read again the next time they are needed.
+   *
+   * @return false if the file is not part of this working tree
+   */
+  public boolean onGitIgnoreChanged(Path gitIgnoreFile) {
+    if (workTree == null) {
+      return false;
+    }
+    var directory = gitIgnoreFile.toAbsolutePath().normalize().getParent();
+    if (directory == null || !directory.startsWith(workTree)) {
+      return false;
+    }
+    var node = root;
+    for (var segment : workTree.relativize(directory)) {
+      if (segment.toString().isEmpty()) {
+        continue;
+      }
+      node = node.children.get(segment.toString());
+      if (node == null) {
+        // rules of this directory were never read
+        return true;
+      }
+    }
+    node.invalidate();
+    return true;
+  }
+
+  @CheckForNull
+  private static Boolean checkIgnored(List<FastIgnoreRule> rules, String path) {
     // Parse rules in the reverse order that they were read because later rules have higher priority
     for (var i = rules.size() - 1; i > -1; i--) {
       var rule = rules.get(i);
-      if (rule.isMatch(normalizedUnixPath, false)) {
+      if (rule.isMatch(path, false)) {
         return rule.getResult();
       }
     }
-    return false;
+    return null;
   }
 
-  public boolean isFileIgnored(Path clientFileRelativePath) {
-    return isIgnored(clientFileRelativePath);
+  private static String toUnixPath(Path path) {
+    return path.toString().replace("\\", "/");
+  }
+
+  private static IgnoreNode readGitIgnore(Path directory) {
+    var ignoreNode = new IgnoreNode();
+    try (var inputStream = Files.newInputStream(directory.resolve(GITIGNORE_FILENAME))) {
+      ignoreNode.parse(inputStream);
+    } catch (NoSuchFileException e) {
+      // no rules for this directory
+    } catch (IOException e) {
+      LOG.debug("Unable to read .gitignore file in {}", directory, e);
+    }
+    return ignoreNode;
+  }
+
+  @FunctionalInterface
+  public interface IgnoreRulesLoader {
+    IgnoreNode load();
+  }
+
+  private static class Node {
+    @Nullable
+    private final Path directory;
+    private final IgnoreRulesLoader rulesLoader;
+    private final Map<String, Node> children = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile List<FastIgnoreRule> rules;
+
+    private Node(@Nullable Path directory, IgnoreRulesLoader rulesLoader) {
+      this.directory = directory;
+      this.rulesLoader = rulesLoader;
+    }
+
+    private Node(@Nullable Path directory, IgnoreNode ignoreNode) {
+      this(directory, () -> ignoreNode);
+    }
+
+    private Node child(String name) {
+      return children.computeIfAbsent(name, k -> {
+        var childDirectory = directory.resolve(k);
+        return new Node(childDirectory, () -> readGitIgnore(childDirectory));
+      });
+    }
+
+    private List<FastIgnoreRule> rules() {
+      var loadedRules = rules;
+      if (loadedRules == null) {
+        loadedRules = List.copyOf(rulesLoader.load().getRules());
+        rules = loadedRules;
+      }
+      return loadedRules;
+    }
+
+    private void invalidate() {
+      rules = null;
+    }
   }
 
 }
@@ -45,6 +45,13 @@ public interface LogOutput {
     }
   }
 
+  /**
+   * Allow to skip formatting messages of levels that are not displayed anyway
+   */
+  default boolean isEnabled(Level level) {
+    return true;
+  }
+
   enum Level {
     OFF, ERROR, WARN, INFO, DEBUG, TRACE;
 
@@ -55,6 +55,20 @@ public class SonarLintLogger {
     return this.target.get();
   }
 
+  public boolean isDebugEnabled() {
+    return isEnabled(Level.DEBUG);
+  }
+
+  public boolean isTraceEnabled() {
+    return isEnabled(Level.TRACE);
+  }
+
+  private boolean isEnabled(Level level) {
+    var output = target.get();
+    // when no output is configured, let the error be raised later on
+    return output == null || output.isEnabled(level);
+  }
+
   public void trace(String msg) {
     log(msg, Level.TRACE, (Throwable) null);
   }
@@ -144,11 +158,21 @@ public class SonarLintLogger {
   }
 
   private void doLogExtractingThrowable(Level level, String msg, Object[] argArray) {
+    if (!isEnabled(level) && !endsWithThrowable(argArray)) {
+      return;
+    }
     var tuple = MessageFormatter.arrayFormat(msg, argArray);
     log(tuple.getMessage(), level, tuple.getThrowable());
   }
 
+  private static boolean endsWithThrowable(Object[] argArray) {
+    return argArray.length > 0 && argArray[argArray.length - 1] instanceof Throwable;
+  }
+
   private void log(@Nullable String formattedMessage, Level level, @Nullable Throwable t) {
+    if (t == null && !isEnabled(level)) {
+      return;
+    }
     String stacktrace = null;
     if (t != null) {
       Sentry.captureException(t);
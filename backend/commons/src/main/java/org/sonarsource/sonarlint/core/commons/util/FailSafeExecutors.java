@@ -30,6 +30,7 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
@@ -57,6 +58,21 @@ public class FailSafeExecutors {
     };
   }
 
+  public static ExecutorService newFixedThreadPool(String threadNamePrefix, int threadsCount) {
+    var threadCounter = new AtomicInteger();
+    return new ThreadPoolExecutor(threadsCount, threadsCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+      r -> new Thread(r, threadNamePrefix + "-" + threadCounter.incrementAndGet())) {
+      @Override
+      protected void afterExecute(Runnable task, @Nullable Throwable throwable) {
+        var extractedThrowable = extractThrowable(task, throwable);
+        if (extractedThrowable != null) {
+          LOG.error("An error occurred while executing a task in " + Thread.currentThread().getName(), extractedThrowable);
+        }
+        super.afterExecute(task, throwable);
+      }
+    };
+  }
+
   public static ScheduledExecutorService newSingleThreadScheduledExecutor(String threadName) {
     return new ScheduledThreadPoolExecutor(1, r -> new Thread(r, threadName)) {
       @Override
@@ -0,0 +1,267 @@
+/*
+ * SonarLint Core - Commons
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.commons.util.git;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.eclipse.jgit.lib.ObjectId;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+
+/**
+ * Keeps the blame of committed files, per repository, so that it does not have to be computed again as long as HEAD does not move.
+ * Entries are keyed by HEAD commit id, repository relative path and blob id. They are kept in memory for the most recently used repositories and,
+ * when a directory is provided, persisted on disk to survive restarts.
+ * <p>
+ * A blame only goes back in history until a threshold date, older lines are attributed to the boundary commit. Each entry remembers its threshold,
+ * and is only reused by requests that do not need to go further back.
+ * <p>
+ * The file of a repository is a header followed by records appended at each {@link #put}. It is only rewritten when HEAD moves or when it contains
+ * too many outdated records.
+ */
+public class BlameCache {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final int FORMAT_VERSION = 2;
+  private static final long NOT_COMMITTED = Long.MIN_VALUE;
+  static final int MAX_REPOSITORIES = 10;
+
+  @Nullable
+  private final Path cacheDir;
+  private final Map<Path, RepositoryBlames> blamesByRepository = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Path, RepositoryBlames> eldest) {
+      return size() > MAX_REPOSITORIES;
+    }
+  };
+
+  public BlameCache(@Nullable Path cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * @param historyThreshold how far back in history the blame has to go
+   * @return the cached committed blame of the given files, files that are not in the cache are absent from the result
+   */
+  public synchronized Map<String, BlameResult> get(Path workTree, ObjectId headId, Map<String, ObjectId> blobIdsByPath, Instant historyThreshold) {
+    var repositoryBlames = getRepositoryBlames(workTree, headId);
+    var result = new HashMap<String, BlameResult>();
+    blobIdsByPath.forEach((path, blobId) -> {
+      var cachedBlame = repositoryBlames.blamesByPath.get(path);
+      if (cachedBlame != null && cachedBlame.blobId.equals(blobId) && !cachedBlame.historyThreshold.isAfter(historyThreshold)) {
+        result.put(path, cachedBlame.blame);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @param historyThreshold how far back in history the blame went, {@link Instant#EPOCH} if the whole history was walked
+   */
+  public synchronized void put(Path workTree, ObjectId headId, Map<String, ObjectId> blobIdsByPath, Instant historyThreshold,
+    Map<String, BlameResult> blamesByPath) {
+    var repositoryBlames = getRepositoryBlames(workTree, headId);
+    var newBlamesByPath = new HashMap<String, CachedBlame>();
+    blamesByPath.forEach((path, blame) -> {
+      var blobId = blobIdsByPath.get(path);
+      if (blobId != null) {
+        newBlamesByPath.put(path, new CachedBlame(blobId, historyThreshold, blame));
+      }
+    });
+    if (newBlamesByPath.isEmpty()) {
+      return;
+    }
+    repositoryBlames.blamesByPath.putAll(newBlamesByPath);
+    persist(workTree, repositoryBlames, newBlamesByPath);
+  }
+
+  private RepositoryBlames getRepositoryBlames(Path workTree, ObjectId headId) {
+    var repositoryBlames = blamesByRepository.get(workTree);
+    if (repositoryBlames == null || !repositoryBlames.headId.equals(headId)) {
+      if (repositoryBlames != null) {
+        LOG.debug("HEAD moved in {}, invalidating the blame cache", workTree);
+      }
+      repositoryBlames = load(workTree, headId);
+      blamesByRepository.put(workTree, repositoryBlames);
+    }
+    return repositoryBlames;
+  }
+
+  private RepositoryBlames load(Path workTree, ObjectId headId) {
+    var repositoryBlames = new RepositoryBlames(headId);
+    var cacheFile = getCacheFile(workTree);
+    if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+      return repositoryBlames;
+    }
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+      if (input.readInt() != FORMAT_VERSION || !input.readUTF().equals(workTree.toString())) {
+        return repositoryBlames;
+      }
+      var recordsCount = 0;
+      var truncated = false;
+      while (!isAtEnd(input)) {
+        var entry = readRecord(input);
+        if (entry == null) {
+          truncated = true;
+          break;
+        }
+        recordsCount++;
+        if (entry.headId.equals(headId)) {
+          repositoryBlames.blamesByPath.put(entry.path, entry.blame);
+        }
+      }
+      // records of other HEADs, overridden ones and a partially written one are dropped at the next write
+      repositoryBlames.appendable = !truncated && recordsCount <= 2 * repositoryBlames.blamesByPath.size();
+    } catch (Exception e) {
+      LOG.debug("Unable to read the blame cache for {}", workTree, e);
+      repositoryBlames.blamesByPath.clear();
+    }
+    return repositoryBlames;
+  }
+
+  private static boolean isAtEnd(DataInputStream input) throws IOException {
+    input.mark(1);
+    if (input.read() == -1) {
+      return true;
+    }
+    input.reset();
+    return false;
+  }
+
+  /**
+   * @return null when the record was only partially written
+   */
+  @CheckForNull
+  private static Record readRecord(DataInput input) throws IOException {
+    try {
+      var headId = ObjectId.fromString(input.readUTF());
+      var path = input.readUTF();
+      var blobId = ObjectId.fromString(input.readUTF());
+      var historyThreshold = Instant.ofEpochSecond(input.readLong());
+      var linesCount = input.readInt();
+      var lineCommitDates = new ArrayList<Instant>(linesCount);
+      for (var line = 0; line < linesCount; line++) {
+        var epochSecond = input.readLong();
+        lineCommitDates.add(epochSecond == NOT_COMMITTED ? null : Instant.ofEpochSecond(epochSecond));
+      }
+      return new Record(headId, path, new CachedBlame(blobId, historyThreshold, new BlameResult(lineCommitDates)));
+    } catch (EOFException e) {
+      return null;
+    }
+  }
+
+  private static void writeRecord(DataOutput output, ObjectId headId, String path, CachedBlame cachedBlame) throws IOException {
+    output.writeUTF(headId.name());
+    output.writeUTF(path);
+    output.writeUTF(cachedBlame.blobId.name());
+    output.writeLong(cachedBlame.historyThreshold.getEpochSecond());
+    var lineCommitDates = cachedBlame.blame.lineCommitDates();
+    output.writeInt(lineCommitDates.size());
+    for (var date : lineCommitDates) {
+      output.writeLong(date == null ? NOT_COMMITTED : date.getEpochSecond());
+    }
+  }
+
+  private void persist(Path workTree, RepositoryBlames repositoryBlames, Map<String, CachedBlame> newBlamesByPath) {
+    var cacheFile = getCacheFile(workTree);
+    if (cacheFile == null) {
+      return;
+    }
+    try {
+      if (repositoryBlames.appendable && Files.isRegularFile(cacheFile)) {
+        append(cacheFile, repositoryBlames.headId, newBlamesByPath);
+      } else {
+        rewrite(cacheFile, workTree, repositoryBlames);
+        repositoryBlames.appendable = true;
+      }
+    } catch (IOException e) {
+      LOG.debug("Unable to write the blame cache for {}", workTree, e);
+    }
+  }
+
+  private static void append(Path cacheFile, ObjectId headId, Map<String, CachedBlame> blamesByPath) throws IOException {
+    // records are written at once, so that a concurrent reader never sees a partial record except at the end of the file
+    var records = new ByteArrayOutputStream();
+    var output = new DataOutputStream(records);
+    for (var entry : blamesByPath.entrySet()) {
+      writeRecord(output, headId, entry.getKey(), entry.getValue());
+    }
+    Files.write(cacheFile, records.toByteArray(), StandardOpenOption.APPEND);
+  }
+
+  private static void rewrite(Path cacheFile, Path workTree, RepositoryBlames repositoryBlames) throws IOException {
+    Files.createDirectories(cacheFile.getParent());
+    var tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+    try {
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(workTree.toString());
+        for (var entry : repositoryBlames.blamesByPath.entrySet()) {
+          writeRecord(output, repositoryBlames.headId, entry.getKey(), entry.getValue());
+        }
+      }
+      Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @CheckForNull
+  private Path getCacheFile(Path workTree) {
+    if (cacheDir == null) {
+      return null;
+    }
+    // the work tree is also stored in the file to detect hash collisions
+    return cacheDir.resolve(Integer.toHexString(workTree.toString().hashCode()) + ".blame");
+  }
+
+  private static class RepositoryBlames {
+    private final ObjectId headId;
+    private final Map<String, CachedBlame> blamesByPath = new HashMap<>();
+    // false when the file on disk has to be rewritten before records can be appended to it
+    private boolean appendable;
+
+    private RepositoryBlames(ObjectId headId) {
+      this.headId = headId;
+    }
+  }
+
+  private record CachedBlame(ObjectId blobId, Instant historyThreshold, BlameResult blame) {
+  }
+
+  private record Record(ObjectId headId, String path, CachedBlame blame) {
+  }
+}
@@ -19,18 +19,21 @@
  */
 package org.sonarsource.sonarlint.core.commons.util.git;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -40,40 +43,69 @@ import org.apache.commons.io.FilenameUtils;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.NoHeadException;
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.RawText;
 import org.eclipse.jgit.diff.RawTextComparator;
 import org.eclipse.jgit.ignore.IgnoreNode;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryBuilder;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.sonar.scm.git.blame.RepositoryBlameCommand;
 import org.sonarsource.sonarlint.core.commons.MultiFileBlameResult;
 import org.sonarsource.sonarlint.core.commons.SonarLintGitIgnore;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.commons.util.FileUtils;
 import org.sonarsource.sonarlint.core.commons.util.git.exceptions.GitException;
 import org.sonarsource.sonarlint.core.commons.util.git.exceptions.GitRepoNotFoundException;
 
 import static java.util.Optional.ofNullable;
+import static java.util.function.Predicate.not;
 import static org.eclipse.jgit.lib.Constants.GITIGNORE_FILENAME;
 
 public class GitService {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
-  private static final int FILES_GIT_BLAME_TRIGGER_THRESHOLD = 10;
+  // native git blames files concurrently, beyond this number of files, JGit blaming the whole repository in a single pass is faster
+  private static final int FILES_GIT_BLAME_TRIGGER_THRESHOLD = 50;
+
+  private static final DiffAlgorithm DIFF_ALGORITHM = DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.HISTOGRAM);
 
   private final NativeGitLocator nativeGitLocator;
+  @Nullable
+  private final BlameCache blameCache;
 
   GitService(NativeGitLocator nativeGitLocator) {
+    this(nativeGitLocator, null);
+  }
+
+  GitService(NativeGitLocator nativeGitLocator, @Nullable BlameCache blameCache) {
     this.nativeGitLocator = nativeGitLocator;
+    this.blameCache = blameCache;
   }
 
   public static GitService create() {
     return new GitService(new NativeGitLocator());
   }
 
+  /**
+   * @param blameCacheDir where the blame of committed files is persisted, it is reused as long as HEAD does not move
+   */
+  public static GitService create(Path blameCacheDir) {
+    return new GitService(new NativeGitLocator(), new BlameCache(blameCacheDir));
+  }
+
   public MultiFileBlameResult getBlameResult(Path projectBaseDir, Set<Path> projectBaseRelativeFilePaths, Set<URI> fileUris, @Nullable UnaryOperator<String> fileContentProvider,
     Instant thresholdDate) {
+    if (blameCache != null) {
+      var blameResult = blameWithCache(blameCache, projectBaseDir, projectBaseRelativeFilePaths, fileContentProvider, thresholdDate);
+      if (blameResult != null) {
+        return blameResult;
+      }
+    }
 
     var nativeGitExecutable = nativeGitLocator.getNativeGitExecutable();
     if (nativeGitExecutable.isEmpty() || fileUris.size() >= FILES_GIT_BLAME_TRIGGER_THRESHOLD) {
@@ -166,6 +198,158 @@ public class GitService {
     }
   }
 
+  /**
+   * Reuse the blame of committed files from the cache, blame the missing ones at HEAD, and then apply the uncommitted changes on top of the
+   * committed blame. Lines that are not committed have no date.
+   *
+   * @return null if the cache cannot be used and the files should be blamed as a whole
+   */
+  @CheckForNull
+  private MultiFileBlameResult blameWithCache(BlameCache cache, Path projectBaseDir, Set<Path> projectBaseRelativeFilePaths,
+    @Nullable UnaryOperator<String> fileContentProvider, Instant thresholdDate) {
+    var startTime = System.currentTimeMillis();
+    try (var gitRepo = buildGitRepository(projectBaseDir)) {
+      if (gitRepo.isBare()) {
+        return null;
+      }
+      var gitRepoRelativeProjectBaseDir = getRelativePath(gitRepo, projectBaseDir);
+      var headId = gitRepo.resolve(Constants.HEAD);
+      if (headId == null) {
+        // it means that the repository has no commits, so we can't get any blame information
+        return MultiFileBlameResult.empty(gitRepoRelativeProjectBaseDir);
+      }
+      var workTree = gitRepo.getWorkTree().toPath();
+      var projectBaseRelativePathsByGitRepoRelativePath = projectBaseRelativeFilePaths.stream()
+        .collect(Collectors.toMap(path -> FilenameUtils.separatorsToUnix(gitRepoRelativeProjectBaseDir.resolve(path).toString()), Function.identity(), (p1, p2) -> p1));
+      var blobIdsByPath = readBlobIds(gitRepo, headId, projectBaseRelativePathsByGitRepoRelativePath.keySet());
+
+      // blames computed with a more recent history threshold than needed are not reused
+      var historyThreshold = NativeGit.getHistoryThreshold(thresholdDate);
+      var committedBlames = new HashMap<>(cache.get(workTree, headId, blobIdsByPath, historyThreshold));
+      var missingPaths = blobIdsByPath.keySet().stream().filter(not(committedBlames::containsKey)).collect(Collectors.toSet());
+      LOG.debug("Blame of {} files found in cache, {} to compute", committedBlames.size(), missingPaths.size());
+      if (!missingPaths.isEmpty()) {
+        var missingBlames = blameCommittedFiles(gitRepo, headId, missingPaths, historyThreshold);
+        cache.put(workTree, headId, blobIdsByPath, missingBlames.historyThreshold(), missingBlames.blamesByPath());
+        committedBlames.putAll(missingBlames.blamesByPath());
+      }
+
+      var blamePerFile = new HashMap<String, BlameResult>();
+      for (var entry : committedBlames.entrySet()) {
+        var path = entry.getKey();
+        var workingContent = readWorkingContent(projectBaseDir, projectBaseRelativePathsByGitRepoRelativePath.get(path), fileContentProvider);
+        if (workingContent != null) {
+          var committedContent = gitRepo.open(blobIdsByPath.get(path)).getBytes();
+          var committedBlame = entry.getValue();
+          blamePerFile.put(path, Arrays.equals(committedContent, workingContent) ? committedBlame
+            : applyUncommittedChanges(committedBlame, committedContent, workingContent));
+        }
+      }
+      LOG.debug("Blamed {} files in {}ms", projectBaseRelativeFilePaths.size(), System.currentTimeMillis() - startTime);
+      return new MultiFileBlameResult(blamePerFile, gitRepoRelativeProjectBaseDir);
+    } catch (GitRepoNotFoundException e) {
+      return null;
+    } catch (IOException e) {
+      LOG.debug("Unable to use the blame cache", e);
+      return null;
+    }
+  }
+
+  private static Map<String, ObjectId> readBlobIds(Repository gitRepo, ObjectId headId, Set<String> gitRepoRelativeFilePaths) throws IOException {
+    var blobIdsByPath = new HashMap<String, ObjectId>();
+    if (gitRepoRelativeFilePaths.isEmpty()) {
+      return blobIdsByPath;
+    }
+    try (var revWalk = new RevWalk(gitRepo); var treeWalk = new TreeWalk(gitRepo)) {
+      treeWalk.addTree(revWalk.parseCommit(headId).getTree());
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(PathFilterGroup.createFromStrings(gitRepoRelativeFilePaths));
+      while (treeWalk.next()) {
+        var path = treeWalk.getPathString();
+        if (gitRepoRelativeFilePaths.contains(path)) {
+          blobIdsByPath.put(path, treeWalk.getObjectId(0));
+        }
+      }
+    }
+    return blobIdsByPath;
+  }
+
+  /**
+   * @param historyThreshold how far back in history native git has to go, JGit always walks the whole history
+   */
+  private CommittedBlames blameCommittedFiles(Repository gitRepo, ObjectId headId, Set<String> gitRepoRelativeFilePaths, Instant historyThreshold) {
+    var nativeGitExecutable = nativeGitLocator.getNativeGitExecutable();
+    if (nativeGitExecutable.isEmpty() || gitRepoRelativeFilePaths.size() >= FILES_GIT_BLAME_TRIGGER_THRESHOLD) {
+      var blameCommand = new RepositoryBlameCommand(gitRepo)
+        .setTextComparator(RawTextComparator.WS_IGNORE_ALL)
+        .setMultithreading(true)
+        .setStartCommit(headId)
+        .setFilePaths(gitRepoRelativeFilePaths);
+      try {
+        return new CommittedBlames(Instant.EPOCH, blameCommand.call().getFileBlameByPath().entrySet().stream()
+          .collect(Collectors.toMap(Map.Entry::getKey, e -> new BlameResult(Arrays.asList(e.getValue().getCommitDates())))));
+      } catch (GitAPIException e) {
+        throw new IllegalStateException("Failed to blame repository files", e);
+      }
+    }
+    var workTree = gitRepo.getWorkTree().toPath();
+    var gitRepoRelativePathsByUri = gitRepoRelativeFilePaths.stream()
+      .collect(Collectors.toMap(path -> workTree.resolve(path).toUri(), Function.identity()));
+    var blamePerAbsolutePath = nativeGitExecutable.get().blameFiles(workTree, gitRepoRelativePathsByUri.keySet(), historyThreshold, headId.name());
+    var blamePerFile = new HashMap<String, BlameResult>();
+    gitRepoRelativePathsByUri.forEach((uri, path) -> {
+      var absolutePathUnix = FilenameUtils.separatorsToUnix(FileUtils.getFilePathFromUri(uri).toAbsolutePath().toString());
+      var blame = blamePerAbsolutePath.get(absolutePathUnix);
+      if (blame != null) {
+        blamePerFile.put(path, blame);
+      }
+    });
+    return new CommittedBlames(historyThreshold, blamePerFile);
+  }
+
+  private record CommittedBlames(Instant historyThreshold, Map<String, BlameResult> blamesByPath) {
+  }
+
+  @CheckForNull
+  private static byte[] readWorkingContent(Path projectBaseDir, Path projectBaseRelativeFilePath, @Nullable UnaryOperator<String> fileContentProvider)
+    throws IOException {
+    var content = fileContentProvider != null ? fileContentProvider.apply(projectBaseRelativeFilePath.toString()) : null;
+    if (content != null) {
+      return content.getBytes(StandardCharsets.UTF_8);
+    }
+    var file = projectBaseDir.resolve(projectBaseRelativeFilePath);
+    return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+  }
+
+  /**
+   * Lines unchanged since HEAD keep their committed date, modified and added lines are considered as not committed.
+   */
+  static BlameResult applyUncommittedChanges(BlameResult committedBlame, byte[] committedContent, byte[] workingContent) {
+    var committedText = new RawText(committedContent);
+    var workingText = new RawText(workingContent);
+    var committedDates = committedBlame.lineCommitDates();
+    var workingDates = new ArrayList<Instant>(workingText.size());
+    var committedLine = 0;
+    for (var edit : DIFF_ALGORITHM.diff(RawTextComparator.WS_IGNORE_ALL, committedText, workingText)) {
+      while (workingDates.size() < edit.getBeginB()) {
+        workingDates.add(getDate(committedDates, committedLine++));
+      }
+      while (workingDates.size() < edit.getEndB()) {
+        workingDates.add(null);
+      }
+      committedLine = edit.getEndA();
+    }
+    while (workingDates.size() < workingText.size()) {
+      workingDates.add(getDate(committedDates, committedLine++));
+    }
+    return new BlameResult(workingDates);
+  }
+
+  @CheckForNull
+  private static Instant getDate(List<Instant> lineCommitDates, int lineIndex) {
+    return lineIndex < lineCommitDates.size() ? lineCommitDates.get(lineIndex) : null;
+  }
+
   private static Path getRelativePath(Repository gitRepo, Path projectBaseDir) {
     var repoDir = gitRepo.isBare() ? gitRepo.getDirectory() : gitRepo.getWorkTree();
     return repoDir.toPath().relativize(projectBaseDir);
@@ -193,19 +377,26 @@ public class GitService {
   /**
    * Assumes the supplied {@param baseDir} or some of its parents is a git repository.
    * If error occurs during parsing .gitignore file then an ignore node with no rules is created -> Files checked against this node will be considered as not ignored.
+   * For non-bare repositories, the rules of .git/info/exclude and of nested .gitignore files are honored as well, the latter being read lazily.
    */
   public static SonarLintGitIgnore createSonarLintGitIgnore(@Nullable Path baseDir) {
     if (baseDir == null) {
       return new SonarLintGitIgnore(new IgnoreNode());
     }
-    try {
-      var gitRepo = buildGitRepository(baseDir);
-      var ignoreNode = buildIgnoreNode(gitRepo);
-      return new SonarLintGitIgnore(ignoreNode);
+    try (var gitRepo = buildGitRepository(baseDir)) {
+      if (gitRepo.isBare()) {
+        var ignoreNode = new IgnoreNode();
+        readGitIgnoreFileFromBareRepo(gitRepo, ignoreNode);
+        return new SonarLintGitIgnore(ignoreNode);
+      }
+      var workTree = gitRepo.getWorkTree().toPath();
+      var infoExcludeFile = gitRepo.getDirectory().toPath().resolve(Constants.INFO_EXCLUDE);
+      if (!Files.exists(workTree.resolve(GITIGNORE_FILENAME))) {
+        LOG.info(".gitignore file was not found for {}", baseDir);
+      }
+      return new SonarLintGitIgnore(workTree, baseDir, () -> readRootIgnoreRules(workTree, infoExcludeFile));
     } catch (GitRepoNotFoundException e) {
       LOG.info("Git Repository not found for {}. The path {} is not in a Git repository", baseDir, e.getPath());
-    } catch (FileNotFoundException e) {
-      LOG.info(".gitignore file was not found for {}", baseDir);
     } catch (Exception e) {
       LOG.warn("Error occurred while reading .gitignore file: ", e);
       LOG.warn("Building empty ignore node with no rules. Files checked against this node will be considered as not ignored.");
@@ -213,16 +404,6 @@ public class GitService {
     return new SonarLintGitIgnore(new IgnoreNode());
   }
 
-  private static IgnoreNode buildIgnoreNode(Repository repository) throws IOException {
-    var ignoreNode = new IgnoreNode();
-    if (repository.isBare()) {
-      readGitIgnoreFileFromBareRepo(repository, ignoreNode);
-    } else {
-      readIgnoreFileFromNonBareRepo(repository, ignoreNode);
-    }
-    return ignoreNode;
-  }
-
   private static void readGitIgnoreFileFromBareRepo(Repository repository, IgnoreNode ignoreNode) throws IOException {
     var loader = readFileContentFromGitRepo(repository, GITIGNORE_FILENAME);
     if (loader.isPresent()) {
@@ -232,12 +413,22 @@ public class GitService {
     }
   }
 
-  private static void readIgnoreFileFromNonBareRepo(Repository repository, IgnoreNode ignoreNode) throws IOException {
-    var rootDir = repository.getWorkTree();
-    var gitIgnoreFile = new File(rootDir, GITIGNORE_FILENAME);
-    try (var inputStream = new FileInputStream(gitIgnoreFile)) {
-      ignoreNode.parse(inputStream);
+  /**
+   * Rules of the root .gitignore file are read after the ones of .git/info/exclude, so that they have higher priority.
+   */
+  private static IgnoreNode readRootIgnoreRules(Path workTree, Path infoExcludeFile) {
+    var ignoreNode = new IgnoreNode();
+    for (var ignoreFile : List.of(infoExcludeFile, workTree.resolve(GITIGNORE_FILENAME))) {
+      if (!Files.isRegularFile(ignoreFile)) {
+        continue;
+      }
+      try (var inputStream = Files.newInputStream(ignoreFile)) {
+        ignoreNode.parse(inputStream);
+      } catch (IOException e) {
+        LOG.warn("Error occurred while reading " + ignoreFile + " file: ", e);
+      }
     }
+    return ignoreNode;
   }
 
   private static UnaryOperator<String> adaptToPlatformBasedPath(UnaryOperator<String> provider) {
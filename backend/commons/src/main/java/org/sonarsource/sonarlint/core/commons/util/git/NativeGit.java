@@ -24,15 +24,18 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.Period;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.sonarsource.sonarlint.core.commons.MultiFileBlameResult;
 import org.sonarsource.sonarlint.core.commons.Version;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
 import org.sonarsource.sonarlint.core.commons.util.FileUtils;
 
 import static java.lang.String.format;
@@ -42,6 +45,7 @@ public class NativeGit {
   private static final Version MINIMUM_REQUIRED_GIT_VERSION = Version.create("2.24");
   private static final String GIT_VERSION_OUTPUT_PREFIX = "git version";
   private static final Period BLAME_HISTORY_WINDOW = Period.ofDays(365);
+  private static final int MAX_CONCURRENT_BLAME_PROCESSES = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
   private final String executable;
 
   public NativeGit(String executable) {
@@ -88,24 +92,61 @@ public class NativeGit {
   public MultiFileBlameResult blame(Path projectBaseDir, Set<URI> fileUris, Instant thresholdDateFromNewCodeDefinition) {
     LOG.debug("Using native git blame");
     var startTime = System.currentTimeMillis();
-    var blamePerFile = new HashMap<String, BlameResult>();
-    for (var fileUri : fileUris) {
-      var filePath = FileUtils.getFilePathFromUri(fileUri).toAbsolutePath().toString();
-      var filePathUnix = filePath.replace("\\", "/");
-      var yearAgo = Instant.now().minus(BLAME_HISTORY_WINDOW);
-      var thresholdDate = thresholdDateFromNewCodeDefinition.isAfter(yearAgo) ? yearAgo : thresholdDateFromNewCodeDefinition;
-      var blameHistoryThresholdCondition = "--since='" + thresholdDate + "'";
-      var command = new String[] {executable, "blame", blameHistoryThresholdCondition, filePath, "--line-porcelain", "--encoding=UTF-8"};
-      var blameReader = new GitBlameReader();
-      var success = executeGitCommand(projectBaseDir, blameReader::readLine, command);
-      if (success) {
-        blamePerFile.put(filePathUnix, blameReader.getResult());
-      }
-    }
+    var blamePerFile = blameFiles(projectBaseDir, fileUris, thresholdDateFromNewCodeDefinition, null);
     LOG.debug("Blamed {} files in {}ms", fileUris.size(), System.currentTimeMillis() - startTime);
     return new MultiFileBlameResult(blamePerFile, projectBaseDir);
   }
 
+  /**
+   * Files are blamed concurrently, each by its own git process, as git can only blame one file at a time.
+   *
+   * @param revision when not null, the files are blamed as they are in this revision, ignoring uncommitted changes
+   * @return the blame of each file, keyed by its absolute path with unix separators
+   */
+  Map<String, BlameResult> blameFiles(Path workingDir, Set<URI> fileUris, Instant thresholdDateFromNewCodeDefinition, @Nullable String revision) {
+    var thresholdDate = getHistoryThreshold(thresholdDateFromNewCodeDefinition);
+    var blamePerFile = new ConcurrentHashMap<String, BlameResult>();
+    if (fileUris.size() == 1) {
+      blameFile(workingDir, fileUris.iterator().next(), thresholdDate, revision, blamePerFile);
+      return blamePerFile;
+    }
+    var executor = FailSafeExecutors.newFixedThreadPool("sonarlint-git-blame", Math.min(MAX_CONCURRENT_BLAME_PROCESSES, fileUris.size()));
+    try {
+      executor.invokeAll(fileUris.stream()
+        .map(fileUri -> Executors.callable(() -> blameFile(workingDir, fileUri, thresholdDate, revision, blamePerFile)))
+        .toList());
+    } catch (InterruptedException e) {
+      LOG.debug("Interrupted while blaming files");
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+    return blamePerFile;
+  }
+
+  /**
+   * The blame goes back at least one year in history, or further when the new code period started earlier.
+   * Applying it to its own result gives the same date.
+   */
+  static Instant getHistoryThreshold(Instant thresholdDateFromNewCodeDefinition) {
+    var yearAgo = Instant.now().minus(BLAME_HISTORY_WINDOW);
+    return thresholdDateFromNewCodeDefinition.isAfter(yearAgo) ? yearAgo : thresholdDateFromNewCodeDefinition;
+  }
+
+  private void blameFile(Path workingDir, URI fileUri, Instant thresholdDate, @Nullable String revision, Map<String, BlameResult> blamePerFile) {
+    var filePath = FileUtils.getFilePathFromUri(fileUri).toAbsolutePath().toString();
+    var filePathUnix = filePath.replace("\\", "/");
+    var blameHistoryThresholdCondition = "--since='" + thresholdDate + "'";
+    var command = revision == null
+      ? new String[] {executable, "blame", blameHistoryThresholdCondition, filePath, "--line-porcelain", "--encoding=UTF-8"}
+      : new String[] {executable, "blame", blameHistoryThresholdCondition, "--line-porcelain", "--encoding=UTF-8", revision, "--", filePath};
+    var blameReader = new GitBlameReader();
+    var success = executeGitCommand(workingDir, blameReader::readLine, command);
+    if (success) {
+      blamePerFile.put(filePathUnix, blameReader.getResult());
+    }
+  }
+
   private static boolean executeGitCommand(@Nullable Path workingDir, Consumer<String> lineConsumer, String... command) {
     var output = new ProcessWrapperFactory()
       .create(workingDir, lineConsumer, command)
@@ -19,15 +19,22 @@
  */
 package org.sonarsource.sonarlint.core.commons.log;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.sonarsource.sonarlint.core.commons.log.LogOutput.Level;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class SonarLintLoggerTests {
   private static final NullPointerException THROWN = new NullPointerException();
@@ -37,6 +44,7 @@ class SonarLintLoggerTests {
   @BeforeEach
   void prepare() {
     logger.setTarget(output);
+    when(output.isEnabled(any())).thenReturn(true);
   }
 
   @Test
@@ -161,4 +169,28 @@ class SonarLintLoggerTests {
     inOrder.verify(output).log(eq("msg a"), eq(Level.ERROR), argThat(arg -> arg.contains("thrown")));
     inOrder.verify(output).log(eq("msg a a"), eq(Level.ERROR), argThat(arg -> arg.contains("thrown")));
   }
+
+  @Test
+  void should_not_format_nor_log_disabled_levels() {
+    when(output.isEnabled(any())).thenAnswer(invocation -> Level.INFO.isEnabledForLevel(invocation.getArgument(0)));
+    var formatted = new AtomicBoolean();
+    var arg = new Object() {
+      @Override
+      public String toString() {
+        formatted.set(true);
+        return "arg";
+      }
+    };
+
+    logger.debug("msg {}", arg);
+    logger.trace("msg {} {}", arg, arg);
+    logger.info("msg");
+
+    assertThat(logger.isDebugEnabled()).isFalse();
+    assertThat(logger.isTraceEnabled()).isFalse();
+    assertThat(formatted).isFalse();
+    verify(output, never()).log(anyString(), eq(Level.DEBUG), any());
+    verify(output, never()).log(anyString(), eq(Level.TRACE), any());
+    verify(output).log("msg", Level.INFO, null);
+  }
 }
@@ -20,8 +20,10 @@
 package org.sonarsource.sonarlint.core.commons.testutils;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import mockwebserver3.Dispatcher;
 import mockwebserver3.MockResponse;
 import mockwebserver3.MockWebServer;
@@ -38,6 +40,9 @@ public class MockWebServerExtension implements BeforeEachCallback, AfterEachCall
 
   private MockWebServer server;
   protected final Map<String, MockResponse> responsesByPath = new HashMap<>();
+  private final AtomicInteger inFlightRequests = new AtomicInteger();
+  private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+  private volatile Duration dispatchLatency = Duration.ZERO;
 
   @Override
   public void beforeEach(ExtensionContext context) {
@@ -49,9 +54,18 @@ public class MockWebServerExtension implements BeforeEachCallback, AfterEachCall
   public void start() {
     server = new MockWebServer();
     responsesByPath.clear();
+    inFlightRequests.set(0);
+    maxInFlightRequests.set(0);
+    dispatchLatency = Duration.ZERO;
     final Dispatcher dispatcher = new Dispatcher() {
       @Override
-      public MockResponse dispatch(RecordedRequest request) {
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(dispatchLatency.toMillis());
+        } finally {
+          inFlightRequests.decrementAndGet();
+        }
         if (responsesByPath.containsKey(request.getPath())) {
           return responsesByPath.get(request.getPath());
         }
@@ -95,6 +109,20 @@ public class MockWebServerExtension implements BeforeEachCallback, AfterEachCall
     return server.getRequestCount();
   }
 
+  /**
+   * Simulates a slow server: each request is held this long before its response is chosen
+   */
+  public void setDispatchLatency(Duration dispatchLatency) {
+    this.dispatchLatency = dispatchLatency;
+  }
+
+  /**
+   * @return the highest number of requests the server was handling at the same time
+   */
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests.get();
+  }
+
   public RecordedRequest takeRequest() {
     try {
       return server.takeRequest();
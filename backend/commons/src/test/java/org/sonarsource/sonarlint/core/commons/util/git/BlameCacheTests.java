@@ -0,0 +1,156 @@
+/*
+ * SonarLint Core - Commons
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.commons.util.git;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlameCacheTests {
+
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final Path WORK_TREE = Path.of("repo");
+  private static final ObjectId HEAD_1 = ObjectId.fromString("1111111111111111111111111111111111111111");
+  private static final ObjectId HEAD_2 = ObjectId.fromString("2222222222222222222222222222222222222222");
+  private static final ObjectId BLOB_1 = ObjectId.fromString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+  private static final ObjectId BLOB_2 = ObjectId.fromString("bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb");
+  private static final BlameResult BLAME = new BlameResult(Arrays.asList(Instant.ofEpochSecond(1000), null));
+  private static final BlameResult OTHER_BLAME = new BlameResult(Arrays.asList(Instant.ofEpochSecond(2000), Instant.ofEpochSecond(3000)));
+  private static final Instant THRESHOLD = Instant.ofEpochSecond(500);
+
+  @Test
+  void should_return_cached_blame_for_same_head_and_blob() {
+    var underTest = new BlameCache(null);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+
+    assertThat(underTest.get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD)).containsEntry("fileA", BLAME);
+    assertThat(underTest.get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_2), THRESHOLD)).isEmpty();
+  }
+
+  @Test
+  void should_invalidate_entries_when_head_moves() {
+    var underTest = new BlameCache(null);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+
+    assertThat(underTest.get(WORK_TREE, HEAD_2, Map.of("fileA", BLOB_1), THRESHOLD)).isEmpty();
+    assertThat(underTest.get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD)).isEmpty();
+  }
+
+  @Test
+  void should_reload_persisted_entries(@TempDir Path cacheDir) {
+    new BlameCache(cacheDir).put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+
+    var reloaded = new BlameCache(cacheDir).get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD);
+
+    assertThat(reloaded).containsEntry("fileA", BLAME);
+    assertThat(new BlameCache(cacheDir).get(Path.of("otherRepo"), HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD)).isEmpty();
+  }
+
+  @Test
+  void should_not_reuse_blame_that_does_not_go_back_far_enough_in_history() {
+    var underTest = new BlameCache(null);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+
+    assertThat(underTest.get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD.plusSeconds(1))).containsEntry("fileA", BLAME);
+    assertThat(underTest.get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD.minusSeconds(1))).isEmpty();
+  }
+
+  @Test
+  void should_reuse_full_history_blame_for_any_threshold() {
+    var underTest = new BlameCache(null);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), Instant.EPOCH, Map.of("fileA", BLAME));
+
+    assertThat(underTest.get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), Instant.EPOCH)).containsEntry("fileA", BLAME);
+  }
+
+  @Test
+  void should_reload_entries_appended_by_successive_puts(@TempDir Path cacheDir) throws IOException {
+    var underTest = new BlameCache(cacheDir);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+    var cacheFile = getSingleCacheFile(cacheDir);
+    var sizeAfterFirstPut = Files.size(cacheFile);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileB", BLOB_2), THRESHOLD, Map.of("fileB", OTHER_BLAME));
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_2), THRESHOLD, Map.of("fileA", OTHER_BLAME));
+
+    assertThat(Files.size(cacheFile)).isGreaterThan(sizeAfterFirstPut);
+    var reloaded = new BlameCache(cacheDir).get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_2, "fileB", BLOB_2), THRESHOLD);
+    assertThat(reloaded).containsOnly(Map.entry("fileA", OTHER_BLAME), Map.entry("fileB", OTHER_BLAME));
+  }
+
+  @Test
+  void should_drop_persisted_entries_of_previous_head_at_next_write(@TempDir Path cacheDir) throws IOException {
+    var underTest = new BlameCache(cacheDir);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1, "fileB", BLOB_2), THRESHOLD, Map.of("fileA", BLAME, "fileB", OTHER_BLAME));
+    var sizeWithTwoEntries = Files.size(getSingleCacheFile(cacheDir));
+
+    underTest.put(WORK_TREE, HEAD_2, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+
+    assertThat(Files.size(getSingleCacheFile(cacheDir))).isLessThan(sizeWithTwoEntries);
+    assertThat(new BlameCache(cacheDir).get(WORK_TREE, HEAD_2, Map.of("fileA", BLOB_1), THRESHOLD)).containsEntry("fileA", BLAME);
+    assertThat(new BlameCache(cacheDir).get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD)).isEmpty();
+  }
+
+  @Test
+  void should_ignore_partially_written_last_record(@TempDir Path cacheDir) throws IOException {
+    var underTest = new BlameCache(cacheDir);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+    var cacheFile = getSingleCacheFile(cacheDir);
+    var sizeAfterFirstPut = Files.size(cacheFile);
+    underTest.put(WORK_TREE, HEAD_1, Map.of("fileB", BLOB_2), THRESHOLD, Map.of("fileB", OTHER_BLAME));
+    var content = Files.readAllBytes(cacheFile);
+    Files.write(cacheFile, Arrays.copyOf(content, (int) sizeAfterFirstPut + 10));
+
+    var reloaded = new BlameCache(cacheDir).get(WORK_TREE, HEAD_1, Map.of("fileA", BLOB_1, "fileB", BLOB_2), THRESHOLD);
+
+    assertThat(reloaded).containsOnly(Map.entry("fileA", BLAME));
+  }
+
+  @Test
+  void should_only_keep_the_most_recently_used_repositories_in_memory() {
+    var underTest = new BlameCache(null);
+    for (var i = 0; i <= BlameCache.MAX_REPOSITORIES; i++) {
+      underTest.put(Path.of("repo" + i), HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD, Map.of("fileA", BLAME));
+    }
+
+    assertThat(underTest.get(Path.of("repo0"), HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD)).isEmpty();
+    assertThat(underTest.get(Path.of("repo" + BlameCache.MAX_REPOSITORIES), HEAD_1, Map.of("fileA", BLOB_1), THRESHOLD)).containsEntry("fileA", BLAME);
+  }
+
+  private static Path getSingleCacheFile(Path cacheDir) throws IOException {
+    try (var files = Files.list(cacheDir)) {
+      var cacheFiles = files.toList();
+      assertThat(cacheFiles).hasSize(1);
+      return cacheFiles.get(0);
+    }
+  }
+
+}
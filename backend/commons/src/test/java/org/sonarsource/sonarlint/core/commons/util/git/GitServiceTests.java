@@ -25,6 +25,7 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.Period;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -174,6 +175,61 @@ class GitServiceTests {
       .allMatch(date -> date.equals(c1));
   }
 
+  @Test
+  void it_should_reuse_cached_blame_and_only_consider_uncommitted_lines_as_new(@TempDir Path cacheDir) throws IOException, GitAPIException {
+    createFile(projectDirPath, "fileA", "line1", "line2", "line3");
+    var c1 = commit(git, Instant.now().minus(Period.ofDays(2)), "fileA");
+    var service = new GitService(REAL_NATIVE_GIT_LOCATOR, new BlameCache(cacheDir));
+    var filePaths = Set.of(Path.of("fileA"));
+    var fileUris = Set.of(projectDirPath.resolve("fileA").toUri());
+
+    var firstBlameResult = service.getBlameResult(projectDirPath, filePaths, fileUris, null, Instant.now());
+    modifyFile(projectDirPath.resolve("fileA"), "line1", "new line", "line2", "line3");
+    var secondBlameResult = service.getBlameResult(projectDirPath, filePaths, fileUris, null, Instant.now());
+
+    assertThat(firstBlameResult.getLatestChangeDateForLinesInFile(Path.of("fileA"), List.of(1, 2, 3))).contains(c1);
+    assertThat(IntStream.of(1, 2, 3, 4)
+      .mapToObj(lineNumber -> secondBlameResult.getLatestChangeDateForLinesInFile(Path.of("fileA"), List.of(lineNumber))))
+      .map(dateOpt -> dateOpt.orElse(null))
+      .containsExactly(c1, null, c1, c1);
+    assertThat(logTester.logs()).contains("Blame of 1 files found in cache, 0 to compute");
+  }
+
+  @Test
+  void it_should_use_unsaved_contents_with_cached_blame(@TempDir Path cacheDir) throws IOException, GitAPIException {
+    createFile(projectDirPath, "fileA", "line1", "line2", "line3");
+    var c1 = commit(git, Instant.now().minus(Period.ofDays(2)), "fileA");
+    var service = new GitService(REAL_NATIVE_GIT_LOCATOR, new BlameCache(cacheDir));
+    var content = String.join(System.lineSeparator(), "line1", "modified", "line3") + System.lineSeparator();
+
+    var blameResult = service.getBlameResult(projectDirPath, Set.of(Path.of("fileA")), Set.of(projectDirPath.resolve("fileA").toUri()),
+      path -> "fileA".equals(path) ? content : null, Instant.now());
+
+    assertThat(IntStream.of(1, 2, 3)
+      .mapToObj(lineNumber -> blameResult.getLatestChangeDateForLinesInFile(Path.of("fileA"), List.of(lineNumber))))
+      .map(dateOpt -> dateOpt.orElse(null))
+      .containsExactly(c1, null, c1);
+  }
+
+  @Test
+  void it_should_invalidate_cached_blame_when_head_moves(@TempDir Path cacheDir) throws IOException, GitAPIException {
+    createFile(projectDirPath, "fileA", "line1", "line2");
+    var c1 = commit(git, Instant.now().minus(Period.ofDays(2)), "fileA");
+    var filePaths = Set.of(Path.of("fileA"));
+    var fileUris = Set.of(projectDirPath.resolve("fileA").toUri());
+    new GitService(REAL_NATIVE_GIT_LOCATOR, new BlameCache(cacheDir)).getBlameResult(projectDirPath, filePaths, fileUris, null, Instant.now());
+    modifyFile(projectDirPath.resolve("fileA"), "line1", "line2", "line3");
+    var c2 = commit(git, Instant.now().minus(Period.ofDays(1)), "fileA");
+
+    // a new cache instance reads the entries persisted by the previous one
+    var blameResult = new GitService(REAL_NATIVE_GIT_LOCATOR, new BlameCache(cacheDir)).getBlameResult(projectDirPath, filePaths, fileUris, null, Instant.now());
+
+    assertThat(IntStream.of(1, 2, 3)
+      .mapToObj(lineNumber -> blameResult.getLatestChangeDateForLinesInFile(Path.of("fileA"), List.of(lineNumber))))
+      .map(dateOpt -> dateOpt.orElse(null))
+      .containsExactly(c1, c1, c2);
+  }
+
   @Test
   void it_should_blame_with_given_contents_within_inner_dir() throws IOException, GitAPIException {
     var deepFilePath = Path.of("innerDir").resolve("fileA").toString();
@@ -376,6 +432,62 @@ class GitServiceTests {
     assertThat(sonarLintGitIgnore.isIgnored(Path.of("app/should_be_ignored.js"))).isTrue();
   }
 
+  @Test
+  void should_respect_nested_gitignore_rules() throws IOException {
+    Files.write(projectDirPath.resolve(GITIGNORE_FILENAME), List.of("*.log"));
+    Files.createDirectories(projectDirPath.resolve("module/sub"));
+    Files.write(projectDirPath.resolve("module").resolve(GITIGNORE_FILENAME), List.of("/generated/", "!keep.log"));
+    Files.write(projectDirPath.resolve("module/sub").resolve(GITIGNORE_FILENAME), List.of("*.tmp"));
+    var sonarLintGitIgnore = GitService.createSonarLintGitIgnore(projectDirPath);
+
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/generated/Foo.java"))).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("generated/Foo.java"))).isFalse();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/sub/generated/Foo.java"))).isFalse();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/app.log"))).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/sub/keep.log"))).isFalse();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/sub/file.tmp"))).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/file.tmp"))).isFalse();
+  }
+
+  @Test
+  void should_respect_info_exclude_rules_with_lower_priority_than_gitignore() throws IOException {
+    Files.createDirectories(projectDirPath.resolve(".git/info"));
+    Files.write(projectDirPath.resolve(".git/info/exclude"), List.of("*.secret", "*.local"));
+    Files.write(projectDirPath.resolve(GITIGNORE_FILENAME), List.of("!shared.local"));
+    var sonarLintGitIgnore = GitService.createSonarLintGitIgnore(projectDirPath);
+
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("passwords.secret"))).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("my.local"))).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("shared.local"))).isFalse();
+  }
+
+  @Test
+  void should_match_rules_relative_to_the_repository_when_project_is_in_a_sub_folder() throws IOException {
+    Files.write(projectDirPath.resolve(GITIGNORE_FILENAME), List.of("/project/build/"));
+    var projectRoot = Files.createDirectories(projectDirPath.resolve("project"));
+    var sonarLintGitIgnore = GitService.createSonarLintGitIgnore(projectRoot);
+
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("build/Foo.class"))).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("src/Foo.java"))).isFalse();
+  }
+
+  @Test
+  void should_reload_rules_of_a_changed_gitignore_only() throws IOException {
+    Files.createDirectories(projectDirPath.resolve("module"));
+    var nestedGitIgnore = projectDirPath.resolve("module").resolve(GITIGNORE_FILENAME);
+    Files.write(nestedGitIgnore, List.of("*.tmp"));
+    var sonarLintGitIgnore = GitService.createSonarLintGitIgnore(projectDirPath);
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/file.tmp"))).isTrue();
+
+    Files.write(nestedGitIgnore, List.of("*.bak"));
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/file.tmp"))).isTrue();
+
+    assertThat(sonarLintGitIgnore.onGitIgnoreChanged(nestedGitIgnore)).isTrue();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/file.tmp"))).isFalse();
+    assertThat(sonarLintGitIgnore.isIgnored(Path.of("module/file.bak"))).isTrue();
+    assertThat(sonarLintGitIgnore.onGitIgnoreChanged(Path.of("/elsewhere/.gitignore"))).isFalse();
+  }
+
   @Test
   void createSonarLintGitIgnore_works_for_bare_repos_too() {
     var sonarLintGitIgnore = GitService.createSonarLintGitIgnore(bareRepoPath);
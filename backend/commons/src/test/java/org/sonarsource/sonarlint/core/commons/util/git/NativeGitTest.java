@@ -24,10 +24,13 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.Period;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.junit.jupiter.api.BeforeEach;
@@ -142,6 +145,24 @@ class NativeGitTest {
     assertThat(ChronoUnit.MINUTES.between(line3Date, fourMonthsAgo)).isZero();
   }
 
+  @Test
+  void it_should_blame_several_files_concurrently() throws IOException, GitAPIException {
+    var nativeGitExecutable = new NativeGitLocator().getNativeGitExecutable();
+    assumeTrue(nativeGitExecutable.isPresent());
+    var underTest = nativeGitExecutable.get();
+    var fileNames = IntStream.range(0, 20).mapToObj(i -> "file" + i).toArray(String[]::new);
+    for (var fileName : fileNames) {
+      createFile(projectDirPath, fileName, "line1", "line2");
+    }
+    var commitDate = commitAtDate(git, Instant.now().minus(Period.ofDays(10)), fileNames);
+    var fileUris = Arrays.stream(fileNames).map(fileName -> projectDirPath.resolve(fileName).toUri()).collect(Collectors.toSet());
+
+    var blameResult = underTest.blame(projectDirPath, fileUris, Instant.now());
+
+    assertThat(Arrays.stream(fileNames).map(fileName -> blameResult.getLatestChangeDateForLinesInFile(Path.of(fileName), List.of(1, 2))))
+      .allSatisfy(date -> assertThat(date).contains(commitDate));
+  }
+
   @Test
   void it_should_not_blame_file_on_git_command_error() {
     var nativeGitExecutable = new NativeGitLocator().getNativeGitExecutable();
@@ -48,6 +48,8 @@ import org.springframework.context.event.EventListener;
 import static org.sonarsource.sonarlint.core.commons.monitoring.Trace.startChild;
 
 public class AnalysisSchedulerCache {
+  private static final String ANALYSIS_WORKERS_PROPERTY = "sonarlint.internal.analysis.workers";
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
   private final Path workDir;
   private final ClientFileSystemService clientFileSystemService;
   private final ConfigurationRepository configurationRepository;
@@ -144,9 +146,23 @@ public class AnalysisSchedulerCache {
       .setExtraProperties(fullExtraProperties)
       .setNodeJs(nodeJsPath)
       .setModulesProvider(this::getModules)
+      .setAnalysisWorkersCount(getAnalysisWorkersCount())
       .build();
   }
 
+  private static int getAnalysisWorkersCount() {
+    var workersCountFromSystemProperty = System.getProperty(ANALYSIS_WORKERS_PROPERTY);
+    if (workersCountFromSystemProperty == null) {
+      return 1;
+    }
+    try {
+      return Math.max(1, Integer.parseInt(workersCountFromSystemProperty));
+    } catch (NumberFormatException e) {
+      LOG.debug("Invalid value for '{}': {}, using a single analysis worker", ANALYSIS_WORKERS_PROPERTY, workersCountFromSystemProperty);
+      return 1;
+    }
+  }
+
   private List<ClientModuleInfo> getModules() {
     var leafConfigScopeIds = configurationRepository.getLeafConfigScopeIds();
     return leafConfigScopeIds.stream().map(scopeId -> {
@@ -58,7 +58,6 @@ import org.sonarsource.sonarlint.core.analysis.command.AnalyzeCommand;
 import org.sonarsource.sonarlint.core.analysis.command.NotifyModuleEventCommand;
 import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.BoundScope;
-import org.sonarsource.sonarlint.core.commons.RuleKey;
 import org.sonarsource.sonarlint.core.commons.RuleType;
 import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
@@ -95,7 +94,6 @@ import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
 import org.sonarsource.sonarlint.core.rules.NewRulesActivatedOnServer;
 import org.sonarsource.sonarlint.core.rules.RulesService;
 import org.sonarsource.sonarlint.core.rules.StandaloneRulesConfigurationChanged;
-import org.sonarsource.sonarlint.core.serverapi.rules.ServerActiveRule;
 import org.sonarsource.sonarlint.core.storage.StorageService;
 import org.sonarsource.sonarlint.core.sync.AnalyzerConfigurationSynchronized;
 import org.sonarsource.sonarlint.core.sync.ConfigurationScopesSynchronizedEvent;
@@ -206,18 +204,6 @@ public class AnalysisService {
     return org.sonarsource.sonarlint.core.rpc.protocol.common.Language.valueOf(language.name());
   }
 
-  private static Map<String, String> getEffectiveParams(SonarLintRuleDefinition ruleOrTemplateDefinition, ServerActiveRule activeRule) {
-    Map<String, String> effectiveParams = new HashMap<>(ruleOrTemplateDefinition.getDefaultParams());
-    activeRule.getParams().forEach((paramName, paramValue) -> {
-      if (!ruleOrTemplateDefinition.getParams().containsKey(paramName)) {
-        LOG.debug("Rule parameter '{}' for rule '{}' does not exist in embedded analyzer, ignoring.", paramName, ruleOrTemplateDefinition.getKey());
-        return;
-      }
-      effectiveParams.put(paramName, paramValue);
-    });
-    return effectiveParams;
-  }
-
   public List<String> getSupportedFilePatterns(String configScopeId) {
     var effectiveBinding = configurationRepository.getEffectiveBinding(configScopeId);
     Set<SonarLanguage> enabledLanguages;
@@ -377,36 +363,30 @@ public class AnalysisService {
   }
 
   private List<ActiveRuleDto> buildConnectedActiveRules(Binding binding, boolean hotspotsOnly) {
-    var analyzerConfig = storageService.binding(binding).analyzerConfiguration().read();
-    var ruleSetByLanguageKey = analyzerConfig.getRuleSetByLanguageKey();
+    var activeRulesSnapshot = rulesRepository.getActiveRulesSnapshot(binding);
     var result = new ArrayList<ActiveRuleDto>();
-    ruleSetByLanguageKey.entrySet()
+    activeRulesSnapshot.getActiveRulesByLanguageKey().entrySet()
       .stream().filter(e -> SonarLanguage.forKey(e.getKey()).filter(l -> languageSupportRepository.getEnabledLanguagesInConnectedMode().contains(l)).isPresent())
       .forEach(e -> {
         var languageKey = e.getKey();
-        var ruleSet = e.getValue();
+        var activeRules = e.getValue();
 
-        LOG.debug("  * {}: {} active rules", languageKey, ruleSet.getRules().size());
+        LOG.debug("  * {}: {} active rules", languageKey, activeRules.size());
         var missingRuleOrTemplateDefinitions = new LinkedHashSet<>();
-        for (ServerActiveRule possiblyDeprecatedActiveRuleFromStorage : ruleSet.getRules()) {
-          var activeRuleFromStorage = tryConvertDeprecatedKeys(binding.connectionId(), possiblyDeprecatedActiveRuleFromStorage);
-          SonarLintRuleDefinition ruleOrTemplateDefinition;
-          if (StringUtils.isNotBlank(activeRuleFromStorage.getTemplateKey())) {
-            ruleOrTemplateDefinition = rulesRepository.getRule(binding.connectionId(), activeRuleFromStorage.getTemplateKey()).orElse(null);
-            if (ruleOrTemplateDefinition == null) {
-              LOG.debug("Rule {} is enabled on the server, but its template {} is not available in SonarLint", activeRuleFromStorage.getRuleKey(),
-                activeRuleFromStorage.getTemplateKey());
-              continue;
-            }
-          } else {
-            ruleOrTemplateDefinition = rulesRepository.getRule(binding.connectionId(), activeRuleFromStorage.getRuleKey()).orElse(null);
-            if (ruleOrTemplateDefinition == null) {
-              missingRuleOrTemplateDefinitions.add(activeRuleFromStorage.getRuleKey());
-              continue;
+        for (var compiledActiveRule : activeRules) {
+          var activeRule = compiledActiveRule.activeRule();
+          var ruleOrTemplateDefinition = compiledActiveRule.ruleOrTemplateDefinition();
+          if (ruleOrTemplateDefinition == null) {
+            if (StringUtils.isNotBlank(activeRule.getTemplateKey())) {
+              LOG.debug("Rule {} is enabled on the server, but its template {} is not available in SonarLint", activeRule.getRuleKey(), activeRule.getTemplateKey());
+            } else {
+              missingRuleOrTemplateDefinitions.add(activeRule.getRuleKey());
             }
+            continue;
           }
           if (shouldIncludeRuleForAnalysis(binding.connectionId(), ruleOrTemplateDefinition, hotspotsOnly)) {
-            result.add(buildActiveRuleDto(ruleOrTemplateDefinition, activeRuleFromStorage));
+            result.add(new ActiveRuleDto(activeRule.getRuleKey(), ruleOrTemplateDefinition.getLanguage().getSonarLanguageKey(), compiledActiveRule.effectiveParams(),
+              trimToNull(activeRule.getTemplateKey())));
           }
         }
         if (!missingRuleOrTemplateDefinitions.isEmpty()) {
@@ -423,13 +403,6 @@ public class AnalysisService {
     return result;
   }
 
-  public ActiveRuleDto buildActiveRuleDto(SonarLintRuleDefinition ruleOrTemplateDefinition, ServerActiveRule activeRule) {
-    return new ActiveRuleDto(activeRule.getRuleKey(),
-      ruleOrTemplateDefinition.getLanguage().getSonarLanguageKey(),
-      getEffectiveParams(ruleOrTemplateDefinition, activeRule),
-      trimToNull(activeRule.getTemplateKey()));
-  }
-
   private boolean shouldIncludeRuleForAnalysis(String connectionId, SonarLintRuleDefinition ruleDefinition, boolean hotspotsOnly) {
     var isHotspot = ruleDefinition.getType().equals(RuleType.SECURITY_HOTSPOT);
     return (!isHotspot && !hotspotsOnly) || (isHotspot && hotspotEnabled && isHotspotTrackingPossible(connectionId));
@@ -445,30 +418,6 @@ public class AnalysisService {
     return storageService.connection(connectionId).serverInfo().read().isPresent();
   }
 
-  private ServerActiveRule tryConvertDeprecatedKeys(String connectionId, ServerActiveRule possiblyDeprecatedActiveRuleFromStorage) {
-    SonarLintRuleDefinition ruleOrTemplateDefinition;
-    if (StringUtils.isNotBlank(possiblyDeprecatedActiveRuleFromStorage.getTemplateKey())) {
-      ruleOrTemplateDefinition = rulesRepository.getRule(connectionId, possiblyDeprecatedActiveRuleFromStorage.getTemplateKey()).orElse(null);
-      if (ruleOrTemplateDefinition == null) {
-        // The rule template is not known among our loaded analyzers, so return it untouched, to let calling code take appropriate decision
-        return possiblyDeprecatedActiveRuleFromStorage;
-      }
-      var ruleKeyPossiblyWithDeprecatedRepo = RuleKey.parse(possiblyDeprecatedActiveRuleFromStorage.getRuleKey());
-      var templateRuleKeyWithCorrectRepo = RuleKey.parse(ruleOrTemplateDefinition.getKey());
-      var ruleKey = new RuleKey(templateRuleKeyWithCorrectRepo.repository(), ruleKeyPossiblyWithDeprecatedRepo.rule()).toString();
-      return new ServerActiveRule(ruleKey, possiblyDeprecatedActiveRuleFromStorage.getSeverity(), possiblyDeprecatedActiveRuleFromStorage.getParams(),
-        ruleOrTemplateDefinition.getKey(), possiblyDeprecatedActiveRuleFromStorage.getOverriddenImpacts());
-    } else {
-      ruleOrTemplateDefinition = rulesRepository.getRule(connectionId, possiblyDeprecatedActiveRuleFromStorage.getRuleKey()).orElse(null);
-      if (ruleOrTemplateDefinition == null) {
-        // The rule is not known among our loaded analyzers, so return it untouched, to let calling code take appropriate decision
-        return possiblyDeprecatedActiveRuleFromStorage;
-      }
-      return new ServerActiveRule(ruleOrTemplateDefinition.getKey(), possiblyDeprecatedActiveRuleFromStorage.getSeverity(), possiblyDeprecatedActiveRuleFromStorage.getParams(),
-        null, possiblyDeprecatedActiveRuleFromStorage.getOverriddenImpacts());
-    }
-  }
-
   private List<ActiveRuleDto> buildStandaloneActiveRules() {
     var standaloneRuleConfig = rulesService.getStandaloneRuleConfig();
     Set<String> excludedRules = standaloneRuleConfig.entrySet().stream().filter(not(e -> e.getValue().isActive())).map(Map.Entry::getKey).collect(toSet());
@@ -93,4 +93,10 @@ public class BackendInputFile implements ClientInputFile {
   public boolean isDirty() {
     return clientFile.isDirty();
   }
+
+  @Nullable
+  @Override
+  public String contentVersion() {
+    return clientFile.getContentVersion();
+  }
 }
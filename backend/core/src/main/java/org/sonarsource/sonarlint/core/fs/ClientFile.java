@@ -26,6 +26,8 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.apache.commons.compress.utils.FileNameUtils;
 import org.apache.commons.io.ByteOrderMark;
@@ -141,6 +143,22 @@ public class ClientFile {
     }
   }
 
+  /**
+   * The content of a file that is not dirty is identified by its size and last modification time on disk, so that it does not have to be read
+   */
+  @CheckForNull
+  public String getContentVersion() {
+    if (isDirty || fsPath == null) {
+      return null;
+    }
+    try {
+      var attributes = Files.readAttributes(fsPath, BasicFileAttributes.class);
+      return attributes.size() + ":" + attributes.lastModifiedTime();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
   public Charset getCharset() {
     return charset != null ? charset : Charset.defaultCharset();
   }
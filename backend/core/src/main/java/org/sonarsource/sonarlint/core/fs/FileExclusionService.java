@@ -19,6 +19,7 @@
  */
 package org.sonarsource.sonarlint.core.fs;
 
+import com.google.common.collect.Lists;
 import java.net.URI;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.FileSystems;
@@ -27,6 +28,7 @@ import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -34,22 +36,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonarsource.sonarlint.core.ServerFileExclusions;
 import org.sonarsource.sonarlint.core.analysis.api.TriggerType;
-import org.sonarsource.sonarlint.core.plugin.commons.sonarapi.MapSettings;
+import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.SmartCancelableLoadingCache;
+import org.sonarsource.sonarlint.core.commons.SonarLintGitIgnore;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.commons.progress.SonarLintCancelMonitor;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
 import org.sonarsource.sonarlint.core.commons.util.FileUtils;
+import org.sonarsource.sonarlint.core.commons.util.git.GitService;
 import org.sonarsource.sonarlint.core.event.BindingConfigChangedEvent;
 import org.sonarsource.sonarlint.core.file.PathTranslationService;
 import org.sonarsource.sonarlint.core.file.WindowsShortcutUtils;
+import org.sonarsource.sonarlint.core.plugin.commons.sonarapi.MapSettings;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.file.FileStatusDto;
@@ -76,6 +85,9 @@ public class FileExclusionService {
     CoreProperties.PROJECT_EXCLUSIONS_PROPERTY,
     CoreProperties.GLOBAL_TEST_EXCLUSIONS_PROPERTY,
     CoreProperties.PROJECT_TEST_EXCLUSIONS_PROPERTY);
+  private static final String GITIGNORE_FILENAME = ".gitignore";
+  private static final int EXCLUSION_BATCH_SIZE = 1_000;
+  private static final int EXCLUSION_BATCH_PARALLELISM = Runtime.getRuntime().availableProcessors();
 
   private final ConfigurationRepository configRepo;
   private final StorageService storageService;
@@ -83,7 +95,10 @@ public class FileExclusionService {
   private final ClientFileSystemService clientFileSystemService;
   private final SonarLintRpcClient client;
 
-  private final SmartCancelableLoadingCache<URI, Boolean> serverExclusionByUriCache = new SmartCancelableLoadingCache<>("sonarlint-file-exclusions", this::computeIfExcluded,
+  private final Map<Binding, CompiledServerExclusions> serverExclusionsByBinding = new ConcurrentHashMap<>();
+  private final Map<Path, SonarLintGitIgnore> gitIgnoreByBaseDir = new ConcurrentHashMap<>();
+  private final Map<URI, ExclusionBatch> pendingBatchByUri = new ConcurrentHashMap<>();
+  private final SmartCancelableLoadingCache<URI, Boolean> serverExclusionByUriCache = new SmartCancelableLoadingCache<>("sonarlint-file-exclusions", this::loadExclusion,
     (key, oldValue, newValue) -> {});
 
   public FileExclusionService(ConfigurationRepository configRepo, StorageService storageService, PathTranslationService pathTranslationService,
@@ -95,6 +110,17 @@ public class FileExclusionService {
     this.client = client;
   }
 
+  private boolean loadExclusion(URI fileUri, SonarLintCancelMonitor cancelMonitor) {
+    var batch = pendingBatchByUri.remove(fileUri);
+    if (batch != null) {
+      var excluded = batch.getExclusions(cancelMonitor).get(fileUri);
+      if (excluded != null) {
+        return excluded;
+      }
+    }
+    return computeIfExcluded(fileUri, cancelMonitor);
+  }
+
   public boolean computeIfExcluded(URI fileUri, SonarLintCancelMonitor cancelMonitor) {
     LOG.debug("Computing file exclusion for uri '{}'", fileUri);
     var clientFile = clientFileSystemService.getClientFile(fileUri);
@@ -107,25 +133,88 @@ public class FileExclusionService {
     if (effectiveBindingOpt.isEmpty()) {
       return false;
     }
-    var analyzerStorage = storageService.connection(effectiveBindingOpt.get().connectionId())
-      .project(effectiveBindingOpt.get().sonarProjectKey())
+    var exclusionFilters = getServerFileExclusions(effectiveBindingOpt.get());
+    if (exclusionFilters == null) {
+      return false;
+    }
+    var result = isExcluded(clientFile, exclusionFilters);
+    LOG.debug("File exclusion for uri '{}' is {}", fileUri, result);
+    return result;
+  }
+
+  /**
+   * Compute the server exclusion of many files at once, spreading the pattern matching over several threads.
+   * Exclusion patterns are only compiled once per binding, and files that cannot be found or are not bound are considered as not excluded.
+   */
+  public Map<URI, Boolean> computeExclusions(Collection<URI> fileUris, SonarLintCancelMonitor cancelMonitor) {
+    var result = new ConcurrentHashMap<URI, Boolean>();
+    if (fileUris.isEmpty()) {
+      return result;
+    }
+    var chunks = Lists.partition(List.copyOf(fileUris), EXCLUSION_BATCH_SIZE);
+    var logTarget = LOG.getTargetForCopy();
+    var executor = FailSafeExecutors.newFixedThreadPool("sonarlint-file-exclusions-batch", Math.min(EXCLUSION_BATCH_PARALLELISM, chunks.size()));
+    try {
+      executor.invokeAll(chunks.stream()
+        .map(chunk -> Executors.callable(() -> {
+          SonarLintLogger.get().setTarget(logTarget);
+          computeExclusions(chunk, cancelMonitor, result);
+        }))
+        .toList());
+    } catch (InterruptedException e) {
+      LOG.debug("Interrupted while computing file exclusions");
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+    return result;
+  }
+
+  private void computeExclusions(List<URI> fileUris, SonarLintCancelMonitor cancelMonitor, Map<URI, Boolean> result) {
+    for (var fileUri : fileUris) {
+      if (cancelMonitor.isCanceled()) {
+        return;
+      }
+      var clientFile = clientFileSystemService.getClientFile(fileUri);
+      var exclusionFilters = clientFile == null ? null : configRepo.getEffectiveBinding(clientFile.getConfigScopeId()).map(this::getServerFileExclusions).orElse(null);
+      result.put(fileUri, clientFile != null && exclusionFilters != null && isExcluded(clientFile, exclusionFilters));
+    }
+  }
+
+  /**
+   * Patterns are compiled once per binding, and reused as long as the storage returns the same analyzer configuration (i.e. settings were not
+   * synchronized again since the patterns were compiled).
+   */
+  @CheckForNull
+  private ServerFileExclusions getServerFileExclusions(Binding binding) {
+    var analyzerStorage = storageService.connection(binding.connectionId())
+      .project(binding.sonarProjectKey())
       .analyzerConfiguration();
     if (!analyzerStorage.isValid()) {
       LOG.warn("Unable to read settings in local storage, analysis storage is not ready");
-      return false;
+      return null;
     }
-    AnalyzerConfiguration analyzerConfig;
+    final AnalyzerConfiguration analyzerConfig;
     try {
       analyzerConfig = analyzerStorage.read();
     } catch (StorageException e) {
       LOG.debug("Unable to read settings in local storage", e);
-      return false;
+      return null;
     }
-    var settings = new MapSettings(analyzerConfig.getSettings().getAll());
-    var exclusionFilters = new ServerFileExclusions(settings.asConfig());
-    exclusionFilters.prepare();
+    return serverExclusionsByBinding.compute(binding, (k, cached) -> {
+      if (cached != null && cached.analyzerConfiguration() == analyzerConfig) {
+        return cached;
+      }
+      var settings = new MapSettings(analyzerConfig.getSettings().getAll());
+      var exclusionFilters = new ServerFileExclusions(settings.asConfig());
+      exclusionFilters.prepare();
+      return new CompiledServerExclusions(analyzerConfig, exclusionFilters);
+    }).exclusions();
+  }
+
+  private boolean isExcluded(ClientFile clientFile, ServerFileExclusions exclusionFilters) {
     var idePath = clientFile.getClientRelativePath();
-    var pathTranslation = pathTranslationService.getOrComputePathTranslation(configScope);
+    var pathTranslation = pathTranslationService.getOrComputePathTranslation(clientFile.getConfigScopeId());
     Path serverPath;
     if (pathTranslation.isPresent()) {
       serverPath = IssueStorePaths.idePathToServerPath(pathTranslation.get().getIdePathPrefix(), pathTranslation.get().getServerPathPrefix(), idePath);
@@ -137,9 +226,27 @@ public class FileExclusionService {
       serverPath = idePath;
     }
     var type = clientFile.isTest() ? InputFile.Type.TEST : InputFile.Type.MAIN;
-    var result = !exclusionFilters.accept(serverPath.toString(), type);
-    LOG.debug("File exclusion for uri '{}' is {}", fileUri, result);
-    return result;
+    return !exclusionFilters.accept(serverPath.toString(), type);
+  }
+
+  /**
+   * Exclusions of many files are computed together with {@link #computeExclusions(Collection, SonarLintCancelMonitor)} by the first of them to be
+   * loaded in the cache, the others reuse the result. A few files are computed one by one as before, as they would not be spread over threads.
+   */
+  private void refreshExclusions(Collection<URI> fileUris) {
+    if (fileUris.size() > EXCLUSION_BATCH_SIZE) {
+      var batch = new ExclusionBatch(fileUris);
+      fileUris.forEach(fileUri -> pendingBatchByUri.put(fileUri, batch));
+    } else {
+      // a previous batch may have been computed before these files changed
+      fileUris.forEach(pendingBatchByUri::remove);
+    }
+    fileUris.forEach(serverExclusionByUriCache::refreshAsync);
+  }
+
+  private void clearExclusion(URI fileUri) {
+    pendingBatchByUri.remove(fileUri);
+    serverExclusionByUriCache.clear(fileUri);
   }
 
   @EventListener
@@ -150,21 +257,29 @@ public class FileExclusionService {
       // do not recompute exclusions if storage does not yet contain settings (will be done by onFileExclusionSettingsChanged later)
       if (storageService.connection(connectionId).project(projectKey).analyzerConfiguration().isValid()) {
         LOG.debug("Binding changed for config scope '{}', recompute file exclusions...", event.configScopeId());
-        clientFileSystemService.getFiles(event.configScopeId()).forEach(f -> serverExclusionByUriCache.refreshAsync(f.getUri()));
+        refreshExclusions(clientFileSystemService.getFiles(event.configScopeId()).stream().map(ClientFile::getUri).toList());
       }
     } else {
       LOG.debug("Binding removed for config scope '{}', clearing file exclusions...", event.configScopeId());
-      clientFileSystemService.getFiles(event.configScopeId()).forEach(f -> serverExclusionByUriCache.clear(f.getUri()));
+      var previousConnectionId = event.previousConfig().connectionId();
+      var previousProjectKey = event.previousConfig().sonarProjectKey();
+      if (previousConnectionId != null && previousProjectKey != null) {
+        serverExclusionsByBinding.remove(new Binding(previousConnectionId, previousProjectKey));
+      }
+      clientFileSystemService.getFiles(event.configScopeId()).forEach(f -> clearExclusion(f.getUri()));
     }
   }
 
   @EventListener
   public void onFileSystemUpdated(FileSystemUpdatedEvent event) {
-    event.getRemoved().forEach(f -> serverExclusionByUriCache.clear(f.getUri()));
+    Stream.of(event.getRemoved(), event.getAdded(), event.getUpdated())
+      .flatMap(List::stream)
+      .filter(f -> GITIGNORE_FILENAME.equals(f.getFileName()))
+      .forEach(this::onGitIgnoreChanged);
+    event.getRemoved().forEach(f -> clearExclusion(f.getUri()));
     // We could try to be more efficient by looking at changed files, and deciding if we need to invalidate or not based on changed
     // attributes (relative path, isTest). But it's probably not worth the effort.
-    Stream.concat(event.getAdded().stream(), event.getUpdated().stream())
-      .forEach(f -> serverExclusionByUriCache.refreshAsync(f.getUri()));
+    refreshExclusions(Stream.concat(event.getAdded().stream(), event.getUpdated().stream()).map(ClientFile::getUri).toList());
   }
 
   @EventListener
@@ -172,11 +287,32 @@ public class FileExclusionService {
     var settingsDiff = event.getUpdatedSettingsValueByKey();
     if (isFileExclusionSettingsDifferent(settingsDiff)) {
       LOG.debug("File exclusion settings changed, recompute all file exclusions...");
-      event.getConfigScopeIds().forEach(configScopeId -> clientFileSystemService.getFiles(configScopeId)
-        .forEach(f -> serverExclusionByUriCache.refreshAsync(f.getUri())));
+      refreshExclusions(event.getConfigScopeIds().stream()
+        .flatMap(configScopeId -> clientFileSystemService.getFiles(configScopeId).stream())
+        .map(ClientFile::getUri)
+        .toList());
     }
   }
 
+  private void onGitIgnoreChanged(ClientFile gitIgnoreFile) {
+    Path gitIgnorePath;
+    try {
+      gitIgnorePath = FileUtils.getFilePathFromUri(gitIgnoreFile.getUri());
+    } catch (FileSystemNotFoundException | IllegalArgumentException e) {
+      gitIgnoreByBaseDir.clear();
+      return;
+    }
+    // Ignore rules not backed by a working tree can't be partially reloaded, they are computed again from scratch
+    gitIgnoreByBaseDir.values().removeIf(gitIgnore -> !gitIgnore.onGitIgnoreChanged(gitIgnorePath) && gitIgnore.getWorkTree() == null);
+  }
+
+  private SonarLintGitIgnore getSonarLintGitIgnore(@Nullable Path baseDir) {
+    if (baseDir == null) {
+      return createSonarLintGitIgnore(null);
+    }
+    return gitIgnoreByBaseDir.computeIfAbsent(baseDir, GitService::createSonarLintGitIgnore);
+  }
+
   private static boolean isFileExclusionSettingsDifferent(Map<String, String> updatedSettingsValueByKey) {
     return ALL_EXCLUSION_RELATED_SETTINGS.stream().anyMatch(updatedSettingsValueByKey::containsKey);
   }
@@ -216,7 +352,7 @@ public class FileExclusionService {
   }
 
   private List<ClientFile> filterOutExcludedFiles(String configurationScopeId, Path baseDir, Set<URI> files) {
-    var sonarLintGitIgnore = createSonarLintGitIgnore(baseDir);
+    var sonarLintGitIgnore = getSonarLintGitIgnore(baseDir);
     // INFO: When there are additional filters coming at some point, add them here and log them down below as well!
     var filteredURIsFromServerExclusionService = new ArrayList<URI>();
     var filteredURIsFromGitIgnore = new ArrayList<URI>();
@@ -309,7 +445,7 @@ public class FileExclusionService {
   }
 
   private void logFilteredURIs(String reason, ArrayList<URI> uris) {
-    if (!uris.isEmpty()) {
+    if (!uris.isEmpty() && SonarLintLogger.get().isDebugEnabled()) {
       SonarLintLogger.get().debug(reason + ": " + String.join(", ", uris.stream().map(Object::toString).toList()));
     }
   }
@@ -346,4 +482,27 @@ public class FileExclusionService {
     }
     return parsedMatchers;
   }
+
+  private record CompiledServerExclusions(AnalyzerConfiguration analyzerConfiguration, ServerFileExclusions exclusions) {
+  }
+
+  private final class ExclusionBatch {
+    private final Collection<URI> fileUris;
+    @Nullable
+    private Map<URI, Boolean> exclusions;
+
+    private ExclusionBatch(Collection<URI> fileUris) {
+      this.fileUris = fileUris;
+    }
+
+    /**
+     * If the computation is canceled, the missing files are computed one by one when loaded
+     */
+    synchronized Map<URI, Boolean> getExclusions(SonarLintCancelMonitor cancelMonitor) {
+      if (exclusions == null) {
+        exclusions = computeExclusions(fileUris, cancelMonitor);
+      }
+      return exclusions;
+    }
+  }
 }
@@ -20,9 +20,7 @@
 package org.sonarsource.sonarlint.core.local.only;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -33,29 +31,21 @@ import java.util.stream.StreamSupport;
 import jetbrains.exodus.entitystore.Entity;
 import jetbrains.exodus.entitystore.EntityIterable;
 import jetbrains.exodus.entitystore.PersistentEntityStore;
-import jetbrains.exodus.entitystore.PersistentEntityStores;
 import jetbrains.exodus.entitystore.StoreTransaction;
-import jetbrains.exodus.env.EnvironmentConfig;
-import jetbrains.exodus.env.Environments;
-import jetbrains.exodus.util.CompressBackupUtil;
-import org.apache.commons.io.FileUtils;
 import org.sonarsource.sonarlint.core.commons.IssueStatus;
 import org.sonarsource.sonarlint.core.commons.LineWithHash;
 import org.sonarsource.sonarlint.core.commons.LocalOnlyIssue;
 import org.sonarsource.sonarlint.core.commons.LocalOnlyIssueResolution;
 import org.sonarsource.sonarlint.core.commons.api.TextRangeWithHash;
-import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.serverconnection.storage.InstantBinding;
-import org.sonarsource.sonarlint.core.serverconnection.storage.TarGzUtils;
 import org.sonarsource.sonarlint.core.serverconnection.storage.UuidBinding;
+import org.sonarsource.sonarlint.core.serverconnection.storage.XodusStoreDirectory;
 
 import static java.util.Objects.requireNonNull;
-import static org.sonarsource.sonarlint.core.commons.storage.XodusPurgeUtils.purgeOldTemporaryFiles;
 
 public class XodusLocalOnlyIssueStore {
 
   private static final String LOCAL_ONLY_ISSUE = "xodus-local-only-issue-store";
-  private static final Integer PURGE_NUMBER_OF_DAYS = 3;
   private static final String CONFIGURATION_SCOPE_ID_ENTITY_TYPE = "Scope";
   private static final String CONFIGURATION_SCOPE_ID_TO_FILES_LINK_NAME = "files";
   private static final String FILE_ENTITY_TYPE = "File";
@@ -78,24 +68,11 @@ public class XodusLocalOnlyIssueStore {
   private static final String MESSAGE_BLOB_NAME = "message";
   private static final String BACKUP_TAR_GZ = "local_only_issue_backup.tar.gz";
   private final PersistentEntityStore entityStore;
-  private final Path backupFile;
-  private final Path xodusDbDir;
-  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private final XodusStoreDirectory directory;
 
   public XodusLocalOnlyIssueStore(Path backupDir, Path workDir) throws IOException {
-    xodusDbDir = Files.createTempDirectory(workDir, LOCAL_ONLY_ISSUE);
-    purgeOldTemporaryFiles(workDir, PURGE_NUMBER_OF_DAYS, LOCAL_ONLY_ISSUE + "*");
-    backupFile = backupDir.resolve(BACKUP_TAR_GZ);
-    if (Files.isRegularFile(backupFile)) {
-      LOG.debug("Restoring previous local-only issue database from {}", backupFile);
-      try {
-        TarGzUtils.extractTarGz(backupFile, xodusDbDir);
-      } catch (Exception e) {
-        LOG.error("Unable to restore local-only issue backup {}", backupFile);
-      }
-    }
-    LOG.debug("Starting local-only issue database from {}", xodusDbDir);
-    this.entityStore = buildEntityStore();
+    directory = XodusStoreDirectory.open(backupDir, BACKUP_TAR_GZ, workDir, LOCAL_ONLY_ISSUE, "local-only issue");
+    this.entityStore = directory.openEntityStore();
     entityStore.executeInTransaction(txn -> {
       entityStore.registerCustomPropertyType(txn, Instant.class, new InstantBinding());
       entityStore.registerCustomPropertyType(txn, UUID.class, new UuidBinding());
@@ -201,16 +178,6 @@ public class XodusLocalOnlyIssueStore {
       new LocalOnlyIssueResolution(status, resolvedDate, comment));
   }
 
-  private PersistentEntityStore buildEntityStore() {
-    var environment = Environments.newInstance(xodusDbDir.toAbsolutePath().toFile(), new EnvironmentConfig()
-      .setLogAllowRemote(true)
-      .setLogAllowRemovable(true)
-      .setLogAllowRamDisk(true));
-    var entityStoreImpl = PersistentEntityStores.newInstance(environment);
-    entityStoreImpl.setCloseEnvironment(true);
-    return entityStoreImpl;
-  }
-
   private static Optional<Entity> findUnique(StoreTransaction transaction, String entityType, String propertyName, Comparable<?> caseSensitivePropertyValue) {
     // the find is case-insensitive but we need an exact match
     var entities = transaction.find(entityType, propertyName, caseSensitivePropertyValue);
@@ -307,18 +274,10 @@ public class XodusLocalOnlyIssueStore {
   }
 
   public void backup() {
-    LOG.debug("Creating backup of local-only issue database in {}", backupFile);
-    try {
-      var backupTmp = CompressBackupUtil.backup(entityStore, backupFile.getParent().toFile(), "local_only_issue_backup", false);
-      Files.move(backupTmp.toPath(), backupFile, StandardCopyOption.ATOMIC_MOVE);
-    } catch (Exception e) {
-      LOG.error("Unable to backup local-only issue database", e);
-    }
+    directory.backup(entityStore);
   }
 
   public void close() {
-    backup();
-    entityStore.close();
-    FileUtils.deleteQuietly(xodusDbDir.toFile());
+    directory.close(entityStore);
   }
 }
@@ -116,11 +116,7 @@ public class PluginsService {
   public LoadedPlugins getEmbeddedPlugins() {
     var loadedEmbeddedPlugins = pluginsRepository.getLoadedEmbeddedPlugins();
     if (loadedEmbeddedPlugins == null) {
-      var allEmbeddedPlugins = new HashSet<>(embeddedPluginPaths);
-      if (csharpSupport.csharpOssPluginPath != null) {
-        allEmbeddedPlugins.add(csharpSupport.csharpOssPluginPath);
-      }
-      var result = loadPlugins(languageSupportRepository.getEnabledLanguagesInStandaloneMode(), allEmbeddedPlugins, enableDataflowBugDetection);
+      var result = loadPlugins(languageSupportRepository.getEnabledLanguagesInStandaloneMode(), getAllEmbeddedPluginPaths(), enableDataflowBugDetection);
       loadedEmbeddedPlugins = result.getLoadedPlugins();
       pluginsRepository.setLoadedEmbeddedPlugins(loadedEmbeddedPlugins);
       skippedPluginsRepository.setSkippedEmbeddedPlugins(getSkippedPlugins(result));
@@ -128,6 +124,17 @@ public class PluginsService {
     return loadedEmbeddedPlugins;
   }
 
+  /**
+   * Paths of the plugins loaded in standalone mode, unlike {@link #getEmbeddedPluginPaths()} this includes the C# analyzer
+   */
+  public Set<Path> getAllEmbeddedPluginPaths() {
+    var allEmbeddedPlugins = new HashSet<>(embeddedPluginPaths);
+    if (csharpSupport.csharpOssPluginPath != null) {
+      allEmbeddedPlugins.add(csharpSupport.csharpOssPluginPath);
+    }
+    return allEmbeddedPlugins;
+  }
+
   @NotNull
   private static List<SkippedPlugin> getSkippedPlugins(PluginsLoadResult result) {
     return result.getPluginCheckResultByKeys().values().stream()
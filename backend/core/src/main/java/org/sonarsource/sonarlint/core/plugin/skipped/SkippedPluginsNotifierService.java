@@ -19,10 +19,10 @@
  */
 package org.sonarsource.sonarlint.core.plugin.skipped;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.CheckForNull;
 import org.sonarsource.sonarlint.core.analysis.AnalysisFinishedEvent;
 import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
@@ -37,7 +37,7 @@ public class SkippedPluginsNotifierService {
   private final SkippedPluginsRepository skippedPluginsRepository;
   private final ConfigurationRepository configurationRepository;
   private final SonarLintRpcClient client;
-  private final Set<String> alreadyNotifiedPluginKeys = new HashSet<>();
+  private final Set<String> alreadyNotifiedPluginKeys = ConcurrentHashMap.newKeySet();
 
   public SkippedPluginsNotifierService(SkippedPluginsRepository skippedPluginsRepository, ConfigurationRepository configurationRepository, SonarLintRpcClient client) {
     this.skippedPluginsRepository = skippedPluginsRepository;
@@ -0,0 +1,81 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.reporting;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.sonarsource.sonarlint.core.tracking.TrackedIssue;
+
+/**
+ * The findings raised so far for a file, in the order they were raised. A finding raised again replaces the previous one having the same ID.
+ * Also keeps track of what changed since the last streaming publication, so that only changes have to be published.
+ */
+class FileFindings {
+  private final LinkedHashMap<UUID, TrackedIssue> findingsById = new LinkedHashMap<>();
+  private final Set<UUID> changedFindingIds = new LinkedHashSet<>();
+  private final Set<UUID> previouslyPublishedFindingIds = new HashSet<>();
+
+  synchronized void add(TrackedIssue finding) {
+    var id = finding.getId();
+    findingsById.remove(id);
+    findingsById.put(id, finding);
+    changedFindingIds.add(id);
+  }
+
+  /**
+   * @param publishedFindingIds IDs of the findings that were published for this file, they will be reported as removed if not raised again
+   */
+  synchronized void reset(Set<UUID> publishedFindingIds) {
+    findingsById.clear();
+    changedFindingIds.clear();
+    previouslyPublishedFindingIds.addAll(publishedFindingIds);
+  }
+
+  synchronized List<TrackedIssue> getAll() {
+    return List.copyOf(findingsById.values());
+  }
+
+  synchronized Optional<TrackedIssue> find(UUID findingId) {
+    return Optional.ofNullable(findingsById.get(findingId));
+  }
+
+  synchronized boolean hasChanges() {
+    return !changedFindingIds.isEmpty() || !previouslyPublishedFindingIds.isEmpty();
+  }
+
+  synchronized Changes drainChanges() {
+    var changedFindings = new ArrayList<TrackedIssue>(changedFindingIds.size());
+    changedFindingIds.forEach(id -> changedFindings.add(findingsById.get(id)));
+    var removedFindingIds = new HashSet<>(previouslyPublishedFindingIds);
+    removedFindingIds.removeAll(findingsById.keySet());
+    changedFindingIds.clear();
+    previouslyPublishedFindingIds.clear();
+    return new Changes(changedFindings, removedFindingIds);
+  }
+
+  record Changes(List<TrackedIssue> addedOrUpdatedFindings, Set<UUID> removedFindingIds) {
+  }
+}
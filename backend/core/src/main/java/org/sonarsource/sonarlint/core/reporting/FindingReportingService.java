@@ -19,6 +19,8 @@
  */
 package org.sonarsource.sonarlint.core.reporting;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PreDestroy;
 import java.net.URI;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -33,6 +35,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
@@ -41,6 +46,7 @@ import org.sonarsource.sonarlint.core.analysis.IssuesRaisedEvent;
 import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.NewCodeDefinition;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
 import org.sonarsource.sonarlint.core.mode.SeverityModeService;
 import org.sonarsource.sonarlint.core.newcode.NewCodeService;
 import org.sonarsource.sonarlint.core.remediation.aicodefix.AiCodeFixFeature;
@@ -52,9 +58,11 @@ import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCap
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.hotspot.RaiseHotspotsParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.hotspot.RaisedHotspotDto;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesDeltaParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedFindingDto;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedIssueDto;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedIssuesDeltaDto;
 import org.sonarsource.sonarlint.core.storage.StorageService;
 import org.sonarsource.sonarlint.core.tracking.TrackedIssue;
 import org.sonarsource.sonarlint.core.tracking.streaming.Alarm;
@@ -74,13 +82,16 @@ public class FindingReportingService {
   private final NewCodeService newCodeService;
   private final SeverityModeService severityModeService;
   private final PreviouslyRaisedFindingsRepository previouslyRaisedFindingsRepository;
-  private final Map<URI, Collection<TrackedIssue>> issuesPerFileUri = new ConcurrentHashMap<>();
-  private final Map<URI, Collection<TrackedIssue>> securityHotspotsPerFileUri = new ConcurrentHashMap<>();
+  private final Map<URI, FileFindings> issuesPerFileUri = new ConcurrentHashMap<>();
+  private final Map<URI, FileFindings> securityHotspotsPerFileUri = new ConcurrentHashMap<>();
   private final Map<String, Alarm> streamingTriggeringAlarmByConfigScopeId = new ConcurrentHashMap<>();
+  // a single thread is shared by the streaming alarms of all configuration scopes
+  private final ScheduledExecutorService streamingExecutorService = FailSafeExecutors.newSingleThreadScheduledExecutor("sonarlint-finding-streamer");
   private final Map<UUID, Set<URI>> filesPerAnalysis = new ConcurrentHashMap<>();
   private final ApplicationEventPublisher eventPublisher;
   private final StorageService storageService;
   private final boolean isStreamingEnabled;
+  private final boolean isStreamingDeltasEnabled;
 
   public FindingReportingService(SonarLintRpcClient client, ConfigurationRepository configurationRepository, NewCodeService newCodeService, SeverityModeService severityModeService,
     PreviouslyRaisedFindingsRepository previouslyRaisedFindingsRepository, ApplicationEventPublisher eventPublisher, StorageService storageService,
@@ -93,22 +104,33 @@ public class FindingReportingService {
     this.eventPublisher = eventPublisher;
     this.storageService = storageService;
     this.isStreamingEnabled = initializeParams.getBackendCapabilities().contains(BackendCapability.ISSUE_STREAMING);
+    this.isStreamingDeltasEnabled = isStreamingEnabled && initializeParams.getBackendCapabilities().contains(BackendCapability.ISSUE_STREAMING_DELTAS);
   }
 
   public void resetFindingsForFiles(String configurationScopeId, Set<URI> files) {
+    var raisedIssues = previouslyRaisedFindingsRepository.getRaisedIssuesForScope(configurationScopeId);
+    var raisedHotspots = previouslyRaisedFindingsRepository.getRaisedHotspotsForScope(configurationScopeId);
     files.forEach(fileUri -> {
-      resetFindingsForFile(issuesPerFileUri, fileUri);
-      resetFindingsForFile(securityHotspotsPerFileUri, fileUri);
+      resetFindingsForFile(issuesPerFileUri, fileUri, raisedIssues.getOrDefault(fileUri, List.of()));
+      resetFindingsForFile(securityHotspotsPerFileUri, fileUri, raisedHotspots.getOrDefault(fileUri, List.of()));
     });
     previouslyRaisedFindingsRepository.resetFindingsCache(configurationScopeId, files);
   }
 
   public void initFilesToAnalyze(UUID analysisId, Set<URI> files) {
-    filesPerAnalysis.computeIfAbsent(analysisId, k -> new HashSet<>()).addAll(files);
+    filesPerAnalysis.computeIfAbsent(analysisId, k -> ConcurrentHashMap.newKeySet()).addAll(files);
   }
 
-  private static void resetFindingsForFile(Map<URI, Collection<TrackedIssue>> findingsMap, URI fileUri) {
-    findingsMap.computeIfPresent(fileUri, (k, v) -> List.of());
+  private static void resetFindingsForFile(Map<URI, FileFindings> findingsMap, URI fileUri, List<? extends RaisedFindingDto> raisedFindings) {
+    var raisedFindingIds = raisedFindings.stream().map(RaisedFindingDto::getId).collect(Collectors.toSet());
+    findingsMap.compute(fileUri, (k, fileFindings) -> {
+      if (fileFindings == null && raisedFindingIds.isEmpty()) {
+        return null;
+      }
+      var resetFindings = fileFindings == null ? new FileFindings() : fileFindings;
+      resetFindings.reset(raisedFindingIds);
+      return resetFindings;
+    });
   }
 
   public void streamIssue(String configurationScopeId, UUID analysisId, TrackedIssue trackedIssue) {
@@ -126,17 +148,8 @@ public class FindingReportingService {
     }
   }
 
-  private static void insertTrackedIssue(Map<URI, Collection<TrackedIssue>> map, TrackedIssue trackedIssue) {
-    map.compute(trackedIssue.getFileUri(), (fileUri, fileFindings) -> {
-      // make sure to return an immutable list as it might be iterated over in parallel
-      if (fileFindings == null) {
-        return List.of(trackedIssue);
-      }
-      var newIssues = new ArrayList<>(fileFindings);
-      newIssues.removeIf(i -> i.getId().equals(trackedIssue.getId()));
-      newIssues.add(trackedIssue);
-      return List.copyOf(newIssues);
-    });
+  private static void insertTrackedIssue(Map<URI, FileFindings> map, TrackedIssue trackedIssue) {
+    map.computeIfAbsent(trackedIssue.getFileUri(), k -> new FileFindings()).add(trackedIssue);
   }
 
   private void triggerStreaming(String configurationScopeId, UUID analysisId) {
@@ -145,17 +158,60 @@ public class FindingReportingService {
     var newCodeDefinition = newCodeService.getFullNewCodeDefinition(configurationScopeId).orElseGet(NewCodeDefinition::withAlwaysNew);
     var isMQRMode = severityModeService.isMQRModeForConnection(connectionId);
     var aiCodeFixFeature = effectiveBinding.flatMap(b -> AiCodeFixService.getFeature(storageService, b));
-    var issuesToRaise = issuesPerFileUri.entrySet().stream()
-      .filter(e -> filesPerAnalysis.get(analysisId).contains(e.getKey()))
-      .map(e -> Map.entry(e.getKey(),
-        e.getValue().stream().map(issue -> toRaisedIssueDto(issue, newCodeDefinition, isMQRMode, aiCodeFixFeature.map(feature -> feature.isFixable(issue)).orElse(false)))
-          .toList()))
-      .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
-    var hotspotsToRaise = securityHotspotsPerFileUri.entrySet().stream()
-      .filter(e -> filesPerAnalysis.get(analysisId).contains(e.getKey()))
-      .map(e -> Map.entry(e.getKey(), e.getValue().stream().map(issue -> toRaisedHotspotDto(issue, newCodeDefinition, isMQRMode)).toList()))
-      .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
-    updateRaisedFindingsCacheAndNotifyClient(configurationScopeId, analysisId, issuesToRaise, hotspotsToRaise, true);
+    var filesToAnalyze = filesPerAnalysis.getOrDefault(analysisId, Set.of());
+    // only findings that changed since the previous publication are converted
+    var issueDeltas = drainChanges(issuesPerFileUri, filesToAnalyze,
+      issue -> toRaisedIssueDto(issue, newCodeDefinition, isMQRMode, aiCodeFixFeature.map(feature -> feature.isFixable(issue)).orElse(false)));
+    var hotspotDeltas = drainChanges(securityHotspotsPerFileUri, filesToAnalyze, hotspot -> toRaisedHotspotDto(hotspot, newCodeDefinition, isMQRMode));
+    publishStreamedFindings(configurationScopeId, analysisId, issueDeltas, hotspotDeltas);
+  }
+
+  private static <F extends RaisedFindingDto> Map<URI, FindingsDelta<F>> drainChanges(Map<URI, FileFindings> findingsPerFileUri, Set<URI> filesToAnalyze,
+    Function<TrackedIssue, F> toDto) {
+    var deltas = new HashMap<URI, FindingsDelta<F>>();
+    findingsPerFileUri.forEach((fileUri, fileFindings) -> {
+      if (filesToAnalyze.contains(fileUri) && fileFindings.hasChanges()) {
+        var changes = fileFindings.drainChanges();
+        deltas.put(fileUri, new FindingsDelta<>(changes.addedOrUpdatedFindings().stream().map(toDto).toList(), changes.removedFindingIds()));
+      }
+    });
+    return deltas;
+  }
+
+  private synchronized void publishStreamedFindings(String configurationScopeId, UUID analysisId, Map<URI, FindingsDelta<RaisedIssueDto>> issueDeltas,
+    Map<URI, FindingsDelta<RaisedHotspotDto>> hotspotDeltas) {
+    var updatedIssues = applyDeltas(previouslyRaisedFindingsRepository.getRaisedIssuesForScope(configurationScopeId), issueDeltas);
+    var updatedHotspots = applyDeltas(previouslyRaisedFindingsRepository.getRaisedHotspotsForScope(configurationScopeId), hotspotDeltas);
+    if (!isStreamingDeltasEnabled) {
+      updateRaisedFindingsCacheAndNotifyClient(configurationScopeId, analysisId, updatedIssues, updatedHotspots, true);
+      return;
+    }
+    if (!issueDeltas.isEmpty()) {
+      previouslyRaisedFindingsRepository.replaceIssuesForFiles(configurationScopeId, updatedIssues);
+      var deltaByFileUri = issueDeltas.entrySet().stream()
+        .collect(toMap(Map.Entry::getKey, e -> new RaisedIssuesDeltaDto(e.getValue().addedOrUpdatedFindings(), e.getValue().removedFindingIds())));
+      LOG.debug("Reporting issue changes of {} files for configuration scope {}", deltaByFileUri.size(), configurationScopeId);
+      client.raiseIssuesDelta(new RaiseIssuesDeltaParams(configurationScopeId, deltaByFileUri, analysisId));
+    }
+    updateRaisedHotspotsCacheAndNotifyClient(configurationScopeId, analysisId, updatedHotspots, true);
+  }
+
+  /**
+   * Findings that changed are moved at the end of the list, in the order they were raised, as it would be if all findings were published again.
+   */
+  private static <F extends RaisedFindingDto> Map<URI, List<F>> applyDeltas(Map<URI, List<F>> previouslyRaisedFindings, Map<URI, FindingsDelta<F>> deltas) {
+    var updatedFindings = new HashMap<URI, List<F>>();
+    deltas.forEach((fileUri, delta) -> {
+      var changedFindingIds = new HashSet<>(delta.removedFindingIds());
+      delta.addedOrUpdatedFindings().forEach(finding -> changedFindingIds.add(finding.getId()));
+      var findings = new ArrayList<F>();
+      previouslyRaisedFindings.getOrDefault(fileUri, List.of()).stream()
+        .filter(finding -> !changedFindingIds.contains(finding.getId()))
+        .forEach(findings::add);
+      findings.addAll(delta.addedOrUpdatedFindings());
+      updatedFindings.put(fileUri, findings);
+    });
+    return updatedFindings;
   }
 
   public void reportTrackedFindings(String configurationScopeId, UUID analysisId, Map<Path, List<TrackedIssue>> issuesToReport, Map<Path, List<TrackedIssue>> hotspotsToReport) {
@@ -170,7 +226,14 @@ public class FindingReportingService {
     this.eventPublisher.publishEvent(new IssuesRaisedEvent(issuesToRaise.values().stream().flatMap(List::stream).toList()));
     var hotspotsToRaise = getHotspotsToRaise(hotspotsToReport, newCodeDefinition, isMQRMode);
     updateRaisedFindingsCacheAndNotifyClient(configurationScopeId, analysisId, issuesToRaise, hotspotsToRaise, false);
-    filesPerAnalysis.remove(analysisId);
+    // changes not streamed yet are part of this final publication
+    var analyzedFiles = filesPerAnalysis.remove(analysisId);
+    if (analyzedFiles != null) {
+      analyzedFiles.forEach(fileUri -> {
+        Optional.ofNullable(issuesPerFileUri.get(fileUri)).ifPresent(FileFindings::drainChanges);
+        Optional.ofNullable(securityHotspotsPerFileUri.get(fileUri)).ifPresent(FileFindings::drainChanges);
+      });
+    }
   }
 
   private synchronized void updateRaisedFindingsCacheAndNotifyClient(String configurationScopeId, @Nullable UUID analysisId, Map<URI, List<RaisedIssueDto>> updatedIssues,
@@ -178,6 +241,11 @@ public class FindingReportingService {
     var issuesToRaise = previouslyRaisedFindingsRepository.replaceIssuesForFiles(configurationScopeId, updatedIssues);
     LOG.debug("Reporting {} issues for configuration scope {}", issuesToRaise.size(), configurationScopeId);
     client.raiseIssues(new RaiseIssuesParams(configurationScopeId, issuesToRaise, isIntermediatePublication, analysisId));
+    updateRaisedHotspotsCacheAndNotifyClient(configurationScopeId, analysisId, updatedHotspots, isIntermediatePublication);
+  }
+
+  private void updateRaisedHotspotsCacheAndNotifyClient(String configurationScopeId, @Nullable UUID analysisId, Map<URI, List<RaisedHotspotDto>> updatedHotspots,
+    boolean isIntermediatePublication) {
     var effectiveBindingOpt = configurationRepository.getEffectiveBinding(configurationScopeId);
     if (effectiveBindingOpt.isPresent()) {
       // security hotspots are only supported in connected mode
@@ -189,13 +257,13 @@ public class FindingReportingService {
   private void stopStreaming(String configurationScopeId) {
     var alarm = removeStreamingDebounceAlarmIfExists(configurationScopeId);
     if (alarm != null) {
-      alarm.shutdownNow();
+      alarm.stop();
     }
   }
 
   private Alarm getStreamingDebounceAlarm(String configurationScopeId, UUID analysisId) {
     return streamingTriggeringAlarmByConfigScopeId.computeIfAbsent(configurationScopeId,
-      id -> new Alarm("sonarlint-finding-streamer", STREAMING_INTERVAL, () -> triggerStreaming(configurationScopeId, analysisId)));
+      id -> new Alarm(streamingExecutorService, STREAMING_INTERVAL, () -> triggerStreaming(configurationScopeId, analysisId)));
   }
 
   private Alarm removeStreamingDebounceAlarmIfExists(String configurationScopeId) {
@@ -244,7 +312,7 @@ public class FindingReportingService {
   @CheckForNull
   public RaisedIssueDto findReportedIssue(UUID issueId, NewCodeDefinition newCodeDefinition, boolean isMQRMode, Optional<AiCodeFixFeature> aiCodeFixFeature) {
     for (var findingsForFile : issuesPerFileUri.values()) {
-      var optFinding = findingsForFile.stream().filter(issue -> issue.getId().equals(issueId)).findFirst();
+      var optFinding = findingsForFile.find(issueId);
       if (optFinding.isPresent()) {
         return toRaisedIssueDto(optFinding.get(), newCodeDefinition, isMQRMode, aiCodeFixFeature.map(feature -> feature.isFixable(optFinding.get())).orElse(false));
       }
@@ -255,11 +323,23 @@ public class FindingReportingService {
   @CheckForNull
   public RaisedHotspotDto findReportedHotspot(UUID hotspotId, NewCodeDefinition newCodeDefinition, boolean isMQRMode) {
     for (var findingsForFile : securityHotspotsPerFileUri.values()) {
-      var optFinding = findingsForFile.stream().filter(hotspot -> hotspot.getId().equals(hotspotId)).findFirst();
+      var optFinding = findingsForFile.find(hotspotId);
       if (optFinding.isPresent()) {
         return toRaisedHotspotDto(optFinding.get(), newCodeDefinition, isMQRMode);
       }
     }
     return null;
   }
+
+  @PreDestroy
+  public void shutdown() {
+    streamingTriggeringAlarmByConfigScopeId.values().forEach(Alarm::stop);
+    streamingTriggeringAlarmByConfigScopeId.clear();
+    if (!MoreExecutors.shutdownAndAwaitTermination(streamingExecutorService, 1, TimeUnit.SECONDS)) {
+      LOG.warn("Unable to stop finding streamer executor service in a timely manner");
+    }
+  }
+
+  private record FindingsDelta<F extends RaisedFindingDto>(List<F> addedOrUpdatedFindings, Set<UUID> removedFindingIds) {
+  }
 }
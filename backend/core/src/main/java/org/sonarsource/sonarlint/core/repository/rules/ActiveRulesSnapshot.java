@@ -0,0 +1,128 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.repository.rules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import org.apache.commons.lang3.StringUtils;
+import org.sonarsource.sonarlint.core.commons.RuleKey;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
+import org.sonarsource.sonarlint.core.serverapi.rules.ServerActiveRule;
+import org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfiguration;
+
+/**
+ * Immutable view of the rules activated on the server for a binding, indexed by key and by language. Deprecated keys are already migrated,
+ * and rule definitions and effective parameters already resolved, so that analyses and rule lookups do not have to walk the rule sets again.
+ */
+public class ActiveRulesSnapshot {
+
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+
+  private final AnalyzerConfiguration analyzerConfiguration;
+  private final Map<String, SonarLintRuleDefinition> ruleDefinitionsByKey;
+  private final Map<String, List<CompiledActiveRule>> activeRulesByLanguageKey;
+  private final Map<String, CompiledActiveRule> activeRulesByKey;
+
+  private ActiveRulesSnapshot(AnalyzerConfiguration analyzerConfiguration, Map<String, SonarLintRuleDefinition> ruleDefinitionsByKey,
+    Map<String, List<CompiledActiveRule>> activeRulesByLanguageKey, Map<String, CompiledActiveRule> activeRulesByKey) {
+    this.analyzerConfiguration = analyzerConfiguration;
+    this.ruleDefinitionsByKey = ruleDefinitionsByKey;
+    this.activeRulesByLanguageKey = activeRulesByLanguageKey;
+    this.activeRulesByKey = activeRulesByKey;
+  }
+
+  static ActiveRulesSnapshot compile(AnalyzerConfiguration analyzerConfiguration, Map<String, SonarLintRuleDefinition> ruleDefinitionsByKey,
+    Function<String, Optional<SonarLintRuleDefinition>> ruleDefinitionFinder) {
+    var activeRulesByLanguageKey = new HashMap<String, List<CompiledActiveRule>>();
+    var activeRulesByKey = new HashMap<String, CompiledActiveRule>();
+    analyzerConfiguration.getRuleSetByLanguageKey().forEach((languageKey, ruleSet) -> {
+      var activeRules = new ArrayList<CompiledActiveRule>(ruleSet.getRules().size());
+      for (var storedRule : ruleSet.getRules()) {
+        var compiledRule = compile(storedRule, ruleDefinitionFinder);
+        activeRules.add(compiledRule);
+        activeRulesByKey.putIfAbsent(compiledRule.activeRule().getRuleKey(), compiledRule);
+      }
+      activeRulesByLanguageKey.put(languageKey, List.copyOf(activeRules));
+    });
+    return new ActiveRulesSnapshot(analyzerConfiguration, ruleDefinitionsByKey, Map.copyOf(activeRulesByLanguageKey), Map.copyOf(activeRulesByKey));
+  }
+
+  private static CompiledActiveRule compile(ServerActiveRule storedRule, Function<String, Optional<SonarLintRuleDefinition>> ruleDefinitionFinder) {
+    var isTemplateInstance = StringUtils.isNotBlank(storedRule.getTemplateKey());
+    var ruleOrTemplateDefinition = ruleDefinitionFinder.apply(isTemplateInstance ? storedRule.getTemplateKey() : storedRule.getRuleKey()).orElse(null);
+    if (ruleOrTemplateDefinition == null) {
+      // The rule or its template is not known among our loaded analyzers, keep it untouched, to let calling code take appropriate decision
+      return new CompiledActiveRule(storedRule, storedRule, null, storedRule.getParams());
+    }
+    ServerActiveRule activeRule;
+    if (isTemplateInstance) {
+      var ruleKeyPossiblyWithDeprecatedRepo = RuleKey.parse(storedRule.getRuleKey());
+      var templateRuleKeyWithCorrectRepo = RuleKey.parse(ruleOrTemplateDefinition.getKey());
+      var ruleKey = new RuleKey(templateRuleKeyWithCorrectRepo.repository(), ruleKeyPossiblyWithDeprecatedRepo.rule()).toString();
+      activeRule = new ServerActiveRule(ruleKey, storedRule.getSeverity(), storedRule.getParams(), ruleOrTemplateDefinition.getKey(), storedRule.getOverriddenImpacts());
+    } else {
+      activeRule = new ServerActiveRule(ruleOrTemplateDefinition.getKey(), storedRule.getSeverity(), storedRule.getParams(), null, storedRule.getOverriddenImpacts());
+    }
+    return new CompiledActiveRule(storedRule, activeRule, ruleOrTemplateDefinition, getEffectiveParams(ruleOrTemplateDefinition, activeRule));
+  }
+
+  private static Map<String, String> getEffectiveParams(SonarLintRuleDefinition ruleOrTemplateDefinition, ServerActiveRule activeRule) {
+    Map<String, String> effectiveParams = new HashMap<>(ruleOrTemplateDefinition.getDefaultParams());
+    activeRule.getParams().forEach((paramName, paramValue) -> {
+      if (!ruleOrTemplateDefinition.getParams().containsKey(paramName)) {
+        LOG.debug("Rule parameter '{}' for rule '{}' does not exist in embedded analyzer, ignoring.", paramName, ruleOrTemplateDefinition.getKey());
+        return;
+      }
+      effectiveParams.put(paramName, paramValue);
+    });
+    return Map.copyOf(effectiveParams);
+  }
+
+  boolean isCompiledFrom(AnalyzerConfiguration analyzerConfiguration, Map<String, SonarLintRuleDefinition> ruleDefinitionsByKey) {
+    return this.analyzerConfiguration == analyzerConfiguration && this.ruleDefinitionsByKey == ruleDefinitionsByKey;
+  }
+
+  public Map<String, List<CompiledActiveRule>> getActiveRulesByLanguageKey() {
+    return activeRulesByLanguageKey;
+  }
+
+  /**
+   * @param ruleKey the key of the rule, after migration of deprecated keys
+   */
+  public Optional<CompiledActiveRule> getActiveRule(String ruleKey) {
+    return Optional.ofNullable(activeRulesByKey.get(ruleKey));
+  }
+
+  /**
+   * @param storedRule the active rule as read from the storage
+   * @param activeRule the active rule with deprecated keys migrated
+   * @param ruleOrTemplateDefinition the definition of the rule, or of its template, null if not available in SonarLint
+   * @param effectiveParams the default parameters of the definition overridden by the ones set on the server
+   */
+  public record CompiledActiveRule(ServerActiveRule storedRule, ServerActiveRule activeRule, @CheckForNull SonarLintRuleDefinition ruleOrTemplateDefinition,
+    Map<String, String> effectiveParams) {
+  }
+}
@@ -23,7 +23,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.event.ConfigurationScopeRemovedEvent;
 import org.sonarsource.sonarlint.core.event.ConnectionConfigurationRemovedEvent;
@@ -43,6 +45,7 @@ public class RulesRepository {
   private Map<String, SonarLintRuleDefinition> embeddedRulesByKey;
   private final Map<String, Map<String, SonarLintRuleDefinition>> rulesByKeyByConnectionId = new HashMap<>();
   private final Map<String, Map<String, String>> ruleKeyReplacementsByConnectionId = new HashMap<>();
+  private final Map<Binding, ActiveRulesSnapshot> activeRulesSnapshotByBinding = new ConcurrentHashMap<>();
   private final ConfigurationRepository configurationRepository;
   private final StorageService storageService;
 
@@ -75,12 +78,32 @@ public class RulesRepository {
       .or(() -> Optional.ofNullable(connectionRules.get(ruleKeyReplacementsByConnectionId.get(connectionId).get(ruleKey))));
   }
 
-  private synchronized void lazyInit(String connectionId) {
+  private synchronized Map<String, SonarLintRuleDefinition> lazyInit(String connectionId) {
     var rulesByKey = rulesByKeyByConnectionId.get(connectionId);
     if (rulesByKey == null) {
       var serverSettings = storageService.connection(connectionId).serverInfo().read().map(StoredServerInfo::globalSettings);
       setRules(connectionId, extractionHelper.extractRulesForConnection(connectionId, serverSettings.map(ServerSettings::globalSettings).orElseGet(Map::of)));
+      rulesByKey = rulesByKeyByConnectionId.get(connectionId);
     }
+    return rulesByKey;
+  }
+
+  /**
+   * The snapshot is compiled once per binding, and reused as long as the storage returns the same analyzer configuration (i.e. rules were not
+   * synchronized again) and the rule definitions of the connection were not reloaded.
+   *
+   * @throws org.sonarsource.sonarlint.core.serverconnection.storage.StorageException if the analyzer configuration can't be read from the storage
+   */
+  public ActiveRulesSnapshot getActiveRulesSnapshot(Binding binding) {
+    var connectionId = binding.connectionId();
+    var analyzerConfiguration = storageService.binding(binding).analyzerConfiguration().read();
+    var ruleDefinitionsByKey = lazyInit(connectionId);
+    return activeRulesSnapshotByBinding.compute(binding, (k, cached) -> {
+      if (cached != null && cached.isCompiledFrom(analyzerConfiguration, ruleDefinitionsByKey)) {
+        return cached;
+      }
+      return ActiveRulesSnapshot.compile(analyzerConfiguration, ruleDefinitionsByKey, ruleKey -> getRule(connectionId, ruleKey));
+    });
   }
 
   private void setRules(String connectionId, Collection<SonarLintRuleDefinition> rules) {
@@ -118,5 +141,6 @@ public class RulesRepository {
     logger.debug("Evict cached rules definitions for connection '{}'", connectionId);
     rulesByKeyByConnectionId.remove(connectionId);
     ruleKeyReplacementsByConnectionId.remove(connectionId);
+    activeRulesSnapshotByBinding.keySet().removeIf(binding -> binding.connectionId().equals(connectionId));
   }
 }
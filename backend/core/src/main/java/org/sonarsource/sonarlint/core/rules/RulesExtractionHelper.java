@@ -21,13 +21,16 @@ package org.sonarsource.sonarlint.core.rules;
 
 import java.util.List;
 import java.util.Map;
+import org.sonarsource.sonarlint.core.UserPaths;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.event.ConnectionConfigurationRemovedEvent;
 import org.sonarsource.sonarlint.core.languages.LanguageSupportRepository;
 import org.sonarsource.sonarlint.core.plugin.PluginsService;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
+import org.sonarsource.sonarlint.core.rule.extractor.RuleDefinitionsCache;
 import org.sonarsource.sonarlint.core.rule.extractor.RuleSettings;
-import org.sonarsource.sonarlint.core.rule.extractor.RulesDefinitionExtractor;
 import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
+import org.springframework.context.event.EventListener;
 
 import static org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability.SECURITY_HOTSPOTS;
 
@@ -37,26 +40,38 @@ public class RulesExtractionHelper {
 
   private final PluginsService pluginsService;
   private final LanguageSupportRepository languageSupportRepository;
-  private final RulesDefinitionExtractor ruleExtractor = new RulesDefinitionExtractor();
+  private final RuleDefinitionsCache ruleDefinitionsCache;
   private final boolean enableSecurityHotspots;
 
-  public RulesExtractionHelper(PluginsService pluginsService, LanguageSupportRepository languageSupportRepository, InitializeParams params) {
+  public RulesExtractionHelper(PluginsService pluginsService, LanguageSupportRepository languageSupportRepository, InitializeParams params, UserPaths userPaths) {
     this.pluginsService = pluginsService;
     this.languageSupportRepository = languageSupportRepository;
+    this.ruleDefinitionsCache = new RuleDefinitionsCache(userPaths.getStorageRoot().resolve("rule_definitions"));
     this.enableSecurityHotspots = params.getBackendCapabilities().contains(SECURITY_HOTSPOTS);
   }
 
   public List<SonarLintRuleDefinition> extractEmbeddedRules() {
     logger.debug("Extracting standalone rules metadata");
-    return ruleExtractor.extractRules(pluginsService.getEmbeddedPlugins().getAllPluginInstancesByKeys(),
-      languageSupportRepository.getEnabledLanguagesInStandaloneMode(), false, false, new RuleSettings(Map.of()));
+    return ruleDefinitionsCache.extractRules("standalone", pluginsService.getAllEmbeddedPluginPaths(),
+      pluginsService.getEmbeddedPlugins().getAllPluginInstancesByKeys(), languageSupportRepository.getEnabledLanguagesInStandaloneMode(), false, false,
+      new RuleSettings(Map.of()));
   }
 
   public List<SonarLintRuleDefinition> extractRulesForConnection(String connectionId, Map<String, String> globalSettings) {
     logger.debug("Extracting rules metadata for connection '{}'", connectionId);
     var settings = new RuleSettings(globalSettings);
-    return ruleExtractor.extractRules(pluginsService.getPlugins(connectionId).getAllPluginInstancesByKeys(),
-      languageSupportRepository.getEnabledLanguagesInConnectedMode(), true, enableSecurityHotspots, settings);
+    return ruleDefinitionsCache.extractRules(getCacheName(connectionId), pluginsService.getConnectedPluginPaths(connectionId),
+      pluginsService.getPlugins(connectionId).getAllPluginInstancesByKeys(), languageSupportRepository.getEnabledLanguagesInConnectedMode(), true,
+      enableSecurityHotspots, settings);
+  }
+
+  @EventListener
+  public void connectionRemoved(ConnectionConfigurationRemovedEvent e) {
+    ruleDefinitionsCache.evict(getCacheName(e.getRemovedConnectionId()));
+  }
+
+  private static String getCacheName(String connectionId) {
+    return "connection:" + connectionId;
   }
 
 }
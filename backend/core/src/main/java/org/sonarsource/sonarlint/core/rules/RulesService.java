@@ -40,13 +40,14 @@ import org.sonarsource.sonarlint.core.SonarQubeClientManager;
 import org.sonarsource.sonarlint.core.analysis.RuleDetailsForAnalysis;
 import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.BoundScope;
-import org.sonarsource.sonarlint.core.commons.RuleKey;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.commons.progress.SonarLintCancelMonitor;
 import org.sonarsource.sonarlint.core.event.SonarServerEventReceivedEvent;
 import org.sonarsource.sonarlint.core.mode.SeverityModeService;
 import org.sonarsource.sonarlint.core.reporting.FindingReportingService;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
+import org.sonarsource.sonarlint.core.repository.rules.ActiveRulesSnapshot;
+import org.sonarsource.sonarlint.core.repository.rules.ActiveRulesSnapshot.CompiledActiveRule;
 import org.sonarsource.sonarlint.core.repository.rules.RulesRepository;
 import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcErrorCode;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
@@ -143,6 +144,7 @@ public class RulesService {
     var serverUsesStandardSeverityMode = !severityModeService.isMQRModeForConnection(connectionId);
 
     return findServerActiveRuleInStorage(binding, ruleKey)
+      .map(CompiledActiveRule::storedRule)
       .map(storageRule -> hydrateDetailsWithServer(connectionId, storageRule, serverUsesStandardSeverityMode, cancelMonitor))
       // try from loaded rules, for e.g. extra analyzers
       .orElseGet(() -> rulesRepository.getRule(connectionId, ruleKey)
@@ -150,18 +152,15 @@ public class RulesService {
         .orElseThrow(() -> ruleNotFoundInPlugins(ruleKey, connectionId)));
   }
 
-  private Optional<ServerActiveRule> findServerActiveRuleInStorage(Binding binding, String ruleKey) {
-    AnalyzerConfiguration analyzerConfiguration;
+  private Optional<CompiledActiveRule> findServerActiveRuleInStorage(Binding binding, String ruleKey) {
+    ActiveRulesSnapshot activeRulesSnapshot;
     try {
-      analyzerConfiguration = storageService.binding(binding).analyzerConfiguration().read();
+      activeRulesSnapshot = rulesRepository.getActiveRulesSnapshot(binding);
     } catch (StorageException e) {
       // XXX we should make sure this situation can not happen (sync should be enforced at least once)
       return Optional.empty();
     }
-    return analyzerConfiguration.getRuleSetByLanguageKey().values().stream()
-      .flatMap(s -> s.getRules().stream())
-      // XXX is it important to migrate the rule repos in tryConvertDeprecatedKeys?
-      .filter(r -> tryConvertDeprecatedKeys(r, binding.connectionId()).getRuleKey().equals(ruleKey)).findFirst();
+    return activeRulesSnapshot.getActiveRule(ruleKey);
   }
 
   private RuleDetails hydrateDetailsWithServer(String connectionId, ServerActiveRule activeRuleFromStorage, boolean skipCleanCodeTaxonomy, SonarLintCancelMonitor cancelMonitor) {
@@ -206,31 +205,6 @@ public class RulesService {
     return new ResponseErrorException(error);
   }
 
-  private ServerActiveRule tryConvertDeprecatedKeys(ServerActiveRule possiblyDeprecatedActiveRuleFromStorage, String connectionId) {
-    Optional<SonarLintRuleDefinition> ruleOrTemplateDefinition;
-    if (StringUtils.isNotBlank(possiblyDeprecatedActiveRuleFromStorage.getTemplateKey())) {
-      ruleOrTemplateDefinition = rulesRepository.getRule(connectionId, possiblyDeprecatedActiveRuleFromStorage.getTemplateKey());
-      if (ruleOrTemplateDefinition.isEmpty()) {
-        // The rule template is not known among our loaded analyzers, so return it untouched, to let calling code take appropriate decision
-        return possiblyDeprecatedActiveRuleFromStorage;
-      }
-      var ruleKeyPossiblyWithDeprecatedRepo = RuleKey.parse(possiblyDeprecatedActiveRuleFromStorage.getRuleKey());
-      var templateRuleKeyWithCorrectRepo = RuleKey.parse(ruleOrTemplateDefinition.get().getKey());
-      var ruleKey = new RuleKey(templateRuleKeyWithCorrectRepo.repository(), ruleKeyPossiblyWithDeprecatedRepo.rule()).toString();
-      return new ServerActiveRule(ruleKey, possiblyDeprecatedActiveRuleFromStorage.getSeverity(), possiblyDeprecatedActiveRuleFromStorage.getParams(),
-        ruleOrTemplateDefinition.get().getKey(), possiblyDeprecatedActiveRuleFromStorage.getOverriddenImpacts());
-    } else {
-      ruleOrTemplateDefinition = rulesRepository.getRule(connectionId, possiblyDeprecatedActiveRuleFromStorage.getRuleKey());
-      if (ruleOrTemplateDefinition.isEmpty()) {
-        // The rule is not known among our loaded analyzers, so return it untouched, to let calling code take appropriate decision
-        return possiblyDeprecatedActiveRuleFromStorage;
-      }
-      return new ServerActiveRule(ruleOrTemplateDefinition.get().getKey(), possiblyDeprecatedActiveRuleFromStorage.getSeverity(),
-        possiblyDeprecatedActiveRuleFromStorage.getParams(),
-        null, possiblyDeprecatedActiveRuleFromStorage.getOverriddenImpacts());
-    }
-  }
-
   private static EffectiveRuleDetailsDto buildResponse(RuleDetails ruleDetails, @Nullable String contextKey) {
     return RuleDetailsAdapter.transform(ruleDetails, contextKey);
   }
@@ -396,16 +370,12 @@ public class RulesService {
     if (activeRuleOpt.isEmpty()) {
       throw new RuleNotFoundException(COULD_NOT_FIND_RULE + ruleKey + "' in active rules", ruleKey);
     }
-    var activeRule = activeRuleOpt.get();
-    var actualRuleKey = ruleKey;
-    if (StringUtils.isNotBlank(activeRule.getTemplateKey())) {
-      actualRuleKey = activeRule.getTemplateKey();
-    }
-    var ruleDefinitionOpt = rulesRepository.getRule(binding.connectionId(), actualRuleKey);
-    if (ruleDefinitionOpt.isEmpty()) {
+    var activeRule = activeRuleOpt.get().storedRule();
+    var ruleDefinition = activeRuleOpt.get().ruleOrTemplateDefinition();
+    if (ruleDefinition == null) {
+      var actualRuleKey = StringUtils.isNotBlank(activeRule.getTemplateKey()) ? activeRule.getTemplateKey() : ruleKey;
       throw new RuleNotFoundException(COULD_NOT_FIND_RULE + actualRuleKey + IN_EMBEDDED_RULES, actualRuleKey);
     }
-    var ruleDefinition = ruleDefinitionOpt.get();
     return new RuleDetailsForAnalysis(activeRule.getSeverity(), ruleDefinition.getType(),
       ruleDefinition.getCleanCodeAttribute().orElse(CONVENTIONAL),
       RuleDetails.mergeImpacts(ruleDefinition.getDefaultImpacts(), activeRule.getOverriddenImpacts()),
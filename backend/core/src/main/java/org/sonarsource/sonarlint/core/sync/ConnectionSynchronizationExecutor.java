@@ -0,0 +1,214 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.sync;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.sonarsource.sonarlint.core.commons.log.LogOutput;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
+import org.sonarsource.sonarlint.core.serverapi.exception.ServerErrorException;
+import org.sonarsource.sonarlint.core.serverapi.exception.TooManyRequestsException;
+
+/**
+ * Runs synchronization tasks on a bounded pool, so that a slow or unreachable server does not delay the synchronization of other
+ * connections. Tasks of a same connection are started in submission order, with a limited concurrency. Exclusive tasks (e.g. the
+ * synchronization of plugins) never run concurrently with other tasks of the same connection.
+ * When a server asks to slow down (HTTP 429) or is unavailable (HTTP 5xx), the connection backs off for an increasing duration.
+ */
+class ConnectionSynchronizationExecutor {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  static final String MAX_WORKERS_PROPERTY = "sonarlint.internal.synchronization.maxWorkers";
+  static final String MAX_CONCURRENT_TASKS_PER_CONNECTION_PROPERTY = "sonarlint.internal.synchronization.maxConcurrentTasksPerConnection";
+  private static final int DEFAULT_MAX_WORKERS = 4;
+  private static final int DEFAULT_MAX_CONCURRENT_TASKS_PER_CONNECTION = 2;
+
+  private final ExecutorService workers;
+  private final int maxConcurrentTasksPerConnection;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final Map<String, ConnectionQueue> queuesByConnectionId = new HashMap<>();
+  private final Map<String, Backoff> backoffByConnectionId = new ConcurrentHashMap<>();
+  private final Map<String, SynchronizationMetrics> metricsByConnectionId = new ConcurrentHashMap<>();
+
+  ConnectionSynchronizationExecutor(int workersCount, int maxConcurrentTasksPerConnection, Duration initialBackoff, Duration maxBackoff) {
+    this.workers = FailSafeExecutors.newFixedThreadPool("sonarlint-synchronization-worker", workersCount);
+    this.maxConcurrentTasksPerConnection = maxConcurrentTasksPerConnection;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+  }
+
+  static ConnectionSynchronizationExecutor fromSystemProperties() {
+    return new ConnectionSynchronizationExecutor(getPositiveIntProperty(MAX_WORKERS_PROPERTY, DEFAULT_MAX_WORKERS),
+      getPositiveIntProperty(MAX_CONCURRENT_TASKS_PER_CONNECTION_PROPERTY, DEFAULT_MAX_CONCURRENT_TASKS_PER_CONNECTION),
+      Duration.ofMinutes(1), Duration.ofHours(1));
+  }
+
+  static int getPositiveIntProperty(String key, int defaultValue) {
+    var value = System.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      var parsedValue = Integer.parseInt(value.trim());
+      if (parsedValue > 0) {
+        return parsedValue;
+      }
+    } catch (NumberFormatException e) {
+      // logged below
+    }
+    LOG.warn("Invalid value for '{}': {}, using {} instead", key, value, defaultValue);
+    return defaultValue;
+  }
+
+  CompletableFuture<Void> submit(String connectionId, Runnable task) {
+    return enqueue(connectionId, task, false);
+  }
+
+  CompletableFuture<Void> submitExclusive(String connectionId, Runnable task) {
+    return enqueue(connectionId, task, true);
+  }
+
+  private synchronized CompletableFuture<Void> enqueue(String connectionId, Runnable task, boolean exclusive) {
+    var pendingTask = new PendingTask(task, exclusive, LOG.getTargetForCopy(), new CompletableFuture<>());
+    queuesByConnectionId.computeIfAbsent(connectionId, k -> new ConnectionQueue()).pendingTasks.add(pendingTask);
+    dispatch(connectionId);
+    return pendingTask.future;
+  }
+
+  private synchronized void dispatch(String connectionId) {
+    var queue = queuesByConnectionId.get(connectionId);
+    if (queue == null) {
+      return;
+    }
+    while (!queue.pendingTasks.isEmpty() && !queue.exclusiveRunning) {
+      var next = queue.pendingTasks.peek();
+      var canStart = next.exclusive ? queue.runningCount == 0 : queue.runningCount < maxConcurrentTasksPerConnection;
+      if (!canStart) {
+        break;
+      }
+      queue.pendingTasks.poll();
+      queue.runningCount++;
+      queue.exclusiveRunning = next.exclusive;
+      workers.execute(() -> run(connectionId, next));
+    }
+    if (queue.runningCount == 0 && queue.pendingTasks.isEmpty()) {
+      queuesByConnectionId.remove(connectionId);
+    }
+  }
+
+  private void run(String connectionId, PendingTask pendingTask) {
+    SonarLintLogger.get().setTarget(pendingTask.logOutput);
+    var startTime = System.nanoTime();
+    try {
+      pendingTask.task.run();
+      backoffByConnectionId.remove(connectionId);
+    } catch (Exception e) {
+      if (isThrottling(e)) {
+        var backoff = backoffByConnectionId.compute(connectionId, (k, previous) -> nextBackoff(previous));
+        LOG.warn("Server of connection '{}' is overloaded or unavailable, pausing its synchronization until {}", connectionId, backoff.until);
+      } else {
+        LOG.error("Error during synchronization", e);
+      }
+    } finally {
+      var duration = Duration.ofNanos(System.nanoTime() - startTime);
+      metricsByConnectionId.merge(connectionId, new SynchronizationMetrics(1, duration, duration), SynchronizationMetrics::add);
+      LOG.debug("Synchronization task of connection '{}' took {} ms", connectionId, duration.toMillis());
+      synchronized (this) {
+        var queue = queuesByConnectionId.get(connectionId);
+        // the queue is gone when shutting down
+        if (queue != null) {
+          queue.runningCount--;
+          if (pendingTask.exclusive) {
+            queue.exclusiveRunning = false;
+          }
+          dispatch(connectionId);
+        }
+      }
+      pendingTask.future.complete(null);
+    }
+  }
+
+  private Backoff nextBackoff(@Nullable Backoff previous) {
+    var delay = previous == null ? initialBackoff : previous.delay.multipliedBy(2);
+    if (delay.compareTo(maxBackoff) > 0) {
+      delay = maxBackoff;
+    }
+    return new Backoff(delay, Instant.now().plus(delay));
+  }
+
+  private static boolean isThrottling(Throwable throwable) {
+    var cause = throwable;
+    while (cause != null) {
+      if (cause instanceof TooManyRequestsException || cause instanceof ServerErrorException) {
+        return true;
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+
+  boolean isBackingOff(String connectionId) {
+    return Optional.ofNullable(backoffByConnectionId.get(connectionId))
+      .map(backoff -> Instant.now().isBefore(backoff.until))
+      .orElse(false);
+  }
+
+  Map<String, SynchronizationMetrics> getMetricsByConnectionId() {
+    return Map.copyOf(metricsByConnectionId);
+  }
+
+  boolean shutdownAndAwaitTermination(long timeout, TimeUnit unit) {
+    synchronized (this) {
+      queuesByConnectionId.values().forEach(queue -> queue.pendingTasks.forEach(pendingTask -> pendingTask.future.cancel(false)));
+      queuesByConnectionId.clear();
+    }
+    return MoreExecutors.shutdownAndAwaitTermination(workers, timeout, unit);
+  }
+
+  record SynchronizationMetrics(long count, Duration totalDuration, Duration lastDuration) {
+    SynchronizationMetrics add(SynchronizationMetrics other) {
+      return new SynchronizationMetrics(count + other.count, totalDuration.plus(other.totalDuration), other.lastDuration);
+    }
+  }
+
+  private record Backoff(Duration delay, Instant until) {
+  }
+
+  private record PendingTask(Runnable task, boolean exclusive, @Nullable LogOutput logOutput, CompletableFuture<Void> future) {
+  }
+
+  private static class ConnectionQueue {
+    private final Deque<PendingTask> pendingTasks = new ArrayDeque<>();
+    private int runningCount;
+    private boolean exclusiveRunning;
+  }
+}
@@ -19,24 +19,38 @@
  */
 package org.sonarsource.sonarlint.core.sync;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PreDestroy;
 import java.nio.file.Path;
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.sonarsource.sonarlint.core.branch.SonarProjectBranchTrackingService;
-import org.sonarsource.sonarlint.core.commons.Binding;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.commons.progress.SonarLintCancelMonitor;
 import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
-import org.sonarsource.sonarlint.core.file.FilePathTranslation;
 import org.sonarsource.sonarlint.core.file.PathTranslationService;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
 
+/**
+ * Refreshes the server findings of analyzed files. Refresh requests are coalesced per binding and branch: files already waiting for a
+ * refresh or being refreshed are not fetched twice, files refreshed recently are not fetched again, and all files waiting for a same
+ * binding and branch are fetched in a single batch.
+ */
 public class FindingsSynchronizationService {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
   private static final int FETCH_ALL_ISSUES_THRESHOLD = 10;
+  static final String REFRESH_TTL_PROPERTY = "sonarlint.internal.findings.refresh.ttl";
+  private static final Duration DEFAULT_REFRESH_TTL = Duration.ofSeconds(60);
   private final ConfigurationRepository configurationRepository;
   private final SonarProjectBranchTrackingService branchTrackingService;
   private final PathTranslationService pathTranslationService;
@@ -44,6 +58,10 @@ public class FindingsSynchronizationService {
   private final HotspotSynchronizationService hotspotSynchronizationService;
   private final ExecutorService issueUpdaterExecutorService;
   private final boolean shouldRefreshHotspots;
+  private final long refreshTtlNanos;
+  private final Map<BranchBinding, RefreshBatch> pendingRefreshes = new HashMap<>();
+  private final Map<BranchBinding, RefreshBatch> inProgressRefreshes = new HashMap<>();
+  private final Map<BranchBinding, Map<Path, Long>> lastRefreshTimesByBranchBinding = new HashMap<>();
 
   public FindingsSynchronizationService(ConfigurationRepository configurationRepository, SonarProjectBranchTrackingService branchTrackingService,
     PathTranslationService pathTranslationService, IssueSynchronizationService issueSynchronizationService, HotspotSynchronizationService hotspotSynchronizationService,
@@ -55,53 +73,129 @@ public class FindingsSynchronizationService {
     this.hotspotSynchronizationService = hotspotSynchronizationService;
     this.issueUpdaterExecutorService = FailSafeExecutors.newSingleThreadExecutor("sonarlint-server-tracking-issue-updater");
     this.shouldRefreshHotspots = initializeParams.getBackendCapabilities().contains(BackendCapability.SECURITY_HOTSPOTS);
+    this.refreshTtlNanos = getRefreshTtl().toNanos();
+  }
+
+  static Duration getRefreshTtl() {
+    var ttlFromSystemProperty = System.getProperty(REFRESH_TTL_PROPERTY);
+    if (ttlFromSystemProperty == null) {
+      return DEFAULT_REFRESH_TTL;
+    }
+    try {
+      var ttlSeconds = Long.parseLong(ttlFromSystemProperty.trim());
+      if (ttlSeconds >= 0) {
+        return Duration.ofSeconds(ttlSeconds);
+      }
+    } catch (NumberFormatException e) {
+      // logged below
+    }
+    LOG.warn("Invalid value for '{}': {}, using {} seconds instead", REFRESH_TTL_PROPERTY, ttlFromSystemProperty, DEFAULT_REFRESH_TTL.toSeconds());
+    return DEFAULT_REFRESH_TTL;
   }
 
-  public void refreshServerFindings(String configurationScopeId, Set<Path> pathsToRefresh) {
+  /**
+   * @return a future completed once the server findings of the given files are up-to-date in the storage. It never completes exceptionally.
+   */
+  public CompletableFuture<Void> refreshServerFindings(String configurationScopeId, Set<Path> pathsToRefresh) {
     var effectiveBindingOpt = configurationRepository.getEffectiveBinding(configurationScopeId);
     var activeBranchOpt = branchTrackingService.awaitEffectiveSonarProjectBranch(configurationScopeId);
     var translationOpt = pathTranslationService.getOrComputePathTranslation(configurationScopeId);
-    if (effectiveBindingOpt.isPresent() && activeBranchOpt.isPresent() && translationOpt.isPresent()) {
-      var binding = effectiveBindingOpt.get();
-      var activeBranch = activeBranchOpt.get();
-      var translation = translationOpt.get();
+    if (effectiveBindingOpt.isEmpty() || activeBranchOpt.isEmpty() || translationOpt.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    var translation = translationOpt.get();
+    var serverFileRelativePaths = pathsToRefresh.stream().map(translation::ideToServerPath).collect(Collectors.toSet());
+    return scheduleRefresh(new BranchBinding(effectiveBindingOpt.get(), activeBranchOpt.get()), serverFileRelativePaths);
+  }
+
+  private synchronized CompletableFuture<Void> scheduleRefresh(BranchBinding branchBinding, Set<Path> serverFileRelativePaths) {
+    var now = System.nanoTime();
+    var lastRefreshTimes = lastRefreshTimesByBranchBinding.computeIfAbsent(branchBinding, k -> new HashMap<>());
+    lastRefreshTimes.values().removeIf(refreshTime -> now - refreshTime >= refreshTtlNanos);
+    var futuresToWaitFor = new ArrayList<CompletableFuture<Void>>();
+    var inProgress = inProgressRefreshes.get(branchBinding);
+    var pathsToSchedule = new HashSet<Path>();
+    for (var path : serverFileRelativePaths) {
+      if (lastRefreshTimes.containsKey(path)) {
+        continue;
+      }
+      if (inProgress != null && inProgress.serverFileRelativePaths.contains(path)) {
+        if (!futuresToWaitFor.contains(inProgress.future)) {
+          futuresToWaitFor.add(inProgress.future);
+        }
+      } else {
+        pathsToSchedule.add(path);
+      }
+    }
+    if (!pathsToSchedule.isEmpty()) {
+      var pending = pendingRefreshes.get(branchBinding);
+      if (pending == null) {
+        pending = new RefreshBatch();
+        pendingRefreshes.put(branchBinding, pending);
+        issueUpdaterExecutorService.execute(() -> refresh(branchBinding));
+      }
+      pending.serverFileRelativePaths.addAll(pathsToSchedule);
+      futuresToWaitFor.add(pending.future);
+    }
+    return CompletableFuture.allOf(futuresToWaitFor.toArray(new CompletableFuture[0]));
+  }
+
+  private void refresh(BranchBinding branchBinding) {
+    RefreshBatch batch;
+    synchronized (this) {
+      batch = pendingRefreshes.remove(branchBinding);
+      inProgressRefreshes.put(branchBinding, batch);
+    }
+    var succeeded = false;
+    try {
       var cancelMonitor = new SonarLintCancelMonitor();
-      refreshServerIssues(cancelMonitor, binding, activeBranch, pathsToRefresh, translation);
+      refreshServerIssues(cancelMonitor, branchBinding, batch.serverFileRelativePaths);
       if (shouldRefreshHotspots) {
-        refreshServerSecurityHotspots(cancelMonitor, binding, activeBranch, pathsToRefresh, translationOpt.get());
+        refreshServerSecurityHotspots(cancelMonitor, branchBinding, batch.serverFileRelativePaths);
+      }
+      succeeded = true;
+    } catch (Exception e) {
+      LOG.error("Error while refreshing server findings", e);
+    } finally {
+      synchronized (this) {
+        inProgressRefreshes.remove(branchBinding);
+        if (succeeded) {
+          var refreshTime = System.nanoTime();
+          var lastRefreshTimes = lastRefreshTimesByBranchBinding.computeIfAbsent(branchBinding, k -> new HashMap<>());
+          batch.serverFileRelativePaths.forEach(path -> lastRefreshTimes.put(path, refreshTime));
+        }
       }
+      batch.future.complete(null);
     }
   }
 
-  private void refreshServerIssues(SonarLintCancelMonitor cancelMonitor, Binding binding, String activeBranch,
-    Set<Path> pathsInvolved, FilePathTranslation translation) {
-    var serverFileRelativePaths = pathsInvolved.stream().map(translation::ideToServerPath).collect(Collectors.toSet());
-    var downloadAllIssuesAtOnce = serverFileRelativePaths.size() > FETCH_ALL_ISSUES_THRESHOLD;
-    var fetchTasks = new LinkedList<CompletableFuture<?>>();
-    if (downloadAllIssuesAtOnce) {
-      fetchTasks.add(CompletableFuture.runAsync(() -> issueSynchronizationService.fetchProjectIssues(binding, activeBranch, cancelMonitor), issueUpdaterExecutorService));
+  private void refreshServerIssues(SonarLintCancelMonitor cancelMonitor, BranchBinding branchBinding, Set<Path> serverFileRelativePaths) {
+    if (serverFileRelativePaths.size() > FETCH_ALL_ISSUES_THRESHOLD) {
+      issueSynchronizationService.fetchProjectIssues(branchBinding.getBinding(), branchBinding.getBranchName(), cancelMonitor);
     } else {
-      fetchTasks.addAll(serverFileRelativePaths.stream()
-        .map(serverFileRelativePath -> CompletableFuture.runAsync(() -> issueSynchronizationService
-          .fetchFileIssues(binding, serverFileRelativePath, activeBranch, cancelMonitor), issueUpdaterExecutorService))
-        .toList());
+      serverFileRelativePaths.forEach(serverFileRelativePath -> issueSynchronizationService
+        .fetchFileIssues(branchBinding.getBinding(), serverFileRelativePath, branchBinding.getBranchName(), cancelMonitor));
     }
-    CompletableFuture.allOf(fetchTasks.toArray(new CompletableFuture[0])).join();
   }
 
-  private void refreshServerSecurityHotspots(SonarLintCancelMonitor cancelMonitor, Binding binding, String activeBranch,
-    Set<Path> pathsInvolved, FilePathTranslation translation) {
-    var serverFileRelativePaths = pathsInvolved.stream().map(translation::ideToServerPath).collect(Collectors.toSet());
-    var downloadAllSecurityHotspotsAtOnce = serverFileRelativePaths.size() > FETCH_ALL_ISSUES_THRESHOLD;
-    var fetchTasks = new LinkedList<CompletableFuture<?>>();
-    if (downloadAllSecurityHotspotsAtOnce) {
-      fetchTasks.add(CompletableFuture.runAsync(() -> hotspotSynchronizationService.fetchProjectHotspots(binding, activeBranch, cancelMonitor), issueUpdaterExecutorService));
+  private void refreshServerSecurityHotspots(SonarLintCancelMonitor cancelMonitor, BranchBinding branchBinding, Set<Path> serverFileRelativePaths) {
+    if (serverFileRelativePaths.size() > FETCH_ALL_ISSUES_THRESHOLD) {
+      hotspotSynchronizationService.fetchProjectHotspots(branchBinding.getBinding(), branchBinding.getBranchName(), cancelMonitor);
     } else {
-      fetchTasks.addAll(serverFileRelativePaths.stream()
-        .map(serverFileRelativePath -> CompletableFuture
-          .runAsync(() -> hotspotSynchronizationService.fetchFileHotspots(binding, activeBranch, serverFileRelativePath, cancelMonitor), issueUpdaterExecutorService))
-        .toList());
+      serverFileRelativePaths.forEach(serverFileRelativePath -> hotspotSynchronizationService
+        .fetchFileHotspots(branchBinding.getBinding(), branchBinding.getBranchName(), serverFileRelativePath, cancelMonitor));
     }
-    CompletableFuture.allOf(fetchTasks.toArray(new CompletableFuture[0])).join();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (!MoreExecutors.shutdownAndAwaitTermination(issueUpdaterExecutorService, 1, TimeUnit.SECONDS)) {
+      LOG.warn("Unable to stop server findings refresher in a timely manner");
+    }
+  }
+
+  private static class RefreshBatch {
+    private final Set<Path> serverFileRelativePaths = new HashSet<>();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
   }
 }
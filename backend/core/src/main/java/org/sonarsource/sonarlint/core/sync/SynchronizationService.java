@@ -26,16 +26,18 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import org.sonarsource.sonarlint.core.SonarQubeClientManager;
 import org.sonarsource.sonarlint.core.branch.MatchedSonarProjectBranchChangedEvent;
@@ -61,6 +63,8 @@ import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.Initialize
 import org.sonarsource.sonarlint.core.rpc.protocol.client.sync.DidSynchronizeConfigurationScopeParams;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
 import org.sonarsource.sonarlint.core.serverapi.exception.ForbiddenException;
+import org.sonarsource.sonarlint.core.serverapi.exception.ServerErrorException;
+import org.sonarsource.sonarlint.core.serverapi.exception.TooManyRequestsException;
 import org.sonarsource.sonarlint.core.serverapi.exception.UnauthorizedException;
 import org.sonarsource.sonarlint.core.serverconnection.AiCodeFixSettingsSynchronizer;
 import org.sonarsource.sonarlint.core.serverconnection.LocalStorageSynchronizer;
@@ -104,6 +108,7 @@ public class SynchronizationService {
   private final ApplicationEventPublisher applicationEventPublisher;
   private final ExecutorServiceShutdownWatchable<ScheduledExecutorService> scheduledSynchronizer = new ExecutorServiceShutdownWatchable<>(
     FailSafeExecutors.newSingleThreadScheduledExecutor("SonarLint Local Storage Synchronizer"));
+  private final ConnectionSynchronizationExecutor connectionSynchronizationExecutor = ConnectionSynchronizationExecutor.fromSystemProperties();
   private final Set<String> ignoreBranchEventForScopes = ConcurrentHashMap.newKeySet();
   private final boolean shouldSynchronizeHotspots;
 
@@ -159,20 +164,40 @@ public class SynchronizationService {
   }
 
   private void synchronizeProjectsSync(Map<String, Map<String, Collection<BoundScope>>> boundScopeByConnectionAndSonarProject, SonarLintCancelMonitor cancelMonitor) {
-    if (boundScopeByConnectionAndSonarProject.isEmpty()) {
+    // connections are synchronized in parallel, skipping the ones whose server asked to slow down
+    var connectionsToSynchronize = boundScopeByConnectionAndSonarProject.entrySet().stream()
+      .filter(entry -> {
+        var isBackingOff = connectionSynchronizationExecutor.isBackingOff(entry.getKey());
+        if (isBackingOff) {
+          LOG.debug("Skipping synchronization of connection '{}' because its server is overloaded or unavailable", entry.getKey());
+        }
+        return !isBackingOff;
+      })
+      .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    synchronizeProjectsSync(connectionsToSynchronize, cancelMonitor, connectionSynchronizationExecutor::submit);
+  }
+
+  private void synchronizeProjectsSync(Map<String, Map<String, Collection<BoundScope>>> boundScopeByConnectionAndSonarProject, SonarLintCancelMonitor cancelMonitor,
+    BiFunction<String, Runnable, CompletableFuture<Void>> projectSynchronizationRunner) {
+    var projectsCount = boundScopeByConnectionAndSonarProject.values().stream().mapToInt(Map::size).sum();
+    if (projectsCount == 0) {
       return;
     }
     taskManager.createAndRunTask(null, UUID.randomUUID(), "Synchronizing projects...", null, false, false, progressIndicator -> {
-      var connectionsCount = boundScopeByConnectionAndSonarProject.size();
-      var progressGap = 100f / connectionsCount;
-      var progress = 0f;
-      var synchronizedConfScopeIds = new HashSet<String>();
-      for (var entry : boundScopeByConnectionAndSonarProject.entrySet()) {
-        var connectionId = entry.getKey();
-        progressIndicator.notifyProgress("Synchronizing with '" + connectionId + "'...", Math.round(progress));
-        synchronizeProjectsOfTheSameConnection(connectionId, entry.getValue(), progressIndicator, synchronizedConfScopeIds, progress, progressGap, cancelMonitor);
-        progress += progressGap;
-      }
+      var synchronizedProjectsCount = new AtomicInteger();
+      var synchronizedConfScopeIds = ConcurrentHashMap.<String>newKeySet();
+      var projectSynchronizations = new ArrayList<CompletableFuture<Void>>();
+      boundScopeByConnectionAndSonarProject.forEach((connectionId, boundScopeBySonarProject) -> boundScopeBySonarProject
+        .forEach((sonarProjectKey, boundScopes) -> projectSynchronizations.add(projectSynchronizationRunner.apply(connectionId,
+          () -> {
+            try {
+              sonarQubeClientManager.withActiveClient(connectionId, serverApi -> synchronizeProjectWithProgress(serverApi, connectionId, sonarProjectKey, boundScopes,
+                progressIndicator, cancelMonitor, synchronizedConfScopeIds, 100f * synchronizedProjectsCount.get() / projectsCount));
+            } finally {
+              synchronizedProjectsCount.incrementAndGet();
+            }
+          }))));
+      CompletableFuture.allOf(projectSynchronizations.toArray(new CompletableFuture[0])).join();
       if (!synchronizedConfScopeIds.isEmpty()) {
         applicationEventPublisher.publishEvent(new ConfigurationScopesSynchronizedEvent(synchronizedConfScopeIds));
         client.didSynchronizeConfigurationScopes(new DidSynchronizeConfigurationScopeParams(synchronizedConfScopeIds));
@@ -180,23 +205,13 @@ public class SynchronizationService {
     }, cancelMonitor);
   }
 
-  private void synchronizeProjectsOfTheSameConnection(String connectionId, Map<String, Collection<BoundScope>> boundScopeBySonarProject, ProgressIndicator progressIndicator,
-    Set<String> synchronizedConfScopeIds, float progress, float progressGap, SonarLintCancelMonitor cancelMonitor) {
-    if (boundScopeBySonarProject.isEmpty()) {
-      return;
-    }
-    sonarQubeClientManager.withActiveClient(connectionId, serverApi -> {
-      var subProgressGap = progressGap / boundScopeBySonarProject.size();
-      var subProgress = progress;
-      for (var entry : boundScopeBySonarProject.entrySet()) {
-        synchronizeProjectWithProgress(serverApi, connectionId, entry.getKey(), entry.getValue(), progressIndicator, cancelMonitor, synchronizedConfScopeIds, subProgress);
-        subProgress += subProgressGap;
-      }
-    });
+  private static CompletableFuture<Void> runInCurrentThread(String connectionId, Runnable projectSynchronization) {
+    projectSynchronization.run();
+    return CompletableFuture.completedFuture(null);
   }
 
   private void synchronizeProjectWithProgress(ServerApi serverApi, String connectionId, String sonarProjectKey, Collection<BoundScope> boundScopes,
-    ProgressIndicator progressIndicator, SonarLintCancelMonitor cancelMonitor, Set<String> synchronizedConfigScopeIds, float subProgress) {
+    ProgressIndicator progressIndicator, SonarLintCancelMonitor cancelMonitor, Set<String> synchronizedConfigScopeIds, float progress) {
     var allScopes = configurationRepository.getBoundScopesToConnectionAndSonarProject(connectionId, sonarProjectKey);
     var allScopesByOptBranch = allScopes.stream()
       .collect(groupingBy(b -> sonarProjectBranchTrackingService.awaitEffectiveSonarProjectBranch(b.getConfigScopeId())));
@@ -205,7 +220,7 @@ public class SynchronizationService {
         var branchBinding = new BranchBinding(new Binding(connectionId, sonarProjectKey), branchName);
         if (shouldSynchronizeBranch(branchBinding)) {
           branchSynchronizationTimestampRepository.setLastSynchronizationTimestampToNow(branchBinding);
-          progressIndicator.notifyProgress("Synchronizing project '" + sonarProjectKey + "'...", (int) subProgress);
+          progressIndicator.notifyProgress("Synchronizing project '" + sonarProjectKey + "'...", Math.round(progress));
           issueSynchronizationService.syncServerIssuesForProject(serverApi, connectionId, sonarProjectKey, branchName, cancelMonitor);
           taintSynchronizationService.synchronizeTaintVulnerabilities(serverApi, connectionId, sonarProjectKey, branchName, cancelMonitor);
           scaSynchronizationService.synchronize(serverApi, connectionId, sonarProjectKey, branchName, cancelMonitor);
@@ -301,7 +316,7 @@ public class SynchronizationService {
   private void synchronizeConnectionAndProjectsIfNeededAsync(String connectionId, Collection<BoundScope> boundScopes) {
     var cancelMonitor = new SonarLintCancelMonitor();
     cancelMonitor.watchForShutdown(scheduledSynchronizer);
-    scheduledSynchronizer.execute(
+    connectionSynchronizationExecutor.submitExclusive(connectionId,
       () -> sonarQubeClientManager.withActiveClient(connectionId, serverApi -> synchronizeConnectionAndProjectsIfNeededSync(connectionId, serverApi, boundScopes, cancelMonitor)));
   }
 
@@ -342,13 +357,15 @@ public class SynchronizationService {
         applicationEventPublisher.publishEvent(new AnalyzerConfigurationSynchronized(configScopeIds));
         sonarProjectBranchesSynchronizationService.sync(connectionId, projectKey, cancelMonitor);
       });
+      // we are already running exclusively for this connection, projects are synchronized one after the other
       synchronizeProjectsSync(
         Map.of(connectionId, scopesToSync.stream().map(scope -> new BoundScope(scope.getConfigScopeId(), connectionId, scope.getSonarProjectKey()))
           .collect(groupingBy(BoundScope::getSonarProjectKey, toCollection(ArrayList::new)))),
-        cancelMonitor);
+        cancelMonitor, SynchronizationService::runInCurrentThread);
     } catch (Exception e) {
       LOG.error("Error during synchronization", e);
-      if (e instanceof UnauthorizedException || e instanceof ForbiddenException) {
+      // let the executor back off when the server is overloaded
+      if (e instanceof UnauthorizedException || e instanceof ForbiddenException || e instanceof TooManyRequestsException || e instanceof ServerErrorException) {
         throw e;
       }
     } finally {
@@ -408,5 +425,8 @@ public class SynchronizationService {
     if (!MoreExecutors.shutdownAndAwaitTermination(scheduledSynchronizer, 5, TimeUnit.SECONDS)) {
       LOG.warn("Unable to stop synchronizer executor service in a timely manner");
     }
+    if (!connectionSynchronizationExecutor.shutdownAndAwaitTermination(5, TimeUnit.SECONDS)) {
+      LOG.warn("Unable to stop synchronization workers in a timely manner");
+    }
   }
 }
@@ -0,0 +1,69 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.tracking;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Orders the final reports of analyses that can complete out of order, for instance when one of them waits for server findings.
+ * Each analysis receives a sequence number when it starts. The findings of a file are only reported if no analysis started later already reported the same file.
+ */
+class FindingsReportSequencer {
+  private final AtomicLong lastSequence = new AtomicLong();
+  private final Map<String, Map<Path, Long>> reportedSequenceByFileByConfigScopeId = new HashMap<>();
+
+  Ticket start(Set<Path> analyzedFiles) {
+    return new Ticket(lastSequence.incrementAndGet(), Set.copyOf(analyzedFiles));
+  }
+
+  /**
+   * @return the analyzed files for which no analysis started after the given one has been reported yet
+   */
+  synchronized Set<Path> filterOutdated(String configurationScopeId, Ticket ticket) {
+    var reportedSequenceByFile = reportedSequenceByFileByConfigScopeId.getOrDefault(configurationScopeId, Map.of());
+    return ticket.analyzedFiles().stream()
+      .filter(file -> reportedSequenceByFile.getOrDefault(file, 0L) < ticket.sequence())
+      .collect(Collectors.toSet());
+  }
+
+  /**
+   * Runs the report with the files that are not outdated, and marks them as reported by the given analysis.
+   * The lock is held during the report so that an older report cannot be interleaved with a newer one.
+   */
+  synchronized void report(String configurationScopeId, Ticket ticket, Consumer<Set<Path>> report) {
+    var filesToReport = filterOutdated(configurationScopeId, ticket);
+    var reportedSequenceByFile = reportedSequenceByFileByConfigScopeId.computeIfAbsent(configurationScopeId, k -> new HashMap<>());
+    filesToReport.forEach(file -> reportedSequenceByFile.put(file, ticket.sequence()));
+    report.accept(filesToReport);
+  }
+
+  synchronized void forget(String configurationScopeId) {
+    reportedSequenceByFileByConfigScopeId.remove(configurationScopeId);
+  }
+
+  record Ticket(long sequence, Set<Path> analyzedFiles) {
+  }
+}
@@ -19,19 +19,24 @@
  */
 package org.sonarsource.sonarlint.core.tracking;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PreDestroy;
 import java.net.URI;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
+import org.sonarsource.sonarlint.core.UserPaths;
 import org.sonarsource.sonarlint.core.analysis.AnalysisFailedEvent;
 import org.sonarsource.sonarlint.core.analysis.AnalysisFinishedEvent;
 import org.sonarsource.sonarlint.core.analysis.AnalysisStartedEvent;
@@ -43,8 +48,10 @@ import org.sonarsource.sonarlint.core.commons.NewCodeDefinition;
 import org.sonarsource.sonarlint.core.commons.RuleType;
 import org.sonarsource.sonarlint.core.commons.MultiFileBlameResult;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
 import org.sonarsource.sonarlint.core.commons.util.git.GitService;
 import org.sonarsource.sonarlint.core.commons.util.git.exceptions.GitException;
+import org.sonarsource.sonarlint.core.event.ConfigurationScopeRemovedEvent;
 import org.sonarsource.sonarlint.core.event.MatchingSessionEndedEvent;
 import org.sonarsource.sonarlint.core.file.PathTranslationService;
 import org.sonarsource.sonarlint.core.local.only.LocalOnlyIssueStorageService;
@@ -53,6 +60,8 @@ import org.sonarsource.sonarlint.core.reporting.FindingReportingService;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.hotspot.HotspotStatus;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.fs.GetBaseDirParams;
 import org.sonarsource.sonarlint.core.serverapi.hotspot.ServerHotspot;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerIssue;
@@ -77,7 +86,12 @@ public class TrackingService {
   private final SonarProjectBranchTrackingService branchTrackingService;
   private final PathTranslationService pathTranslationService;
   private final FindingReportingService reportingService;
-  private final Map<UUID, MatchingSession> matchingSessionByAnalysisId = new HashMap<>();
+  // analyses run concurrently when there are several analysis workers
+  private final Map<UUID, MatchingSession> matchingSessionByAnalysisId = new ConcurrentHashMap<>();
+  private final Map<UUID, FindingsReportSequencer.Ticket> reportTicketByAnalysisId = new ConcurrentHashMap<>();
+  private final FindingsReportSequencer reportSequencer = new FindingsReportSequencer();
+  // reports waiting for server findings are run on their own thread, not on the one fetching the findings
+  private final ExecutorService reportingExecutorService = FailSafeExecutors.newSingleThreadExecutor("sonarlint-tracked-findings-reporter");
   private final KnownFindingsStorageService knownFindingsStorageService;
   private final StorageService storageService;
   private final LocalOnlyIssueRepository localOnlyIssueRepository;
@@ -86,11 +100,12 @@ public class TrackingService {
   private final NewCodeService newCodeService;
   private final ApplicationEventPublisher eventPublisher;
   private final GitService gitService;
+  private final boolean isDeferredReportingEnabled;
 
   public TrackingService(SonarLintRpcClient client, ConfigurationRepository configurationRepository, SonarProjectBranchTrackingService branchTrackingService,
     PathTranslationService pathTranslationService, FindingReportingService reportingService, KnownFindingsStorageService knownFindingsStorageService, StorageService storageService,
     LocalOnlyIssueRepository localOnlyIssueRepository, LocalOnlyIssueStorageService localOnlyIssueStorageService, FindingsSynchronizationService findingsSynchronizationService,
-    NewCodeService newCodeService, ApplicationEventPublisher eventPublisher) {
+    NewCodeService newCodeService, ApplicationEventPublisher eventPublisher, UserPaths userPaths, InitializeParams initializeParams) {
     this.client = client;
     this.configurationRepository = configurationRepository;
     this.branchTrackingService = branchTrackingService;
@@ -103,7 +118,8 @@ public class TrackingService {
     this.findingsSynchronizationService = findingsSynchronizationService;
     this.newCodeService = newCodeService;
     this.eventPublisher = eventPublisher;
-    this.gitService = GitService.create();
+    this.gitService = GitService.create(userPaths.getStorageRoot().resolve("blame"));
+    this.isDeferredReportingEnabled = initializeParams.getBackendCapabilities().contains(BackendCapability.DEFERRED_FINDINGS_REPORTING);
   }
 
   @EventListener
@@ -111,6 +127,7 @@ public class TrackingService {
     var configurationScopeId = event.getConfigurationScopeId();
     var matchingSession = startMatchingSession(configurationScopeId, event.getFileRelativePaths(), event.getFileUris(), event.getFileContentProvider());
     matchingSessionByAnalysisId.put(event.getAnalysisId(), matchingSession);
+    reportTicketByAnalysisId.put(event.getAnalysisId(), reportSequencer.start(event.getFileRelativePaths()));
     reportingService.resetFindingsForFiles(configurationScopeId, event.getFileUris());
     reportingService.initFilesToAnalyze(event.getAnalysisId(), event.getFileUris());
   }
@@ -135,53 +152,95 @@ public class TrackingService {
   @EventListener
   public void onAnalysisFailed(AnalysisFailedEvent event) {
     matchingSessionByAnalysisId.remove(event.analysisId());
+    reportTicketByAnalysisId.remove(event.analysisId());
+  }
+
+  @EventListener
+  public void onConfigurationScopeRemoved(ConfigurationScopeRemovedEvent event) {
+    reportSequencer.forget(event.getRemovedConfigurationScopeId());
   }
 
   @EventListener
   public void onAnalysisFinished(AnalysisFinishedEvent event) {
     var analysisId = event.getAnalysisId();
     var matchingSession = matchingSessionByAnalysisId.remove(analysisId);
-    if (matchingSession == null) {
+    var reportTicket = reportTicketByAnalysisId.remove(analysisId);
+    if (matchingSession == null || reportTicket == null) {
       // a not-started analysis finished, this normally shouldn't happen
       return;
     }
     var configurationScopeId = event.getConfigurationScopeId();
     if (event.shouldFetchServerIssues()) {
-      findingsSynchronizationService.refreshServerFindings(configurationScopeId, matchingSession.getRelativePathsInvolved());
+      var serverFindingsRefresh = findingsSynchronizationService.refreshServerFindings(configurationScopeId, matchingSession.getRelativePathsInvolved());
+      if (isDeferredReportingEnabled) {
+        // The final report waits for fresh server findings without blocking the end of the analysis: the analysis request can complete before the
+        // final raiseIssues/raiseHotspots notifications. Files reported in the meantime by a more recent analysis are left out of this report.
+        serverFindingsRefresh
+          .thenRunAsync(() -> matchAndReport(configurationScopeId, analysisId, reportTicket, matchingSession), reportingExecutorService)
+          .exceptionally(e -> {
+            LOG.error("Error while reporting tracked findings", e);
+            return null;
+          });
+        return;
+      }
+      // other clients expect the final report to be sent when the analysis request completes, the refresh never completes exceptionally
+      serverFindingsRefresh.join();
     }
-    var result = matchWithServerFindings(configurationScopeId, matchingSession);
-    reportingService.reportTrackedFindings(configurationScopeId, analysisId, result.issuesToReport, result.hotspotsToReport);
+    matchAndReport(configurationScopeId, analysisId, reportTicket, matchingSession);
+  }
+
+  private void matchAndReport(String configurationScopeId, UUID analysisId, FindingsReportSequencer.Ticket reportTicket, MatchingSession matchingSession) {
+    var filesToMatch = reportSequencer.filterOutdated(configurationScopeId, reportTicket);
+    var result = matchWithServerFindings(configurationScopeId, matchingSession, filesToMatch);
+    reportSequencer.report(configurationScopeId, reportTicket, filesToReport -> {
+      var issuesToReport = retainFiles(result.issuesToReport, filesToReport);
+      var hotspotsToReport = retainFiles(result.hotspotsToReport, filesToReport);
+      storeKnownFindings(configurationScopeId, issuesToReport, hotspotsToReport);
+      reportingService.reportTrackedFindings(configurationScopeId, analysisId, issuesToReport, hotspotsToReport);
+    });
+  }
+
+  private static Map<Path, List<TrackedIssue>> retainFiles(Map<Path, List<TrackedIssue>> findingsPerFile, Set<Path> files) {
+    return findingsPerFile.entrySet().stream()
+      .filter(e -> files.contains(e.getKey()))
+      .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  private void storeKnownFindings(String configurationScopeId, Map<Path, List<TrackedIssue>> issuesToReport, Map<Path, List<TrackedIssue>> hotspotsToReport) {
+    var knownFindingsStore = knownFindingsStorageService.get();
+    issuesToReport.forEach((clientRelativePath, trackedIssues) -> storeTrackedIssues(knownFindingsStore, configurationScopeId, clientRelativePath, trackedIssues));
+    hotspotsToReport.forEach((clientRelativePath, trackedHotspots) -> storeTrackedSecurityHotspots(knownFindingsStore, configurationScopeId, clientRelativePath, trackedHotspots));
   }
 
-  private MatchingResult matchWithServerFindings(String configurationScopeId, MatchingSession matchingSession) {
+  private MatchingResult matchWithServerFindings(String configurationScopeId, MatchingSession matchingSession, Set<Path> filesToMatch) {
     var effectiveBindingOpt = configurationRepository.getEffectiveBinding(configurationScopeId);
     var activeBranchOpt = branchTrackingService.awaitEffectiveSonarProjectBranch(configurationScopeId);
     var translationOpt = pathTranslationService.getOrComputePathTranslation(configurationScopeId);
-    var knownFindingsStore = knownFindingsStorageService.get();
-    var issuesToReport = matchingSession.getIssuesPerFile();
-    var hotspotsToReport = matchingSession.getSecurityHotspotsPerFile();
+    var issuesToReport = retainFiles(matchingSession.getIssuesPerFile(), filesToMatch);
+    var hotspotsToReport = retainFiles(matchingSession.getSecurityHotspotsPerFile(), filesToMatch);
     if (effectiveBindingOpt.isPresent() && activeBranchOpt.isPresent() && translationOpt.isPresent()) {
       var binding = effectiveBindingOpt.get();
       var activeBranch = activeBranchOpt.get();
       var translation = translationOpt.get();
+      var findings = storageService.binding(binding).findings();
+      var serverIssuesByServerPath = findings.loadForFiles(activeBranch, issuesToReport.keySet().stream().map(translation::ideToServerPath).toList());
       issuesToReport = issuesToReport.entrySet().stream().map(e -> {
         var ideRelativePath = e.getKey();
         var serverRelativePath = translation.ideToServerPath(ideRelativePath);
-        var serverIssues = storageService.binding(binding).findings().load(activeBranch, serverRelativePath);
+        var serverIssues = serverIssuesByServerPath.getOrDefault(serverRelativePath, List.of());
         var localOnlyIssues = localOnlyIssueStorageService.get().loadForFile(configurationScopeId, serverRelativePath);
         var matches = matchWithServerIssues(serverRelativePath, serverIssues, localOnlyIssues, e.getValue());
         return Map.entry(ideRelativePath, matches);
       }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+      var serverHotspotsByServerPath = findings.loadHotspotsForFiles(activeBranch, hotspotsToReport.keySet().stream().map(translation::ideToServerPath).toList());
       hotspotsToReport = hotspotsToReport.entrySet().stream().map(e -> {
         var ideRelativePath = e.getKey();
         var serverRelativePath = translation.ideToServerPath(ideRelativePath);
-        var serverHotspots = storageService.binding(binding).findings().loadHotspots(activeBranch, serverRelativePath);
+        var serverHotspots = serverHotspotsByServerPath.getOrDefault(serverRelativePath, List.of());
         var matches = matchWithServerHotspots(serverHotspots, e.getValue());
         return Map.entry(ideRelativePath, matches);
       }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
-    issuesToReport.forEach((clientRelativePath, trackedIssues) -> storeTrackedIssues(knownFindingsStore, configurationScopeId, clientRelativePath, trackedIssues));
-    hotspotsToReport.forEach((clientRelativePath, trackedHotspots) -> storeTrackedSecurityHotspots(knownFindingsStore, configurationScopeId, clientRelativePath, trackedHotspots));
     eventPublisher.publishEvent(new MatchingSessionEndedEvent(matchingSession.countNewIssues(), matchingSession.countRemainingUnmatchedIssues()));
     return new MatchingResult(issuesToReport, hotspotsToReport);
   }
@@ -313,6 +372,13 @@ public class TrackingService {
     return multiFileBlameResult.getLatestChangeDateForLinesInFile(path, lineNumbers).orElse(Instant.now());
   }
 
+  @PreDestroy
+  public void shutdown() {
+    if (!MoreExecutors.shutdownAndAwaitTermination(reportingExecutorService, 1, TimeUnit.SECONDS)) {
+      LOG.warn("Unable to stop tracked findings reporter in a timely manner");
+    }
+  }
+
   private record MatchingResult(Map<Path, List<TrackedIssue>> issuesToReport,
     Map<Path, List<TrackedIssue>> hotspotsToReport) {
   }
@@ -20,6 +20,7 @@
 package org.sonarsource.sonarlint.core.tracking.matching;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -52,18 +53,27 @@ public class IssueMatcher<LEFT, RIGHT> {
     // 7. match issues with same rule and same line hash
     LineHashMatchingCriterion::new);
 
-  private final Map<MatchingCriterionFactory, Map<MatchingCriterion, List<RIGHT>>> rightIssuesByCriterion = new HashMap<>();
-  private final MatchingAttributesMapper<RIGHT> rightMapper;
-  private final Collection<RIGHT> rightIssues;
+  private final Map<MatchingCriterionFactory, Map<MatchingCriterion, CandidatesBucket>> rightIssuesByCriterion = new HashMap<>();
+  private final List<RIGHT> rightIssues;
+  /**
+   * Right issues are referenced by their index in {@link #rightIssues}, a matched issue is tombstoned instead of being removed from the
+   * buckets, so that removal does not depend on the number of candidates.
+   */
+  private final boolean[] matchedRights;
+  private int unmatchedRightsCount;
 
   public IssueMatcher(MatchingAttributesMapper<RIGHT> rightMapper, Collection<RIGHT> rightIssues) {
-    this.rightMapper = rightMapper;
     this.rightIssues = new ArrayList<>(rightIssues);
+    this.matchedRights = new boolean[this.rightIssues.size()];
+    this.unmatchedRightsCount = this.rightIssues.size();
     for (var matchingCriterion : MATCHING_CRITERIA) {
-      var issuesByCriterion = new HashMap<MatchingCriterion, List<RIGHT>>();
-      for (RIGHT right : rightIssues) {
-        var criterionAppliedToIssue = matchingCriterion.build(right, rightMapper);
-        issuesByCriterion.computeIfAbsent(criterionAppliedToIssue, k -> new ArrayList<>()).add(right);
+      var issuesByCriterion = new HashMap<MatchingCriterion, CandidatesBucket>();
+      for (var i = 0; i < this.rightIssues.size(); i++) {
+        var criterionAppliedToIssue = matchingCriterion.build(this.rightIssues.get(i), rightMapper);
+        if (!criterionAppliedToIssue.canMatch()) {
+          continue;
+        }
+        issuesByCriterion.computeIfAbsent(criterionAppliedToIssue, k -> new CandidatesBucket()).add(i);
       }
 
       rightIssuesByCriterion.put(matchingCriterion, issuesByCriterion);
@@ -84,34 +94,69 @@ public class IssueMatcher<LEFT, RIGHT> {
   }
 
   private void matchWithCriterion(MatchingResult<LEFT, RIGHT> result, MatchingAttributesMapper<LEFT> leftMapper, MatchingCriterionFactory criterionFactory) {
+    var rightCandidatesByKey = rightIssuesByCriterion.get(criterionFactory);
     for (LEFT left : result.getUnmatchedLefts()) {
       var leftKey = criterionFactory.build(left, leftMapper);
-      var rightCandidates = rightIssuesByCriterion.get(criterionFactory).get(leftKey);
-      if (rightCandidates != null && !rightCandidates.isEmpty()) {
+      if (!leftKey.canMatch()) {
+        continue;
+      }
+      var rightCandidates = rightCandidatesByKey.get(leftKey);
+      if (rightCandidates != null) {
         // TODO taking the first one. Could be improved if there are more than 2 issues on the same line.
         // Message could be checked to take the best one.
-        var match = rightCandidates.iterator().next();
-        result.recordMatch(left, match);
-        removeRight(match);
+        var matchIndex = rightCandidates.pollFirstUnmatched(matchedRights);
+        if (matchIndex >= 0) {
+          result.recordMatch(left, rightIssues.get(matchIndex));
+          matchedRights[matchIndex] = true;
+          unmatchedRightsCount--;
+        }
       }
     }
   }
 
-  private void removeRight(RIGHT right) {
-    rightIssues.remove(right);
-    MATCHING_CRITERIA.forEach(criterion -> {
-      var rights = rightIssuesByCriterion.get(criterion).get(criterion.build(right, rightMapper));
-      if (rights != null) {
-        rights.remove(right);
-      }
-    });
+  public int getUnmatchedIssuesCount() {
+    return unmatchedRightsCount;
   }
 
-  public int getUnmatchedIssuesCount() {
-    return rightIssues.size();
+  /**
+   * Indexes of the right issues sharing the same criterion key, in the order of the original collection.
+   */
+  private static class CandidatesBucket {
+    private int[] indexes = new int[1];
+    private int size;
+    private int head;
+
+    void add(int index) {
+      if (size == indexes.length) {
+        indexes = Arrays.copyOf(indexes, size * 2);
+      }
+      indexes[size++] = index;
+    }
+
+    /**
+     * Return the first index that is not matched yet, or -1. Matched indexes are skipped for good, so the total cost of the polls
+     * is bounded by the size of the bucket.
+     */
+    int pollFirstUnmatched(boolean[] matched) {
+      while (head < size) {
+        var index = indexes[head];
+        head++;
+        if (!matched[index]) {
+          return index;
+        }
+      }
+      return -1;
+    }
   }
 
   private interface MatchingCriterion {
+    /**
+     * Criteria that are never equal to any other (e.g. no server issue key) are not indexed. They would otherwise all end up in the
+     * same hash bucket.
+     */
+    default boolean canMatch() {
+      return true;
+    }
   }
 
   private interface MatchingCriterionFactory {
@@ -309,6 +354,11 @@ public class IssueMatcher<LEFT, RIGHT> {
       return that != null && !isBlank(serverIssueKey) && !isBlank(that.serverIssueKey) && serverIssueKey.equals(that.serverIssueKey);
     }
 
+    @Override
+    public boolean canMatch() {
+      return !isBlank(serverIssueKey);
+    }
+
     private static boolean isBlank(@Nullable String s) {
       return s == null || s.isEmpty();
     }
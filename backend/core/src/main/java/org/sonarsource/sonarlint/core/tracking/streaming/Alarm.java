@@ -23,42 +23,54 @@ import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
+import javax.annotation.Nullable;
 
+/**
+ * Runs a task once the given duration elapsed after the first call to {@link #schedule()}. Calls made while the alarm is pending are coalesced.
+ * The executor service is not owned by the alarm, so that many alarms can share the same thread.
+ */
 public class Alarm {
+  private final ScheduledExecutorService executorService;
   private final Duration duration;
   private final Runnable endRunnable;
-  private final ScheduledExecutorService executorService;
+  @Nullable
   private ScheduledFuture<?> scheduledFuture;
+  private boolean stopped;
 
-  public Alarm(String name, Duration duration, Runnable endRunnable) {
+  public Alarm(ScheduledExecutorService executorService, Duration duration, Runnable endRunnable) {
+    this.executorService = executorService;
     this.duration = duration;
     this.endRunnable = endRunnable;
-    this.executorService = FailSafeExecutors.newSingleThreadScheduledExecutor(name);
   }
 
-  public void schedule() {
+  public synchronized void schedule() {
     // if already scheduled, don't re-schedule
-    if (scheduledFuture == null) {
+    if (scheduledFuture == null && !stopped && !executorService.isShutdown()) {
       scheduledFuture = executorService.schedule(this::notifyEnd, duration.toMillis(), TimeUnit.MILLISECONDS);
     }
   }
 
-  public void reset() {
+  public synchronized void reset() {
     cancelRunning();
     schedule();
   }
 
   private void notifyEnd() {
-    if (!executorService.isShutdown()) {
+    synchronized (this) {
+      if (stopped) {
+        return;
+      }
       scheduledFuture = null;
-      endRunnable.run();
     }
+    endRunnable.run();
   }
 
-  public void shutdownNow() {
+  /**
+   * Cancel the pending run, if any, and prevent any further scheduling. The shared executor service is left untouched.
+   */
+  public synchronized void stop() {
     cancelRunning();
-    executorService.shutdownNow();
+    stopped = true;
   }
 
   private void cancelRunning() {
@@ -19,19 +19,33 @@
  */
 package org.sonarsource.sonarlint.core.fs;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.eclipse.jgit.api.Git;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.CoreProperties;
+import org.sonarsource.sonarlint.core.analysis.api.TriggerType;
 import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
 import org.sonarsource.sonarlint.core.commons.progress.SonarLintCancelMonitor;
 import org.sonarsource.sonarlint.core.file.PathTranslationService;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient;
+import org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfiguration;
 import org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfigurationStorage;
 import org.sonarsource.sonarlint.core.serverconnection.ConnectionStorage;
+import org.sonarsource.sonarlint.core.serverconnection.Settings;
 import org.sonarsource.sonarlint.core.serverconnection.SonarProjectStorage;
 import org.sonarsource.sonarlint.core.storage.StorageService;
 
@@ -117,4 +131,117 @@ class FileExclusionServiceTests {
     assertThat(result).isFalse();
   }
 
-} 
+  @Test
+  void should_compile_exclusion_patterns_once_per_analyzer_configuration() {
+    var analyzerStorage = mockBoundStorage();
+    var configuration = new AnalyzerConfiguration(new Settings(Map.of(CoreProperties.PROJECT_EXCLUSIONS_PROPERTY, "**/generated/**")), Map.of(), 1);
+    when(analyzerStorage.read()).thenReturn(configuration);
+    var excludedUri = mockClientFile("src/generated/Foo.java");
+    var includedUri = mockClientFile("src/main/Bar.java");
+    var cancelMonitor = new SonarLintCancelMonitor();
+
+    assertThat(underTest.computeIfExcluded(excludedUri, cancelMonitor)).isTrue();
+    assertThat(underTest.computeIfExcluded(includedUri, cancelMonitor)).isFalse();
+    assertThat(logTester.logs()).containsOnlyOnce("Server excluded sources: ");
+
+    var newConfiguration = new AnalyzerConfiguration(new Settings(Map.of(CoreProperties.PROJECT_EXCLUSIONS_PROPERTY, "**/main/**")), Map.of(), 1);
+    when(analyzerStorage.read()).thenReturn(newConfiguration);
+
+    assertThat(underTest.computeIfExcluded(excludedUri, cancelMonitor)).isFalse();
+    assertThat(underTest.computeIfExcluded(includedUri, cancelMonitor)).isTrue();
+  }
+
+  @Test
+  void should_compute_exclusions_of_many_files_in_batch() {
+    var analyzerStorage = mockBoundStorage();
+    var configuration = new AnalyzerConfiguration(new Settings(Map.of(CoreProperties.PROJECT_EXCLUSIONS_PROPERTY, "**/generated/**")), Map.of(), 1);
+    when(analyzerStorage.read()).thenReturn(configuration);
+    var fileUris = new ArrayList<URI>();
+    for (var i = 0; i < 2_000; i++) {
+      fileUris.add(mockClientFile((i % 2 == 0 ? "src/generated/" : "src/main/") + "File" + i + ".java"));
+    }
+    var unknownUri = URI.create("file:///unknown.java");
+    fileUris.add(unknownUri);
+
+    var exclusions = underTest.computeExclusions(fileUris, new SonarLintCancelMonitor());
+
+    assertThat(exclusions).hasSize(2_001);
+    assertThat(exclusions.values().stream().filter(Boolean::booleanValue)).hasSize(1_000);
+    assertThat(exclusions).containsEntry(fileUris.get(0), true).containsEntry(fileUris.get(1), false).containsEntry(unknownUri, false);
+    assertThat(logTester.logs()).containsOnlyOnce("Server excluded sources: ");
+  }
+
+  @Test
+  void should_compute_exclusions_of_many_updated_files_in_batch() {
+    var analyzerStorage = mockBoundStorage();
+    var configuration = new AnalyzerConfiguration(new Settings(Map.of(CoreProperties.PROJECT_EXCLUSIONS_PROPERTY, "**/generated/**")), Map.of(), 1);
+    when(analyzerStorage.read()).thenReturn(configuration);
+    var addedFiles = new ArrayList<ClientFile>();
+    for (var i = 0; i < 2_000; i++) {
+      var fileUri = mockClientFile((i % 2 == 0 ? "src/generated/" : "src/main/") + "File" + i + ".java");
+      var clientFile = clientFileSystemService.getClientFile(fileUri);
+      when(clientFile.getUri()).thenReturn(fileUri);
+      when(clientFile.getFileName()).thenReturn("File" + i + ".java");
+      addedFiles.add(clientFile);
+    }
+
+    underTest.onFileSystemUpdated(new FileSystemUpdatedEvent(List.of(), addedFiles, List.of()));
+
+    assertThat(underTest.isExcludedFromServer(addedFiles.get(0).getUri())).isTrue();
+    assertThat(underTest.isExcludedFromServer(addedFiles.get(1).getUri())).isFalse();
+    assertThat(addedFiles.stream().filter(f -> underTest.isExcludedFromServer(f.getUri()))).hasSize(1_000);
+    assertThat(logTester.logs()).containsOnlyOnce("Server excluded sources: ");
+    // files were not computed one by one
+    assertThat(logTester.logs()).noneMatch(log -> log.startsWith("Computing file exclusion for uri"));
+  }
+
+  @Test
+  void should_cache_gitignore_rules_until_a_gitignore_file_changes(@TempDir Path baseDir) throws Exception {
+    Git.init().setDirectory(baseDir.toFile()).call().close();
+    var gitIgnore = baseDir.resolve(".gitignore");
+    Files.writeString(gitIgnore, "*.tmp");
+    var fileUri = createClientFile(baseDir, "file.tmp");
+    when(configRepo.getEffectiveBinding("configScope1")).thenReturn(Optional.empty());
+
+    assertThat(underTest.refineAnalysisScope("configScope1", Set.of(fileUri), TriggerType.AUTO, baseDir)).isEmpty();
+
+    Files.writeString(gitIgnore, "*.bak");
+    assertThat(underTest.refineAnalysisScope("configScope1", Set.of(fileUri), TriggerType.AUTO, baseDir)).isEmpty();
+
+    var gitIgnoreFile = new ClientFile(gitIgnore.toUri(), "configScope1", Path.of(".gitignore"), false, null, gitIgnore, null, true);
+    underTest.onFileSystemUpdated(new FileSystemUpdatedEvent(List.of(), List.of(), List.of(gitIgnoreFile)));
+
+    assertThat(underTest.refineAnalysisScope("configScope1", Set.of(fileUri), TriggerType.AUTO, baseDir))
+      .extracting(ClientFile::getUri)
+      .containsExactly(fileUri);
+  }
+
+  private AnalyzerConfigurationStorage mockBoundStorage() {
+    var connectionStorage = mock(ConnectionStorage.class);
+    var projectStorage = mock(SonarProjectStorage.class);
+    var analyzerStorage = mock(AnalyzerConfigurationStorage.class);
+    when(configRepo.getEffectiveBinding("configScope1")).thenReturn(Optional.of(new Binding("connectionId", "projectKey")));
+    when(storageService.connection("connectionId")).thenReturn(connectionStorage);
+    when(connectionStorage.project("projectKey")).thenReturn(projectStorage);
+    when(projectStorage.analyzerConfiguration()).thenReturn(analyzerStorage);
+    when(analyzerStorage.isValid()).thenReturn(true);
+    return analyzerStorage;
+  }
+
+  private URI mockClientFile(String relativePath) {
+    var fileUri = URI.create("file:///base/" + relativePath);
+    var clientFile = mock(ClientFile.class);
+    when(clientFile.getConfigScopeId()).thenReturn("configScope1");
+    when(clientFile.getClientRelativePath()).thenReturn(Paths.get(relativePath));
+    when(clientFileSystemService.getClientFile(fileUri)).thenReturn(clientFile);
+    return fileUri;
+  }
+
+  private URI createClientFile(Path baseDir, String relativePath) throws IOException {
+    var filePath = Files.writeString(baseDir.resolve(relativePath), "content");
+    var clientFile = new ClientFile(filePath.toUri(), "configScope1", Path.of(relativePath), false, null, filePath, null, true);
+    when(clientFileSystemService.getClientFiles("configScope1", filePath.toUri())).thenReturn(clientFile);
+    return filePath.toUri();
+  }
+
+}
@@ -19,6 +19,7 @@
  */
 package org.sonarsource.sonarlint.core.issue.matching;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -234,4 +235,51 @@ class IssueMatcherTests {
     assertThat(result.getMatch(differentLine)).isEqualTo(baseIssue);
   }
 
+  @Test
+  void should_match_candidates_in_order_and_not_match_them_twice() {
+    var first = new FakeIssueType().setLine(7).setMessage("same message");
+    var second = new FakeIssueType().setLine(7).setMessage("same message");
+    var left1 = new FakeIssueType().setLine(7).setMessage("same message");
+    var left2 = new FakeIssueType().setLine(7).setMessage("same message");
+    var left3 = new FakeIssueType().setLine(7).setMessage("same message");
+    underTest = new IssueMatcher<>(new FakeIssueMatchingAttributeMapper(), List.of(first, second));
+
+    var result = underTest.matchWith(new FakeIssueMatchingAttributeMapper(), List.of(left1, left2, left3));
+
+    assertThat(result.getMatchedLefts()).hasSize(2);
+    assertThat(result.getMatch(left1)).isSameAs(first);
+    assertThat(result.getMatch(left2)).isSameAs(second);
+    assertThat(result.getMatch(left3)).isNull();
+    assertThat(underTest.getUnmatchedIssuesCount()).isZero();
+  }
+
+  @Test
+  void should_count_unmatched_issues() {
+    var matched = new FakeIssueType().setServerKey("key1");
+    var unmatched = new FakeIssueType().setServerKey("key2").setRuleKey("other rule");
+    underTest = new IssueMatcher<>(new FakeIssueMatchingAttributeMapper(), List.of(matched, unmatched));
+
+    underTest.matchWith(new FakeIssueMatchingAttributeMapper(), List.of(new FakeIssueType().setServerKey("key1")));
+
+    assertThat(underTest.getUnmatchedIssuesCount()).isEqualTo(1);
+  }
+
+  @Test
+  void should_match_many_issues_sharing_the_same_attributes() {
+    var count = 10_000;
+    var rights = new ArrayList<FakeIssueType>(count);
+    var lefts = new ArrayList<FakeIssueType>(count);
+    for (var i = 0; i < count; i++) {
+      rights.add(new FakeIssueType().setLine(i % 10).setLineHash("hash"));
+      lefts.add(new FakeIssueType().setLine(i % 10).setLineHash("hash").setMessage("other message"));
+    }
+    underTest = new IssueMatcher<>(new FakeIssueMatchingAttributeMapper(), rights);
+
+    var result = underTest.matchWith(new FakeIssueMatchingAttributeMapper(), lefts);
+
+    assertThat(result.getMatchedLefts()).hasSize(count);
+    assertThat(result.getMatch(lefts.get(count - 1))).isSameAs(rights.get(count - 1));
+    assertThat(underTest.getUnmatchedIssuesCount()).isZero();
+  }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.reporting;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.sonarsource.sonarlint.core.commons.CleanCodeAttribute;
+import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.commons.RuleType;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+import org.sonarsource.sonarlint.core.mode.SeverityModeService;
+import org.sonarsource.sonarlint.core.newcode.NewCodeService;
+import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
+import org.sonarsource.sonarlint.core.repository.reporting.PreviouslyRaisedFindingsRepository;
+import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesDeltaParams;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesParams;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedIssueDto;
+import org.sonarsource.sonarlint.core.storage.StorageService;
+import org.sonarsource.sonarlint.core.tracking.TrackedIssue;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FindingReportingServiceTests {
+
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final String CONFIG_SCOPE_ID = "configScope";
+  private static final URI FILE_URI = URI.create("file:///project/Foo.java");
+  private static final Path FILE_PATH = Path.of("Foo.java");
+
+  private final SonarLintRpcClient client = mock(SonarLintRpcClient.class);
+  private FindingReportingService underTest;
+
+  @AfterEach
+  void tearDown() {
+    underTest.shutdown();
+  }
+
+  @Test
+  void should_only_stream_issue_changes_when_client_supports_deltas() {
+    underTest = newService(EnumSet.of(BackendCapability.ISSUE_STREAMING, BackendCapability.ISSUE_STREAMING_DELTAS));
+    var previousIssue = newIssue();
+    analyze(underTest, List.of(previousIssue));
+    clearInvocations(client);
+
+    var analysisId = UUID.randomUUID();
+    underTest.resetFindingsForFiles(CONFIG_SCOPE_ID, Set.of(FILE_URI));
+    underTest.initFilesToAnalyze(analysisId, Set.of(FILE_URI));
+    var firstIssue = newIssue();
+    underTest.streamIssue(CONFIG_SCOPE_ID, analysisId, firstIssue);
+    var firstDelta = awaitDelta().getDeltaByFileUri().get(FILE_URI);
+
+    assertThat(firstDelta.getAddedOrUpdatedIssues()).extracting(RaisedIssueDto::getId).containsExactly(firstIssue.getId());
+    assertThat(firstDelta.getRemovedIssueIds()).containsExactly(previousIssue.getId());
+
+    clearInvocations(client);
+    var secondIssue = newIssue();
+    underTest.streamIssue(CONFIG_SCOPE_ID, analysisId, secondIssue);
+    var secondDelta = awaitDelta().getDeltaByFileUri().get(FILE_URI);
+
+    assertThat(secondDelta.getAddedOrUpdatedIssues()).extracting(RaisedIssueDto::getId).containsExactly(secondIssue.getId());
+    assertThat(secondDelta.getRemovedIssueIds()).isEmpty();
+
+    underTest.reportTrackedFindings(CONFIG_SCOPE_ID, analysisId, Map.of(FILE_PATH, List.of(firstIssue, secondIssue)), Map.of());
+    var captor = ArgumentCaptor.forClass(RaiseIssuesParams.class);
+    verify(client).raiseIssues(captor.capture());
+    assertThat(captor.getValue().isIntermediatePublication()).isFalse();
+    assertThat(captor.getValue().getIssuesByFileUri().get(FILE_URI)).extracting(RaisedIssueDto::getId).containsExactly(firstIssue.getId(), secondIssue.getId());
+  }
+
+  @Test
+  void should_stream_all_known_issues_when_client_does_not_support_deltas() {
+    underTest = newService(EnumSet.of(BackendCapability.ISSUE_STREAMING));
+    var analysisId = UUID.randomUUID();
+    underTest.initFilesToAnalyze(analysisId, Set.of(FILE_URI));
+    var firstIssue = newIssue();
+    underTest.streamIssue(CONFIG_SCOPE_ID, analysisId, firstIssue);
+    awaitIntermediatePublication();
+
+    clearInvocations(client);
+    var secondIssue = newIssue();
+    underTest.streamIssue(CONFIG_SCOPE_ID, analysisId, secondIssue);
+    var publication = awaitIntermediatePublication();
+
+    assertThat(publication.getIssuesByFileUri().get(FILE_URI)).extracting(RaisedIssueDto::getId).containsExactly(firstIssue.getId(), secondIssue.getId());
+    verify(client, never()).raiseIssuesDelta(any());
+  }
+
+  private FindingReportingService newService(Set<BackendCapability> capabilities) {
+    var configurationRepository = mock(ConfigurationRepository.class);
+    when(configurationRepository.getEffectiveBinding(CONFIG_SCOPE_ID)).thenReturn(Optional.empty());
+    var newCodeService = mock(NewCodeService.class);
+    when(newCodeService.getFullNewCodeDefinition(CONFIG_SCOPE_ID)).thenReturn(Optional.empty());
+    var initializeParams = mock(InitializeParams.class);
+    when(initializeParams.getBackendCapabilities()).thenReturn(capabilities);
+    return new FindingReportingService(client, configurationRepository, newCodeService, mock(SeverityModeService.class), new PreviouslyRaisedFindingsRepository(),
+      mock(ApplicationEventPublisher.class), mock(StorageService.class), initializeParams);
+  }
+
+  private static void analyze(FindingReportingService underTest, List<TrackedIssue> issues) {
+    var analysisId = UUID.randomUUID();
+    underTest.resetFindingsForFiles(CONFIG_SCOPE_ID, Set.of(FILE_URI));
+    underTest.initFilesToAnalyze(analysisId, Set.of(FILE_URI));
+    issues.forEach(issue -> underTest.streamIssue(CONFIG_SCOPE_ID, analysisId, issue));
+    underTest.reportTrackedFindings(CONFIG_SCOPE_ID, analysisId, Map.of(FILE_PATH, issues), Map.of());
+  }
+
+  private RaiseIssuesDeltaParams awaitDelta() {
+    var captor = ArgumentCaptor.forClass(RaiseIssuesDeltaParams.class);
+    verify(client, timeout(2000)).raiseIssuesDelta(captor.capture());
+    return captor.getValue();
+  }
+
+  private RaiseIssuesParams awaitIntermediatePublication() {
+    var captor = ArgumentCaptor.forClass(RaiseIssuesParams.class);
+    verify(client, timeout(2000)).raiseIssues(captor.capture());
+    assertThat(captor.getValue().isIntermediatePublication()).isTrue();
+    return captor.getValue();
+  }
+
+  private static TrackedIssue newIssue() {
+    return new TrackedIssue(UUID.randomUUID(), "message", Instant.now(), false, IssueSeverity.MAJOR, RuleType.BUG, "java:S1", null, null, null, Map.of(), List.of(),
+      List.of(), null, null, null, CleanCodeAttribute.CONVENTIONAL, FILE_URI);
+  }
+}
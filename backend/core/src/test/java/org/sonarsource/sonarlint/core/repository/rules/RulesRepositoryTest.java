@@ -19,14 +19,36 @@
  */
 package org.sonarsource.sonarlint.core.repository.rules;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonarsource.sonarlint.core.commons.Binding;
+import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
+import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
+import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleParamDefinition;
 import org.sonarsource.sonarlint.core.rules.RulesExtractionHelper;
+import org.sonarsource.sonarlint.core.serverapi.rules.ServerActiveRule;
+import org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfiguration;
+import org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfigurationStorage;
 import org.sonarsource.sonarlint.core.serverconnection.ConnectionStorage;
+import org.sonarsource.sonarlint.core.serverconnection.RuleSet;
+import org.sonarsource.sonarlint.core.serverconnection.Settings;
+import org.sonarsource.sonarlint.core.serverconnection.SonarProjectStorage;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ServerInfoStorage;
 import org.sonarsource.sonarlint.core.storage.StorageService;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -34,15 +56,31 @@ import static org.mockito.Mockito.when;
 
 class RulesRepositoryTest {
 
-  @Test
-  void it_should_not_touch_storage_after_rules_are_lazily_loaded_in_connected_mode() {
-    var storageService = mock(StorageService.class);
-    var rulesRepository = new RulesRepository(mock(RulesExtractionHelper.class), mock(ConfigurationRepository.class), storageService);
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final Binding BINDING = new Binding("connection", "project");
+
+  private final StorageService storageService = mock(StorageService.class);
+  private final RulesExtractionHelper extractionHelper = mock(RulesExtractionHelper.class);
+  private final AnalyzerConfigurationStorage analyzerConfigurationStorage = mock(AnalyzerConfigurationStorage.class);
+  private RulesRepository rulesRepository;
+
+  @BeforeEach
+  void prepare() {
+    rulesRepository = new RulesRepository(extractionHelper, mock(ConfigurationRepository.class), storageService);
     var connectionStorage = mock(ConnectionStorage.class);
     when(storageService.connection("connection")).thenReturn(connectionStorage);
     var serverInfoStorage = mock(ServerInfoStorage.class);
     when(connectionStorage.serverInfo()).thenReturn(serverInfoStorage);
     when(serverInfoStorage.read()).thenReturn(Optional.empty());
+    var projectStorage = mock(SonarProjectStorage.class);
+    when(storageService.binding(BINDING)).thenReturn(projectStorage);
+    when(projectStorage.analyzerConfiguration()).thenReturn(analyzerConfigurationStorage);
+  }
+
+  @Test
+  void it_should_not_touch_storage_after_rules_are_lazily_loaded_in_connected_mode() {
     rulesRepository.getRule("connection", "rule");
     reset(storageService);
 
@@ -51,4 +89,78 @@ class RulesRepositoryTest {
     verifyNoInteractions(storageService);
   }
 
+  @Test
+  void it_should_compile_active_rules_with_migrated_keys_and_effective_params() {
+    var ruleDefinition = mockRuleDefinition("java:S1", Set.of("squid:S1"), Map.of("max", "10", "min", "0"));
+    when(extractionHelper.extractRulesForConnection(eq("connection"), anyMap())).thenReturn(List.of(ruleDefinition));
+    var storedRule = new ServerActiveRule("squid:S1", IssueSeverity.MAJOR, Map.of("max", "20", "unknown", "1"), null, List.of());
+    when(analyzerConfigurationStorage.read()).thenReturn(analyzerConfiguration(Map.of("java", List.of(storedRule))));
+
+    var snapshot = rulesRepository.getActiveRulesSnapshot(BINDING);
+
+    var compiledRule = snapshot.getActiveRule("java:S1");
+    assertThat(compiledRule).isPresent();
+    assertThat(compiledRule.get().storedRule()).isSameAs(storedRule);
+    assertThat(compiledRule.get().activeRule().getRuleKey()).isEqualTo("java:S1");
+    assertThat(compiledRule.get().ruleOrTemplateDefinition()).isSameAs(ruleDefinition);
+    assertThat(compiledRule.get().effectiveParams()).containsOnly(Map.entry("max", "20"), Map.entry("min", "0"));
+    assertThat(snapshot.getActiveRule("squid:S1")).isEmpty();
+    assertThat(snapshot.getActiveRulesByLanguageKey().get("java")).containsExactly(compiledRule.get());
+  }
+
+  @Test
+  void it_should_keep_active_rules_without_definition_untouched() {
+    when(extractionHelper.extractRulesForConnection(eq("connection"), anyMap())).thenReturn(List.of());
+    var storedRule = new ServerActiveRule("java:S1", IssueSeverity.MAJOR, Map.of("max", "20"), null, List.of());
+    when(analyzerConfigurationStorage.read()).thenReturn(analyzerConfiguration(Map.of("java", List.of(storedRule))));
+
+    var compiledRule = rulesRepository.getActiveRulesSnapshot(BINDING).getActiveRule("java:S1");
+
+    assertThat(compiledRule).isPresent();
+    assertThat(compiledRule.get().activeRule()).isSameAs(storedRule);
+    assertThat(compiledRule.get().ruleOrTemplateDefinition()).isNull();
+  }
+
+  @Test
+  void it_should_reuse_the_snapshot_of_a_large_quality_profile_until_the_storage_changes() {
+    var ruleDefinitions = IntStream.range(0, 5000).mapToObj(i -> mockRuleDefinition("java:S" + i, Set.of(), Map.of())).toList();
+    when(extractionHelper.extractRulesForConnection(eq("connection"), anyMap())).thenReturn(ruleDefinitions);
+    var activeRules = IntStream.range(0, 5000).mapToObj(i -> new ServerActiveRule("java:S" + i, IssueSeverity.MAJOR, Map.of(), null, List.of())).toList();
+    when(analyzerConfigurationStorage.read()).thenReturn(analyzerConfiguration(Map.of("java", activeRules)));
+
+    var snapshot = rulesRepository.getActiveRulesSnapshot(BINDING);
+    clearInvocations(ruleDefinitions.toArray());
+    var snapshotForNextAnalysis = rulesRepository.getActiveRulesSnapshot(BINDING);
+
+    assertThat(snapshotForNextAnalysis).isSameAs(snapshot);
+    assertThat(snapshot.getActiveRulesByLanguageKey().get("java")).hasSize(5000);
+    assertThat(snapshot.getActiveRule("java:S4999")).isPresent();
+    // rule definitions and params are only resolved when compiling the snapshot, not for each analysis
+    verifyNoInteractions(ruleDefinitions.toArray());
+
+    when(analyzerConfigurationStorage.read()).thenReturn(analyzerConfiguration(Map.of("java", activeRules.subList(0, 10))));
+
+    var snapshotAfterSynchronization = rulesRepository.getActiveRulesSnapshot(BINDING);
+
+    assertThat(snapshotAfterSynchronization).isNotSameAs(snapshot);
+    assertThat(snapshotAfterSynchronization.getActiveRule("java:S4999")).isEmpty();
+  }
+
+  private static AnalyzerConfiguration analyzerConfiguration(Map<String, List<ServerActiveRule>> activeRulesByLanguageKey) {
+    var ruleSetByLanguageKey = new HashMap<String, RuleSet>();
+    activeRulesByLanguageKey.forEach((languageKey, activeRules) -> ruleSetByLanguageKey.put(languageKey, new RuleSet(activeRules, "")));
+    return new AnalyzerConfiguration(new Settings(Map.of()), ruleSetByLanguageKey, AnalyzerConfiguration.CURRENT_SCHEMA_VERSION);
+  }
+
+  private static SonarLintRuleDefinition mockRuleDefinition(String key, Set<String> deprecatedKeys, Map<String, String> defaultParams) {
+    var ruleDefinition = mock(SonarLintRuleDefinition.class);
+    when(ruleDefinition.getKey()).thenReturn(key);
+    when(ruleDefinition.getDeprecatedKeys()).thenReturn(deprecatedKeys);
+    when(ruleDefinition.getDefaultParams()).thenReturn(defaultParams);
+    var params = new HashMap<String, SonarLintRuleParamDefinition>();
+    defaultParams.keySet().forEach(paramKey -> params.put(paramKey, mock(SonarLintRuleParamDefinition.class)));
+    when(ruleDefinition.getParams()).thenReturn(params);
+    return ruleDefinition;
+  }
+
 }
@@ -0,0 +1,141 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.sync;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+import org.sonarsource.sonarlint.core.serverapi.exception.TooManyRequestsException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionSynchronizationExecutorTests {
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private final ConnectionSynchronizationExecutor underTest = new ConnectionSynchronizationExecutor(4, 2, Duration.ofMinutes(1), Duration.ofHours(1));
+
+  @AfterEach
+  void tearDown() {
+    underTest.shutdownAndAwaitTermination(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void it_should_not_delay_other_connections_when_a_server_is_slow() throws InterruptedException {
+    var slowServer = new CountDownLatch(1);
+    underTest.submit("slow", () -> await(slowServer));
+    underTest.submit("slow", () -> await(slowServer));
+
+    var otherConnectionSync = underTest.submit("other", () -> {
+    });
+
+    assertThat(otherConnectionSync).succeedsWithin(5, TimeUnit.SECONDS);
+    slowServer.countDown();
+  }
+
+  @Test
+  void it_should_limit_concurrent_tasks_per_connection() {
+    var release = new CountDownLatch(1);
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    Runnable task = () -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      await(release);
+      running.decrementAndGet();
+    };
+    var first = underTest.submit("connection", task);
+    underTest.submit("connection", task);
+    var third = underTest.submit("connection", task);
+
+    release.countDown();
+
+    assertThat(third).succeedsWithin(5, TimeUnit.SECONDS);
+    assertThat(first).isDone();
+    assertThat(maxRunning).hasValueLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void it_should_run_exclusive_tasks_alone() {
+    var release = new CountDownLatch(1);
+    var running = new AtomicInteger();
+    var runningWithExclusive = new AtomicInteger();
+    underTest.submit("connection", () -> {
+      running.incrementAndGet();
+      await(release);
+      running.decrementAndGet();
+    });
+    var exclusive = underTest.submitExclusive("connection", () -> runningWithExclusive.set(running.get()));
+    var afterExclusive = underTest.submit("connection", () -> {
+    });
+
+    assertThat(exclusive).isNotDone();
+    release.countDown();
+
+    assertThat(afterExclusive).succeedsWithin(5, TimeUnit.SECONDS);
+    assertThat(exclusive).isDone();
+    assertThat(runningWithExclusive).hasValue(0);
+  }
+
+  @Test
+  void it_should_back_off_when_the_server_is_overloaded_and_record_metrics() {
+    var throttled = underTest.submit("connection", () -> {
+      throw new TooManyRequestsException("Too many requests have been made.");
+    });
+
+    assertThat(throttled).succeedsWithin(5, TimeUnit.SECONDS);
+    assertThat(underTest.isBackingOff("connection")).isTrue();
+    assertThat(underTest.isBackingOff("other")).isFalse();
+    assertThat(underTest.getMetricsByConnectionId().get("connection").count()).isEqualTo(1);
+
+    assertThat(underTest.submit("connection", () -> {
+    })).succeedsWithin(5, TimeUnit.SECONDS);
+    assertThat(underTest.isBackingOff("connection")).isFalse();
+  }
+
+  @Test
+  void it_should_fall_back_to_the_default_when_a_property_is_invalid() {
+    var key = "sonarlint.internal.test.positiveInt";
+    try {
+      assertThat(ConnectionSynchronizationExecutor.getPositiveIntProperty(key, 4)).isEqualTo(4);
+      System.setProperty(key, "8");
+      assertThat(ConnectionSynchronizationExecutor.getPositiveIntProperty(key, 4)).isEqualTo(8);
+      System.setProperty(key, "0");
+      assertThat(ConnectionSynchronizationExecutor.getPositiveIntProperty(key, 4)).isEqualTo(4);
+      System.setProperty(key, "four");
+      assertThat(ConnectionSynchronizationExecutor.getPositiveIntProperty(key, 4)).isEqualTo(4);
+      assertThat(logTester.logs()).contains("Invalid value for '" + key + "': four, using 4 instead");
+    } finally {
+      System.clearProperty(key);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.sync;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonarsource.sonarlint.core.branch.SonarProjectBranchTrackingService;
+import org.sonarsource.sonarlint.core.commons.Binding;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+import org.sonarsource.sonarlint.core.file.FilePathTranslation;
+import org.sonarsource.sonarlint.core.file.PathTranslationService;
+import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FindingsSynchronizationServiceTests {
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final String CONFIG_SCOPE_ID = "configScopeId";
+  private static final Binding BINDING = new Binding("connectionId", "projectKey");
+  private static final String BRANCH = "main";
+
+  private final IssueSynchronizationService issueSynchronizationService = mock(IssueSynchronizationService.class);
+  private final HotspotSynchronizationService hotspotSynchronizationService = mock(HotspotSynchronizationService.class);
+  private FindingsSynchronizationService underTest;
+
+  @BeforeEach
+  void setUp() {
+    var configurationRepository = mock(ConfigurationRepository.class);
+    when(configurationRepository.getEffectiveBinding(CONFIG_SCOPE_ID)).thenReturn(Optional.of(BINDING));
+    var branchTrackingService = mock(SonarProjectBranchTrackingService.class);
+    when(branchTrackingService.awaitEffectiveSonarProjectBranch(CONFIG_SCOPE_ID)).thenReturn(Optional.of(BRANCH));
+    var pathTranslationService = mock(PathTranslationService.class);
+    when(pathTranslationService.getOrComputePathTranslation(CONFIG_SCOPE_ID)).thenReturn(Optional.of(new FilePathTranslation(Path.of(""), Path.of(""))));
+    var initializeParams = mock(InitializeParams.class);
+    when(initializeParams.getBackendCapabilities()).thenReturn(EnumSet.of(BackendCapability.SECURITY_HOTSPOTS));
+    underTest = new FindingsSynchronizationService(configurationRepository, branchTrackingService, pathTranslationService, issueSynchronizationService,
+      hotspotSynchronizationService, initializeParams);
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.shutdown();
+  }
+
+  @Test
+  void it_should_fetch_each_file_once_when_analyses_run_back_to_back() {
+    var file = Path.of("src/Foo.java");
+    var futures = new ArrayList<CompletableFuture<Void>>();
+
+    for (var i = 0; i < 20; i++) {
+      futures.add(underTest.refreshServerFindings(CONFIG_SCOPE_ID, Set.of(file)));
+    }
+
+    assertThat(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))).succeedsWithin(5, TimeUnit.SECONDS);
+    verify(issueSynchronizationService, times(1)).fetchFileIssues(eq(BINDING), eq(file), eq(BRANCH), any());
+    verify(hotspotSynchronizationService, times(1)).fetchFileHotspots(eq(BINDING), eq(BRANCH), eq(file), any());
+  }
+
+  @Test
+  void it_should_batch_files_requested_while_a_refresh_is_in_progress() throws InterruptedException {
+    var refreshStarted = new CountDownLatch(1);
+    var releaseRefresh = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      refreshStarted.countDown();
+      releaseRefresh.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(issueSynchronizationService).fetchFileIssues(eq(BINDING), eq(Path.of("first.js")), eq(BRANCH), any());
+    var first = underTest.refreshServerFindings(CONFIG_SCOPE_ID, Set.of(Path.of("first.js")));
+    assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    var futures = new ArrayList<CompletableFuture<Void>>();
+    for (var i = 0; i < 15; i++) {
+      futures.add(underTest.refreshServerFindings(CONFIG_SCOPE_ID, Set.of(Path.of("first.js"), Path.of("file" + i + ".js"))));
+    }
+    releaseRefresh.countDown();
+
+    assertThat(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))).succeedsWithin(5, TimeUnit.SECONDS);
+    assertThat(first).isDone();
+    // the 15 files waiting are fetched at once, the file being refreshed is not fetched again
+    verify(issueSynchronizationService, times(1)).fetchFileIssues(eq(BINDING), eq(Path.of("first.js")), eq(BRANCH), any());
+    verify(issueSynchronizationService, times(1)).fetchProjectIssues(eq(BINDING), eq(BRANCH), any());
+    verify(hotspotSynchronizationService, times(1)).fetchProjectHotspots(eq(BINDING), eq(BRANCH), any());
+  }
+
+  @Test
+  void it_should_complete_normally_and_retry_later_when_the_refresh_fails() {
+    var file = Path.of("src/Foo.java");
+    doAnswer(invocation -> {
+      throw new IllegalStateException("boom");
+    }).when(issueSynchronizationService).fetchFileIssues(any(), any(), any(), any());
+
+    assertThat(underTest.refreshServerFindings(CONFIG_SCOPE_ID, Set.of(file))).succeedsWithin(5, TimeUnit.SECONDS);
+
+    assertThat(logTester.logs()).contains("Error while refreshing server findings");
+    verify(hotspotSynchronizationService, never()).fetchFileHotspots(any(), any(), any(), any());
+
+    assertThat(underTest.refreshServerFindings(CONFIG_SCOPE_ID, Set.of(file))).succeedsWithin(5, TimeUnit.SECONDS);
+    verify(issueSynchronizationService, times(2)).fetchFileIssues(eq(BINDING), eq(file), eq(BRANCH), any());
+  }
+
+  @Test
+  void should_fall_back_to_the_default_refresh_ttl_when_the_property_is_invalid() {
+    try {
+      System.setProperty(FindingsSynchronizationService.REFRESH_TTL_PROPERTY, "5");
+      assertThat(FindingsSynchronizationService.getRefreshTtl()).isEqualTo(Duration.ofSeconds(5));
+      System.setProperty(FindingsSynchronizationService.REFRESH_TTL_PROPERTY, "-1");
+      assertThat(FindingsSynchronizationService.getRefreshTtl()).isEqualTo(Duration.ofSeconds(60));
+      System.setProperty(FindingsSynchronizationService.REFRESH_TTL_PROPERTY, "1m");
+      assertThat(FindingsSynchronizationService.getRefreshTtl()).isEqualTo(Duration.ofSeconds(60));
+      assertThat(logTester.logs()).contains("Invalid value for 'sonarlint.internal.findings.refresh.ttl': 1m, using 60 seconds instead");
+    } finally {
+      System.clearProperty(FindingsSynchronizationService.REFRESH_TTL_PROPERTY);
+    }
+  }
+}
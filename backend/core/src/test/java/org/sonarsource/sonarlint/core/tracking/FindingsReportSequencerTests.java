@@ -0,0 +1,82 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.tracking;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FindingsReportSequencerTests {
+  private static final String CONFIG_SCOPE_ID = "configScopeId";
+  private static final Path FILE_1 = Path.of("file1.js");
+  private static final Path FILE_2 = Path.of("file2.js");
+
+  private final FindingsReportSequencer underTest = new FindingsReportSequencer();
+  private final List<Set<Path>> reports = new ArrayList<>();
+
+  @Test
+  void should_report_all_files_when_analyses_report_in_order() {
+    var first = underTest.start(Set.of(FILE_1));
+    var second = underTest.start(Set.of(FILE_1));
+
+    underTest.report(CONFIG_SCOPE_ID, first, reports::add);
+    underTest.report(CONFIG_SCOPE_ID, second, reports::add);
+
+    assertThat(reports).containsExactly(Set.of(FILE_1), Set.of(FILE_1));
+  }
+
+  @Test
+  void should_drop_delayed_report_of_files_already_reported_by_a_newer_analysis() {
+    var delayed = underTest.start(Set.of(FILE_1, FILE_2));
+    var newer = underTest.start(Set.of(FILE_1));
+
+    underTest.report(CONFIG_SCOPE_ID, newer, reports::add);
+    assertThat(underTest.filterOutdated(CONFIG_SCOPE_ID, delayed)).containsOnly(FILE_2);
+    underTest.report(CONFIG_SCOPE_ID, delayed, reports::add);
+
+    assertThat(reports).containsExactly(Set.of(FILE_1), Set.of(FILE_2));
+  }
+
+  @Test
+  void should_not_drop_reports_of_other_configuration_scopes() {
+    var delayed = underTest.start(Set.of(FILE_1));
+    var newer = underTest.start(Set.of(FILE_1));
+
+    underTest.report("otherConfigScopeId", newer, reports::add);
+    underTest.report(CONFIG_SCOPE_ID, delayed, reports::add);
+
+    assertThat(reports).containsExactly(Set.of(FILE_1), Set.of(FILE_1));
+  }
+
+  @Test
+  void should_forget_reported_files_of_removed_configuration_scope() {
+    var delayed = underTest.start(Set.of(FILE_1));
+    var newer = underTest.start(Set.of(FILE_1));
+    underTest.report(CONFIG_SCOPE_ID, newer, reports::add);
+
+    underTest.forget(CONFIG_SCOPE_ID);
+
+    assertThat(underTest.filterOutdated(CONFIG_SCOPE_ID, delayed)).containsOnly(FILE_1);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.tracking.streaming;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlarmTests {
+
+  private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void should_coalesce_schedules_while_pending() throws InterruptedException {
+    var runs = new AtomicInteger();
+    var latch = new CountDownLatch(1);
+    var alarm = new Alarm(executorService, Duration.ofMillis(50), () -> {
+      runs.incrementAndGet();
+      latch.countDown();
+    });
+
+    alarm.schedule();
+    alarm.schedule();
+    alarm.schedule();
+
+    assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(100);
+    assertThat(runs).hasValue(1);
+  }
+
+  @Test
+  void should_share_the_executor_between_many_alarms() throws InterruptedException {
+    var latch = new CountDownLatch(500);
+    var alarms = new ArrayList<Alarm>();
+    for (var i = 0; i < 500; i++) {
+      alarms.add(new Alarm(executorService, Duration.ofMillis(10), latch::countDown));
+    }
+
+    alarms.forEach(Alarm::schedule);
+
+    assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void should_not_run_once_stopped_and_leave_the_executor_running() throws InterruptedException {
+    var runs = new AtomicInteger();
+    var alarm = new Alarm(executorService, Duration.ofMillis(50), runs::incrementAndGet);
+
+    alarm.schedule();
+    alarm.stop();
+    alarm.schedule();
+    Thread.sleep(150);
+
+    assertThat(runs).hasValue(0);
+    assertThat(executorService.isShutdown()).isFalse();
+  }
+}
@@ -19,11 +19,14 @@
  */
 package org.sonarsource.sonarlint.core.http;
 
+import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -39,8 +42,16 @@ import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
 import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.util.Timeout;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
@@ -50,6 +61,7 @@ class ApacheHttpClientAdapter implements HttpClient {
   private static final String AUTHORIZATION_HEADER = "Authorization";
   private static final Timeout STREAM_CONNECTION_REQUEST_TIMEOUT = Timeout.ofSeconds(10);
   private static final Timeout STREAM_CONNECTION_TIMEOUT = Timeout.ofMinutes(1);
+  private static final int STREAMING_BUFFER_SIZE = 64 * 1024;
   private final CloseableHttpAsyncClient apacheClient;
   @Nullable
   private final String usernameOrToken;
@@ -93,6 +105,18 @@ class ApacheHttpClientAdapter implements HttpClient {
     return executeAsyncAnonymous(SimpleRequestBuilder.get(url).build());
   }
 
+  @Override
+  public CompletableFuture<Response> getStreamingAsync(String url) {
+    var request = SimpleRequestBuilder.get(url).build();
+    addAuthorizationHeader(request);
+    return new StreamingResponseFuture(request);
+  }
+
+  @Override
+  public CompletableFuture<Response> getStreamingAsyncAnonymous(String url) {
+    return new StreamingResponseFuture(SimpleRequestBuilder.get(url).build());
+  }
+
   @Override
   public CompletableFuture<Response> deleteAsync(String url, String contentType, String body) {
     var httpRequest = SimpleRequestBuilder
@@ -115,13 +139,7 @@ class ApacheHttpClientAdapter implements HttpClient {
       .setResponseTimeout(Timeout.ZERO_MILLISECONDS)
       .build());
 
-    if (usernameOrToken != null) {
-      if (shouldUseBearer) {
-        request.setHeader(AUTHORIZATION_HEADER, bearer(usernameOrToken));
-      } else {
-        request.setHeader(AUTHORIZATION_HEADER, basic(usernameOrToken, Objects.requireNonNullElse(password, "")));
-      }
-    }
+    addAuthorizationHeader(request);
     request.setHeader("Accept", "text/event-stream");
     connected = false;
     var cancelled = new AtomicBoolean();
@@ -209,23 +227,16 @@ class ApacheHttpClientAdapter implements HttpClient {
 
     private CompletableFutureWrappingFuture(SimpleHttpRequest httpRequest) {
       var callingThreadLogOutput = SonarLintLogger.get().getTargetForCopy();
+      httpRequest.setHeader(HttpHeaders.ACCEPT_ENCODING, ContentDecoding.ACCEPTED_ENCODINGS);
       this.wrapped = apacheClient.execute(httpRequest, new FutureCallback<>() {
         @Override
         public void completed(SimpleHttpResponse result) {
           SonarLintLogger.get().setTarget(callingThreadLogOutput);
-          // getRequestUri may be relative, so we prefer getUri
-          try {
-            var uri = httpRequest.getUri().toString();
-            CompletableFutureWrappingFuture.this.completeAsync(() -> {
-              SonarLintLogger.get().setTarget(callingThreadLogOutput);
-              return new ApacheHttpResponse(uri, result);
-            });
-          } catch (URISyntaxException e) {
-            CompletableFutureWrappingFuture.this.completeAsync(() -> {
-              SonarLintLogger.get().setTarget(callingThreadLogOutput);
-              return new ApacheHttpResponse(httpRequest.getRequestUri(), result);
-            });
-          }
+          var uri = getUri(httpRequest);
+          CompletableFutureWrappingFuture.this.completeAsync(() -> {
+            SonarLintLogger.get().setTarget(callingThreadLogOutput);
+            return new ApacheHttpResponse(uri, result);
+          });
         }
 
         @Override
@@ -254,15 +265,131 @@ class ApacheHttpClientAdapter implements HttpClient {
     }
   }
 
-  private CompletableFuture<Response> executeAsync(SimpleHttpRequest httpRequest) {
+  /**
+   * Contrary to {@link CompletableFutureWrappingFuture}, completes as soon as the response head is received, the body being streamed
+   * afterward. The underlying exchange only completes once the body has been fully read.
+   */
+  private class StreamingResponseFuture extends CompletableFuture<HttpClient.Response> {
+
+    private final Future<Void> exchange;
+
+    private StreamingResponseFuture(SimpleHttpRequest httpRequest) {
+      var callingThreadLogOutput = SonarLintLogger.get().getTargetForCopy();
+      httpRequest.setHeader(HttpHeaders.ACCEPT_ENCODING, ContentDecoding.ACCEPTED_ENCODINGS);
+      var uri = getUri(httpRequest);
+      var buffer = new SharedInputBuffer(STREAMING_BUFFER_SIZE);
+      this.exchange = apacheClient.execute(new BasicRequestProducer(httpRequest, null),
+        new StreamingResponseConsumer(buffer, response -> StreamingResponseFuture.this.completeAsync(() -> {
+          SonarLintLogger.get().setTarget(callingThreadLogOutput);
+          return new ApacheStreamingHttpResponse(uri, response, buffer, this::cancelExchange);
+        })), new FutureCallback<>() {
+          @Override
+          public void completed(Void result) {
+            // nothing to do, the response has been provided when its head was received
+          }
+
+          @Override
+          public void failed(Exception ex) {
+            SonarLintLogger.get().setTarget(callingThreadLogOutput);
+            LOG.debug("Request failed", ex);
+            StreamingResponseFuture.this.completeExceptionally(ex);
+          }
+
+          @Override
+          public void cancelled() {
+            SonarLintLogger.get().setTarget(callingThreadLogOutput);
+            LOG.debug("Request cancelled");
+            StreamingResponseFuture.super.cancel(true);
+          }
+        });
+    }
+
+    private void cancelExchange() {
+      exchange.cancel(true);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      return exchange.cancel(mayInterruptIfRunning);
+    }
+  }
+
+  private static class StreamingResponseConsumer implements AsyncResponseConsumer<Void> {
+    private final SharedInputBuffer buffer;
+    private final Consumer<HttpResponse> responseHeadConsumer;
+    private FutureCallback<Void> resultCallback;
+
+    private StreamingResponseConsumer(SharedInputBuffer buffer, Consumer<HttpResponse> responseHeadConsumer) {
+      this.buffer = buffer;
+      this.responseHeadConsumer = responseHeadConsumer;
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, @Nullable EntityDetails entityDetails, HttpContext context, FutureCallback<Void> resultCallback) {
+      this.resultCallback = resultCallback;
+      responseHeadConsumer.accept(response);
+      if (entityDetails == null) {
+        buffer.markEndStream();
+        resultCallback.completed(null);
+      }
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+      // nothing to do
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+      buffer.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) {
+      buffer.fill(src);
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) {
+      buffer.markEndStream();
+      if (resultCallback != null) {
+        resultCallback.completed(null);
+      }
+    }
+
+    @Override
+    public void failed(Exception cause) {
+      buffer.abort();
+    }
+
+    @Override
+    public void releaseResources() {
+      // nothing to release, the buffer is owned by the response
+    }
+  }
+
+  private static String getUri(SimpleHttpRequest httpRequest) {
+    // getRequestUri may be relative, so we prefer getUri
     try {
-      if (usernameOrToken != null) {
-        if (shouldUseBearer) {
-          httpRequest.setHeader(AUTHORIZATION_HEADER, bearer(usernameOrToken));
-        } else {
-          httpRequest.setHeader(AUTHORIZATION_HEADER, basic(usernameOrToken, Objects.requireNonNullElse(password, "")));
-        }
+      return httpRequest.getUri().toString();
+    } catch (URISyntaxException e) {
+      return httpRequest.getRequestUri();
+    }
+  }
+
+  private void addAuthorizationHeader(HttpRequest httpRequest) {
+    if (usernameOrToken != null) {
+      if (shouldUseBearer) {
+        httpRequest.setHeader(AUTHORIZATION_HEADER, bearer(usernameOrToken));
+      } else {
+        httpRequest.setHeader(AUTHORIZATION_HEADER, basic(usernameOrToken, Objects.requireNonNullElse(password, "")));
       }
+    }
+  }
+
+  private CompletableFuture<Response> executeAsync(SimpleHttpRequest httpRequest) {
+    try {
+      addAuthorizationHeader(httpRequest);
       return new CompletableFutureWrappingFuture(httpRequest);
     } catch (Exception e) {
       throw new IllegalStateException("Unable to execute request: " + e.getMessage(), e);
@@ -20,6 +20,7 @@
 package org.sonarsource.sonarlint.core.http;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 
@@ -40,15 +41,29 @@ class ApacheHttpResponse implements HttpClient.Response {
 
   @Override
   public String bodyAsString() {
-    return response.getBodyText();
+    if (!ContentDecoding.isEncoded(response)) {
+      return response.getBodyText();
+    }
+    try (var body = bodyAsStream()) {
+      var contentType = response.getContentType();
+      return new String(body.readAllBytes(), ContentDecoding.getCharset(contentType != null ? contentType.toString() : null));
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to decode the response body", e);
+    }
   }
 
   @Override
   public InputStream bodyAsStream() {
-    if (response.getBodyBytes() == null) {
+    var bodyBytes = response.getBodyBytes();
+    if (bodyBytes == null || bodyBytes.length == 0) {
       return new ByteArrayInputStream(new byte[0]);
     }
-    return new ByteArrayInputStream(response.getBodyBytes());
+    try {
+      // the body is kept compressed in memory and only decompressed while being read
+      return ContentDecoding.decode(response, new ByteArrayInputStream(bodyBytes));
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to decode the response body", e);
+    }
   }
 
   @Override
@@ -0,0 +1,131 @@
+/*
+ * SonarLint Core - HTTP
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+
+/**
+ * A response whose body is read from the connection while it is being consumed, instead of being fully loaded in memory first.
+ */
+class ApacheStreamingHttpResponse implements HttpClient.Response {
+
+  private final String requestUrl;
+  private final HttpResponse response;
+  private final StreamingBody rawBody;
+  private InputStream body;
+
+  ApacheStreamingHttpResponse(String requestUrl, HttpResponse response, SharedInputBuffer buffer, Runnable exchangeCanceller) {
+    this.requestUrl = requestUrl;
+    this.response = response;
+    this.rawBody = new StreamingBody(buffer, exchangeCanceller);
+  }
+
+  @Override
+  public int code() {
+    return response.getCode();
+  }
+
+  @Override
+  public String bodyAsString() {
+    try (var input = bodyAsStream()) {
+      var contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+      return new String(input.readAllBytes(), ContentDecoding.getCharset(contentType != null ? contentType.getValue() : null));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read the response body", e);
+    }
+  }
+
+  @Override
+  public synchronized InputStream bodyAsStream() {
+    if (body == null) {
+      try {
+        body = ContentDecoding.decode(response, rawBody);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Unable to read the response body", e);
+      }
+    }
+    return body;
+  }
+
+  @Override
+  public void close() {
+    rawBody.close();
+  }
+
+  @Override
+  public String url() {
+    return requestUrl;
+  }
+
+  @Override
+  public String toString() {
+    return response.toString();
+  }
+
+  private static class StreamingBody extends InputStream {
+    private final SharedInputBuffer buffer;
+    private final Runnable exchangeCanceller;
+    private boolean closed;
+
+    private StreamingBody(SharedInputBuffer buffer, Runnable exchangeCanceller) {
+      this.buffer = buffer;
+      this.exchangeCanceller = exchangeCanceller;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return buffer.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      return buffer.read(b, off, len);
+    }
+
+    @Override
+    public int available() {
+      return buffer.length();
+    }
+
+    /**
+     * Instead of draining what remains of the body, the exchange is cancelled, so that closing early does not download the rest of a
+     * potentially big body.
+     */
+    @Override
+    public synchronized void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (!buffer.isEndStream() || buffer.hasData()) {
+        buffer.abort();
+        exchangeCanceller.run();
+      }
+    }
+  }
+}
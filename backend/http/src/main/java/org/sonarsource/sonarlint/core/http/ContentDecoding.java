@@ -0,0 +1,67 @@
+/*
+ * SonarLint Core - HTTP
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nullable;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+
+/**
+ * The async Apache client does not decompress responses by itself, so we advertise the encodings we can decode and decode them on the fly.
+ */
+class ContentDecoding {
+
+  static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+  private ContentDecoding() {
+    // utility class
+  }
+
+  static InputStream decode(HttpResponse response, InputStream body) throws IOException {
+    var contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+    if (contentEncoding == null) {
+      return body;
+    }
+    var encoding = contentEncoding.getValue().trim().toLowerCase(Locale.ROOT);
+    return switch (encoding) {
+      case "gzip", "x-gzip" -> new GZIPInputStream(body);
+      case "deflate" -> new InflaterInputStream(body);
+      default -> body;
+    };
+  }
+
+  static boolean isEncoded(HttpResponse response) {
+    return response.getFirstHeader(HttpHeaders.CONTENT_ENCODING) != null;
+  }
+
+  static Charset getCharset(@Nullable String contentType) {
+    // same default as the Apache client when decoding a body as text
+    var charset = contentType != null ? ContentType.parseLenient(contentType).getCharset() : null;
+    return charset != null ? charset : StandardCharsets.US_ASCII;
+  }
+}
@@ -56,6 +56,17 @@ public interface HttpClient {
 
   CompletableFuture<Response> getAsyncAnonymous(String url);
 
+  /**
+   * Contrary to {@link #getAsync(String)}, the body of the response is not loaded in memory before the future completes, it is streamed
+   * from the connection while being read. The response must be closed to release the connection.
+   */
+  CompletableFuture<Response> getStreamingAsync(String url);
+
+  /**
+   * Same as {@link #getStreamingAsync(String)}, without credentials
+   */
+  CompletableFuture<Response> getStreamingAsyncAnonymous(String url);
+
   AsyncRequest getEventStream(String url, HttpConnectionListener connectionListener, Consumer<String> messageConsumer);
 
   Response post(String url, String contentType, String body);
@@ -20,8 +20,12 @@
 package org.sonarsource.sonarlint.core.http;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 import org.apache.hc.core5.http.HttpStatus;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -112,4 +116,52 @@ class HttpClientProviderTests {
     sonarqubeMock.verify(postRequestedFor(urlEqualTo("/afterMove")));
   }
 
+  @Test
+  void it_should_accept_and_decode_gzip_encoded_responses() throws IOException {
+    sonarqubeMock.stubFor(get("/gzip")
+      .willReturn(aResponse()
+        .withHeader("Content-Encoding", "gzip")
+        .withHeader("Content-Type", "text/plain; charset=utf-8")
+        .withBody(gzip("compressed body"))));
+
+    var response = HttpClientProvider.forTesting().getHttpClient().get(sonarqubeMock.url("/gzip"));
+
+    assertThat(response.bodyAsString()).isEqualTo("compressed body");
+    sonarqubeMock.verify(getRequestedFor(urlEqualTo("/gzip"))
+      .withHeader("Accept-Encoding", equalTo("gzip, deflate")));
+  }
+
+  @Test
+  void it_should_stream_and_decode_response_body() throws IOException {
+    var content = "line\n".repeat(100_000);
+    sonarqubeMock.stubFor(get("/stream")
+      .willReturn(aResponse()
+        .withHeader("Content-Encoding", "gzip")
+        .withBody(gzip(content))));
+
+    try (var response = HttpClientProvider.forTesting().getHttpClient().getStreamingAsync(sonarqubeMock.url("/stream")).join();
+      var body = response.bodyAsStream()) {
+      assertThat(response.code()).isEqualTo(200);
+      assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+    }
+  }
+
+  @Test
+  void it_should_stream_response_without_body() {
+    sonarqubeMock.stubFor(get("/noContent").willReturn(aResponse().withStatus(HttpStatus.SC_NO_CONTENT)));
+
+    try (var response = HttpClientProvider.forTesting().getHttpClient().getStreamingAsync(sonarqubeMock.url("/noContent")).join()) {
+      assertThat(response.code()).isEqualTo(HttpStatus.SC_NO_CONTENT);
+      assertThat(response.bodyAsString()).isEmpty();
+    }
+  }
+
+  private static byte[] gzip(String content) throws IOException {
+    var output = new ByteArrayOutputStream();
+    try (var gzipOutput = new GZIPOutputStream(output)) {
+      gzipOutput.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+    return output.toByteArray();
+  }
+
 }
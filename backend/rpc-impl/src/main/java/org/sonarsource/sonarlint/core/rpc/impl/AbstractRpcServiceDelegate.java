@@ -36,7 +36,7 @@ import org.springframework.beans.factory.BeanFactory;
 abstract class AbstractRpcServiceDelegate {
 
   private final Supplier<BeanFactory> beanFactorySupplier;
-  private final ExecutorServiceShutdownWatchable<?> requestsExecutor;
+  private final ExecutorServiceShutdownWatchable<RpcRequestExecutor> requestsExecutor;
   private final Executor requestAndNotificationsSequentialExecutor;
   private final Supplier<RpcClientLogOutput> logOutputSupplier;
 
@@ -58,6 +58,8 @@ abstract class AbstractRpcServiceDelegate {
   protected <R> CompletableFuture<R> requestAsync(Function<SonarLintCancelMonitor, R> code, @Nullable String configScopeId) {
     var cancelMonitor = new SonarLintCancelMonitor();
     cancelMonitor.watchForShutdown(requestsExecutor);
+    // Must be resolved while the incoming request is being dispatched
+    var requestExecutor = requestsExecutor.getWrapped().forMethod(RequestMethodTrackingMessageConsumer.getCurrentMethod());
     // First we schedule the processing of the request on the sequential executor, to maintain ordering of notifications, requests, responses, and cancellations
     // We can maybe cancel early
     var sequentialFuture = CompletableFuture.runAsync(cancelMonitor::checkCanceled, requestAndNotificationsSequentialExecutor);
@@ -65,7 +67,7 @@ abstract class AbstractRpcServiceDelegate {
     var requestFuture = sequentialFuture.thenApplyAsync(unused -> computeWithLogger(() -> {
       cancelMonitor.checkCanceled();
       return code.apply(cancelMonitor);
-    }, configScopeId), requestsExecutor);
+    }, configScopeId), requestExecutor);
     requestFuture.whenComplete((result, error) -> {
       if (error instanceof CancellationException) {
         cancelMonitor.cancel();
@@ -77,6 +79,8 @@ abstract class AbstractRpcServiceDelegate {
   protected <R> CompletableFuture<R> requestFutureAsync(Function<SonarLintCancelMonitor, CompletableFuture<R>> code, @Nullable String configScopeId) {
     var cancelMonitor = new SonarLintCancelMonitor();
     cancelMonitor.watchForShutdown(requestsExecutor);
+    // Must be resolved while the incoming request is being dispatched
+    var requestExecutor = requestsExecutor.getWrapped().forMethod(RequestMethodTrackingMessageConsumer.getCurrentMethod());
     // First we schedule the processing of the request on the sequential executor, to maintain ordering of notifications, requests, responses, and cancellations
     // We can maybe cancel early
     var sequentialFuture = CompletableFuture.runAsync(cancelMonitor::checkCanceled, requestAndNotificationsSequentialExecutor);
@@ -84,7 +88,7 @@ abstract class AbstractRpcServiceDelegate {
     var requestFuture = sequentialFuture.thenComposeAsync(unused -> computeWithLogger(() -> {
       cancelMonitor.checkCanceled();
       return code.apply(cancelMonitor);
-    }, configScopeId), requestsExecutor);
+    }, configScopeId), requestExecutor);
     requestFuture.whenComplete((result, error) -> {
       if (error instanceof CancellationException) {
         cancelMonitor.cancel();
@@ -96,6 +100,8 @@ abstract class AbstractRpcServiceDelegate {
   protected CompletableFuture<Void> runAsync(Consumer<SonarLintCancelMonitor> code, @Nullable String configScopeId) {
     var cancelMonitor = new SonarLintCancelMonitor();
     cancelMonitor.watchForShutdown(requestsExecutor);
+    // Must be resolved while the incoming request is being dispatched
+    var requestExecutor = requestsExecutor.getWrapped().forMethod(RequestMethodTrackingMessageConsumer.getCurrentMethod());
     // First we schedule the processing of the request on the sequential executor, to maintain ordering of notifications, requests, responses, and cancellations
     // We can maybe cancel early
     var sequentialFuture = CompletableFuture.runAsync(cancelMonitor::checkCanceled, requestAndNotificationsSequentialExecutor);
@@ -106,7 +112,7 @@ abstract class AbstractRpcServiceDelegate {
         code.accept(cancelMonitor);
       }, configScopeId);
       return null;
-    }, requestsExecutor);
+    }, requestExecutor);
     requestFuture.whenComplete((result, error) -> {
       if (error instanceof CancellationException) {
         cancelMonitor.cancel();
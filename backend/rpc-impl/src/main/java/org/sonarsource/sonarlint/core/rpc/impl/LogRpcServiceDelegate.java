@@ -0,0 +1,40 @@
+/*
+ * SonarLint Core - RPC Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.impl;
+
+import org.sonarsource.sonarlint.core.commons.log.LogOutput;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.log.LogRpcService;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.log.SetLogLevelParams;
+
+public class LogRpcServiceDelegate extends AbstractRpcServiceDelegate implements LogRpcService {
+
+  private final RpcClientLogOutput logOutput;
+
+  public LogRpcServiceDelegate(SonarLintRpcServerImpl server) {
+    super(server);
+    this.logOutput = server.getLogOutput();
+  }
+
+  @Override
+  public void setLogLevel(SetLogLevelParams params) {
+    // no need to go through the sequential executor, the level should apply to logs of requests already queued
+    logOutput.setLevel(LogOutput.Level.valueOf(params.getLevel().name()));
+  }
+}
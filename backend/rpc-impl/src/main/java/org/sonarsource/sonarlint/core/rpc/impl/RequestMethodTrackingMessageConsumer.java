@@ -0,0 +1,59 @@
+/*
+ * SonarLint Core - RPC Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.impl;
+
+import javax.annotation.CheckForNull;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.Message;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+
+/**
+ * Incoming requests are dispatched synchronously to the service delegates, so we can remember the name of the request being dispatched
+ * on the current thread. This is used to schedule the processing of the request in the right lane.
+ */
+class RequestMethodTrackingMessageConsumer implements MessageConsumer {
+
+  private static final ThreadLocal<String> currentMethod = new ThreadLocal<>();
+
+  private final MessageConsumer delegate;
+
+  RequestMethodTrackingMessageConsumer(MessageConsumer delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void consume(Message message) {
+    if (!(message instanceof RequestMessage requestMessage)) {
+      delegate.consume(message);
+      return;
+    }
+    currentMethod.set(requestMessage.getMethod());
+    try {
+      delegate.consume(message);
+    } finally {
+      currentMethod.remove();
+    }
+  }
+
+  @CheckForNull
+  static String getCurrentMethod() {
+    return currentMethod.get();
+  }
+}
@@ -20,25 +20,105 @@
 package org.sonarsource.sonarlint.core.rpc.impl;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonarsource.sonarlint.core.commons.log.LogOutput;
+import org.sonarsource.sonarlint.core.commons.util.FailSafeExecutors;
 import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogBatchParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogLevel;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogParams;
 
 class RpcClientLogOutput implements LogOutput {
 
+  static final int MAX_BATCH_SIZE = 100;
+  static final long FLUSH_DELAY_MS = 50;
+
   private final SonarLintRpcClient client;
 
   private final InheritableThreadLocal<String> configScopeId = new InheritableThreadLocal<>();
 
+  private volatile Level level = Level.TRACE;
+
+  private final Object bufferLock = new Object();
+  private final List<LogParams> buffer = new ArrayList<>();
+  @CheckForNull
+  private ScheduledExecutorService flusher;
+  @CheckForNull
+  private ScheduledFuture<?> scheduledFlush;
+
   RpcClientLogOutput(SonarLintRpcClient client) {
     this.client = client;
   }
 
+  @Override
+  public boolean isEnabled(Level level) {
+    return this.level.isEnabledForLevel(level);
+  }
+
+  public void setLevel(Level level) {
+    this.level = level;
+  }
+
+  /**
+   * From now on, logs are buffered and sent with {@link SonarLintRpcClient#logBatch(LogBatchParams)}, either when enough logs are
+   * buffered, after a short delay, or immediately for errors.
+   */
+  public void enableBatching() {
+    synchronized (bufferLock) {
+      if (flusher == null) {
+        flusher = FailSafeExecutors.newSingleThreadScheduledExecutor("sonarlint-log-flusher");
+      }
+    }
+  }
+
   @Override
   public void log(@Nullable String msg, Level level, @Nullable String stacktrace) {
-    client.log(new LogParams(LogLevel.valueOf(level.name()), msg, configScopeId.get(), stacktrace, Instant.now()));
+    if (!isEnabled(level)) {
+      return;
+    }
+    var logParams = new LogParams(LogLevel.valueOf(level.name()), msg, configScopeId.get(), stacktrace, Instant.now());
+    synchronized (bufferLock) {
+      if (flusher == null) {
+        client.log(logParams);
+        return;
+      }
+      buffer.add(logParams);
+      if (level == Level.ERROR || buffer.size() >= MAX_BATCH_SIZE) {
+        flush();
+      } else if (scheduledFlush == null) {
+        scheduledFlush = flusher.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  void flush() {
+    synchronized (bufferLock) {
+      if (scheduledFlush != null) {
+        scheduledFlush.cancel(false);
+        scheduledFlush = null;
+      }
+      if (!buffer.isEmpty()) {
+        // sending while holding the lock keeps batches in order, the notification is only queued for writing anyway
+        client.logBatch(new LogBatchParams(List.copyOf(buffer)));
+        buffer.clear();
+      }
+    }
+  }
+
+  public void shutdown() {
+    synchronized (bufferLock) {
+      flush();
+      if (flusher != null) {
+        flusher.shutdownNow();
+        flusher = null;
+      }
+    }
   }
 
   public void setConfigScopeId(@Nullable String configScopeId) {
@@ -0,0 +1,304 @@
+/*
+ * SonarLint Core - RPC Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes RPC requests on a bounded number of threads. Requests of methods considered as bulk (e.g. the ones sent for all files when
+ * opening a workspace) are only started when no interactive request is waiting. The number of concurrent requests of a given method
+ * can also be limited. Requests of a same method are started in the order they were received.
+ */
+class RpcRequestExecutor extends AbstractExecutorService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RpcRequestExecutor.class);
+  private static final String MAX_THREADS_PROPERTY = "sonarlint.internal.rpc.requests.maxThreads";
+  private static final String METHOD_LIMITS_PROPERTY = "sonarlint.internal.rpc.requests.methodLimits";
+  private static final String UNKNOWN_METHOD = "unknown";
+  private static final int DEFAULT_MAX_THREADS = 64;
+  private static final String DEFAULT_BULK_METHODS = "file/getFilesStatus,rule/listAllStandaloneRulesDefinitions";
+  private static final String DEFAULT_METHOD_LIMITS = "file/getFilesStatus=4,rule/listAllStandaloneRulesDefinitions=2,rule/getEffectiveRuleDetails=8";
+
+  enum Lane {
+    INTERACTIVE, BULK
+  }
+
+  private final int maxConcurrentRequests;
+  private final Set<String> bulkMethods;
+  private final Map<String, Integer> limitsByMethod;
+  private final ThreadPoolExecutor workers;
+  private final Object lock = new Object();
+  private final Map<Lane, Deque<PendingRequest>> pendingByLane = new EnumMap<>(Lane.class);
+  private final Map<String, Integer> runningByMethod = new HashMap<>();
+  private final Map<String, MethodStats> statsByMethod = new HashMap<>();
+  private int runningCount;
+  private boolean shutdown;
+
+  RpcRequestExecutor(int maxConcurrentRequests, Set<String> bulkMethods, Map<String, Integer> limitsByMethod) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.bulkMethods = Set.copyOf(bulkMethods);
+    this.limitsByMethod = Map.copyOf(limitsByMethod);
+    for (var lane : Lane.values()) {
+      pendingByLane.put(lane, new ArrayDeque<>());
+    }
+    // we never start more tasks than threads, the queue is only there to never reject a task while a worker is finishing
+    this.workers = new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+      r -> new Thread(r, "SonarLint Server RPC request executor"));
+    this.workers.allowCoreThreadTimeOut(true);
+  }
+
+  static RpcRequestExecutor fromSystemProperties() {
+    var maxThreads = parseMaxThreads(System.getProperty(MAX_THREADS_PROPERTY));
+    var bulkMethods = Arrays.stream(System.getProperty("sonarlint.internal.rpc.requests.bulkMethods", DEFAULT_BULK_METHODS).split(","))
+      .map(String::trim)
+      .filter(method -> !method.isEmpty())
+      .collect(Collectors.toSet());
+    var limitsByMethod = parseMethodLimits(System.getProperty(METHOD_LIMITS_PROPERTY));
+    return new RpcRequestExecutor(maxThreads, bulkMethods, limitsByMethod);
+  }
+
+  static int parseMaxThreads(@Nullable String value) {
+    if (value == null) {
+      return DEFAULT_MAX_THREADS;
+    }
+    try {
+      var maxThreads = Integer.parseInt(value.trim());
+      if (maxThreads > 0) {
+        return maxThreads;
+      }
+    } catch (NumberFormatException e) {
+      // logged below
+    }
+    LOG.warn("Invalid value for '{}': {}, using {} instead", MAX_THREADS_PROPERTY, value, DEFAULT_MAX_THREADS);
+    return DEFAULT_MAX_THREADS;
+  }
+
+  /**
+   * @param value comma separated method=limit pairs, limits have to be positive
+   */
+  static Map<String, Integer> parseMethodLimits(@Nullable String value) {
+    if (value == null) {
+      return parseLimits(DEFAULT_METHOD_LIMITS);
+    }
+    try {
+      return parseLimits(value);
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid value for '{}': {}, using {} instead", METHOD_LIMITS_PROPERTY, value, DEFAULT_METHOD_LIMITS);
+      return parseLimits(DEFAULT_METHOD_LIMITS);
+    }
+  }
+
+  private static Map<String, Integer> parseLimits(String value) {
+    return Arrays.stream(value.split(","))
+      .map(String::trim)
+      .filter(limit -> !limit.isEmpty())
+      .map(limit -> limit.split("=", 2))
+      .collect(Collectors.toMap(parts -> parts[0].trim(), RpcRequestExecutor::parseLimit, (first, second) -> second));
+  }
+
+  private static int parseLimit(String[] methodAndLimit) {
+    if (methodAndLimit.length != 2 || methodAndLimit[0].isBlank()) {
+      throw new IllegalArgumentException("Expected method=limit");
+    }
+    var limit = Integer.parseInt(methodAndLimit[1].trim());
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limits have to be positive");
+    }
+    return limit;
+  }
+
+  /**
+   * @return an executor that will schedule tasks as part of the given RPC method, in the corresponding lane
+   */
+  Executor forMethod(@Nullable String method) {
+    var methodKey = method == null ? UNKNOWN_METHOD : method;
+    return task -> submitRequest(methodKey, task);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    submitRequest(UNKNOWN_METHOD, command);
+  }
+
+  private void submitRequest(String method, Runnable task) {
+    synchronized (lock) {
+      if (shutdown) {
+        throw new RejectedExecutionException("RPC request executor is shut down");
+      }
+      var lane = bulkMethods.contains(method) ? Lane.BULK : Lane.INTERACTIVE;
+      pendingByLane.get(lane).add(new PendingRequest(method, task, System.nanoTime()));
+      dispatch();
+    }
+  }
+
+  private void dispatch() {
+    while (runningCount < maxConcurrentRequests) {
+      var next = pollNextStartable();
+      if (next == null) {
+        break;
+      }
+      runningCount++;
+      runningByMethod.merge(next.method, 1, Integer::sum);
+      var startTime = System.nanoTime();
+      statsByMethod.computeIfAbsent(next.method, k -> new MethodStats()).recordStart(startTime - next.queuedAt);
+      workers.execute(() -> run(next, startTime));
+    }
+    if (shutdown && runningCount == 0 && pendingByLane.values().stream().allMatch(Deque::isEmpty)) {
+      workers.shutdown();
+    }
+  }
+
+  @Nullable
+  private PendingRequest pollNextStartable() {
+    for (var lane : Lane.values()) {
+      var iterator = pendingByLane.get(lane).iterator();
+      while (iterator.hasNext()) {
+        var pending = iterator.next();
+        var limit = limitsByMethod.get(pending.method);
+        if (limit == null || runningByMethod.getOrDefault(pending.method, 0) < limit) {
+          iterator.remove();
+          return pending;
+        }
+      }
+    }
+    return null;
+  }
+
+  private void run(PendingRequest request, long startTime) {
+    try {
+      request.task.run();
+    } finally {
+      synchronized (lock) {
+        runningCount--;
+        runningByMethod.merge(request.method, -1, Integer::sum);
+        statsByMethod.get(request.method).recordCompletion(System.nanoTime() - startTime);
+        dispatch();
+      }
+    }
+  }
+
+  int getQueueDepth() {
+    synchronized (lock) {
+      return pendingByLane.values().stream().mapToInt(Deque::size).sum();
+    }
+  }
+
+  int getRunningCount() {
+    synchronized (lock) {
+      return runningCount;
+    }
+  }
+
+  Map<String, RequestMetrics> getMetricsByMethod() {
+    synchronized (lock) {
+      return statsByMethod.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toMetrics()));
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    synchronized (lock) {
+      shutdown = true;
+      dispatch();
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    var notStarted = new ArrayList<Runnable>();
+    synchronized (lock) {
+      shutdown = true;
+      pendingByLane.values().forEach(pending -> {
+        pending.forEach(request -> notStarted.add(request.task));
+        pending.clear();
+      });
+    }
+    workers.shutdownNow();
+    return notStarted;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    synchronized (lock) {
+      return shutdown;
+    }
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return workers.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return workers.awaitTermination(timeout, unit);
+  }
+
+  record RequestMetrics(long startedCount, long completedCount, Duration averageQueueTime, Duration maxQueueTime, Duration averageExecutionTime) {
+  }
+
+  private record PendingRequest(String method, Runnable task, long queuedAt) {
+  }
+
+  private static class MethodStats {
+    private long startedCount;
+    private long completedCount;
+    private long totalQueueNanos;
+    private long maxQueueNanos;
+    private long totalExecutionNanos;
+
+    void recordStart(long queueNanos) {
+      startedCount++;
+      totalQueueNanos += queueNanos;
+      maxQueueNanos = Math.max(maxQueueNanos, queueNanos);
+    }
+
+    void recordCompletion(long executionNanos) {
+      completedCount++;
+      totalExecutionNanos += executionNanos;
+    }
+
+    RequestMetrics toMetrics() {
+      return new RequestMetrics(startedCount, completedCount,
+        Duration.ofNanos(startedCount == 0 ? 0 : (totalQueueNanos / startedCount)),
+        Duration.ofNanos(maxQueueNanos),
+        Duration.ofNanos(completedCount == 0 ? 0 : (totalExecutionNanos / completedCount)));
+    }
+  }
+}
@@ -59,8 +59,10 @@ import org.sonarsource.sonarlint.core.rpc.protocol.backend.dogfooding.Dogfooding
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.file.FileRpcService;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.flightrecorder.FlightRecordingRpcService;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.hotspot.HotspotRpcService;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.InitializeParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.issue.IssueRpcService;
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.log.LogRpcService;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.newcode.NewCodeRpcService;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.progress.TaskProgressRpcService;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.remediation.aicodefix.AiCodeFixRpcService;
@@ -78,8 +80,9 @@ public class SonarLintRpcServerImpl implements SonarLintRpcServer {
   private final SonarLintRpcClient client;
   private final AtomicBoolean initializeCalled = new AtomicBoolean(false);
   private final AtomicBoolean initialized = new AtomicBoolean(false);
+  private final AtomicBoolean compactEncoding = new AtomicBoolean(false);
   private final Future<Void> clientListener;
-  private final ExecutorServiceShutdownWatchable<ExecutorService> requestsExecutor;
+  private final ExecutorServiceShutdownWatchable<RpcRequestExecutor> requestsExecutor;
   private final ExecutorService requestAndNotificationsSequentialExecutor;
   private final RpcClientLogOutput logOutput;
   private final ExecutorService messageReaderExecutor;
@@ -98,14 +101,15 @@ public class SonarLintRpcServerImpl implements SonarLintRpcServer {
       return t;
     });
     this.requestAndNotificationsSequentialExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "SonarLint Server RPC sequential executor"));
-    this.requestsExecutor = new ExecutorServiceShutdownWatchable<>(Executors.newCachedThreadPool(r -> new Thread(r, "SonarLint Server RPC request executor")));
+    this.requestsExecutor = new ExecutorServiceShutdownWatchable<>(RpcRequestExecutor.fromSystemProperties());
     var launcher = new SonarLintLauncherBuilder<SonarLintRpcClient>()
+      .compactEncoding(compactEncoding::get)
       .setLocalService(this)
       .setRemoteInterface(SonarLintRpcClient.class)
       .setInput(in)
       .setOutput(out)
       .setExecutorService(messageReaderExecutor)
-      .wrapMessages(m -> new SingleThreadedMessageConsumer(m, messageWriterExecutor, System.err::println))
+      .wrapMessages(m -> new SingleThreadedMessageConsumer(new RequestMethodTrackingMessageConsumer(m), messageWriterExecutor, System.err::println))
       .traceMessages(getMessageTracer())
       .create();
 
@@ -148,6 +152,10 @@ public class SonarLintRpcServerImpl implements SonarLintRpcServer {
     return CompletableFutures.computeAsync(requestAndNotificationsSequentialExecutor, cancelChecker -> {
       SonarLintLogger.get().setTarget(logOutput);
       if (initializeCalled.compareAndSet(false, true) && !initialized.get()) {
+        if (params.getBackendCapabilities().contains(BackendCapability.LOG_BATCHING)) {
+          logOutput.enableBatching();
+        }
+        compactEncoding.set(params.getBackendCapabilities().contains(BackendCapability.COMPACT_JSON_ENCODING));
         springApplicationContextInitializer = new SpringApplicationContextInitializer(client, params);
         initialized.set(true);
       } else {
@@ -254,6 +262,11 @@ public class SonarLintRpcServerImpl implements SonarLintRpcServer {
     return new AiAssistedIdeRpcServiceDelegate(this);
   }
 
+  @Override
+  public LogRpcService getLogService() {
+    return new LogRpcServiceDelegate(this);
+  }
+
   @Override
   public CompletableFuture<Void> shutdown() {
     LOG.info("SonarLint backend shutting down, instance={}", this);
@@ -271,6 +284,7 @@ public class SonarLintRpcServerImpl implements SonarLintRpcServer {
         }
       }
       ThreadJobProcessorPool.getProcessors().forEach(JobProcessor::finish);
+      logOutput.shutdown();
       shutdownReaderAndWriter();
       return null;
     });
@@ -310,7 +324,7 @@ public class SonarLintRpcServerImpl implements SonarLintRpcServer {
     return getInitializedApplicationContext().getBean(StorageService.class);
   }
 
-  ExecutorServiceShutdownWatchable<ExecutorService> getRequestsExecutor() {
+  ExecutorServiceShutdownWatchable<RpcRequestExecutor> getRequestsExecutor() {
     return requestsExecutor;
   }
 
@@ -0,0 +1,106 @@
+/*
+ * SonarLint Core - RPC Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.sonarsource.sonarlint.core.commons.log.LogOutput.Level;
+import org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogBatchParams;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogParams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RpcClientLogOutputTests {
+
+  private final SonarLintRpcClient client = mock(SonarLintRpcClient.class);
+  private final RpcClientLogOutput underTest = new RpcClientLogOutput(client);
+
+  @AfterEach
+  void tearDown() {
+    underTest.shutdown();
+  }
+
+  @Test
+  void it_should_send_each_log_when_batching_is_not_enabled() {
+    underTest.log("msg1", Level.INFO, null);
+    underTest.log("msg2", Level.DEBUG, null);
+
+    verify(client, times(2)).log(any(LogParams.class));
+    verify(client, never()).logBatch(any());
+  }
+
+  @Test
+  void it_should_skip_logs_more_verbose_than_the_client_level() {
+    underTest.setLevel(Level.INFO);
+
+    underTest.log("msg", Level.DEBUG, null);
+
+    assertThat(underTest.isEnabled(Level.DEBUG)).isFalse();
+    assertThat(underTest.isEnabled(Level.WARN)).isTrue();
+    verifyNoInteractions(client);
+  }
+
+  @Test
+  void it_should_send_buffered_logs_after_a_delay() {
+    underTest.enableBatching();
+
+    underTest.log("msg1", Level.INFO, null);
+    underTest.log("msg2", Level.DEBUG, null);
+
+    var captor = ArgumentCaptor.forClass(LogBatchParams.class);
+    verify(client, timeout(2000)).logBatch(captor.capture());
+    assertThat(captor.getValue().getLogs()).extracting(LogParams::getMessage).containsExactly("msg1", "msg2");
+    verify(client, never()).log(any());
+  }
+
+  @Test
+  void it_should_send_buffered_logs_immediately_when_the_batch_is_full_or_on_error() {
+    underTest.enableBatching();
+
+    for (var i = 0; i < RpcClientLogOutput.MAX_BATCH_SIZE; i++) {
+      underTest.log("msg" + i, Level.DEBUG, null);
+    }
+    underTest.log("error", Level.ERROR, "stacktrace");
+
+    var captor = ArgumentCaptor.forClass(LogBatchParams.class);
+    verify(client, times(2)).logBatch(captor.capture());
+    assertThat(captor.getAllValues().get(0).getLogs()).hasSize(RpcClientLogOutput.MAX_BATCH_SIZE);
+    assertThat(captor.getAllValues().get(1).getLogs()).extracting(LogParams::getMessage).containsExactly("error");
+  }
+
+  @Test
+  void it_should_flush_buffered_logs_on_shutdown() {
+    underTest.enableBatching();
+    underTest.log("msg", Level.INFO, null);
+
+    underTest.shutdown();
+
+    verify(client).logBatch(any());
+  }
+}
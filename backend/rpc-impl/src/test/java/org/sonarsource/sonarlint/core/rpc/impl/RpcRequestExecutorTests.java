@@ -0,0 +1,156 @@
+/*
+ * SonarLint Core - RPC Implementation
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RpcRequestExecutorTests {
+
+  private RpcRequestExecutor underTest;
+
+  @AfterEach
+  void tearDown() {
+    if (underTest != null) {
+      underTest.shutdownNow();
+    }
+  }
+
+  @Test
+  void it_should_start_interactive_requests_before_bulk_ones() throws InterruptedException {
+    underTest = new RpcRequestExecutor(1, Set.of("file/getFilesStatus"), Map.of());
+    var blocker = new CountDownLatch(1);
+    var executed = new CopyOnWriteArrayList<String>();
+    var done = new CountDownLatch(4);
+    underTest.forMethod("other").execute(() -> await(blocker));
+
+    underTest.forMethod("file/getFilesStatus").execute(recording("bulk1", executed, done));
+    underTest.forMethod("file/getFilesStatus").execute(recording("bulk2", executed, done));
+    underTest.forMethod("rule/getEffectiveRuleDetails").execute(recording("interactive1", executed, done));
+    underTest.execute(recording("interactive2", executed, done));
+    assertThat(underTest.getQueueDepth()).isEqualTo(4);
+    blocker.countDown();
+
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(executed).containsExactly("interactive1", "interactive2", "bulk1", "bulk2");
+  }
+
+  @Test
+  void it_should_limit_concurrent_requests_per_method() throws InterruptedException {
+    underTest = new RpcRequestExecutor(4, Set.of(), Map.of("file/getFilesStatus", 1));
+    var blocker = new CountDownLatch(1);
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var done = new CountDownLatch(3);
+    for (var i = 0; i < 3; i++) {
+      underTest.forMethod("file/getFilesStatus").execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        await(blocker);
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+    var otherDone = new CountDownLatch(1);
+    underTest.forMethod("other").execute(otherDone::countDown);
+
+    assertThat(otherDone.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(underTest.getQueueDepth()).isEqualTo(2);
+    blocker.countDown();
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxRunning).hasValue(1);
+  }
+
+  @Test
+  void it_should_never_run_more_requests_than_the_max() throws InterruptedException {
+    underTest = new RpcRequestExecutor(2, Set.of(), Map.of());
+    var blocker = new CountDownLatch(1);
+    var started = new CountDownLatch(2);
+    for (var i = 0; i < 10; i++) {
+      underTest.execute(() -> {
+        started.countDown();
+        await(blocker);
+      });
+    }
+
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(underTest.getRunningCount()).isEqualTo(2);
+    assertThat(underTest.getQueueDepth()).isEqualTo(8);
+    blocker.countDown();
+  }
+
+  @Test
+  void it_should_run_pending_requests_on_shutdown_and_expose_metrics() throws InterruptedException {
+    underTest = new RpcRequestExecutor(1, Set.of(), Map.of());
+    var executed = new CopyOnWriteArrayList<String>();
+    var done = new CountDownLatch(2);
+    underTest.forMethod("method").execute(recording("first", executed, done));
+    underTest.forMethod("method").execute(recording("second", executed, done));
+
+    underTest.shutdown();
+
+    assertThat(underTest.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(executed).containsExactly("first", "second");
+    assertThat(underTest.getMetricsByMethod().get("method").completedCount()).isEqualTo(2);
+  }
+
+  private static Runnable recording(String name, List<String> executed, CountDownLatch done) {
+    return () -> {
+      executed.add(name);
+      done.countDown();
+    };
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void it_should_fall_back_to_the_default_max_threads_when_invalid() {
+    assertThat(RpcRequestExecutor.parseMaxThreads("8")).isEqualTo(8);
+    assertThat(RpcRequestExecutor.parseMaxThreads(null)).isEqualTo(64);
+    assertThat(RpcRequestExecutor.parseMaxThreads("0")).isEqualTo(64);
+    assertThat(RpcRequestExecutor.parseMaxThreads("-2")).isEqualTo(64);
+    assertThat(RpcRequestExecutor.parseMaxThreads("many")).isEqualTo(64);
+  }
+
+  @Test
+  void it_should_fall_back_to_the_default_method_limits_when_invalid() {
+    var defaultLimits = RpcRequestExecutor.parseMethodLimits(null);
+
+    assertThat(defaultLimits).containsEntry("file/getFilesStatus", 4);
+    assertThat(RpcRequestExecutor.parseMethodLimits("a=1, b=2")).containsOnly(Map.entry("a", 1), Map.entry("b", 2));
+    assertThat(RpcRequestExecutor.parseMethodLimits("a=one")).isEqualTo(defaultLimits);
+    assertThat(RpcRequestExecutor.parseMethodLimits("a=0")).isEqualTo(defaultLimits);
+    assertThat(RpcRequestExecutor.parseMethodLimits("a")).isEqualTo(defaultLimits);
+  }
+}
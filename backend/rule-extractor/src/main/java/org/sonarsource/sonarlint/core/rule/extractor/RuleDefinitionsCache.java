@@ -0,0 +1,455 @@
+/*
+ * SonarLint Core - Rule Extractor
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rule.extractor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.Plugin;
+import org.sonarsource.sonarlint.core.commons.CleanCodeAttribute;
+import org.sonarsource.sonarlint.core.commons.ImpactSeverity;
+import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.commons.RuleType;
+import org.sonarsource.sonarlint.core.commons.SonarLintCoreVersion;
+import org.sonarsource.sonarlint.core.commons.SoftwareQuality;
+import org.sonarsource.sonarlint.core.commons.VulnerabilityProbability;
+import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition.Description;
+
+/**
+ * Keeps the rule definitions extracted from plugins on disk, so that they are not extracted again on next start, as long as the plugin jars
+ * and the extraction parameters did not change. Descriptions are stored apart from the other metadata and only read when first requested.
+ * <p>
+ * The cache file stays open as long as the definitions read from it are reachable, so that their descriptions can still be read after the file
+ * was replaced or deleted, for instance by another backend sharing the same storage.
+ */
+public class RuleDefinitionsCache {
+
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final int FORMAT_VERSION = 1;
+  private static final String CACHE_FILE_EXTENSION = ".bin";
+  // several backends sharing the storage can extract rules under the same name with different parameters, e.g. enabled languages
+  private static final int MAX_CACHE_FILES_PER_NAME = 3;
+  private static final Cleaner CACHE_FILE_CLEANER = Cleaner.create();
+
+  private final Path cacheDirectory;
+  private final RulesDefinitionExtractor ruleExtractor;
+  private final String extractorVersion;
+
+  public RuleDefinitionsCache(Path cacheDirectory) {
+    this(cacheDirectory, new RulesDefinitionExtractor(), SonarLintCoreVersion.get());
+  }
+
+  /**
+   * @param extractorVersion the version of the code extracting the definitions, plugin jars do not change when it is upgraded
+   */
+  RuleDefinitionsCache(Path cacheDirectory, RulesDefinitionExtractor ruleExtractor, String extractorVersion) {
+    this.cacheDirectory = cacheDirectory;
+    this.ruleExtractor = ruleExtractor;
+    this.extractorVersion = extractorVersion;
+  }
+
+  /**
+   * Same as {@link RulesDefinitionExtractor#extractRules(Map, Set, boolean, boolean, RuleSettings)}, but definitions previously extracted under the
+   * same name are reused if they were extracted from the same plugin jars and with the same parameters.
+   *
+   * @param cacheName  identifies the set of rules, e.g. the connection they are extracted for
+   * @param pluginJars the jars the plugin instances were loaded from
+   */
+  public List<SonarLintRuleDefinition> extractRules(String cacheName, Collection<Path> pluginJars, Map<String, Plugin> pluginInstancesByKeys,
+    Set<SonarLanguage> enabledLanguages, boolean includeTemplateRules, boolean includeSecurityHotspots, RuleSettings settings) {
+    var cacheKey = computeKey(extractorVersion, pluginJars, pluginInstancesByKeys.keySet(), enabledLanguages, includeTemplateRules, includeSecurityHotspots,
+      settings);
+    var cacheFilePrefix = sha256(cacheName) + "-";
+    var cacheFile = cacheDirectory.resolve(cacheFilePrefix + sha256(cacheKey) + CACHE_FILE_EXTENSION);
+    if (Files.isRegularFile(cacheFile)) {
+      var startTime = Instant.now();
+      try {
+        var rules = read(cacheFile, cacheKey);
+        markAsUsed(cacheFile);
+        LOG.debug("Loaded {} rule definitions from cache in {}ms", rules.size(), Duration.between(startTime, Instant.now()).toMillis());
+        return rules;
+      } catch (IOException | RuntimeException e) {
+        LOG.debug("Unable to read rule definitions from cache, extracting them again", e);
+      }
+    }
+    var rules = ruleExtractor.extractRules(pluginInstancesByKeys, enabledLanguages, includeTemplateRules, includeSecurityHotspots, settings);
+    try {
+      write(cacheFile, cacheKey, rules);
+      deleteLeastRecentlyUsedCacheFiles(cacheFilePrefix);
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Unable to store rule definitions in cache", e);
+    }
+    return rules;
+  }
+
+  public void evict(String cacheName) {
+    try {
+      deleteCacheFiles(sha256(cacheName) + "-");
+    } catch (IOException e) {
+      LOG.debug("Unable to list cached rule definitions", e);
+    }
+  }
+
+  /**
+   * Plugin jars are identified by their name, size and last modification time, which is enough to detect an update without hashing their content
+   */
+  static String computeKey(String extractorVersion, Collection<Path> pluginJars, Set<String> pluginKeys, Set<SonarLanguage> enabledLanguages,
+    boolean includeTemplateRules, boolean includeSecurityHotspots, RuleSettings settings) {
+    var key = new StringBuilder("version=").append(FORMAT_VERSION).append('\n');
+    key.append("extractor=").append(extractorVersion).append('\n');
+    pluginJars.stream().map(RuleDefinitionsCache::describeJar).sorted().forEach(jar -> key.append("jar=").append(jar).append('\n'));
+    new TreeSet<>(pluginKeys).forEach(pluginKey -> key.append("plugin=").append(pluginKey).append('\n'));
+    enabledLanguages.stream().map(SonarLanguage::getSonarLanguageKey).sorted().forEach(language -> key.append("language=").append(language).append('\n'));
+    key.append("templates=").append(includeTemplateRules).append('\n');
+    key.append("hotspots=").append(includeSecurityHotspots).append('\n');
+    new TreeMap<>(settings.settings()).forEach((name, value) -> key.append("setting=").append(name).append('=').append(value).append('\n'));
+    return key.toString();
+  }
+
+  private static String describeJar(Path jar) {
+    try {
+      var attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+      return jar.getFileName() + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    } catch (IOException e) {
+      return jar.getFileName() + ":missing";
+    }
+  }
+
+  private static void markAsUsed(Path cacheFile) {
+    try {
+      Files.setLastModifiedTime(cacheFile, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      LOG.debug("Unable to update the last modification time of " + cacheFile, e);
+    }
+  }
+
+  private void deleteLeastRecentlyUsedCacheFiles(String cacheFilePrefix) throws IOException {
+    var cacheFiles = listCacheFiles(cacheFilePrefix);
+    cacheFiles.sort(Comparator.comparing(RuleDefinitionsCache::lastModifiedTime).reversed());
+    deleteCacheFiles(cacheFiles.subList(Math.min(MAX_CACHE_FILES_PER_NAME, cacheFiles.size()), cacheFiles.size()));
+  }
+
+  private void deleteCacheFiles(String cacheFilePrefix) throws IOException {
+    deleteCacheFiles(listCacheFiles(cacheFilePrefix));
+  }
+
+  private List<Path> listCacheFiles(String cacheFilePrefix) throws IOException {
+    if (!Files.isDirectory(cacheDirectory)) {
+      return new ArrayList<>();
+    }
+    try (var files = Files.list(cacheDirectory)) {
+      return new ArrayList<>(files.filter(f -> f.getFileName().toString().startsWith(cacheFilePrefix)).toList());
+    }
+  }
+
+  private static void deleteCacheFiles(List<Path> cacheFiles) {
+    for (var file : cacheFiles) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        LOG.debug("Unable to delete cached rule definitions " + file, e);
+      }
+    }
+  }
+
+  private static FileTime lastModifiedTime(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      // deleted in the meantime
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private void write(Path cacheFile, String cacheKey, List<SonarLintRuleDefinition> rules) throws IOException {
+    var metadata = new ByteArrayOutputStream();
+    var metadataOutput = new DataOutputStream(metadata);
+    var descriptions = new ByteArrayOutputStream();
+    var descriptionsOutput = new DataOutputStream(descriptions);
+    for (var rule : rules) {
+      var descriptionOffset = descriptionsOutput.size();
+      writeDescription(descriptionsOutput, rule);
+      writeMetadata(metadataOutput, rule, descriptionOffset, descriptionsOutput.size() - descriptionOffset);
+    }
+    Files.createDirectories(cacheDirectory);
+    var tempFile = Files.createTempFile(cacheDirectory, "rules", ".tmp");
+    try {
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        writeString(output, cacheKey);
+        output.writeLong(descriptionsOutput.size());
+        output.writeInt(rules.size());
+        metadata.writeTo(output);
+        descriptions.writeTo(output);
+      }
+      Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private static void writeMetadata(DataOutput output, SonarLintRuleDefinition rule, int descriptionOffset, int descriptionLength) throws IOException {
+    writeString(output, rule.getKey());
+    writeString(output, rule.getName());
+    output.writeUTF(rule.getDefaultSeverity().name());
+    output.writeUTF(rule.getType().name());
+    writeNullableString(output, rule.getCleanCodeAttribute().map(Enum::name).orElse(null));
+    output.writeInt(rule.getDefaultImpacts().size());
+    for (var impact : rule.getDefaultImpacts().entrySet()) {
+      output.writeUTF(impact.getKey().name());
+      output.writeUTF(impact.getValue().name());
+    }
+    output.writeInt(rule.getParams().size());
+    for (var param : rule.getParams().values()) {
+      writeString(output, param.key());
+      writeString(output, param.name());
+      writeNullableString(output, param.description());
+      writeNullableString(output, param.defaultValue());
+      output.writeUTF(param.type().name());
+      output.writeBoolean(param.multiple());
+      writeStrings(output, param.possibleValues());
+    }
+    output.writeBoolean(rule.isActiveByDefault());
+    output.writeUTF(rule.getLanguage().getSonarLanguageKey());
+    writeStrings(output, List.of(rule.getTags()));
+    writeStrings(output, rule.getDeprecatedKeys());
+    writeStrings(output, rule.getEducationPrincipleKeys());
+    writeNullableString(output, rule.getInternalKey().orElse(null));
+    writeNullableString(output, rule.getVulnerabilityProbability().map(Enum::name).orElse(null));
+    output.writeInt(descriptionOffset);
+    output.writeInt(descriptionLength);
+  }
+
+  private static void writeDescription(DataOutput output, SonarLintRuleDefinition rule) throws IOException {
+    writeNullableString(output, rule.getHtmlDescription());
+    output.writeInt(rule.getDescriptionSections().size());
+    for (var section : rule.getDescriptionSections()) {
+      writeString(output, section.getKey());
+      writeString(output, section.getHtmlContent());
+      writeNullableString(output, section.getContext().map(SonarLintRuleDescriptionSection.Context::getKey).orElse(null));
+      writeNullableString(output, section.getContext().map(SonarLintRuleDescriptionSection.Context::getDisplayName).orElse(null));
+    }
+  }
+
+  private static List<SonarLintRuleDefinition> read(Path cacheFile, String cacheKey) throws IOException {
+    var channel = FileChannel.open(cacheFile, StandardOpenOption.READ);
+    try {
+      var descriptions = new DescriptionsFile(cacheFile, channel);
+      // the stream is not closed, the channel is closed once the definitions, and so the descriptions file, are unreachable
+      var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      if (input.readInt() != FORMAT_VERSION || !cacheKey.equals(readString(input))) {
+        throw new IOException("Rule definitions cache is outdated: " + cacheFile);
+      }
+      var descriptionsStart = channel.size() - input.readLong();
+      var rulesCount = input.readInt();
+      var rules = new ArrayList<SonarLintRuleDefinition>(rulesCount);
+      for (var i = 0; i < rulesCount; i++) {
+        rules.add(readRule(input, descriptions, descriptionsStart));
+      }
+      CACHE_FILE_CLEANER.register(descriptions, new CloseChannel(channel));
+      return rules;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static SonarLintRuleDefinition readRule(DataInput input, DescriptionsFile descriptions, long descriptionsStart) throws IOException {
+    var key = readString(input);
+    var name = readString(input);
+    var defaultSeverity = IssueSeverity.valueOf(input.readUTF());
+    var type = RuleType.valueOf(input.readUTF());
+    var cleanCodeAttribute = Optional.ofNullable(readNullableString(input)).map(CleanCodeAttribute::valueOf).orElse(null);
+    var impactsCount = input.readInt();
+    var defaultImpacts = new EnumMap<SoftwareQuality, ImpactSeverity>(SoftwareQuality.class);
+    for (var i = 0; i < impactsCount; i++) {
+      defaultImpacts.put(SoftwareQuality.valueOf(input.readUTF()), ImpactSeverity.valueOf(input.readUTF()));
+    }
+    var paramsCount = input.readInt();
+    var params = new HashMap<String, SonarLintRuleParamDefinition>();
+    for (var i = 0; i < paramsCount; i++) {
+      var param = new SonarLintRuleParamDefinition(readString(input), readString(input), readNullableString(input), readNullableString(input),
+        SonarLintRuleParamType.valueOf(input.readUTF()), input.readBoolean(), readStrings(input));
+      params.put(param.key(), param);
+    }
+    var isActiveByDefault = input.readBoolean();
+    var languageKey = input.readUTF();
+    var language = SonarLanguage.forKey(languageKey).orElseThrow(() -> new IOException("Unknown language with key: " + languageKey));
+    var tags = readStrings(input).toArray(new String[0]);
+    var deprecatedKeys = new HashSet<>(readStrings(input));
+    var educationPrincipleKeys = new HashSet<>(readStrings(input));
+    var internalKey = readNullableString(input);
+    var vulnerabilityProbability = Optional.ofNullable(readNullableString(input)).map(VulnerabilityProbability::valueOf).orElse(null);
+    var descriptionPosition = descriptionsStart + input.readInt();
+    var descriptionLength = input.readInt();
+    return new SonarLintRuleDefinition(key, name, defaultSeverity, type, cleanCodeAttribute, defaultImpacts,
+      () -> descriptions.read(descriptionPosition, descriptionLength), params, isActiveByDefault, language, tags, deprecatedKeys, educationPrincipleKeys,
+      internalKey, vulnerabilityProbability);
+  }
+
+  /**
+   * Positional reads do not change the position of the channel, they can be done concurrently
+   */
+  private record DescriptionsFile(Path cacheFile, FileChannel channel) {
+    Description read(long position, int length) {
+      return readDescription(cacheFile, channel, position, length);
+    }
+  }
+
+  /**
+   * Does not reference the descriptions file, otherwise it would never become unreachable
+   */
+  private record CloseChannel(FileChannel channel) implements Runnable {
+    @Override
+    public void run() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.debug("Unable to close rule definitions cache file", e);
+      }
+    }
+  }
+
+  private static Description readDescription(Path cacheFile, FileChannel channel, long position, int length) {
+    try {
+      var buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("Unexpected end of file: " + cacheFile);
+        }
+      }
+      var input = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+      var htmlDescription = readNullableString(input);
+      var sectionsCount = input.readInt();
+      var sections = new ArrayList<SonarLintRuleDescriptionSection>(sectionsCount);
+      for (var i = 0; i < sectionsCount; i++) {
+        var sectionKey = readString(input);
+        var htmlContent = readString(input);
+        var contextKey = readNullableString(input);
+        var contextDisplayName = readNullableString(input);
+        sections.add(new SonarLintRuleDescriptionSection(sectionKey, htmlContent,
+          Optional.ofNullable(contextKey).map(k -> new SonarLintRuleDescriptionSection.Context(k, contextDisplayName))));
+      }
+      return new Description(htmlDescription, List.copyOf(sections));
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read rule description from cache: " + cacheFile, e);
+    }
+  }
+
+  private static void writeStrings(DataOutput output, Collection<String> values) throws IOException {
+    output.writeInt(values.size());
+    for (var value : values) {
+      writeString(output, value);
+    }
+  }
+
+  private static List<String> readStrings(DataInput input) throws IOException {
+    var count = input.readInt();
+    var values = new ArrayList<String>(count);
+    for (var i = 0; i < count; i++) {
+      values.add(readString(input));
+    }
+    return values;
+  }
+
+  /**
+   * Unlike {@link DataOutput#writeUTF(String)}, supports strings longer than 64KB, like some rule descriptions
+   */
+  private static void writeNullableString(DataOutput output, @Nullable String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+      return;
+    }
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static void writeString(DataOutput output, String value) throws IOException {
+    writeNullableString(output, value);
+  }
+
+  @CheckForNull
+  private static String readNullableString(DataInput input) throws IOException {
+    var length = input.readInt();
+    if (length < 0) {
+      return null;
+    }
+    var bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static String readString(DataInput input) throws IOException {
+    var value = readNullableString(input);
+    if (value == null) {
+      throw new IOException("Unexpected null value in rule definitions cache");
+    }
+    return value;
+  }
+
+  private static String sha256(String value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+}
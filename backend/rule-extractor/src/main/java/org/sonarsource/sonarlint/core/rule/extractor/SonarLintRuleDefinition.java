@@ -25,7 +25,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.api.server.rule.RulesDefinition.Param;
@@ -49,8 +52,7 @@ public class SonarLintRuleDefinition {
   private final RuleType type;
   private final CleanCodeAttribute cleanCodeAttribute;
   private final Map<SoftwareQuality, ImpactSeverity> defaultImpacts;
-  private final String description;
-  private final List<SonarLintRuleDescriptionSection> descriptionSections;
+  private final Supplier<Description> description;
   private final Map<String, SonarLintRuleParamDefinition> params;
   private final Map<String, String> defaultParams = new HashMap<>();
   private final boolean isActiveByDefault;
@@ -74,14 +76,14 @@ public class SonarLintRuleDefinition {
       .map(e -> Map.entry(SoftwareQuality.valueOf(e.getKey().name()), ImpactSeverity.valueOf(e.getValue().name())))
       .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     var htmlDescription = rule.htmlDescription() != null ? rule.htmlDescription() : Markdown.convertToHtml(rule.markdownDescription());
+    Description ruleDescription;
     if (rule.type() == org.sonar.api.rules.RuleType.SECURITY_HOTSPOT) {
-      this.description = null;
-      this.descriptionSections = LegacyHotspotRuleDescriptionSectionsGenerator.extractDescriptionSectionsFromHtml(htmlDescription);
+      ruleDescription = new Description(null, LegacyHotspotRuleDescriptionSectionsGenerator.extractDescriptionSectionsFromHtml(htmlDescription));
     } else {
-      this.description = htmlDescription;
-      this.descriptionSections = rule.ruleDescriptionSections().stream().map(s -> new SonarLintRuleDescriptionSection(s.getKey(), s.getHtmlContent(),
-        s.getContext().map(c -> new SonarLintRuleDescriptionSection.Context(c.getKey(), c.getDisplayName())))).toList();
+      ruleDescription = new Description(htmlDescription, rule.ruleDescriptionSections().stream().map(s -> new SonarLintRuleDescriptionSection(s.getKey(), s.getHtmlContent(),
+        s.getContext().map(c -> new SonarLintRuleDescriptionSection.Context(c.getKey(), c.getDisplayName())))).toList());
     }
+    this.description = () -> ruleDescription;
 
     this.isActiveByDefault = rule.activatedByDefault();
     this.language = SonarLanguage.forKey(rule.repository().language()).orElseThrow(() -> new IllegalStateException("Unknown language with key: " + rule.repository().language()));
@@ -104,6 +106,36 @@ public class SonarLintRuleDefinition {
     this.internalKey = Optional.ofNullable(rule.internalKey());
   }
 
+  /**
+   * Used when loading definitions from the {@link RuleDefinitionsCache}, descriptions being loaded only when first requested
+   */
+  SonarLintRuleDefinition(String key, String name, IssueSeverity defaultSeverity, RuleType type, CleanCodeAttribute cleanCodeAttribute,
+    Map<SoftwareQuality, ImpactSeverity> defaultImpacts, Supplier<Description> descriptionLoader, Map<String, SonarLintRuleParamDefinition> params,
+    boolean isActiveByDefault, SonarLanguage language, String[] tags, Set<String> deprecatedKeys, Set<String> educationPrincipleKeys,
+    @Nullable String internalKey, @Nullable VulnerabilityProbability vulnerabilityProbability) {
+    this.key = key;
+    this.name = name;
+    this.defaultSeverity = defaultSeverity;
+    this.type = type;
+    this.cleanCodeAttribute = cleanCodeAttribute;
+    this.defaultImpacts = defaultImpacts;
+    this.description = new LazyDescription(descriptionLoader);
+    this.params = Collections.unmodifiableMap(params);
+    params.values().forEach(param -> {
+      var defaultValue = param.defaultValue();
+      if (defaultValue != null) {
+        defaultParams.put(param.key(), defaultValue);
+      }
+    });
+    this.isActiveByDefault = isActiveByDefault;
+    this.language = language;
+    this.tags = tags;
+    this.deprecatedKeys = deprecatedKeys;
+    this.educationPrincipleKeys = educationPrincipleKeys;
+    this.internalKey = Optional.ofNullable(internalKey);
+    this.vulnerabilityProbability = Optional.ofNullable(vulnerabilityProbability);
+  }
+
   public String getKey() {
     return key;
   }
@@ -140,12 +172,13 @@ public class SonarLintRuleDefinition {
     return isActiveByDefault;
   }
 
+  @CheckForNull
   public String getHtmlDescription() {
-    return description;
+    return description.get().htmlDescription();
   }
 
   public List<SonarLintRuleDescriptionSection> getDescriptionSections() {
-    return descriptionSections;
+    return description.get().sections();
   }
 
   public SonarLanguage getLanguage() {
@@ -171,4 +204,31 @@ public class SonarLintRuleDefinition {
   public Optional<VulnerabilityProbability> getVulnerabilityProbability() {
     return vulnerabilityProbability;
   }
+
+  record Description(@Nullable String htmlDescription, List<SonarLintRuleDescriptionSection> sections) {
+  }
+
+  private static class LazyDescription implements Supplier<Description> {
+    private final Supplier<Description> loader;
+    private volatile Description description;
+
+    private LazyDescription(Supplier<Description> loader) {
+      this.loader = loader;
+    }
+
+    @Override
+    public Description get() {
+      var result = description;
+      if (result == null) {
+        synchronized (this) {
+          result = description;
+          if (result == null) {
+            result = loader.get();
+            description = result;
+          }
+        }
+      }
+      return result;
+    }
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * SonarLint Core - Rule Extractor
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package mediumtests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.commons.Version;
+import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
+import org.sonarsource.sonarlint.core.commons.log.LogOutput;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+import org.sonarsource.sonarlint.core.plugin.commons.PluginsLoader;
+import org.sonarsource.sonarlint.core.rule.extractor.RuleDefinitionsCache;
+import org.sonarsource.sonarlint.core.rule.extractor.RuleSettings;
+import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleDefinitionsCacheMediumTests {
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final Optional<Version> NODE_VERSION = Optional.of(Version.create("20.0"));
+  private static final RuleSettings EMPTY_SETTINGS = new RuleSettings(Map.of());
+  private static Set<Path> allJars;
+
+  @TempDir
+  private Path cacheDir;
+
+  @BeforeAll
+  static void prepare() throws IOException {
+    var dir = Paths.get("target/plugins/");
+    try (var files = Files.list(dir)) {
+      allJars = files.filter(x -> x.getFileName().toString().endsWith(".jar")).collect(toSet());
+    }
+  }
+
+  @Test
+  void should_load_all_rules_from_cache_faster_than_extracting_them() {
+    var enabledLanguages = Set.of(SonarLanguage.values());
+    var config = new PluginsLoader.Configuration(allJars, enabledLanguages, false, NODE_VERSION);
+    var plugins = new PluginsLoader().load(config, Set.of()).getLoadedPlugins().getAllPluginInstancesByKeys();
+
+    var startTime = Instant.now();
+    var extractedRules = new RuleDefinitionsCache(cacheDir).extractRules("standalone", allJars, plugins, enabledLanguages, true, true, EMPTY_SETTINGS);
+    var extractionDuration = Duration.between(startTime, Instant.now());
+    startTime = Instant.now();
+    // simulate a new start of the backend
+    var cachedRules = new RuleDefinitionsCache(cacheDir).extractRules("standalone", allJars, plugins, enabledLanguages, true, true, EMPTY_SETTINGS);
+    var loadingDuration = Duration.between(startTime, Instant.now());
+
+    assertThat(logTester.logs(LogOutput.Level.DEBUG)).anyMatch(log -> log.startsWith("Loaded " + extractedRules.size() + " rule definitions from cache in "));
+    assertThat(loadingDuration).isLessThan(extractionDuration);
+    assertThat(cachedRules).hasSameSizeAs(extractedRules);
+    var extractedRulesByKey = extractedRules.stream().collect(toMap(SonarLintRuleDefinition::getKey, Function.identity()));
+    assertThat(cachedRules).allSatisfy(cachedRule -> {
+      var extractedRule = extractedRulesByKey.get(cachedRule.getKey());
+      assertThat(cachedRule).usingRecursiveComparison().ignoringFields("description", "params").isEqualTo(extractedRule);
+      assertThat(cachedRule.getParams()).usingRecursiveComparison().isEqualTo(extractedRule.getParams());
+      assertThat(cachedRule.getHtmlDescription()).isEqualTo(extractedRule.getHtmlDescription());
+      assertThat(cachedRule.getDescriptionSections()).usingRecursiveFieldByFieldElementComparator().isEqualTo(extractedRule.getDescriptionSections());
+    });
+  }
+
+}
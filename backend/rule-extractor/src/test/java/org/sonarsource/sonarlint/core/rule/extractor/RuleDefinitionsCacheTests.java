@@ -0,0 +1,225 @@
+/*
+ * SonarLint Core - Rule Extractor
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rule.extractor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.Plugin;
+import org.sonar.api.server.rule.RuleParamType;
+import org.sonar.api.server.rule.RulesDefinition;
+import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RuleDefinitionsCacheTests {
+
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final Map<String, Plugin> PLUGINS = Map.of("java", mock(Plugin.class));
+  private static final Set<SonarLanguage> LANGUAGES = Set.of(SonarLanguage.JAVA);
+  private static final RuleSettings SETTINGS = new RuleSettings(Map.of());
+  private static final String VERSION = "10.1.0.1";
+
+  @TempDir
+  private Path cacheDir;
+  @TempDir
+  private Path pluginsDir;
+  private Path pluginJar;
+  private final RulesDefinitionExtractor extractor = mock(RulesDefinitionExtractor.class);
+  private RuleDefinitionsCache underTest;
+
+  @BeforeEach
+  void prepare() throws IOException {
+    pluginJar = Files.writeString(pluginsDir.resolve("sonar-java-plugin.jar"), "v1");
+    when(extractor.extractRules(anyMap(), anySet(), anyBoolean(), anyBoolean(), any())).thenAnswer(invocation -> List.of(rule()));
+    underTest = new RuleDefinitionsCache(cacheDir, extractor, VERSION);
+  }
+
+  @Test
+  void should_load_definitions_from_cache_once_extracted() {
+    var extractedRules = underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    var cachedRules = new RuleDefinitionsCache(cacheDir, extractor, VERSION).extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    verify(extractor, times(1)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+    assertThat(cachedRules).hasSize(1);
+    var cachedRule = cachedRules.get(0);
+    var extractedRule = extractedRules.get(0);
+    assertThat(cachedRule).usingRecursiveComparison().ignoringFields("description", "params").isEqualTo(extractedRule);
+    assertThat(cachedRule.getParams().get("max")).usingRecursiveComparison().isEqualTo(extractedRule.getParams().get("max"));
+    assertThat(cachedRule.getDefaultParams()).containsOnly(Map.entry("max", "10"));
+    assertThat(cachedRule.getHtmlDescription()).isEqualTo(extractedRule.getHtmlDescription());
+    assertThat(cachedRule.getDescriptionSections()).usingRecursiveFieldByFieldElementComparator().isEqualTo(extractedRule.getDescriptionSections());
+  }
+
+  @Test
+  void should_load_descriptions_only_when_requested() throws IOException {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    var cachedRule = underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS).get(0);
+    try (var files = Files.list(cacheDir)) {
+      var cacheFile = files.findFirst().orElseThrow();
+      // descriptions are at the end of the file, they are not loaded yet
+      var content = Files.readAllBytes(cacheFile);
+      Files.write(cacheFile, new String(content, StandardCharsets.ISO_8859_1).replace("Description", "Modified!!!")
+        .getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    assertThat(cachedRule.getName()).isEqualTo("My Rule");
+    assertThat(cachedRule.getHtmlDescription()).isEqualTo("<p>Modified!!!</p>");
+  }
+
+  @Test
+  void should_extract_definitions_again_when_a_plugin_jar_changes() throws IOException {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    Files.writeString(pluginJar, "v2 with a different size");
+    Files.setLastModifiedTime(pluginJar, FileTime.from(Instant.now().plusSeconds(10)));
+
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    verify(extractor, times(2)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+    try (var files = Files.list(cacheDir)) {
+      assertThat(files).hasSize(2);
+    }
+  }
+
+  @Test
+  void should_extract_definitions_again_when_extraction_parameters_change() {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    var otherSettings = new RuleSettings(Map.of("sonar.java.key", "value"));
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, otherSettings);
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, true, SETTINGS);
+
+    verify(extractor, times(1)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+    verify(extractor, times(1)).extractRules(PLUGINS, LANGUAGES, true, false, otherSettings);
+    verify(extractor, times(1)).extractRules(PLUGINS, LANGUAGES, true, true, SETTINGS);
+  }
+
+  @Test
+  void should_extract_definitions_again_when_the_extractor_is_upgraded() {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    new RuleDefinitionsCache(cacheDir, extractor, "10.2.0.1").extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    verify(extractor, times(2)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+  }
+
+  @Test
+  void should_only_keep_the_most_recently_used_cache_files_of_a_name() throws IOException {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    for (var i = 0; i < 3; i++) {
+      ageCacheFiles();
+      underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, new RuleSettings(Map.of("sonar.java.key", "value" + i)));
+    }
+
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    verify(extractor, times(2)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+    try (var files = Files.list(cacheDir)) {
+      assertThat(files).hasSize(3);
+    }
+  }
+
+  @Test
+  void should_read_descriptions_of_loaded_definitions_after_cache_file_is_deleted_or_replaced() {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    var cachedRule = underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS).get(0);
+    var otherCachedRule = underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS).get(0);
+
+    underTest.evict("standalone");
+    assertThat(cachedRule.getHtmlDescription()).isEqualTo("<p>Description</p>");
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    assertThat(otherCachedRule.getHtmlDescription()).isEqualTo("<p>Description</p>");
+  }
+
+  @Test
+  void should_keep_one_cache_per_name_and_evict_it() throws IOException {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    underTest.extractRules("connection:id", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    underTest.evict("connection:id");
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    verify(extractor, times(2)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+    try (var files = Files.list(cacheDir)) {
+      assertThat(files).hasSize(1);
+    }
+  }
+
+  @Test
+  void should_extract_definitions_again_when_cache_is_corrupted() throws IOException {
+    underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+    try (var files = Files.list(cacheDir)) {
+      var cacheFile = files.findFirst().orElseThrow();
+      Files.write(cacheFile, new byte[] {0, 0, 0, 1, 0});
+    }
+
+    var rules = underTest.extractRules("standalone", List.of(pluginJar), PLUGINS, LANGUAGES, true, false, SETTINGS);
+
+    assertThat(rules).hasSize(1);
+    verify(extractor, times(2)).extractRules(PLUGINS, LANGUAGES, true, false, SETTINGS);
+  }
+
+  private void ageCacheFiles() throws IOException {
+    try (var files = Files.list(cacheDir)) {
+      for (var file : files.toList()) {
+        Files.setLastModifiedTime(file, FileTime.from(Files.getLastModifiedTime(file).toInstant().minusSeconds(10)));
+      }
+    }
+  }
+
+  private static SonarLintRuleDefinition rule() {
+    var context = new RulesDefinition.Context();
+    var repository = context.createRepository("java", "java");
+    var newRule = repository.createRule("S1")
+      .setName("My Rule")
+      .setHtmlDescription("<p>Description</p>")
+      .setTags("convention")
+      .addDeprecatedRuleKey("squid", "S1");
+    newRule.createParam("max").setDefaultValue("10").setDescription("Maximum").setType(RuleParamType.INTEGER);
+    newRule.createParam("format");
+    repository.done();
+    return new SonarLintRuleDefinition(context.repository("java").rule("S1"));
+  }
+
+}
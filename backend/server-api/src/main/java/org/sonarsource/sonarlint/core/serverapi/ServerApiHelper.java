@@ -26,12 +26,14 @@ import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
@@ -62,6 +64,8 @@ public class ServerApiHelper {
   public static final int PAGE_SIZE = 500;
   public static final int MAX_PAGES = 20;
   public static final int HTTP_TOO_MANY_REQUESTS = 429;
+  // at least one page has to be in flight, otherwise the pagination would never progress
+  public static final int MAX_PREFETCHED_PAGES = Math.max(1, Integer.getInteger("sonarlint.internal.pagination.maxPrefetchedPages", 4));
 
   private final HttpClient client;
   private final EndpointParams endpointParams;
@@ -91,6 +95,31 @@ public class ServerApiHelper {
     return response;
   }
 
+  /**
+   * Same as {@link #get(String, SonarLintCancelMonitor)}, but the body of the response is streamed while being read instead of being loaded
+   * in memory first. Meant for big responses.
+   */
+  public HttpClient.Response getStreaming(String path, SonarLintCancelMonitor cancelMonitor) {
+    var url = buildEndpointUrl(path);
+    var response = processResponse("GET", cancelMonitor, client.getStreamingAsync(url), Instant.now(), url);
+    if (!response.isSuccessful()) {
+      throw handleError(response);
+    }
+    return response;
+  }
+
+  /**
+   * Same as {@link #getStreaming(String, SonarLintCancelMonitor)}, without credentials
+   */
+  public HttpClient.Response getAnonymousStreaming(String path, SonarLintCancelMonitor cancelMonitor) {
+    var url = buildEndpointUrl(path);
+    var response = processResponse("GET", cancelMonitor, client.getStreamingAsyncAnonymous(url), Instant.now(), url);
+    if (!response.isSuccessful()) {
+      throw handleError(response);
+    }
+    return response;
+  }
+
   public HttpClient.Response apiGet(String path, SonarLintCancelMonitor cancelMonitor) {
     var response = rawGetUrl(buildApiEndpointUrl(path), cancelMonitor);
     if (!response.isSuccessful()) {
@@ -267,19 +296,65 @@ public class ServerApiHelper {
     var page = new AtomicInteger(0);
     var stop = new AtomicBoolean(false);
     var loaded = new AtomicInteger(0);
+    var pagingTotal = new AtomicLong(0);
     do {
       page.incrementAndGet();
-      var fullUrl = baseUrl + (baseUrl.contains("?") ? "&" : "?") +
-        pageSizeFieldName + "=" + PAGE_SIZE + "&" + pageFieldName + "=" + page;
+      var fullUrl = buildPageUrl(baseUrl, pageFieldName, pageSizeFieldName, page.get());
       ServerApiHelper.consumeTimed(
         () -> rawGetUrl(fullUrl, cancelChecker),
-        response -> processPage(baseUrl, responseParser, getPagingTotal, itemExtractor, itemConsumer, limitToTwentyPages, page, stop, loaded,
-          response),
+        response -> pagingTotal.set(processPage(baseUrl, responseParser, getPagingTotal, itemExtractor, itemConsumer, limitToTwentyPages, page, stop, loaded,
+          response)),
         duration -> LOG.debug("Page downloaded in {}ms", duration));
-    } while (!stop.get() && !cancelChecker.isCanceled());
+      // SONAR-9150 pages are requested one by one until the paging total is known
+    } while (!stop.get() && !cancelChecker.isCanceled() && pagingTotal.get() <= 0);
+    if (!stop.get() && !cancelChecker.isCanceled()) {
+      // once the total is known, the remaining pages can be requested ahead of time
+      var lastPage = (int) Math.min((pagingTotal.get() + PAGE_SIZE - 1) / PAGE_SIZE, limitToTwentyPages ? MAX_PAGES : Integer.MAX_VALUE);
+      getRemainingPagesPrefetched(baseUrl, responseParser, getPagingTotal, itemExtractor, itemConsumer, limitToTwentyPages, cancelChecker, pageFieldName,
+        pageSizeFieldName, page, stop, loaded, lastPage);
+    }
+  }
+
+  /**
+   * Requests up to {@link #MAX_PREFETCHED_PAGES} pages concurrently, while still handing the pages to the consumer in order
+   */
+  private <G, F> void getRemainingPagesPrefetched(String baseUrl, CheckedFunction<InputStream, G> responseParser, Function<G, Number> getPagingTotal,
+    Function<G, List<F>> itemExtractor, Consumer<F> itemConsumer, boolean limitToTwentyPages, SonarLintCancelMonitor cancelChecker, String pageFieldName,
+    String pageSizeFieldName, AtomicInteger page, AtomicBoolean stop, AtomicInteger loaded, int lastPage) {
+    var inFlightPages = new ArrayDeque<InFlightPage>();
+    var nextPageToRequest = page.get() + 1;
+    try {
+      while (!stop.get() && !cancelChecker.isCanceled() && page.get() < lastPage) {
+        while (nextPageToRequest <= lastPage && inFlightPages.size() < MAX_PREFETCHED_PAGES) {
+          var fullUrl = buildPageUrl(baseUrl, pageFieldName, pageSizeFieldName, nextPageToRequest);
+          inFlightPages.add(new InFlightPage(fullUrl, Instant.now(), client.getAsync(fullUrl)));
+          nextPageToRequest++;
+        }
+        var inFlightPage = requireNonNull(inFlightPages.poll());
+        page.incrementAndGet();
+        ServerApiHelper.consumeTimed(
+          () -> processResponse("GET", cancelChecker, inFlightPage.response, inFlightPage.startTime, inFlightPage.url),
+          response -> processPage(baseUrl, responseParser, getPagingTotal, itemExtractor, itemConsumer, limitToTwentyPages, page, stop, loaded, response),
+          duration -> LOG.debug("Page downloaded in {}ms", duration));
+      }
+    } finally {
+      inFlightPages.forEach(InFlightPage::discard);
+    }
+  }
+
+  private static String buildPageUrl(String baseUrl, String pageFieldName, String pageSizeFieldName, int page) {
+    return baseUrl + (baseUrl.contains("?") ? "&" : "?") +
+      pageSizeFieldName + "=" + PAGE_SIZE + "&" + pageFieldName + "=" + page;
+  }
+
+  private record InFlightPage(String url, Instant startTime, CompletableFuture<HttpClient.Response> response) {
+    void discard() {
+      response.cancel(true);
+      response.thenAccept(HttpClient.Response::close);
+    }
   }
 
-  private static <F, G> void processPage(String baseUrl, CheckedFunction<InputStream, G> responseParser, Function<G, Number> getPagingTotal, Function<G, List<F>> itemExtractor,
+  private static <F, G> long processPage(String baseUrl, CheckedFunction<InputStream, G> responseParser, Function<G, Number> getPagingTotal, Function<G, List<F>> itemExtractor,
     Consumer<F> itemConsumer, boolean limitToTwentyPages, AtomicInteger page, AtomicBoolean stop, AtomicInteger loaded,
     HttpClient.Response response)
     throws IOException {
@@ -304,6 +379,7 @@ public class ServerApiHelper {
       stop.set(true);
       LOG.debug("Limiting number of requested pages from '{}' to {}. Some of the data won't be fetched", baseUrl, MAX_PAGES);
     }
+    return pagingTotal;
   }
 
   public HttpClient.AsyncRequest getEventStream(String path, HttpConnectionListener connectionListener, Consumer<String> messageConsumer) {
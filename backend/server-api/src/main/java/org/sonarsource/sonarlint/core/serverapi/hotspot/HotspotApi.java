@@ -88,7 +88,7 @@ public class HotspotApi {
   public HotspotApi.HotspotsPullResult pullHotspots(String projectKey, String branchName, Set<SonarLanguage> enabledLanguages, @Nullable Long changedSince
     , SonarLintCancelMonitor cancelMonitor) {
     return ServerApiHelper.processTimed(
-      () -> helper.get(getPullHotspotsUrl(projectKey, branchName, enabledLanguages, changedSince), cancelMonitor),
+      () -> helper.getStreaming(getPullHotspotsUrl(projectKey, branchName, enabledLanguages, changedSince), cancelMonitor),
       response -> {
         var input = response.bodyAsStream();
         var timestamp = Hotspots.HotspotPullQueryTimestamp.parseDelimitedFrom(input);
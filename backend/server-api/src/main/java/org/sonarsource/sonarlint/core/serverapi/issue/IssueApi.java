@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.scanner.protocol.input.ScannerInput;
@@ -171,12 +172,26 @@ public class IssueApi {
 
   public IssuesPullResult pullIssues(String projectKey, String branchName, Set<SonarLanguage> enabledLanguages, @Nullable Long changedSince,
     SonarLintCancelMonitor cancelMonitor) {
+    List<Issues.IssueLite> issues = new ArrayList<>();
+    var timestamp = pullIssues(projectKey, branchName, enabledLanguages, changedSince, issues::add, cancelMonitor);
+    return new IssuesPullResult(timestamp, issues);
+  }
+
+  /**
+   * Same as {@link #pullIssues(String, String, Set, Long, SonarLintCancelMonitor)}, but each issue is handed to the consumer as soon as it is parsed
+   * from the response body instead of being collected.
+   *
+   * @return the query timestamp sent by the server before the issues
+   */
+  public Issues.IssuesPullQueryTimestamp pullIssues(String projectKey, String branchName, Set<SonarLanguage> enabledLanguages, @Nullable Long changedSince,
+    Consumer<Issues.IssueLite> issueConsumer, SonarLintCancelMonitor cancelMonitor) {
     return ServerApiHelper.processTimed(
-      () -> serverApiHelper.get(getPullIssuesUrl(projectKey, branchName, enabledLanguages, changedSince), cancelMonitor),
+      () -> serverApiHelper.getStreaming(getPullIssuesUrl(projectKey, branchName, enabledLanguages, changedSince), cancelMonitor),
       response -> {
         var input = response.bodyAsStream();
         var timestamp = Issues.IssuesPullQueryTimestamp.parseDelimitedFrom(input);
-        return new IssuesPullResult(timestamp, readMessages(input, Issues.IssueLite.parser()));
+        readMessages(input, Issues.IssueLite.parser(), issueConsumer);
+        return timestamp;
       },
       duration -> LOG.debug("Pulled issues in {}ms", duration));
   }
@@ -216,7 +231,7 @@ public class IssueApi {
   public TaintIssuesPullResult pullTaintIssues(String projectKey, String branchName, Set<SonarLanguage> enabledLanguages, @Nullable Long changedSince,
     SonarLintCancelMonitor cancelMonitor) {
     return ServerApiHelper.processTimed(
-      () -> serverApiHelper.get(getPullTaintIssuesUrl(projectKey, branchName, enabledLanguages, changedSince), cancelMonitor),
+      () -> serverApiHelper.getStreaming(getPullTaintIssuesUrl(projectKey, branchName, enabledLanguages, changedSince), cancelMonitor),
       response -> {
         var input = response.bodyAsStream();
         var timestamp = Issues.TaintVulnerabilityPullQueryTimestamp.parseDelimitedFrom(input);
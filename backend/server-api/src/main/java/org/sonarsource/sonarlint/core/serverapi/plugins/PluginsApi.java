@@ -54,7 +54,7 @@ public class PluginsApi {
   public void getPlugin(String key, ServerApiHelper.IOConsumer<InputStream> pluginFileConsumer, SonarLintCancelMonitor cancelMonitor) {
     var url = "api/plugins/download?plugin=" + key;
     ServerApiHelper.consumeTimed(
-      () -> get(url, cancelMonitor),
+      () -> helper.isSonarCloud() ? helper.getAnonymousStreaming(url, cancelMonitor) : helper.getStreaming(url, cancelMonitor),
       response -> pluginFileConsumer.accept(response.bodyAsStream()),
       duration -> LOG.info("Downloaded '{}' in {}ms", key, duration));
   }
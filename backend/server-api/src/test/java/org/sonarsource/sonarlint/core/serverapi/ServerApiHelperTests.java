@@ -19,14 +19,25 @@
  */
 package org.sonarsource.sonarlint.core.serverapi;
 
+import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+import mockwebserver3.MockResponse;
+import okio.Buffer;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+import org.sonarsource.sonarlint.core.commons.progress.SonarLintCancelMonitor;
 import org.sonarsource.sonarlint.core.http.HttpClient;
 import org.sonarsource.sonarlint.core.serverapi.exception.ForbiddenException;
 import org.sonarsource.sonarlint.core.serverapi.exception.NotFoundException;
 import org.sonarsource.sonarlint.core.serverapi.exception.ServerErrorException;
 import org.sonarsource.sonarlint.core.serverapi.exception.TooManyRequestsException;
 import org.sonarsource.sonarlint.core.serverapi.exception.UnauthorizedException;
+import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Common;
+import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Components;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -34,6 +45,12 @@ import static org.mockito.Mockito.when;
 
 class ServerApiHelperTests {
 
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  @RegisterExtension
+  static MockWebServerExtensionWithProtobuf mockServer = new MockWebServerExtensionWithProtobuf();
+
   @Test
   void concat_should_handle_base_url_with_trailing_slash() {
     var result = ServerApiHelper.concat("http://localhost:9000/", "/api/test");
@@ -148,4 +165,63 @@ class ServerApiHelperTests {
       .hasMessageContaining("Error 400 on http://localhost:9000/api/test");
   }
 
-} 
+  @Test
+  void getPaginated_should_consume_prefetched_pages_in_order() {
+    mockComponentPages(2000);
+    var keys = new ArrayList<String>();
+
+    getAllComponentKeys(keys, false);
+
+    assertThat(keys).containsExactlyElementsOf(IntStream.range(0, 2000).mapToObj(i -> "key" + i).toList());
+    assertThat(mockServer.getRequestCount()).isEqualTo(4);
+  }
+
+  @Test
+  void getPaginated_should_not_prefetch_pages_beyond_the_limit() {
+    mockComponentPages(ServerApiHelper.PAGE_SIZE * (ServerApiHelper.MAX_PAGES + 5));
+    var keys = new ArrayList<String>();
+
+    getAllComponentKeys(keys, true);
+
+    assertThat(keys).hasSize(ServerApiHelper.PAGE_SIZE * ServerApiHelper.MAX_PAGES);
+    assertThat(mockServer.getRequestCount()).isEqualTo(ServerApiHelper.MAX_PAGES);
+  }
+
+  @Test
+  void getPaginated_should_request_pages_concurrently() {
+    var total = 10_000;
+    mockComponentPages(total);
+    mockServer.setDispatchLatency(Duration.ofMillis(100));
+    var keys = new ArrayList<String>();
+
+    getAllComponentKeys(keys, false);
+
+    assertThat(keys).hasSize(total);
+    assertThat(mockServer.getMaxInFlightRequests()).isBetween(2, ServerApiHelper.MAX_PREFETCHED_PAGES);
+  }
+
+  private static void getAllComponentKeys(ArrayList<String> keys, boolean limitToTwentyPages) {
+    mockServer.serverApiHelper().getPaginated("api/components/search.protobuf",
+      Components.SearchWsResponse::parseFrom,
+      r -> r.getPaging().getTotal(),
+      Components.SearchWsResponse::getComponentsList,
+      component -> keys.add(component.getKey()), limitToTwentyPages, new SonarLintCancelMonitor());
+  }
+
+  private static void mockComponentPages(int total) {
+    var pagesCount = (total + ServerApiHelper.PAGE_SIZE - 1) / ServerApiHelper.PAGE_SIZE;
+    for (var page = 1; page <= pagesCount; page++) {
+      var response = Components.SearchWsResponse.newBuilder().setPaging(Common.Paging.newBuilder().setTotal(total));
+      IntStream.range((page - 1) * ServerApiHelper.PAGE_SIZE, Math.min(page * ServerApiHelper.PAGE_SIZE, total))
+        .forEach(i -> response.addComponents(Components.Component.newBuilder().setKey("key" + i)));
+      try (var buffer = new Buffer()) {
+        response.build().writeTo(buffer.outputStream());
+        mockServer.addResponse("/api/components/search.protobuf?ps=500&p=" + page,
+          new MockResponse.Builder().body(buffer).build());
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+}
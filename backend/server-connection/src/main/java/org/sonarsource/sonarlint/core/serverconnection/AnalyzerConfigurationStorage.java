@@ -19,8 +19,11 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
@@ -40,6 +43,10 @@ public class AnalyzerConfigurationStorage {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
   private final RWLock rwLock = new RWLock();
   private final Path storageFilePath;
+  /**
+   * Last configuration read or written, along with the attributes of the file at that time, so that it is parsed again only if the file changed
+   */
+  private volatile CachedConfiguration cachedConfiguration;
 
   public AnalyzerConfigurationStorage(Path projectStorageRoot) {
     this.storageFilePath = projectStorageRoot.resolve("analyzer_config.pb");
@@ -57,7 +64,7 @@ public class AnalyzerConfigurationStorage {
     FileUtils.mkdirs(storageFilePath.getParent());
     var data = adapt(analyzerConfiguration);
     LOG.debug("Storing project analyzer configuration in {}", storageFilePath);
-    rwLock.write(() -> writeToFile(data, storageFilePath));
+    rwLock.write(() -> write(data));
     LOG.debug("Stored project analyzer configuration");
   }
 
@@ -71,7 +78,16 @@ public class AnalyzerConfigurationStorage {
   }
 
   public AnalyzerConfiguration read() {
-    return adapt(rwLock.read(() -> readConfiguration(storageFilePath)));
+    return rwLock.read(() -> {
+      var fileAttributes = readAttributes(storageFilePath);
+      var cached = cachedConfiguration;
+      if (cached != null && cached.matches(fileAttributes)) {
+        return cached.configuration;
+      }
+      var configuration = adapt(readConfiguration(storageFilePath));
+      cachedConfiguration = new CachedConfiguration(fileAttributes, configuration);
+      return configuration;
+    });
   }
 
   public void update(UnaryOperator<AnalyzerConfiguration> updater) {
@@ -84,11 +100,25 @@ public class AnalyzerConfigurationStorage {
         LOG.warn("Unable to read storage. Creating a new one.", e);
         config = Sonarlint.AnalyzerConfiguration.newBuilder().build();
       }
-      writeToFile(adapt(updater.apply(adapt(config))), storageFilePath);
+      write(adapt(updater.apply(adapt(config))));
       LOG.debug("Storing project data in {}", storageFilePath);
     });
   }
 
+  private void write(Sonarlint.AnalyzerConfiguration data) {
+    cachedConfiguration = null;
+    writeToFile(data, storageFilePath);
+    cachedConfiguration = new CachedConfiguration(readAttributes(storageFilePath), adapt(data));
+  }
+
+  private static BasicFileAttributes readAttributes(Path file) {
+    try {
+      return Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (IOException e) {
+      throw new StorageException("Failed to read file: " + file, e);
+    }
+  }
+
   private static Sonarlint.AnalyzerConfiguration readConfiguration(Path projectFilePath) {
     return ProtobufFileUtil.readFile(projectFilePath, Sonarlint.AnalyzerConfiguration.parser());
   }
@@ -96,7 +126,7 @@ public class AnalyzerConfigurationStorage {
   private static AnalyzerConfiguration adapt(Sonarlint.AnalyzerConfiguration analyzerConfiguration) {
     return new AnalyzerConfiguration(
       new Settings(analyzerConfiguration.getSettingsMap()),
-      analyzerConfiguration.getRuleSetsByLanguageKeyMap().entrySet().stream().collect(Collectors.toMap(
+      analyzerConfiguration.getRuleSetsByLanguageKeyMap().entrySet().stream().collect(Collectors.toUnmodifiableMap(
         Map.Entry::getKey,
         e -> adapt(e.getValue()))),
       analyzerConfiguration.getSchemaVersion());
@@ -148,4 +178,20 @@ public class AnalyzerConfigurationStorage {
         .toList())
       .build();
   }
+
+  private static class CachedConfiguration {
+    private final FileTime lastModifiedTime;
+    private final long size;
+    private final AnalyzerConfiguration configuration;
+
+    private CachedConfiguration(BasicFileAttributes fileAttributes, AnalyzerConfiguration configuration) {
+      this.lastModifiedTime = fileAttributes.lastModifiedTime();
+      this.size = fileAttributes.size();
+      this.configuration = configuration;
+    }
+
+    private boolean matches(BasicFileAttributes fileAttributes) {
+      return lastModifiedTime.equals(fileAttributes.lastModifiedTime()) && size == fileAttributes.size();
+    }
+  }
 }
@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,20 +47,30 @@ import org.sonarsource.sonarlint.core.serverconnection.issues.LineLevelServerIss
 import org.sonarsource.sonarlint.core.serverconnection.issues.RangeLevelServerIssue;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerIssue;
 
-import static java.util.function.Predicate.not;
 import static org.sonarsource.sonarlint.core.serverconnection.DownloaderUtils.parseProtoImpactSeverity;
 import static org.sonarsource.sonarlint.core.serverconnection.DownloaderUtils.parseProtoSoftwareQuality;
 
 public class IssueDownloader {
 
+  /**
+   * Number of pulled issues (changed or closed) handed to the store in a single transaction
+   */
+  static final int PULL_BATCH_SIZE = 1_000;
+
   private final Set<SonarLanguage> enabledLanguages;
+  private final int pullBatchSize;
 
   public Set<SonarLanguage> getEnabledLanguages() {
     return enabledLanguages;
   }
 
   public IssueDownloader(Set<SonarLanguage> enabledLanguages) {
+    this(enabledLanguages, PULL_BATCH_SIZE);
+  }
+
+  IssueDownloader(Set<SonarLanguage> enabledLanguages, int pullBatchSize) {
     this.enabledLanguages = enabledLanguages;
+    this.pullBatchSize = pullBatchSize;
   }
 
   /**
@@ -96,26 +107,31 @@ public class IssueDownloader {
    * @return List of issues. It can be empty but never null.
    */
   public PullResult downloadFromPull(ServerApi serverApi, String projectKey, String branchName, Optional<Instant> lastSync, SonarLintCancelMonitor cancelMonitor) {
-    var issueApi = serverApi.issue();
-
-    var apiResult = issueApi.pullIssues(projectKey, branchName, enabledLanguages, lastSync.map(Instant::toEpochMilli).orElse(null), cancelMonitor);
-    // Ignore project level issues
-    List<ServerIssue<?>> changedIssues = apiResult.getIssues()
-      .stream()
-      // Ignore project level issues
-      .filter(i -> i.getMainLocation().hasFilePath())
-      .filter(not(IssueLite::getClosed))
-      .map(IssueDownloader::convertLiteIssue)
-      .collect(Collectors.toList());
-    var closedIssueKeys = apiResult.getIssues()
-      .stream()
-      // Ignore project level issues
-      .filter(i -> i.getMainLocation().hasFilePath())
-      .filter(IssueLite::getClosed)
-      .map(IssueLite::getKey)
-      .collect(Collectors.toSet());
+    List<ServerIssue<?>> changedIssues = new ArrayList<>();
+    Set<String> closedIssueKeys = new HashSet<>();
+    var queryTimestamp = downloadFromPull(serverApi, projectKey, branchName, lastSync, (changed, closed) -> {
+      changedIssues.addAll(changed);
+      closedIssueKeys.addAll(closed);
+    }, cancelMonitor);
+    return new PullResult(queryTimestamp, changedIssues, closedIssueKeys);
+  }
 
-    return new PullResult(Instant.ofEpochMilli(apiResult.getTimestamp().getQueryTimestamp()), changedIssues, closedIssueKeys);
+  /**
+   * Fetch all issues of the project with specified key, using new SQ 9.6 api/issues/pull, and hand them to the consumer in batches while the
+   * response is being parsed. At most {@link #PULL_BATCH_SIZE} changed or closed issues are held in memory at any time.
+   *
+   * @param projectKey     project key
+   * @param branchName     name of the branch.
+   * @param batchConsumer  called for each batch of changed issues and closed issue keys, in the order sent by the server
+   * @return the query timestamp, to be used as the last sync once all batches have been consumed
+   */
+  public Instant downloadFromPull(ServerApi serverApi, String projectKey, String branchName, Optional<Instant> lastSync, PullBatchConsumer batchConsumer,
+    SonarLintCancelMonitor cancelMonitor) {
+    var issueApi = serverApi.issue();
+    var batch = new PullBatch(pullBatchSize, batchConsumer, cancelMonitor);
+    var timestamp = issueApi.pullIssues(projectKey, branchName, enabledLanguages, lastSync.map(Instant::toEpochMilli).orElse(null), batch::add, cancelMonitor);
+    batch.flush();
+    return Instant.ofEpochMilli(timestamp.getQueryTimestamp());
   }
 
   private static ServerIssue<?> convertBatchIssue(ScannerInput.ServerIssue batchIssueFromWs) {
@@ -161,6 +177,50 @@ public class IssueDownloader {
     return new TextRangeWithHash(textRange.getStartLine(), textRange.getStartLineOffset(), textRange.getEndLine(), textRange.getEndLineOffset(), textRange.getHash());
   }
 
+  @FunctionalInterface
+  public interface PullBatchConsumer {
+    void accept(List<ServerIssue<?>> changedIssues, Set<String> closedIssueKeys);
+  }
+
+  private static class PullBatch {
+    private final int maxSize;
+    private final PullBatchConsumer consumer;
+    private final SonarLintCancelMonitor cancelMonitor;
+    private List<ServerIssue<?>> changedIssues = new ArrayList<>();
+    private Set<String> closedIssueKeys = new HashSet<>();
+
+    private PullBatch(int maxSize, PullBatchConsumer consumer, SonarLintCancelMonitor cancelMonitor) {
+      this.maxSize = maxSize;
+      this.consumer = consumer;
+      this.cancelMonitor = cancelMonitor;
+    }
+
+    private void add(IssueLite liteIssue) {
+      // Ignore project level issues
+      if (!liteIssue.getMainLocation().hasFilePath()) {
+        return;
+      }
+      if (liteIssue.getClosed()) {
+        closedIssueKeys.add(liteIssue.getKey());
+      } else {
+        changedIssues.add(convertLiteIssue(liteIssue));
+      }
+      if (changedIssues.size() + closedIssueKeys.size() >= maxSize) {
+        flush();
+      }
+    }
+
+    private void flush() {
+      cancelMonitor.checkCanceled();
+      if (changedIssues.isEmpty() && closedIssueKeys.isEmpty()) {
+        return;
+      }
+      consumer.accept(changedIssues, closedIssueKeys);
+      changedIssues = new ArrayList<>();
+      closedIssueKeys = new HashSet<>();
+    }
+  }
+
   public static class PullResult {
     private final Instant queryTimestamp;
     private final List<ServerIssue<?>> changedIssues;
@@ -62,9 +62,12 @@ public class ServerIssueUpdater {
 
     lastSync = computeLastSync(enabledLanguages, lastSync, storage.project(projectKey).findings().getLastIssueEnabledLanguages(branchName));
 
-    var result = issueDownloader.downloadFromPull(serverApi, projectKey, branchName, lastSync, cancelMonitor);
-    storage.project(projectKey).findings().mergeIssues(branchName, result.getChangedIssues(), result.getClosedIssueKeys(),
-      result.getQueryTimestamp(), enabledLanguages);
+    var findings = storage.project(projectKey).findings();
+    // Batches are committed as they are pulled. The last sync is only moved once all of them are stored, so an interrupted sync is retried from
+    // the previous timestamp and merged again
+    var queryTimestamp = issueDownloader.downloadFromPull(serverApi, projectKey, branchName, lastSync,
+      (changedIssues, closedIssueKeys) -> findings.mergeIssues(branchName, changedIssues, closedIssueKeys), cancelMonitor);
+    findings.updateLastIssueSync(branchName, queryTimestamp, enabledLanguages);
   }
 
   public UpdateSummary<ServerTaintIssue> syncTaints(ServerApi serverApi, String projectKey, String branchName, Set<SonarLanguage> enabledLanguages,
@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -66,6 +67,17 @@ public interface ProjectServerIssueStore {
    */
   void mergeIssues(String branchName, List<ServerIssue<?>> issuesToMerge, Set<String> closedIssueKeysToDelete, Instant syncTimestamp, Set<SonarLanguage> enabledLanguages);
 
+  /**
+   * Merge a batch of provided issues to stored ones for the given project, in its own transaction, without updating the last sync timestamp.
+   * Used to ingest a pull response in bounded chunks, see {@link #updateLastIssueSync(String, Instant, Set)}.
+   */
+  void mergeIssues(String branchName, List<ServerIssue<?>> issuesToMerge, Set<String> closedIssueKeysToDelete);
+
+  /**
+   * Record that all the issues pulled at the given time have been merged.
+   */
+  void updateLastIssueSync(String branchName, Instant syncTimestamp, Set<SonarLanguage> enabledLanguages);
+
   /**
    * Merge provided taint issues to stored ones for the given project:
    *  - new issues are added
@@ -128,6 +140,14 @@ public interface ProjectServerIssueStore {
    */
   List<ServerIssue<?>> load(String branchName, Path sqFilePath);
 
+  /**
+   * Load issues stored for several files at once.
+   *
+   * @param sqFilePaths the relative paths to the base of project, in SonarQube
+   * @return issues by file path, with an empty list for files without issues
+   */
+  Map<Path, List<ServerIssue<?>>> loadForFiles(String branchName, Collection<Path> sqFilePaths);
+
   /**
    * Store taint issues for a branch.
    */
@@ -141,6 +161,14 @@ public interface ProjectServerIssueStore {
    */
   Collection<ServerHotspot> loadHotspots(String branchName, Path serverFilePath);
 
+  /**
+   * Load hotspots stored for several files at once.
+   *
+   * @param serverFilePaths the relative paths to the base of project, from the server point of view
+   * @return hotspots by file path, with an empty list for files without hotspots
+   */
+  Map<Path, List<ServerHotspot>> loadHotspotsForFiles(String branchName, Collection<Path> serverFilePaths);
+
   /**
    * Load all taint issues stored for a branch.
    *
@@ -22,8 +22,10 @@ package org.sonarsource.sonarlint.core.serverconnection.storage;
 import com.google.protobuf.Message;
 import com.google.protobuf.Parser;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 public class ProtobufFileUtil {
   private ProtobufFileUtil() {
@@ -38,12 +40,40 @@ public class ProtobufFileUtil {
     }
   }
 
+  /**
+   * Write to a temporary file that then replaces the target, so that concurrent readers never see a partially written file.
+   */
   public static void writeToFile(Message message, Path toFile) {
-    try (var out = Files.newOutputStream(toFile)) {
-      message.writeTo(out);
-      out.flush();
+    Path tempFile = null;
+    try {
+      tempFile = Files.createTempFile(toFile.toAbsolutePath().getParent(), toFile.getFileName().toString(), ".tmp");
+      try (var out = Files.newOutputStream(tempFile)) {
+        message.writeTo(out);
+        out.flush();
+      }
+      moveReplacing(tempFile, toFile);
     } catch (IOException e) {
       throw new StorageException("Unable to write protocol buffer data to file " + toFile, e);
+    } finally {
+      if (tempFile != null) {
+        deleteQuietly(tempFile);
+      }
+    }
+  }
+
+  private static void moveReplacing(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // ignore, the temporary file has most likely been moved already
     }
   }
 }
@@ -23,13 +23,12 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,13 +42,8 @@ import java.util.stream.StreamSupport;
 import jetbrains.exodus.entitystore.Entity;
 import jetbrains.exodus.entitystore.EntityIterable;
 import jetbrains.exodus.entitystore.PersistentEntityStore;
-import jetbrains.exodus.entitystore.PersistentEntityStores;
 import jetbrains.exodus.entitystore.StoreTransaction;
 import jetbrains.exodus.entitystore.StoreTransactionalExecutable;
-import jetbrains.exodus.env.EnvironmentConfig;
-import jetbrains.exodus.env.Environments;
-import jetbrains.exodus.util.CompressBackupUtil;
-import org.apache.commons.io.FileUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.sonarsource.sonarlint.core.commons.CleanCodeAttribute;
@@ -79,12 +73,11 @@ import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint.TextRange
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
-import static org.sonarsource.sonarlint.core.commons.storage.XodusPurgeUtils.purgeOldTemporaryFiles;
 import static org.sonarsource.sonarlint.core.serverconnection.storage.StorageUtils.deserializeLanguages;
 
 public class XodusServerIssueStore implements ProjectServerIssueStore {
 
-  static final int CURRENT_SCHEMA_VERSION = 2;
+  static final int CURRENT_SCHEMA_VERSION = 3;
 
   private static final String BACKUP_TAR_GZ = "backup.tar.gz";
 
@@ -95,7 +88,6 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
 
   private static final String SERVER_ISSUE_STORE = "xodus-issue-store";
-  private static final Integer PURGE_NUMBER_OF_DAYS = 3;
   private static final String BRANCH_ENTITY_TYPE = "Branch";
   private static final String FILE_ENTITY_TYPE = "File";
   private static final String ISSUE_ENTITY_TYPE = "Issue";
@@ -132,6 +124,10 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
   private static final String VULNERABILITY_PROBABILITY_PROPERTY_NAME = "vulnerabilityProbability";
   private static final String TYPE_PROPERTY_NAME = "type";
   private static final String PATH_PROPERTY_NAME = "path";
+  /**
+   * Branch name and path of a file, indexed by Xodus like any property, so that a file is found without going through all the files of its branch
+   */
+  private static final String BRANCH_FILE_KEY_PROPERTY_NAME = "branchFileKey";
   private static final String NAME_PROPERTY_NAME = "name";
   private static final String LAST_ISSUE_SYNC_PROPERTY_NAME = "lastIssueSync";
   private static final String LAST_ISSUE_ENABLED_LANGUAGES = "lastIssueEnabledLanguages";
@@ -154,29 +150,15 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
   private static final String TRANSITIONS_PROPERTY_NAME = "transitions";
   private static final String STATUS_PROPERTY_NAME = "status";
   private final PersistentEntityStore entityStore;
-
-  private final Path backupFile;
-
-  private final Path xodusDbDir;
+  private final XodusStoreDirectory directory;
 
   public XodusServerIssueStore(Path backupDir, Path workDir) throws IOException {
     this(backupDir, workDir, XodusServerIssueStore::migrate);
   }
 
   XodusServerIssueStore(Path backupDir, Path workDir, StoreTransactionalExecutable afterInit) throws IOException {
-    xodusDbDir = Files.createTempDirectory(workDir, SERVER_ISSUE_STORE);
-    purgeOldTemporaryFiles(workDir, PURGE_NUMBER_OF_DAYS, SERVER_ISSUE_STORE + "*");
-    backupFile = backupDir.resolve(BACKUP_TAR_GZ);
-    if (Files.isRegularFile(backupFile)) {
-      LOG.debug("Restoring previous server issue database from {}", backupFile);
-      try {
-        TarGzUtils.extractTarGz(backupFile, xodusDbDir);
-      } catch (Exception e) {
-        LOG.error("Unable to restore backup {}", backupFile);
-      }
-    }
-    LOG.debug("Starting server issue database from {}", xodusDbDir);
-    this.entityStore = buildEntityStore();
+    directory = XodusStoreDirectory.open(backupDir, BACKUP_TAR_GZ, workDir, SERVER_ISSUE_STORE, "server issue");
+    this.entityStore = directory.openEntityStore();
     entityStore.executeInTransaction(txn -> {
       entityStore.registerCustomPropertyType(txn, IssueSeverity.class, new IssueSeverityBinding());
       entityStore.registerCustomPropertyType(txn, RuleType.class, new IssueTypeBinding());
@@ -188,16 +170,6 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
     entityStore.executeInExclusiveTransaction(afterInit);
   }
 
-  private PersistentEntityStore buildEntityStore() {
-    var environment = Environments.newInstance(xodusDbDir.toAbsolutePath().toFile(), new EnvironmentConfig()
-      .setLogAllowRemote(true)
-      .setLogAllowRemovable(true)
-      .setLogAllowRamDisk(true));
-    var entityStoreImpl = PersistentEntityStores.newInstance(environment);
-    entityStoreImpl.setCloseEnvironment(true);
-    return entityStoreImpl;
-  }
-
   private static ServerIssue adapt(Entity storedIssue) {
     var filePath = (String) requireNonNull(storedIssue.getLink(ISSUE_TO_FILE_LINK_NAME).getProperty(PATH_PROPERTY_NAME));
     var startLine = storedIssue.getProperty(START_LINE_PROPERTY_NAME);
@@ -335,15 +307,35 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
     return loadIssue(branchName, serverFilePath, FILE_TO_HOTSPOTS_LINK_NAME, XodusServerIssueStore::adaptHotspot);
   }
 
+  @Override
+  public Map<Path, List<ServerIssue<?>>> loadForFiles(String branchName, Collection<Path> filePaths) {
+    return loadIssues(branchName, filePaths, FILE_TO_ISSUES_LINK_NAME, XodusServerIssueStore::adapt);
+  }
+
+  @Override
+  public Map<Path, List<ServerHotspot>> loadHotspotsForFiles(String branchName, Collection<Path> serverFilePaths) {
+    return loadIssues(branchName, serverFilePaths, FILE_TO_HOTSPOTS_LINK_NAME, XodusServerIssueStore::adaptHotspot);
+  }
+
   private <G> List<G> loadIssue(String branchName, Path filePath, String linkName, Function<Entity, G> adapter) {
-    return entityStore.computeInReadonlyTransaction(txn -> findUnique(txn, BRANCH_ENTITY_TYPE, NAME_PROPERTY_NAME, branchName)
-      .map(branch -> branch.getLinks(BRANCH_TO_FILES_LINK_NAME))
-      .flatMap(files -> findUniqueAmong(files, PATH_PROPERTY_NAME, filePath.toString()))
+    return entityStore.computeInReadonlyTransaction(txn -> loadIssue(txn, branchName, filePath, linkName, adapter));
+  }
+
+  private <G> Map<Path, List<G>> loadIssues(String branchName, Collection<Path> filePaths, String linkName, Function<Entity, G> adapter) {
+    return entityStore.computeInReadonlyTransaction(txn -> {
+      var issuesByFilePath = new HashMap<Path, List<G>>();
+      filePaths.forEach(filePath -> issuesByFilePath.put(filePath, loadIssue(txn, branchName, filePath, linkName, adapter)));
+      return issuesByFilePath;
+    });
+  }
+
+  private static <G> List<G> loadIssue(StoreTransaction txn, String branchName, Path filePath, String linkName, Function<Entity, G> adapter) {
+    return findUnique(txn, FILE_ENTITY_TYPE, BRANCH_FILE_KEY_PROPERTY_NAME, branchFileKey(branchName, filePath))
       .map(fileToLoad -> fileToLoad.getLinks(linkName))
       .map(issueEntities -> StreamSupport.stream(issueEntities.spliterator(), false)
         .map(adapter)
         .toList())
-      .orElseGet(Collections::emptyList));
+      .orElseGet(Collections::emptyList);
   }
 
   @Override
@@ -366,22 +358,41 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
 
   @Override
   public void mergeIssues(String branchName, List<ServerIssue<?>> issuesToMerge, Set<String> closedIssueKeysToDelete, Instant syncTimestamp, Set<SonarLanguage> enabledLanguages) {
-    var issuesByFilePath = issuesToMerge.stream().collect(Collectors.groupingBy(ServerIssue::getFilePath));
     timed(mergedMessage(issuesToMerge.size(), closedIssueKeysToDelete.size(), ISSUES), () -> entityStore.executeInTransaction(txn -> {
-      var branch = getOrCreateBranch(branchName, txn);
-      issuesByFilePath.forEach((filePath, issues) -> {
-        var fileEntity = getOrCreateFile(branch, filePath, txn);
-        issues.forEach(issue -> updateOrCreateIssue(fileEntity, issue, txn));
-        txn.flush();
-      });
-      closedIssueKeysToDelete.forEach(issueKey -> remove(issueKey, txn));
-      branch.setProperty(LAST_ISSUE_SYNC_PROPERTY_NAME, syncTimestamp);
-
-      String serializedLanguages = getSerializedLanguages(enabledLanguages);
-      branch.setProperty(LAST_ISSUE_ENABLED_LANGUAGES, serializedLanguages);
+      var branch = mergeIssues(branchName, issuesToMerge, closedIssueKeysToDelete, txn);
+      setLastIssueSync(branch, syncTimestamp, enabledLanguages);
     }));
   }
 
+  @Override
+  public void mergeIssues(String branchName, List<ServerIssue<?>> issuesToMerge, Set<String> closedIssueKeysToDelete) {
+    entityStore.executeInTransaction(txn -> mergeIssues(branchName, issuesToMerge, closedIssueKeysToDelete, txn));
+  }
+
+  @Override
+  public void updateLastIssueSync(String branchName, Instant syncTimestamp, Set<SonarLanguage> enabledLanguages) {
+    entityStore.executeInTransaction(txn -> setLastIssueSync(getOrCreateBranch(branchName, txn), syncTimestamp, enabledLanguages));
+  }
+
+  private static Entity mergeIssues(String branchName, List<ServerIssue<?>> issuesToMerge, Set<String> closedIssueKeysToDelete, StoreTransaction txn) {
+    var issuesByFilePath = issuesToMerge.stream().collect(Collectors.groupingBy(ServerIssue::getFilePath));
+    var branch = getOrCreateBranch(branchName, txn);
+    issuesByFilePath.forEach((filePath, issues) -> {
+      var fileEntity = getOrCreateFile(branch, filePath, txn);
+      issues.forEach(issue -> updateOrCreateIssue(fileEntity, issue, txn));
+      txn.flush();
+    });
+    closedIssueKeysToDelete.forEach(issueKey -> remove(issueKey, txn));
+    return branch;
+  }
+
+  private static void setLastIssueSync(Entity branch, Instant syncTimestamp, Set<SonarLanguage> enabledLanguages) {
+    branch.setProperty(LAST_ISSUE_SYNC_PROPERTY_NAME, syncTimestamp);
+
+    String serializedLanguages = getSerializedLanguages(enabledLanguages);
+    branch.setProperty(LAST_ISSUE_ENABLED_LANGUAGES, serializedLanguages);
+  }
+
   @Override
   public void mergeTaintIssues(String branchName, List<ServerTaintIssue> issuesToMerge, Set<String> closedIssueKeysToDelete,
     Instant syncTimestamp, Set<SonarLanguage> enabledLanguages) {
@@ -633,15 +644,22 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
   }
 
   private static Entity getOrCreateFile(Entity branchEntity, Path filePath, StoreTransaction txn) {
-    return findUniqueAmong(branchEntity.getLinks(BRANCH_TO_FILES_LINK_NAME), PATH_PROPERTY_NAME, filePath.toString())
+    var branchFileKey = branchFileKey((String) requireNonNull(branchEntity.getProperty(NAME_PROPERTY_NAME)), filePath);
+    return findUnique(txn, FILE_ENTITY_TYPE, BRANCH_FILE_KEY_PROPERTY_NAME, branchFileKey)
       .orElseGet(() -> {
         var file = txn.newEntity(FILE_ENTITY_TYPE);
         file.setProperty(PATH_PROPERTY_NAME, filePath.toString());
+        file.setProperty(BRANCH_FILE_KEY_PROPERTY_NAME, branchFileKey);
         branchEntity.addLink(BRANCH_TO_FILES_LINK_NAME, file);
         return file;
       });
   }
 
+  private static String branchFileKey(String branchName, Path filePath) {
+    // neither branch names nor paths can contain a NUL character
+    return branchName + '\0' + filePath;
+  }
+
   private static void updateOrCreateIssue(Entity fileEntity, ServerIssue issue, StoreTransaction transaction) {
     var issueEntity = updateOrCreateIssueCommon(fileEntity, issue.getKey(), transaction, ISSUE_ENTITY_TYPE, FILE_TO_ISSUES_LINK_NAME);
     updateIssueEntity(issueEntity, issue);
@@ -983,9 +1001,7 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
 
   @Override
   public void close() {
-    backup();
-    entityStore.close();
-    FileUtils.deleteQuietly(xodusDbDir.toFile());
+    directory.close(entityStore);
   }
 
   @Override
@@ -999,13 +1015,7 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
   }
 
   public void backup() {
-    LOG.debug("Creating backup of server issue database in {}", backupFile);
-    try {
-      var backupTmp = CompressBackupUtil.backup(entityStore, backupFile.getParent().toFile(), "backup", false);
-      Files.move(backupTmp.toPath(), backupFile, StandardCopyOption.ATOMIC_MOVE);
-    } catch (Exception e) {
-      LOG.error("Unable to backup server issue database", e);
-    }
+    directory.backup(entityStore);
   }
 
   private static Flow toJavaFlow(Sonarlint.Flow flowProto) {
@@ -1063,10 +1073,19 @@ public class XodusServerIssueStore implements ProjectServerIssueStore {
       // Migrate v0 to v1: force re-sync of taint vulnerabilities
       txn.getAll(BRANCH_ENTITY_TYPE).forEach(b -> b.setProperty(LAST_TAINT_SYNC_PROPERTY_NAME, Instant.EPOCH));
     }
-    if (currentSchemaVersion < CURRENT_SCHEMA_VERSION) {
+    if (currentSchemaVersion < 2) {
       // Migrate v1 to v2: assign a UUID to each taint
       txn.getAll(TAINT_ISSUE_ENTITY_TYPE).forEach(entity -> entity.setProperty(ID_PROPERTY_NAME, UUID.randomUUID()));
-
+    }
+    if (currentSchemaVersion < 3) {
+      // Migrate v2 to v3: index files by branch and path
+      txn.getAll(BRANCH_ENTITY_TYPE).forEach(branch -> {
+        var branchName = (String) requireNonNull(branch.getProperty(NAME_PROPERTY_NAME));
+        branch.getLinks(BRANCH_TO_FILES_LINK_NAME)
+          .forEach(file -> file.setProperty(BRANCH_FILE_KEY_PROPERTY_NAME, branchFileKey(branchName, Path.of((String) requireNonNull(file.getProperty(PATH_PROPERTY_NAME))))));
+      });
+    }
+    if (currentSchemaVersion < CURRENT_SCHEMA_VERSION) {
       // Set schema version to current after migration(s)
       txn.getAll(SCHEMA_ENTITY_TYPE).forEach(Entity::delete);
       var newSchema = txn.newEntity(SCHEMA_ENTITY_TYPE);
@@ -0,0 +1,220 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import jetbrains.exodus.entitystore.PersistentEntityStore;
+import jetbrains.exodus.entitystore.PersistentEntityStores;
+import jetbrains.exodus.env.EnvironmentConfig;
+import jetbrains.exodus.env.Environments;
+import jetbrains.exodus.util.CompressBackupUtil;
+import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.Nullable;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+
+import static org.sonarsource.sonarlint.core.commons.storage.XodusPurgeUtils.purgeOldTemporaryFiles;
+
+/**
+ * Directory in which a Xodus entity store lives, and the tar.gz backup it is restored from.
+ * <p>
+ * By default, the database is extracted into a temporary directory of the work dir when opened, and compressed back into the backup when closed.
+ * When the {@value #IN_PLACE_PROPERTY} system property is set to {@code true}, the database is instead opened in place next to its backup, guarded by
+ * a lock file. It is then only compressed into the backup when the previous snapshot is older than {@link #SNAPSHOT_INTERVAL}. If the lock is held by
+ * another process, a temporary copy of the last snapshot is used. This copy is detached: it can be older than the locked database, and it is never
+ * written back, so that it does not override the snapshots of the process holding the lock.
+ */
+public class XodusStoreDirectory {
+
+  public static final String IN_PLACE_PROPERTY = "sonarlint.internal.storage.inPlace";
+  static final Duration SNAPSHOT_INTERVAL = Duration.ofHours(24);
+  private static final Integer PURGE_NUMBER_OF_DAYS = 3;
+  private static final String TAR_GZ_EXTENSION = ".tar.gz";
+  private static final String LOCK_FILE_EXTENSION = ".lock";
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+
+  private final String description;
+  private final Path dbDir;
+  private final Path backupFile;
+  @Nullable
+  private final FileChannel lockChannel;
+  private final boolean detached;
+
+  private XodusStoreDirectory(String description, Path dbDir, Path backupFile, @Nullable FileChannel lockChannel, boolean detached) {
+    this.description = description;
+    this.dbDir = dbDir;
+    this.backupFile = backupFile;
+    this.lockChannel = lockChannel;
+    this.detached = detached;
+  }
+
+  /**
+   * @param backupDir      where the backup, and the database when opened in place, are stored
+   * @param backupFileName name of the tar.gz backup
+   * @param workDir        where temporary copies of the database are extracted
+   * @param storeName      name of the in place database directory, and prefix of the temporary copies
+   * @param description    name of the database in logs
+   */
+  public static XodusStoreDirectory open(Path backupDir, String backupFileName, Path workDir, String storeName, String description) throws IOException {
+    return open(backupDir, backupFileName, workDir, storeName, description, Boolean.parseBoolean(System.getProperty(IN_PLACE_PROPERTY)));
+  }
+
+  static XodusStoreDirectory open(Path backupDir, String backupFileName, Path workDir, String storeName, String description, boolean inPlace) throws IOException {
+    purgeOldTemporaryFiles(workDir, PURGE_NUMBER_OF_DAYS, storeName + "*");
+    var backupFile = backupDir.resolve(backupFileName);
+    if (inPlace) {
+      Files.createDirectories(backupDir);
+      var lockChannel = tryLock(backupDir.resolve(storeName + LOCK_FILE_EXTENSION));
+      if (lockChannel != null) {
+        var dbDir = backupDir.resolve(storeName);
+        var directory = new XodusStoreDirectory(description, dbDir, backupFile, lockChannel, false);
+        if (!Files.isDirectory(dbDir)) {
+          directory.restoreBackup();
+        }
+        return directory;
+      }
+      LOG.debug("The {} database in {} is used by another process, working on a temporary copy of its last snapshot, changes will not be kept",
+        description, backupDir);
+    }
+    var directory = new XodusStoreDirectory(description, Files.createTempDirectory(workDir, storeName), backupFile, null, inPlace);
+    directory.restoreBackup();
+    return directory;
+  }
+
+  @Nullable
+  private static FileChannel tryLock(Path lockFile) throws IOException {
+    var channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // already locked by this JVM
+      lock = null;
+    }
+    if (lock == null) {
+      channel.close();
+      return null;
+    }
+    return channel;
+  }
+
+  private void restoreBackup() throws IOException {
+    Files.createDirectories(dbDir);
+    if (Files.isRegularFile(backupFile)) {
+      LOG.debug("Restoring previous {} database from {}", description, backupFile);
+      try {
+        TarGzUtils.extractTarGz(backupFile, dbDir);
+      } catch (Exception e) {
+        LOG.error("Unable to restore backup {}", backupFile);
+      }
+    }
+  }
+
+  public Path getDbDir() {
+    return dbDir;
+  }
+
+  public boolean isInPlace() {
+    return lockChannel != null;
+  }
+
+  /**
+   * Open the entity store. Xodus replays its log after a crash, but if the in place database still cannot be opened, it is discarded and restored from
+   * the last backup.
+   */
+  public PersistentEntityStore openEntityStore() throws IOException {
+    LOG.debug("Starting {} database from {}", description, dbDir);
+    try {
+      return buildEntityStore();
+    } catch (RuntimeException e) {
+      if (!isInPlace()) {
+        throw e;
+      }
+      LOG.error("Unable to open " + description + " database from " + dbDir + ", restoring the last backup", e);
+      FileUtils.deleteQuietly(dbDir.toFile());
+      restoreBackup();
+      return buildEntityStore();
+    }
+  }
+
+  private PersistentEntityStore buildEntityStore() {
+    var environment = Environments.newInstance(dbDir.toAbsolutePath().toFile(), new EnvironmentConfig()
+      .setLogAllowRemote(true)
+      .setLogAllowRemovable(true)
+      .setLogAllowRamDisk(true));
+    var entityStoreImpl = PersistentEntityStores.newInstance(environment);
+    entityStoreImpl.setCloseEnvironment(true);
+    return entityStoreImpl;
+  }
+
+  public void backup(PersistentEntityStore entityStore) {
+    if (detached) {
+      LOG.debug("Not backing up the detached copy of {} database", description);
+      return;
+    }
+    LOG.debug("Creating backup of {} database in {}", description, backupFile);
+    try {
+      var backupTmp = CompressBackupUtil.backup(entityStore, backupFile.getParent().toFile(), backupFile.getFileName().toString().replace(TAR_GZ_EXTENSION, ""), false);
+      Files.move(backupTmp.toPath(), backupFile, StandardCopyOption.ATOMIC_MOVE);
+    } catch (Exception e) {
+      LOG.error("Unable to backup " + description + " database", e);
+    }
+  }
+
+  /**
+   * Close the entity store. A temporary copy is backed up, unless detached, then deleted, while an in place database is only backed up if the last
+   * snapshot is too old.
+   */
+  public void close(PersistentEntityStore entityStore) {
+    if (lockChannel == null) {
+      backup(entityStore);
+      entityStore.close();
+      FileUtils.deleteQuietly(dbDir.toFile());
+      return;
+    }
+    if (isSnapshotDue()) {
+      backup(entityStore);
+    }
+    entityStore.close();
+    try {
+      // closing the channel releases the lock
+      lockChannel.close();
+    } catch (IOException e) {
+      LOG.error("Unable to release the lock of " + description + " database", e);
+    }
+  }
+
+  private boolean isSnapshotDue() {
+    try {
+      return !Files.isRegularFile(backupFile) || Files.getLastModifiedTime(backupFile).toInstant().isBefore(Instant.now().minus(SNAPSHOT_INTERVAL));
+    } catch (IOException e) {
+      return true;
+    }
+  }
+
+}
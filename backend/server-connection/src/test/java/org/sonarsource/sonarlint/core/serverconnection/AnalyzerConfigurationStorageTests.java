@@ -19,7 +19,11 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
@@ -41,4 +45,34 @@ class AnalyzerConfigurationStorageTests {
     assertFalse(valid);
     assertThat(logTester.logs()).contains("Analyzer configuration storage doesn't exist: " + tempDir.toAbsolutePath().resolve("analyzer_config.pb"));
   }
+
+  @Test
+  void should_read_configuration_from_memory_until_it_changes(@TempDir Path tempDir) throws IOException {
+    var analyzerConfigurationStorage = new AnalyzerConfigurationStorage(tempDir);
+    analyzerConfigurationStorage.store(new AnalyzerConfiguration(new Settings(Map.of("key", "value")), Map.of(), AnalyzerConfiguration.CURRENT_SCHEMA_VERSION));
+
+    var configuration = analyzerConfigurationStorage.read();
+
+    assertThat(configuration.getSettings().getAll()).containsEntry("key", "value");
+    assertThat(analyzerConfigurationStorage.read()).isSameAs(configuration);
+
+    analyzerConfigurationStorage.update(current -> new AnalyzerConfiguration(new Settings(Map.of("key", "updated")), Map.of(), current.getSchemaVersion()));
+
+    assertThat(analyzerConfigurationStorage.read().getSettings().getAll()).containsEntry("key", "updated");
+  }
+
+  @Test
+  void should_read_configuration_again_when_changed_by_another_process(@TempDir Path tempDir) throws IOException {
+    var analyzerConfigurationStorage = new AnalyzerConfigurationStorage(tempDir);
+    analyzerConfigurationStorage.store(new AnalyzerConfiguration(new Settings(Map.of("key", "value")), Map.of(), AnalyzerConfiguration.CURRENT_SCHEMA_VERSION));
+    analyzerConfigurationStorage.read();
+    var storageFile = tempDir.resolve("analyzer_config.pb");
+    var lastModifiedTime = Files.getLastModifiedTime(storageFile);
+
+    new AnalyzerConfigurationStorage(tempDir)
+      .store(new AnalyzerConfiguration(new Settings(Map.of("key", "other value")), Map.of(), AnalyzerConfiguration.CURRENT_SCHEMA_VERSION));
+    Files.setLastModifiedTime(storageFile, FileTime.fromMillis(lastModifiedTime.toMillis() + 1000));
+
+    assertThat(analyzerConfigurationStorage.read().getSettings().getAll()).containsEntry("key", "other value");
+  }
 }
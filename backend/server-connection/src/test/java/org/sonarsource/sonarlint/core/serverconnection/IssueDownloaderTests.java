@@ -19,8 +19,11 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection;
 
+import com.google.protobuf.Message;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -183,6 +186,45 @@ class IssueDownloaderTests {
     assertThat(((RangeLevelServerIssue) serverIssue).getTextRange().getHash()).isEqualTo("hash");
   }
 
+  @Test
+  void test_stream_many_issues_pull_ws_in_bounded_batches() {
+    var issueCount = 10_000;
+    var batchSize = 100;
+    var messages = new Message[issueCount + 1];
+    messages[0] = Issues.IssuesPullQueryTimestamp.newBuilder().setQueryTimestamp(123L).build();
+    for (var i = 0; i < issueCount; i++) {
+      var location = Location.newBuilder().setMessage("Primary message");
+      // one issue out of 100 is a project level issue
+      if (i % 100 != 0) {
+        location.setFilePath("foo/bar/Hello" + (i % 50) + ".java");
+      }
+      messages[i + 1] = IssueLite.newBuilder()
+        .setKey("uuid" + i)
+        .setRuleKey("sonarjava:S123")
+        .setType(Common.RuleType.BUG)
+        .setMainLocation(location)
+        .setCreationDate(123456789L)
+        .setClosed(i % 10 == 1)
+        .build();
+    }
+    mockServer.addProtobufResponseDelimited("/api/issues/pull?projectKey=" + DUMMY_KEY + "&branchName=myBranch&languages=java", messages);
+    underTest = new IssueDownloader(Set.of(SonarLanguage.JAVA), batchSize);
+    var batchSizes = new ArrayList<Integer>();
+    var changedIssueKeys = new HashSet<String>();
+    var closedIssueKeys = new HashSet<String>();
+
+    var queryTimestamp = underTest.downloadFromPull(serverApi, DUMMY_KEY, "myBranch", Optional.empty(), (changed, closed) -> {
+      batchSizes.add(changed.size() + closed.size());
+      changed.forEach(issue -> changedIssueKeys.add(issue.getKey()));
+      closedIssueKeys.addAll(closed);
+    }, new SonarLintCancelMonitor());
+
+    assertThat(queryTimestamp).isEqualTo(Instant.ofEpochMilli(123L));
+    assertThat(batchSizes).hasSize(99).allMatch(size -> size <= batchSize);
+    assertThat(closedIssueKeys).hasSize(1_000).contains("uuid1").doesNotContain("uuid0", "uuid2");
+    assertThat(changedIssueKeys).hasSize(8_900).contains("uuid2").doesNotContain("uuid0", "uuid1");
+  }
+
   @Test
   void test_download_one_issue_pull_ws_with_user_severity() {
     var timestamp = Issues.IssuesPullQueryTimestamp.newBuilder().setQueryTimestamp(123L).build();
@@ -95,11 +95,12 @@ class ServerIssueUpdaterTests {
     var lastSync = Optional.<Instant>empty();
     when(issueStore.getLastIssueSyncTimestamp("master")).thenReturn(lastSync);
     var cancelMonitor = new SonarLintCancelMonitor();
-    when(downloader.downloadFromPull(serverApi, projectBinding.projectKey(), "master", lastSync, cancelMonitor)).thenReturn(new IssueDownloader.PullResult(queryTimestamp, issues, Set.of()));
+    mockPull(lastSync, cancelMonitor, queryTimestamp, issues);
 
     updater.update(serverApi, projectBinding.projectKey(), "master", cancelMonitor);
 
-    verify(issueStore).mergeIssues(eq("master"), anyList(), anySet(), eq(queryTimestamp), anySet());
+    verify(issueStore).mergeIssues("master", issues, Set.of());
+    verify(issueStore).updateLastIssueSync(eq("master"), eq(queryTimestamp), anySet());
   }
 
   @Test
@@ -113,11 +114,12 @@ class ServerIssueUpdaterTests {
     when(issueStore.getLastIssueSyncTimestamp("master")).thenReturn(lastSync);
     when(downloader.getEnabledLanguages()).thenReturn(Set.of(SonarLanguage.C, SonarLanguage.GO));
     var cancelMonitor = new SonarLintCancelMonitor();
-    when(downloader.downloadFromPull(serverApi, projectBinding.projectKey(), "master", lastSync, cancelMonitor)).thenReturn(new IssueDownloader.PullResult(queryTimestamp, issues, Set.of()));
+    mockPull(lastSync, cancelMonitor, queryTimestamp, issues);
 
     updater.update(serverApi, projectBinding.projectKey(), "master", cancelMonitor);
 
-    verify(issueStore).mergeIssues(eq("master"), anyList(), anySet(), eq(queryTimestamp), anySet());
+    verify(issueStore).mergeIssues("master", issues, Set.of());
+    verify(issueStore).updateLastIssueSync(eq("master"), eq(queryTimestamp), anySet());
   }
 
   @Test
@@ -131,9 +133,9 @@ class ServerIssueUpdaterTests {
     when(issueStore.getLastIssueEnabledLanguages("master")).thenReturn(lastIssueEnabledLanguages);
     when(downloader.getEnabledLanguages()).thenReturn(Set.of(SonarLanguage.C));
     var cancelMonitor = new SonarLintCancelMonitor();
-    when(downloader.downloadFromPull(serverApi, projectBinding.projectKey(), "master", Optional.empty(), cancelMonitor)).thenReturn(new IssueDownloader.PullResult(queryTimestamp, issues, Set.of()));
+    mockPull(Optional.empty(), cancelMonitor, queryTimestamp, issues);
     updater.update(serverApi, projectBinding.projectKey(), "master", cancelMonitor);
-    verify(downloader).downloadFromPull(serverApi, projectBinding.projectKey(), "master", Optional.empty(), cancelMonitor);
+    verify(downloader).downloadFromPull(eq(serverApi), eq(projectBinding.projectKey()), eq("master"), eq(Optional.empty()), any(), eq(cancelMonitor));
   }
 
   @Test
@@ -147,9 +149,9 @@ class ServerIssueUpdaterTests {
     when(issueStore.getLastIssueEnabledLanguages("master")).thenReturn(lastIssueEnabledLanguages);
     when(downloader.getEnabledLanguages()).thenReturn(Set.of(SonarLanguage.C));
     var cancelMonitor = new SonarLintCancelMonitor();
-    when(downloader.downloadFromPull(serverApi, projectBinding.projectKey(), "master", Optional.empty(), cancelMonitor)).thenReturn(new IssueDownloader.PullResult(queryTimestamp, issues, Set.of()));
+    mockPull(Optional.empty(), cancelMonitor, queryTimestamp, issues);
     updater.update(serverApi, projectBinding.projectKey(), "master", cancelMonitor);
-    verify(downloader).downloadFromPull(serverApi, projectBinding.projectKey(), "master", Optional.empty(), cancelMonitor);
+    verify(downloader).downloadFromPull(eq(serverApi), eq(projectBinding.projectKey()), eq("master"), eq(Optional.empty()), any(), eq(cancelMonitor));
   }
 
   @Test
@@ -163,9 +165,9 @@ class ServerIssueUpdaterTests {
     when(issueStore.getLastIssueEnabledLanguages("master")).thenReturn(lastIssueEnabledLanguages);
     when(downloader.getEnabledLanguages()).thenReturn(Set.of(SonarLanguage.C, SonarLanguage.GO));
     var cancelMonitor = new SonarLintCancelMonitor();
-    when(downloader.downloadFromPull(serverApi, projectBinding.projectKey(), "master", lastSync, cancelMonitor)).thenReturn(new IssueDownloader.PullResult(queryTimestamp, issues, Set.of()));
+    mockPull(lastSync, cancelMonitor, queryTimestamp, issues);
     updater.update(serverApi, projectBinding.projectKey(), "master", cancelMonitor);
-    verify(downloader).downloadFromPull(serverApi, projectBinding.projectKey(), "master", lastSync, cancelMonitor);
+    verify(downloader).downloadFromPull(eq(serverApi), eq(projectBinding.projectKey()), eq("master"), eq(lastSync), any(), eq(cancelMonitor));
   }
 
   @Test
@@ -256,4 +258,12 @@ class ServerIssueUpdaterTests {
 
     verify(issueStore, never()).replaceAllIssuesOfFile(eq("branch"), any(), anyList());
   }
+
+  private void mockPull(Optional<Instant> lastSync, SonarLintCancelMonitor cancelMonitor, Instant queryTimestamp, List<ServerIssue<?>> issues) {
+    when(downloader.downloadFromPull(eq(serverApi), eq(projectBinding.projectKey()), eq("master"), eq(lastSync), any(), eq(cancelMonitor))).thenAnswer(invocation -> {
+      IssueDownloader.PullBatchConsumer batchConsumer = invocation.getArgument(4);
+      batchConsumer.accept(issues, Set.of());
+      return queryTimestamp;
+    });
+  }
 }
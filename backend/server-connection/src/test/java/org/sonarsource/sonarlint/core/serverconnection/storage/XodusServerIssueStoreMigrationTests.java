@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
@@ -116,4 +117,46 @@ class XodusServerIssueStoreMigrationTests {
       }
     }
   }
+
+  @Test
+  void should_migrate_v2_to_v3() throws IOException {
+    var filePath = Path.of("file/path");
+    XodusServerIssueStore storeV2 = null;
+    try {
+      // Emulate a file stored before files were indexed by branch and path
+      storeV2 = new XodusServerIssueStore(backupDir, workDir, txn -> {
+        var branch = txn.newEntity("Branch");
+        branch.setProperty("name", "somebranch");
+        var file = txn.newEntity("File");
+        file.setProperty("path", filePath.toString());
+        branch.addLink("files", file);
+      });
+    } finally {
+      if (storeV2 != null) {
+        storeV2.close();
+      }
+    }
+
+    XodusServerIssueStore storeV3 = null;
+    try {
+      storeV3 = new XodusServerIssueStore(backupDir, workDir);
+      storeV3.replaceAllIssuesOfFile("somebranch", filePath, List.of(ServerIssueFixtures.aServerIssue().setFilePath(filePath)));
+      assertThat(storeV3.load("somebranch", filePath)).hasSize(1);
+    } finally {
+      if (storeV3 != null) {
+        storeV3.close();
+      }
+    }
+
+    var fileCount = new AtomicLong();
+    XodusServerIssueStore reopenedStore = null;
+    try {
+      reopenedStore = new XodusServerIssueStore(backupDir, workDir, txn -> fileCount.set(txn.getAll("File").size()));
+      assertThat(fileCount).hasValue(1);
+    } finally {
+      if (reopenedStore != null) {
+        reopenedStore.close();
+      }
+    }
+  }
 }
@@ -98,6 +98,33 @@ class XodusServerIssueStoreTests {
     assertThat(issues).isEmpty();
   }
 
+  @Test
+  void should_load_issues_of_several_files_of_a_branch() {
+    store.replaceAllIssuesOfBranch("branch", List.of(
+      aServerIssue().setKey("key1").setFilePath(Path.of("file1")),
+      aServerIssue().setKey("key2").setFilePath(Path.of("file2")),
+      aServerIssue().setKey("key3").setFilePath(Path.of("FILE1"))));
+    store.replaceAllIssuesOfBranch("otherBranch", List.of(aServerIssue().setKey("key4").setFilePath(Path.of("file2"))));
+
+    var issuesByFile = store.loadForFiles("branch", List.of(Path.of("file1"), Path.of("file2"), Path.of("unknown")));
+
+    assertThat(issuesByFile).containsOnlyKeys(Path.of("file1"), Path.of("file2"), Path.of("unknown"));
+    assertThat(issuesByFile.get(Path.of("file1"))).extracting(ServerIssue::getKey).containsOnly("key1");
+    assertThat(issuesByFile.get(Path.of("file2"))).extracting(ServerIssue::getKey).containsOnly("key2");
+    assertThat(issuesByFile.get(Path.of("unknown"))).isEmpty();
+    assertThat(store.load("otherBranch", Path.of("file2"))).extracting(ServerIssue::getKey).containsOnly("key4");
+  }
+
+  @Test
+  void should_load_hotspots_of_several_files_of_a_branch() {
+    store.replaceAllHotspotsOfBranch("branch", List.of(aServerHotspot("key1", Path.of("file1")), aServerHotspot("key2", Path.of("file2"))));
+
+    var hotspotsByFile = store.loadHotspotsForFiles("branch", List.of(Path.of("file1"), Path.of("file2")));
+
+    assertThat(hotspotsByFile.get(Path.of("file1"))).extracting(ServerHotspot::getKey).containsOnly("key1");
+    assertThat(hotspotsByFile.get(Path.of("file2"))).extracting(ServerHotspot::getKey).containsOnly("key2");
+  }
+
   @Test
   void should_save_a_batch_issue() {
     var creationDate = Instant.now();
@@ -293,6 +320,26 @@ class XodusServerIssueStoreTests {
       .containsOnly(tuple("key1", RuleType.CODE_SMELL), tuple("key2", RuleType.BUG), tuple("key3", RuleType.VULNERABILITY));
   }
 
+  @Test
+  void should_merge_issue_batches_without_moving_last_sync() {
+    store.replaceAllIssuesOfBranch("branch", List.of(
+      aServerIssue().setKey("key1"),
+      aServerIssue().setKey("key2")));
+
+    store.mergeIssues("branch", List.of(aServerIssue().setKey("key3")), Set.of("key1"));
+    store.mergeIssues("branch", List.of(aServerIssue().setKey("key4")), Set.of("key3"));
+
+    assertThat(store.load("branch", filePath))
+      .extracting(ServerIssue::getKey)
+      .containsOnly("key2", "key4");
+    assertThat(store.getLastIssueSyncTimestamp("branch")).isEmpty();
+
+    store.updateLastIssueSync("branch", Instant.ofEpochMilli(123456789), Set.of(SonarLanguage.JAVA));
+
+    assertThat(store.getLastIssueSyncTimestamp("branch")).contains(Instant.ofEpochMilli(123456789));
+    assertThat(store.getLastIssueEnabledLanguages("branch")).containsOnly(SonarLanguage.JAVA);
+  }
+
   @Test
   void should_remove_closed_taints_by_key_when_merging() {
     store.replaceAllTaintsOfBranch("branch", List.of(
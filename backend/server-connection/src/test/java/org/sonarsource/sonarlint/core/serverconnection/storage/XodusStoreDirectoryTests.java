@@ -0,0 +1,150 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import jetbrains.exodus.entitystore.PersistentEntityStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XodusStoreDirectoryTests {
+  @RegisterExtension
+  private static final SonarLintLogTester logTester = new SonarLintLogTester();
+
+  private static final String BACKUP_TAR_GZ = "backup.tar.gz";
+  private static final String STORE_NAME = "xodus-test-store";
+
+  @TempDir
+  Path workDir;
+  @TempDir
+  Path backupDir;
+
+  @Test
+  void should_reopen_large_in_place_database_without_restoring_the_backup() throws IOException {
+    var directory = open(true);
+    var entityStore = directory.openEntityStore();
+    addEntities(entityStore, 10_000);
+    directory.close(entityStore);
+    assertThat(backupDir.resolve(STORE_NAME)).isDirectory();
+    assertThat(backupDir.resolve(BACKUP_TAR_GZ)).isRegularFile();
+    var snapshotTime = Files.getLastModifiedTime(backupDir.resolve(BACKUP_TAR_GZ));
+    logTester.clear();
+
+    directory = open(true);
+    entityStore = directory.openEntityStore();
+
+    assertThat(directory.isInPlace()).isTrue();
+    assertThat(directory.getDbDir()).isEqualTo(backupDir.resolve(STORE_NAME));
+    assertThat(logTester.logs()).noneMatch(log -> log.startsWith("Restoring previous"));
+    assertThat(countEntities(entityStore)).isEqualTo(10_000);
+    addEntities(entityStore, 1);
+    directory.close(entityStore);
+    assertThat(Files.getLastModifiedTime(backupDir.resolve(BACKUP_TAR_GZ))).isEqualTo(snapshotTime);
+  }
+
+  @Test
+  void should_take_a_snapshot_on_close_when_the_previous_one_is_too_old() throws IOException {
+    var directory = open(true);
+    var entityStore = directory.openEntityStore();
+    addEntities(entityStore, 1);
+    directory.close(entityStore);
+    var oldSnapshotTime = FileTime.from(Instant.now().minus(XodusStoreDirectory.SNAPSHOT_INTERVAL).minusSeconds(60));
+    Files.setLastModifiedTime(backupDir.resolve(BACKUP_TAR_GZ), oldSnapshotTime);
+
+    directory = open(true);
+    entityStore = directory.openEntityStore();
+    addEntities(entityStore, 1);
+    directory.close(entityStore);
+
+    assertThat(Files.getLastModifiedTime(backupDir.resolve(BACKUP_TAR_GZ))).isGreaterThan(oldSnapshotTime);
+    var restoredDirectory = XodusStoreDirectory.open(backupDir, BACKUP_TAR_GZ, workDir, "xodus-restored-store", "test", false);
+    var restoredEntityStore = restoredDirectory.openEntityStore();
+    assertThat(countEntities(restoredEntityStore)).isEqualTo(2);
+    restoredDirectory.close(restoredEntityStore);
+  }
+
+  @Test
+  void should_restore_the_backup_when_opening_in_place_for_the_first_time() throws IOException {
+    var directory = open(false);
+    var entityStore = directory.openEntityStore();
+    addEntities(entityStore, 3);
+    directory.close(entityStore);
+    assertThat(backupDir.resolve(STORE_NAME)).doesNotExist();
+
+    directory = open(true);
+    entityStore = directory.openEntityStore();
+
+    assertThat(directory.isInPlace()).isTrue();
+    assertThat(countEntities(entityStore)).isEqualTo(3);
+    directory.close(entityStore);
+  }
+
+  @Test
+  void should_work_on_a_detached_temporary_copy_when_the_in_place_database_is_locked() throws IOException {
+    var directory = open(true);
+    var entityStore = directory.openEntityStore();
+    addEntities(entityStore, 1);
+    directory.backup(entityStore);
+    var snapshotTime = Files.getLastModifiedTime(backupDir.resolve(BACKUP_TAR_GZ));
+
+    var otherDirectory = open(true);
+    var otherEntityStore = otherDirectory.openEntityStore();
+
+    assertThat(otherDirectory.isInPlace()).isFalse();
+    assertThat(otherDirectory.getDbDir()).startsWith(workDir);
+    assertThat(countEntities(otherEntityStore)).isEqualTo(1);
+    addEntities(otherEntityStore, 5);
+    otherDirectory.backup(otherEntityStore);
+    otherDirectory.close(otherEntityStore);
+    assertThat(otherDirectory.getDbDir()).doesNotExist();
+    assertThat(Files.getLastModifiedTime(backupDir.resolve(BACKUP_TAR_GZ))).isEqualTo(snapshotTime);
+    directory.close(entityStore);
+    directory = open(true);
+    entityStore = directory.openEntityStore();
+    assertThat(directory.isInPlace()).isTrue();
+    assertThat(countEntities(entityStore)).isEqualTo(1);
+    directory.close(entityStore);
+  }
+
+  private XodusStoreDirectory open(boolean inPlace) throws IOException {
+    return XodusStoreDirectory.open(backupDir, BACKUP_TAR_GZ, workDir, STORE_NAME, "test", inPlace);
+  }
+
+
+  private static void addEntities(PersistentEntityStore entityStore, int count) {
+    entityStore.executeInTransaction(txn -> {
+      for (var i = 0; i < count; i++) {
+        txn.newEntity("Entity").setProperty("key", "key" + i);
+      }
+    });
+  }
+
+  private static long countEntities(PersistentEntityStore entityStore) {
+    return entityStore.computeInReadonlyTransaction(txn -> txn.getAll("Entity").size());
+  }
+}
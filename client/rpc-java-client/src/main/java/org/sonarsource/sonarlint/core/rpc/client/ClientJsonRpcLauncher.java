@@ -44,6 +44,15 @@ public class ClientJsonRpcLauncher implements Closeable {
   private final ExecutorService requestsExecutor;
 
   public ClientJsonRpcLauncher(InputStream in, OutputStream out, SonarLintRpcClientDelegate clientDelegate) {
+    this(in, out, clientDelegate, false);
+  }
+
+  /**
+   * @param compactEncoding if true, null values are omitted from messages sent to the backend. All backend versions accept it.
+   * To also receive compact messages, declare the {@link org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability#COMPACT_JSON_ENCODING}
+   * capability.
+   */
+  public ClientJsonRpcLauncher(InputStream in, OutputStream out, SonarLintRpcClientDelegate clientDelegate, boolean compactEncoding) {
     messageReaderExecutor = Executors.newCachedThreadPool(r -> {
       var t = new Thread(r);
       t.setName("Client message reader");
@@ -58,6 +67,7 @@ public class ClientJsonRpcLauncher implements Closeable {
     this.requestsExecutor = Executors.newCachedThreadPool(r -> new Thread(r, "SonarLint Client RPC request executor"));
     var client = new SonarLintRpcClientImpl(clientDelegate, requestsExecutor, requestAndNotificationsSequentialExecutor);
     var clientLauncher = new SonarLintLauncherBuilder<SonarLintRpcServer>()
+      .compactEncoding(() -> compactEncoding)
       .setLocalService(client)
       .setRemoteInterface(SonarLintRpcServer.class)
       .setInput(in)
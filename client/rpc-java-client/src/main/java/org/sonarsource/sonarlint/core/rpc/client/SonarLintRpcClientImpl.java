@@ -71,8 +71,10 @@ import org.sonarsource.sonarlint.core.rpc.protocol.client.http.GetProxyPasswordA
 import org.sonarsource.sonarlint.core.rpc.protocol.client.http.SelectProxiesParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.http.SelectProxiesResponse;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.info.GetClientLiveInfoResponse;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesDeltaParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.ShowIssueParams;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogBatchParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogLevel;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.message.ShowMessageParams;
@@ -202,6 +204,11 @@ public class SonarLintRpcClientImpl implements SonarLintRpcClient {
     notify(() -> delegate.log(params));
   }
 
+  @Override
+  public void logBatch(LogBatchParams params) {
+    notify(() -> params.getLogs().forEach(delegate::log));
+  }
+
   @Override
   public void showSoonUnsupportedMessage(ShowSoonUnsupportedMessageParams params) {
     notify(() -> delegate.showSoonUnsupportedMessage(params));
@@ -372,6 +379,11 @@ public class SonarLintRpcClientImpl implements SonarLintRpcClient {
     notify(() -> delegate.raiseIssues(params.getConfigurationScopeId(), params.getIssuesByFileUri(), params.isIntermediatePublication(), params.getAnalysisId()));
   }
 
+  @Override
+  public void raiseIssuesDelta(RaiseIssuesDeltaParams params) {
+    notify(() -> delegate.raiseIssuesDelta(params.getConfigurationScopeId(), params.getDeltaByFileUri(), params.getAnalysisId()));
+  }
+
   @Override
   public void raiseHotspots(RaiseHotspotsParams params) {
     notify(() -> delegate.raiseHotspots(params.getConfigurationScopeId(), params.getHotspotsByFileUri(), params.isIntermediatePublication(), params.getAnalysisId()));
@@ -19,7 +19,9 @@
  */
 package org.sonarsource.sonarlint.core.rpc.protocol;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import java.io.Writer;
 import java.net.URI;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -27,10 +29,12 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.jsonrpc.json.JsonRpcMethod;
 import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
 import org.eclipse.lsp4j.jsonrpc.json.adapters.MessageTypeAdapter;
+import org.eclipse.lsp4j.jsonrpc.messages.Message;
 import org.sonarsource.sonarlint.core.rpc.protocol.adapter.DurationTypeAdapter;
 import org.sonarsource.sonarlint.core.rpc.protocol.adapter.EitherStandardOrMQRModeAdapterFactory;
 import org.sonarsource.sonarlint.core.rpc.protocol.adapter.EitherTypeAdapter;
@@ -45,12 +49,46 @@ import org.sonarsource.sonarlint.core.rpc.protocol.adapter.UuidTypeAdapter;
  */
 public class SonarLintLauncherBuilder<T> extends Launcher.Builder<T> {
 
+  private BooleanSupplier compactEncoding = () -> false;
+
+  /**
+   * When the supplier returns true, null values are omitted from outgoing messages, which makes big payloads noticeably smaller and
+   * faster to serialize. Incoming messages are always accepted in both forms, as missing fields are deserialized as null.
+   */
+  public SonarLintLauncherBuilder<T> compactEncoding(BooleanSupplier compactEncoding) {
+    this.compactEncoding = compactEncoding;
+    return this;
+  }
+
   @Override
   protected MessageJsonHandler createJsonHandler() {
     Map<String, JsonRpcMethod> supportedMethods = getSupportedMethods();
+    var isCompactEncoding = compactEncoding;
     return new MessageJsonHandler(supportedMethods) {
+      private Gson compactGson;
+
       @Override
       public GsonBuilder getDefaultGsonBuilder() {
+        return createGsonBuilder().serializeNulls();
+      }
+
+      @Override
+      public void serialize(Message message, Writer output) {
+        if (isCompactEncoding.getAsBoolean()) {
+          getCompactGson().toJson(message, Message.class, output);
+        } else {
+          super.serialize(message, output);
+        }
+      }
+
+      private synchronized Gson getCompactGson() {
+        if (compactGson == null) {
+          compactGson = createGsonBuilder().create();
+        }
+        return compactGson;
+      }
+
+      private GsonBuilder createGsonBuilder() {
         // We don't want the EnumTypeAdapter from lsp4j, as we want to serialize enums as string (this is the default in Gson)
         return new GsonBuilder()
           .registerTypeAdapterFactory(new EitherTypeAdapter.Factory())
@@ -63,8 +101,7 @@ public class SonarLintLauncherBuilder<T> extends Launcher.Builder<T> {
           .registerTypeHierarchyAdapter(Instant.class, new InstantTypeAdapter())
           .registerTypeHierarchyAdapter(UUID.class, new UuidTypeAdapter())
           .registerTypeHierarchyAdapter(URI.class, new UriTypeAdapter())
-          .registerTypeHierarchyAdapter(Duration.class, new DurationTypeAdapter())
-          .serializeNulls();
+          .registerTypeHierarchyAdapter(Duration.class, new DurationTypeAdapter());
       }
     };
   }
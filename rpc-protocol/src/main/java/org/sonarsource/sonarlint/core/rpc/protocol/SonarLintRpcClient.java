@@ -63,8 +63,10 @@ import org.sonarsource.sonarlint.core.rpc.protocol.client.http.GetProxyPasswordA
 import org.sonarsource.sonarlint.core.rpc.protocol.client.http.SelectProxiesParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.http.SelectProxiesResponse;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.info.GetClientLiveInfoResponse;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesDeltaParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaiseIssuesParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.ShowIssueParams;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogBatchParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.message.ShowMessageParams;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.message.ShowSoonUnsupportedMessageParams;
@@ -111,6 +113,15 @@ public interface SonarLintRpcClient {
   @JsonNotification
   void log(LogParams params);
 
+  /**
+   * Only called when the client declared the {@link org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability#LOG_BATCHING}
+   * capability, in place of {@link #log(LogParams)}. Logs are buffered by the backend and sent a few at a time.
+   */
+  @JsonNotification
+  default void logBatch(LogBatchParams params) {
+    params.getLogs().forEach(this::log);
+  }
+
   /**
    * Display a one-time message to the user as a small notification.
    * The message is informative and a link to the documentation should be available.
@@ -287,6 +298,17 @@ public interface SonarLintRpcClient {
   default void raiseIssues(RaiseIssuesParams params) {
   }
 
+  /**
+   * Only called when the client declared the {@link org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability#ISSUE_STREAMING_DELTAS}
+   * capability, in place of {@link #raiseIssues(RaiseIssuesParams)} for intermediate publications during issue streaming.
+   * The parameters only contain the files for which issues changed since the previous publication. For each of them, clients should remove the issues
+   * with the given IDs, then add the given issues, replacing the ones having the same ID.
+   * The final publication of an analysis is still made with {@link #raiseIssues(RaiseIssuesParams)}, and contains all known issues.
+   */
+  @JsonNotification
+  default void raiseIssuesDelta(RaiseIssuesDeltaParams params) {
+  }
+
   /**
    * Called when clients should update the hotspots list in the UI. This can happen in several situations:
    * <ul>
@@ -73,6 +73,9 @@ public interface AnalysisRpcService {
    * Analyze and track issues in the provided files.
    * Issues will be reported to the client via
    * {@link SonarLintRpcClient#raiseIssues(RaiseIssuesParams)} and {@link SonarLintRpcClient#raiseHotspots(RaiseHotspotsParams)}
+   * The final notifications for the analysis are sent before the returned future completes. When the client declares
+   * {@link org.sonarsource.sonarlint.core.rpc.protocol.backend.initialize.BackendCapability#DEFERRED_FINDINGS_REPORTING}, in connected mode, they can
+   * instead be sent after, once server findings are refreshed. Findings of files already reported by an analysis started later are left out of them.
    */
   @JsonRequest
   CompletableFuture<AnalyzeFilesResponse> analyzeFilesAndTrack(AnalyzeFilesAndTrackParams params);
@@ -30,6 +30,23 @@ public enum BackendCapability {
   TELEMETRY,
   MONITORING,
   ISSUE_STREAMING,
+  /**
+   * Only relevant with {@link #ISSUE_STREAMING}: intermediate publications only contain the issues that changed since the previous one
+   */
+  ISSUE_STREAMING_DELTAS,
   SCA_SYNCHRONIZATION,
   FLIGHT_RECORDER,
+  /**
+   * Logs are sent in batches with {@link org.sonarsource.sonarlint.core.rpc.protocol.SonarLintRpcClient#logBatch}
+   */
+  LOG_BATCHING,
+  /**
+   * The client accepts messages where null values are omitted, the backend will stop sending them after initialization
+   */
+  COMPACT_JSON_ENCODING,
+  /**
+   * In connected mode, the final raiseIssues/raiseHotspots notifications of an analysis can be sent after the analyzeFilesAndTrack request completed,
+   * once the server findings are refreshed. Without it, the request only completes after these notifications were sent.
+   */
+  DEFERRED_FINDINGS_REPORTING,
 }
@@ -0,0 +1,50 @@
+/*
+ * SonarLint Core - RPC Protocol
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.protocol.client.issue;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+public class RaiseIssuesDeltaParams {
+  private final String configurationScopeId;
+  // only files for which issues changed since the previous publication are present
+  private final Map<URI, RaisedIssuesDeltaDto> deltaByFileUri;
+  // the ID that was provided when the analysis was triggered
+  private final UUID analysisId;
+
+  public RaiseIssuesDeltaParams(String configurationScopeId, Map<URI, RaisedIssuesDeltaDto> deltaByFileUri, UUID analysisId) {
+    this.configurationScopeId = configurationScopeId;
+    this.deltaByFileUri = deltaByFileUri;
+    this.analysisId = analysisId;
+  }
+
+  public String getConfigurationScopeId() {
+    return configurationScopeId;
+  }
+
+  public Map<URI, RaisedIssuesDeltaDto> getDeltaByFileUri() {
+    return deltaByFileUri;
+  }
+
+  public UUID getAnalysisId() {
+    return analysisId;
+  }
+}
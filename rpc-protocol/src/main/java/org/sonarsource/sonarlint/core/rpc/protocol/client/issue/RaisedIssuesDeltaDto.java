@@ -0,0 +1,44 @@
+/*
+ * SonarLint Core - RPC Protocol
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.protocol.client.issue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class RaisedIssuesDeltaDto {
+  // issues raised since the previous publication, or issues that were already raised but changed since then, in the order they were raised
+  private final List<RaisedIssueDto> addedOrUpdatedIssues;
+  // IDs of issues that were part of a previous publication for this file, and are not raised anymore
+  private final Set<UUID> removedIssueIds;
+
+  public RaisedIssuesDeltaDto(List<RaisedIssueDto> addedOrUpdatedIssues, Set<UUID> removedIssueIds) {
+    this.addedOrUpdatedIssues = addedOrUpdatedIssues;
+    this.removedIssueIds = removedIssueIds;
+  }
+
+  public List<RaisedIssueDto> getAddedOrUpdatedIssues() {
+    return addedOrUpdatedIssues;
+  }
+
+  public Set<UUID> getRemovedIssueIds() {
+    return removedIssueIds;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * SonarLint Core - RPC Protocol
+ * Copyright (C) 2016-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rpc.protocol;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
+import org.junit.jupiter.api.Test;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogLevel;
+import org.sonarsource.sonarlint.core.rpc.protocol.client.log.LogParams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SonarLintLauncherBuilderTests {
+
+  @Test
+  void it_should_omit_null_values_only_when_compact_encoding_is_enabled() {
+    var compact = new AtomicBoolean(false);
+    var builder = new SonarLintLauncherBuilder<SonarLintRpcClient>().compactEncoding(compact::get);
+    builder.setLocalService(new Object());
+    builder.setRemoteInterface(SonarLintRpcClient.class);
+    var jsonHandler = builder.createJsonHandler();
+    var message = new NotificationMessage();
+    message.setMethod("log");
+    message.setParams(new LogParams(LogLevel.INFO, "message", null, null, Instant.EPOCH));
+
+    var verbose = jsonHandler.serialize(message);
+    compact.set(true);
+    var compacted = jsonHandler.serialize(message);
+
+    assertThat(verbose).contains("\"configScopeId\":null", "\"stackTrace\":null");
+    assertThat(compacted)
+      .doesNotContain("null")
+      .contains("\"message\":\"message\"");
+    assertThat(jsonHandler.parseMessage(compacted)).usingRecursiveComparison().isEqualTo(jsonHandler.parseMessage(verbose));
+  }
+
+  @Test
+  void it_should_keep_null_results_in_compact_responses() {
+    var builder = new SonarLintLauncherBuilder<SonarLintRpcClient>().compactEncoding(() -> true);
+    builder.setLocalService(new Object());
+    builder.setRemoteInterface(SonarLintRpcClient.class);
+    var jsonHandler = builder.createJsonHandler();
+    var response = new ResponseMessage();
+    response.setId("1");
+    response.setResult(null);
+
+    assertThat(jsonHandler.serialize(response)).contains("\"result\":null");
+  }
+}